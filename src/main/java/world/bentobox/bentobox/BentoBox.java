@@ -184,6 +184,7 @@ public class BentoBox extends JavaPlugin {
 
             // Load islands from database - need to wait until all the worlds are loaded
             islandsManager.load();
+            islandsManager.getPresenceTracker().refresh();
 
             // Save islands & players data every X minutes
             Bukkit.getScheduler().runTaskTimer(instance, () -> {
@@ -258,6 +259,11 @@ public class BentoBox extends JavaPlugin {
         manager.registerEvents(new BannedCommands(this), this);
         // Death counter
         manager.registerEvents(new DeathListener(this), this);
+        // Protection decision cache invalidation
+        manager.registerEvents(flagsManager.getDecisionCache(), this);
+        // Online members and moderators on islands
+        manager.registerEvents(islandsManager.getPresenceTracker(), this);
+        manager.registerEvents(islandsManager.getChunkCache(), this);
         // Island Delete Manager
         islandDeletionManager = new IslandDeletionManager(this);
         manager.registerEvents(islandDeletionManager, this);
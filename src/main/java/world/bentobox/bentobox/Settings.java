@@ -51,11 +51,12 @@ public class Settings implements ConfigObject {
     private boolean useEconomy = true;
 
     // Database
-    @ConfigComment("JSON, MYSQL, MARIADB, MONGODB, SQLITE, POSTGRESQL and YAML(deprecated).")
+    @ConfigComment("JSON, PACKED, MYSQL, MARIADB, MONGODB, SQLITE, POSTGRESQL and YAML(deprecated).")
     @ConfigComment("Transition database options are:")
     @ConfigComment("  YAML2JSON, YAML2MARIADB, YAML2MYSQL, YAML2MONGODB, YAML2SQLITE")
     @ConfigComment("  JSON2MARIADB, JSON2MYSQL, JSON2MONGODB, JSON2SQLITE, JSON2POSTGRESQL")
     @ConfigComment("  MYSQL2JSON, MARIADB2JSON, MONGODB2JSON, SQLITE2JSON, POSTGRESQL2JSON")
+    @ConfigComment("  JSON2PACKED, YAML2PACKED, PACKED2JSON")
     @ConfigComment("If you need others, please make a feature request.")
     @ConfigComment("Minimum required versions:")
     @ConfigComment("   MySQL versions 5.7 or later")
@@ -65,6 +66,8 @@ public class Settings implements ConfigObject {
     @ConfigComment("   PostgreSQL versions 9.4 or later")
     @ConfigComment("Transition options enable migration from one database type to another. Use /bbox migrate.")
     @ConfigComment("YAML and JSON are file-based databases.")
+    @ConfigComment("PACKED is a file-based database that keeps all the objects of a type in one file. It is faster than JSON")
+    @ConfigComment("for large servers. Its files cannot be edited by hand, so use PACKED2JSON to get JSON files back if needed.")
     @ConfigComment("MYSQL might not work with all implementations: if available, use a dedicated database type (e.g. MARIADB).")
     @ConfigComment("If you use MONGODB, you must also run the BSBMongo plugin (not addon).")
     @ConfigComment("See https://github.com/tastybento/bsbMongo/releases/.")
@@ -103,6 +106,23 @@ public class Settings implements ConfigObject {
     @ConfigEntry(path = "general.database.prefix-character", since = "1.13.0")
     private String databasePrefix = "";
 
+    @ConfigComment("How often, in milliseconds, saves and deletions are written to the database.")
+    @ConfigComment("If an island or player is saved several times in this time, it is only written once.")
+    @ConfigComment("Everything that is waiting is always written when the server stops.")
+    @ConfigEntry(path = "general.database.write-interval", since = "1.13.0")
+    private int databaseWriteInterval = 100;
+
+    @ConfigComment("Maximum number of saves and deletions written in one go.")
+    @ConfigEntry(path = "general.database.write-batch-size", since = "1.13.0")
+    private int databaseWriteBatchSize = 500;
+
+    @ConfigComment("Maximum number of offline players to keep in memory, e.g., island owners looked up for placeholders.")
+    @ConfigComment("When there are more, the players least recently used are saved and dropped from memory.")
+    @ConfigComment("Offline players are also dropped from memory when they are saved by the backup.")
+    @ConfigComment("Online players are always kept in memory. Set to 0 for no limit.")
+    @ConfigEntry(path = "general.database.player-cache-size", since = "1.13.0")
+    private int playerCacheSize = 1000;
+
     @ConfigComment("Allow FTB Autonomous Activator to work (will allow a pseudo player [CoFH] to place and break blocks and hang items)")
     @ConfigComment("Add other fake player names here if required")
     @ConfigEntry(path = "general.fakeplayers", experimental = true)
@@ -199,20 +219,45 @@ public class Settings implements ConfigObject {
     @ConfigEntry(path = "island.clear-radius", since = "1.6.0")
     private int clearRadius = 5;
 
-    @ConfigComment("Number of blocks to paste per tick when pasting blueprints.")
-    @ConfigComment("Smaller values will help reduce noticeable lag but will make pasting take slightly longer.")
-    @ConfigComment("On the contrary, greater values will make pasting take less time, but this benefit is quickly severely impacted by the")
-    @ConfigComment("resulting amount of chunks that must be loaded to fulfill the process, which often causes the server to hang out.")
+    @ConfigComment("Number of blocks to copy per tick when copying blueprints to the clipboard.")
+    @ConfigComment("It is also used to estimate how long pasting takes until a blueprint has been pasted.")
+    @ConfigComment("Smaller values will help reduce noticeable lag but will make copying take slightly longer.")
     @ConfigEntry(path = "island.paste-speed")
     private int pasteSpeed = 64;
 
-    @ConfigComment("Island deletion: Number of chunks per world to regenerate per second.")
-    @ConfigComment("If there is a nether and end then 3x this number will be regenerated per second.")
-    @ConfigComment("Smaller values will help reduce noticeable lag but will make deleting take longer.")
-    @ConfigComment("A setting of 0 will leave island blocks (not recommended).")
+    @ConfigComment("Longest time in milliseconds to spend pasting blueprints in each tick.")
+    @ConfigComment("Time spent deleting islands in the same tick counts towards it, and it is cut down when the server is not keeping up.")
+    @ConfigComment("Smaller values will help reduce noticeable lag but will make pasting take longer.")
+    @ConfigEntry(path = "island.paste-tick-budget", since = "1.13.0")
+    private int pasteTickBudget = 10;
+
+    @ConfigComment("Save blueprints in the compact format, which is much smaller and quicker to load than zipped JSON.")
+    @ConfigComment("Blueprints in either format can be loaded, and are converted to the format chosen here when they are loaded.")
+    @ConfigComment("Set this to false before going back to a version of BentoBox that cannot load compact blueprints.")
+    @ConfigEntry(path = "island.compact-blueprints", since = "1.13.0")
+    private boolean compactBlueprints = true;
+
+    @ConfigComment("Island deletion: A setting of 0 will leave island blocks (not recommended).")
+    @ConfigComment("Any other value regenerates the chunks of deleted islands within the time set by delete-tick-budget.")
     @ConfigEntry(path = "island.delete-speed", since = "1.7.0")
     private int deleteSpeed = 1;
 
+    @ConfigComment("Island deletion: Longest time in milliseconds to spend regenerating island chunks in each tick.")
+    @ConfigComment("Time spent pasting blueprints in the same tick counts towards it, and it is cut down when the server is not keeping up.")
+    @ConfigComment("Smaller values will help reduce noticeable lag but will make deleting take longer.")
+    @ConfigEntry(path = "island.delete-tick-budget", since = "1.13.0")
+    private int deleteTickBudget = 10;
+
+    @ConfigComment("Purging: number of islands that may be having their chunks deleted at the same time during a purge.")
+    @ConfigComment("They take turns within delete-tick-budget, so greater values overlap more chunk loading but do not make ticks longer.")
+    @ConfigEntry(path = "island.purge.concurrent-deletions", since = "1.13.0")
+    private int purgeConcurrentDeletions = 4;
+
+    @ConfigComment("Purging: longest time in milliseconds to spend starting island deletions in each tick.")
+    @ConfigComment("At least one island deletion is started in each tick if there is room for it.")
+    @ConfigEntry(path = "island.purge.tick-budget", since = "1.13.0")
+    private int purgeTickBudget = 5;
+
     // Automated ownership transfer
     @ConfigComment("Toggles the automated ownership transfer.")
     @ConfigComment("It automatically transfers the ownership of an island to one of its members in case the current owner is inactive.")
@@ -244,6 +289,14 @@ public class Settings implements ConfigObject {
 	@ConfigEntry(path = "island.deletion.keep-previous-island-on-reset", since = "1.13.0")
 	private boolean keepPreviousIslandOnReset = false;
 
+    @ConfigComment("Time in milliseconds that the result of a player's protection check on an island is remembered.")
+    @ConfigComment("Repeated actions by the same player on the same island, e.g. breaking blocks quickly, are then resolved")
+    @ConfigComment("without checking ranks and permissions again. Flag, rank and team changes clear it immediately, but")
+    @ConfigComment("permission changes made through a permissions plugin only apply once it expires.")
+    @ConfigComment("Set to 0 to disable.")
+    @ConfigEntry(path = "island.protection-cache-time", since = "1.13.0")
+    private int protectionCacheTime = 2000;
+
     /* WEB */
     @ConfigComment("Toggle whether BentoBox can connect to GitHub to get data about updates and addons.")
     @ConfigComment("Disabling this will result in the deactivation of the update checker and of some other")
@@ -506,6 +559,86 @@ public class Settings implements ConfigObject {
         this.deleteSpeed = deleteSpeed;
     }
 
+    /**
+     * @return the time in milliseconds that may be spent pasting blueprints in each tick
+     * @since 1.13.0
+     */
+    public int getPasteTickBudget() {
+        return pasteTickBudget;
+    }
+
+    /**
+     * @param pasteTickBudget the pasteTickBudget to set
+     * @since 1.13.0
+     */
+    public void setPasteTickBudget(int pasteTickBudget) {
+        this.pasteTickBudget = pasteTickBudget;
+    }
+
+    /**
+     * @return true if blueprints are saved in the compact format
+     * @since 1.13.0
+     */
+    public boolean isCompactBlueprints() {
+        return compactBlueprints;
+    }
+
+    /**
+     * @param compactBlueprints the compactBlueprints to set
+     * @since 1.13.0
+     */
+    public void setCompactBlueprints(boolean compactBlueprints) {
+        this.compactBlueprints = compactBlueprints;
+    }
+
+    /**
+     * @return the time in milliseconds that may be spent regenerating island chunks in each tick
+     * @since 1.13.0
+     */
+    public int getDeleteTickBudget() {
+        return deleteTickBudget;
+    }
+
+    /**
+     * @param deleteTickBudget the deleteTickBudget to set
+     * @since 1.13.0
+     */
+    public void setDeleteTickBudget(int deleteTickBudget) {
+        this.deleteTickBudget = deleteTickBudget;
+    }
+
+    /**
+     * @return the number of islands that may be having their chunks deleted at the same time during a purge
+     * @since 1.13.0
+     */
+    public int getPurgeConcurrentDeletions() {
+        return purgeConcurrentDeletions;
+    }
+
+    /**
+     * @param purgeConcurrentDeletions the purgeConcurrentDeletions to set
+     * @since 1.13.0
+     */
+    public void setPurgeConcurrentDeletions(int purgeConcurrentDeletions) {
+        this.purgeConcurrentDeletions = purgeConcurrentDeletions;
+    }
+
+    /**
+     * @return the time in milliseconds that may be spent starting island deletions in each tick during a purge
+     * @since 1.13.0
+     */
+    public int getPurgeTickBudget() {
+        return purgeTickBudget;
+    }
+
+    /**
+     * @param purgeTickBudget the purgeTickBudget to set
+     * @since 1.13.0
+     */
+    public void setPurgeTickBudget(int purgeTickBudget) {
+        this.purgeTickBudget = purgeTickBudget;
+    }
+
     public boolean isEnableAutoOwnershipTransfer() {
         return enableAutoOwnershipTransfer;
     }
@@ -644,6 +777,54 @@ public class Settings implements ConfigObject {
         this.databasePrefix = databasePrefix;
     }
 
+    /**
+     * @return how often queued database writes are done, in milliseconds
+     * @since 1.13.0
+     */
+    public int getDatabaseWriteInterval() {
+        return databaseWriteInterval;
+    }
+
+    /**
+     * @param databaseWriteInterval how often queued database writes are done, in milliseconds
+     * @since 1.13.0
+     */
+    public void setDatabaseWriteInterval(int databaseWriteInterval) {
+        this.databaseWriteInterval = databaseWriteInterval;
+    }
+
+    /**
+     * @return maximum number of queued database writes done in one batch
+     * @since 1.13.0
+     */
+    public int getDatabaseWriteBatchSize() {
+        return databaseWriteBatchSize;
+    }
+
+    /**
+     * @param databaseWriteBatchSize maximum number of queued database writes done in one batch
+     * @since 1.13.0
+     */
+    public void setDatabaseWriteBatchSize(int databaseWriteBatchSize) {
+        this.databaseWriteBatchSize = databaseWriteBatchSize;
+    }
+
+    /**
+     * @return maximum number of offline players kept in memory, or 0 for no limit
+     * @since 1.13.0
+     */
+    public int getPlayerCacheSize() {
+        return playerCacheSize;
+    }
+
+    /**
+     * @param playerCacheSize maximum number of offline players kept in memory, or 0 for no limit
+     * @since 1.13.0
+     */
+    public void setPlayerCacheSize(int playerCacheSize) {
+        this.playerCacheSize = playerCacheSize;
+    }
+
 	/**
 	 * Returns whether islands, when reset, should be kept or deleted.
 	 * @return {@code true} if islands, when reset, should be kept; {@code false} otherwise.
@@ -661,4 +842,20 @@ public class Settings implements ConfigObject {
 	public void setKeepPreviousIslandOnReset(boolean keepPreviousIslandOnReset) {
 		this.keepPreviousIslandOnReset = keepPreviousIslandOnReset;
 	}
+
+    /**
+     * @return the time in milliseconds that protection check results are cached, 0 if disabled
+     * @since 1.13.0
+     */
+    public int getProtectionCacheTime() {
+        return protectionCacheTime;
+    }
+
+    /**
+     * @param protectionCacheTime the time in milliseconds that protection check results are cached, 0 to disable
+     * @since 1.13.0
+     */
+    public void setProtectionCacheTime(int protectionCacheTime) {
+        this.protectionCacheTime = protectionCacheTime;
+    }
 }
@@ -1,30 +1,44 @@
 package world.bentobox.bentobox.api.commands.admin.purge;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.scheduler.BukkitTask;
 
 import world.bentobox.bentobox.api.commands.CompositeCommand;
+import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
 import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
 import world.bentobox.bentobox.api.localization.TextVariables;
 import world.bentobox.bentobox.api.user.User;
+import world.bentobox.bentobox.database.Database;
 import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
 
 public class AdminPurgeCommand extends CompositeCommand implements Listener {
 
-    private int count;
-    private boolean inPurge;
     private boolean toBeConfirmed;
-    private Iterator<String> it;
     private User user;
     private Set<String> islands = new HashSet<>();
+    private IslandPurger purger;
+    private Database<PurgeProgress> handler;
+    /**
+     * Task looking up the last login times of the owners of the islands, if a search is going on
+     */
+    private BukkitTask lookUpTask;
 
     public AdminPurgeCommand(CompositeCommand parent) {
         super(parent, "purge");
@@ -45,7 +59,7 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
 
     @Override
     public boolean canExecute(User user, String label, List<String> args) {
-        if (inPurge) {
+        if (isInPurge()) {
             user.sendMessage("commands.admin.purge.purge-in-progress", TextVariables.LABEL, this.getTopLabel());
             return false;
         }
@@ -67,81 +81,158 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
         toBeConfirmed = false;
         islands.clear();
         this.user = user;
+        int days;
         try {
-            Integer days = Integer.parseInt(args.get(0));
-            if (days < 1) {
-                user.sendMessage("commands.admin.purge.days-one-or-more");
-                return false;
+            days = Integer.parseInt(args.get(0));
+        } catch(NumberFormatException e) {
+            user.sendMessage("commands.admin.purge.number-error");
+            return false;
+        }
+        if (days < 1) {
+            user.sendMessage("commands.admin.purge.days-one-or-more");
+            return false;
+        }
+        findOldIslands(days, found -> {
+            // Another search may have been started since
+            if (this.user != user) {
+                return;
             }
-            islands = getOldIslands(days);
+            islands = found;
             user.sendMessage("commands.admin.purge.purgable-islands", TextVariables.NUMBER, String.valueOf(islands.size()));
             if (!islands.isEmpty()) {
                 toBeConfirmed = true;
                 user.sendMessage("commands.admin.purge.confirm", TextVariables.LABEL, this.getTopLabel());
-                return false;
             }
-        } catch(Exception e) {
-            user.sendMessage("commands.admin.purge.number-error");
-            return false;
-        }
+        });
         return true;
     }
 
     void removeIslands() {
-        inPurge = true;
+        toBeConfirmed = false;
         user.sendMessage("commands.admin.purge.see-console-for-status", TextVariables.LABEL, this.getTopLabel());
-        it = islands.iterator();
-        count = 0;
-        // Delete first island
-        deleteIsland();
-    }
-
-    private void deleteIsland() {
-        if (it.hasNext()) {
-            getIslands().getIslandById(it.next()).ifPresent(i -> {
-                getIslands().deleteIsland(i, true, null);
-                count++;
-                String percentage = String.format("%.1f", (((float) count)/getPurgeableIslandsCount() * 100));
-                getPlugin().log(count + " islands purged out of " + getPurgeableIslandsCount() + " (" + percentage + " %)");
-            });
-        } else {
-            user.sendMessage("commands.admin.purge.completed");
-            inPurge = false;
-        }
+        startPurge(new PurgeProgress(getWorld().getName(), new ArrayList<>(islands)));
+    }
 
+    private void startPurge(PurgeProgress progress) {
+        purger = new IslandPurger(getPlugin(), getHandler(), progress, () -> {
+            purger = null;
+            user.sendMessage("commands.admin.purge.completed");
+        });
+        purger.start();
     }
 
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     void onIslandDeleted(IslandDeletedEvent e) {
-        if (inPurge) {
-            deleteIsland();
+        if (purger != null) {
+            purger.onIslandDeleted(e);
+        }
+    }
+
+    /**
+     * Carries on with a purge that was going on when the server stopped
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.NORMAL)
+    void onBentoBoxReady(BentoBoxReadyEvent e) {
+        if (isInPurge() || getWorld() == null || !getHandler().objectExists(getWorld().getName())) {
+            return;
+        }
+        PurgeProgress progress = getHandler().loadObject(getWorld().getName());
+        if (progress != null) {
+            getPlugin().log("Carrying on with the purge of " + getWorld().getName() + ": " + progress.getIslands().size()
+                    + " islands still to purge.");
+            user = User.getInstance(Bukkit.getConsoleSender());
+            startPurge(progress);
         }
     }
 
-    Set<String> getOldIslands(int days) {
-        return getPlugin().getIslands().getIslands().stream()
+    /**
+     * Finds the islands in this world whose owner has not played for a number of days.
+     * The owners' last login times are looked up in the main thread, because the server may have to read
+     * the data file of each player to get them. This is spread over as many ticks as needed, spending
+     * up to {@link world.bentobox.bentobox.Settings#getPurgeTickBudget()} milliseconds per tick.
+     * The islands are then picked in another thread.
+     * @param days - days since the owner last played
+     * @param callback - called in the main thread with the unique ids of the islands found
+     */
+    void findOldIslands(int days, Consumer<Set<String>> callback) {
+        // Owner of each island that may be purged
+        Map<String, UUID> owners = getPlugin().getIslands().getIslands().stream()
                 .filter(i -> !i.isSpawn())
                 .filter(i -> !i.getPurgeProtected())
                 .filter(i -> i.getWorld().equals(this.getWorld()))
                 .filter(Island::isOwned)
                 .filter(i -> i.getMembers().size() == 1)
-                .filter(i -> (System.currentTimeMillis() - Bukkit.getOfflinePlayer(i.getOwner()).getLastPlayed()) > days * 1000 * 24 * 3600)
-                .map(Island::getUniqueId)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toMap(Island::getUniqueId, Island::getOwner));
+        long oldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days);
+        // Look up each owner once
+        Deque<UUID> toLookUp = new ArrayDeque<>(new HashSet<>(owners.values()));
+        Map<UUID, Long> lastPlayed = new HashMap<>();
+        // Only one search at a time
+        cancelLookUp();
+        Runnable tick = () -> {
+            if (lookUpLastPlayed(toLookUp, lastPlayed)) {
+                cancelLookUp();
+                Bukkit.getScheduler().runTaskAsynchronously(getPlugin(), () -> {
+                    Set<String> found = owners.entrySet().stream()
+                            .filter(en -> lastPlayed.get(en.getValue()) < oldest)
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toSet());
+                    Bukkit.getScheduler().runTask(getPlugin(), () -> callback.accept(found));
+                });
+            }
+        };
+        tick.run();
+        if (!toLookUp.isEmpty()) {
+            lookUpTask = Bukkit.getScheduler().runTaskTimer(getPlugin(), tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Looks up the last login times of owners until the time budget of this tick has been spent
+     * @param toLookUp - owners still to look up
+     * @param lastPlayed - last login time of each owner looked up
+     * @return true if every owner has been looked up
+     */
+    private boolean lookUpLastPlayed(Deque<UUID> toLookUp, Map<UUID, Long> lastPlayed) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getSettings().getPurgeTickBudget());
+        int done = 0;
+        while (!toLookUp.isEmpty() && (done++ == 0 || System.nanoTime() < deadline)) {
+            UUID uuid = toLookUp.poll();
+            lastPlayed.put(uuid, Bukkit.getOfflinePlayer(uuid).getLastPlayed());
+        }
+        return toLookUp.isEmpty();
+    }
+
+    private void cancelLookUp() {
+        if (lookUpTask != null) {
+            lookUpTask.cancel();
+            lookUpTask = null;
+        }
+    }
+
+    private Database<PurgeProgress> getHandler() {
+        if (handler == null) {
+            handler = new Database<>(getPlugin(), PurgeProgress.class);
+        }
+        return handler;
     }
 
     /**
      * @return the inPurge
      */
     boolean isInPurge() {
-        return inPurge;
+        return purger != null && purger.isRunning();
     }
 
     /**
      * Stop the purge
      */
     void stop() {
-        inPurge = false;
+        if (purger != null) {
+            purger.stop();
+            purger = null;
+        }
     }
 
     /**
@@ -164,7 +255,7 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
      * @since 1.13.0
      */
     int getPurgedIslandsCount() {
-        return this.count;
+        return purger == null ? 0 : purger.getPurged();
     }
 
     /**
@@ -173,6 +264,14 @@ public class AdminPurgeCommand extends CompositeCommand implements Listener {
      * @since 1.13.0
      */
     int getPurgeableIslandsCount() {
-        return this.islands.size();
+        return purger == null ? islands.size() : purger.getTotal();
+    }
+
+    /**
+     * @return the purge that is going on, or null if there is none
+     * @since 1.13.0
+     */
+    IslandPurger getPurger() {
+        return purger;
     }
 }
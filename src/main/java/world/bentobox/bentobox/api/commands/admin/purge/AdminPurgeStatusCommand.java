@@ -41,6 +41,12 @@ public class AdminPurgeStatusCommand extends CompositeCommand {
                     "[purged]", String.valueOf(purged),
                     "[purgeable]", String.valueOf(purgeable),
                     "[percentage]", String.format("%.1f", (((float) purged)/purgeable) * 100));
+            IslandPurger purger = parentCommand.getPurger();
+            long minutesLeft = purger.getMinutesLeft();
+            user.sendMessage("commands.admin.purge.status.throughput",
+                    "[deleting]", String.valueOf(purger.getDeleting()),
+                    "[rate]", String.format("%.1f", purger.getRate()),
+                    "[minutes]", minutesLeft < 0 ? "?" : String.valueOf(minutesLeft));
         } else {
             user.sendMessage("commands.admin.purge.no-purge-in-progress");
         }
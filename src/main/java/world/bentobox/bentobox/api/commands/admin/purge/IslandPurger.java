@@ -0,0 +1,203 @@
+package world.bentobox.bentobox.api.commands.admin.purge;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.NonNull;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
+import world.bentobox.bentobox.database.Database;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
+
+/**
+ * Deletes the islands of a purge, several at a time.
+ * <p>
+ * Every tick, island deletions are started until {@link world.bentobox.bentobox.Settings#getPurgeConcurrentDeletions()}
+ * islands are having their chunks deleted, or until {@link world.bentobox.bentobox.Settings#getPurgeTickBudget()}
+ * milliseconds have been spent. The islands still to do are saved every now and then as a {@link PurgeProgress},
+ * so that the purge can carry on after a restart.
+ * @author tastybento
+ * @since 1.13.0
+ */
+class IslandPurger {
+
+    /**
+     * Time between saves of the progress. Islands purged since the last save are just skipped when a purge
+     * carries on after a crash, because they are not in the cache anymore.
+     */
+    private static final long SAVE_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+
+    private final BentoBox plugin;
+    private final Database<PurgeProgress> handler;
+    private final PurgeProgress progress;
+    private final Runnable onCompletion;
+    private final Deque<String> toPurge;
+    /**
+     * Centers of the islands whose chunks are being deleted
+     */
+    private final Set<Location> deleting = new HashSet<>();
+    private BukkitTask task;
+    private long startTime;
+    private int purgedSinceStart;
+    private long lastSave;
+    private boolean running;
+
+    /**
+     * @param plugin - plugin
+     * @param handler - database to save the progress in
+     * @param progress - the islands to purge
+     * @param onCompletion - run when every island has been purged
+     */
+    IslandPurger(@NonNull BentoBox plugin, @NonNull Database<PurgeProgress> handler, @NonNull PurgeProgress progress, @NonNull Runnable onCompletion) {
+        this.plugin = plugin;
+        this.handler = handler;
+        this.progress = progress;
+        this.onCompletion = onCompletion;
+        this.toPurge = new ArrayDeque<>(progress.getIslands());
+    }
+
+    /**
+     * Starts purging
+     */
+    void start() {
+        running = true;
+        startTime = System.currentTimeMillis();
+        save();
+        tick();
+        if (running) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Stops purging. The islands that are having their chunks deleted carry on being deleted.
+     */
+    void stop() {
+        if (running) {
+            running = false;
+            cancel();
+        }
+    }
+
+    void tick() {
+        if (!running) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plugin.getSettings().getPurgeTickBudget());
+        int maxDeleting = Math.max(1, plugin.getSettings().getPurgeConcurrentDeletions());
+        int started = 0;
+        while (deleting.size() < maxDeleting && !toPurge.isEmpty() && (started++ == 0 || System.nanoTime() < deadline)) {
+            plugin.getIslands().getIslandById(toPurge.poll()).ifPresent(this::purge);
+        }
+        if (toPurge.isEmpty() && deleting.isEmpty()) {
+            running = false;
+            cancel();
+            onCompletion.run();
+        } else if (System.currentTimeMillis() - lastSave >= SAVE_INTERVAL) {
+            save();
+        }
+    }
+
+    private void purge(Island island) {
+        Location center = island.getCenter();
+        plugin.getIslands().deleteIsland(island, true, null);
+        progress.setPurged(progress.getPurged() + 1);
+        purgedSinceStart++;
+        // The deletion may have been cancelled. A delete speed of 0 leaves the blocks, so the deletion is already over.
+        if (island.isDeleted() && plugin.getSettings().getDeleteSpeed() > 0) {
+            deleting.add(center);
+        }
+        String percentage = String.format("%.1f", getPercentage());
+        plugin.log(progress.getPurged() + " islands purged out of " + progress.getTotal() + " (" + percentage + " %)");
+    }
+
+    /**
+     * Lets another island be deleted when one has finished
+     * @param e - event
+     */
+    void onIslandDeleted(IslandDeletedEvent e) {
+        if (e.getDeletedIslandInfo() != null && deleting.remove(e.getDeletedIslandInfo().getLocation())) {
+            tick();
+        }
+    }
+
+    private void save() {
+        progress.setIslands(new ArrayList<>(toPurge));
+        handler.saveObject(progress);
+        lastSave = System.currentTimeMillis();
+    }
+
+    private void cancel() {
+        if (task != null) {
+            task.cancel();
+        }
+        handler.deleteID(progress.getUniqueId());
+    }
+
+    /**
+     * @return true if the purge has been started and has not finished or been stopped
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return the number of islands purged so far, including before a restart
+     */
+    int getPurged() {
+        return progress.getPurged();
+    }
+
+    /**
+     * @return the number of islands there were to purge
+     */
+    int getTotal() {
+        return progress.getTotal();
+    }
+
+    /**
+     * @return percentage of the islands purged
+     */
+    float getPercentage() {
+        return progress.getTotal() == 0 ? 100F : ((float) progress.getPurged()) / progress.getTotal() * 100;
+    }
+
+    /**
+     * @return the number of islands whose chunks are being deleted
+     */
+    int getDeleting() {
+        return deleting.size();
+    }
+
+    /**
+     * @return the number of islands that have not been started yet
+     */
+    int getRemaining() {
+        return toPurge.size();
+    }
+
+    /**
+     * @return islands purged per minute since the purge was started or carried on
+     */
+    double getRate() {
+        long elapsed = Math.max(1L, System.currentTimeMillis() - startTime);
+        return purgedSinceStart * (double) TimeUnit.MINUTES.toMillis(1) / elapsed;
+    }
+
+    /**
+     * @return estimated number of minutes until all the islands have been purged, or -1 if it is not known yet
+     */
+    long getMinutesLeft() {
+        double rate = getRate();
+        return rate <= 0 ? -1 : (long) Math.ceil((toPurge.size() + deleting.size()) / rate);
+    }
+}
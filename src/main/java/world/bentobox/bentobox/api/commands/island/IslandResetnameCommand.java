@@ -37,7 +37,7 @@ public class IslandResetnameCommand extends CompositeCommand {
             return false;
         }
         // Resets the island name
-        getIslands().getIsland(getWorld(), playerUUID).setName(null);
+        getIslands().setIslandName(getIslands().getIsland(getWorld(), playerUUID), null);
 
         user.sendMessage("commands.island.resetname.success");
         return true;
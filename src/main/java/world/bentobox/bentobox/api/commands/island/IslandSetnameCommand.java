@@ -71,7 +71,7 @@ public class IslandSetnameCommand extends CompositeCommand {
         }
 
         // Everything's good!
-        getIslands().getIsland(getWorld(), playerUUID).setName(name);
+        getIslands().setIslandName(getIslands().getIsland(getWorld(), playerUUID), name);
         user.sendMessage("commands.island.setname.success", TextVariables.NAME, name);
         return true;
     }
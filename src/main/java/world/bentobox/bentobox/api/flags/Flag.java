@@ -1,8 +1,10 @@
 package world.bentobox.bentobox.api.flags;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -131,6 +133,16 @@ public class Flag implements Comparable<Flag> {
     private final Addon addon;
     private final int cooldown;
     private final Mode mode;
+    /**
+     * Bypass permission nodes of this flag, keyed by game mode permission prefix (trailing dot included).
+     * Index 0 is the "everywhere" node, index 1 the "island" node.
+     */
+    private final Map<String, String[]> bypassPermissions = new ConcurrentHashMap<>();
+    /**
+     * Index given to this flag by the {@link world.bentobox.bentobox.managers.FlagsManager}, starting at 1.
+     * 0 means the flag has not been registered.
+     */
+    private int ordinal;
 
     private Flag(Builder builder) {
         this.id = builder.id;
@@ -161,6 +173,64 @@ public class Flag implements Comparable<Flag> {
         return Optional.ofNullable(listener);
     }
 
+    /**
+     * Builds the bypass permission nodes of this flag for a game mode so that they do not have to be
+     * made every time they are checked.
+     * @param permissionPrefix - game mode permission prefix, trailing dot included
+     * @since 1.13.0
+     */
+    public void addBypassPermissions(@NonNull String permissionPrefix) {
+        bypassPermissions.computeIfAbsent(permissionPrefix, p -> new String[] {
+                (p + "mod.bypass." + id + ".everywhere").intern(),
+                (p + "mod.bypass." + id + ".island").intern()
+        });
+    }
+
+    /**
+     * Get the permission that lets a player bypass this flag everywhere in a game mode
+     * @param permissionPrefix - game mode permission prefix, trailing dot included
+     * @return permission node, or null if {@link #addBypassPermissions(String)} was not called for this prefix
+     * @since 1.13.0
+     */
+    @Nullable
+    public String getBypassEverywherePermission(@NonNull String permissionPrefix) {
+        String[] nodes = bypassPermissions.get(permissionPrefix);
+        return nodes == null ? null : nodes[0];
+    }
+
+    /**
+     * Get the permission that lets a player bypass this flag on islands in a game mode
+     * @param permissionPrefix - game mode permission prefix, trailing dot included
+     * @return permission node, or null if {@link #addBypassPermissions(String)} was not called for this prefix
+     * @since 1.13.0
+     */
+    @Nullable
+    public String getBypassIslandPermission(@NonNull String permissionPrefix) {
+        String[] nodes = bypassPermissions.get(permissionPrefix);
+        return nodes == null ? null : nodes[1];
+    }
+
+    /**
+     * Get the index of this flag among all the flags registered with the
+     * {@link world.bentobox.bentobox.managers.FlagsManager}. Ordinals are dense, start at 1 and are
+     * shared by flags with the same ID, so they can be used to index arrays.
+     * @return ordinal, or 0 if this flag has not been registered
+     * @since 1.13.0
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Sets the ordinal of this flag. This is done by the {@link world.bentobox.bentobox.managers.FlagsManager}
+     * when the flag is registered and should not be called by anything else.
+     * @param ordinal - ordinal, starting at 1
+     * @since 1.13.0
+     */
+    public void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+    }
+
     /**
      * @return the cooldown
      */
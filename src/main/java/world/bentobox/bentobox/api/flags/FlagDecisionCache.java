@@ -0,0 +1,178 @@
+package world.bentobox.bentobox.api.flags;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.events.IslandBaseEvent;
+import world.bentobox.bentobox.api.events.flags.FlagChangeEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandEnterEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandExitEvent;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Remembers the player-dependent part of {@link FlagListener#checkIsland} decisions, i.e., bypass permissions
+ * and island rank checks, so that repeated actions by a player on the same island do not redo them.
+ * <p>
+ * Each player has one entry for the island (or world, if there is no island) they last acted on.
+ * Entries are dropped when the player acts somewhere else, when the flags or ranks of the island change
+ * (see {@link Island#getChanges()}), when they expire (see {@link world.bentobox.bentobox.Settings#getProtectionCacheTime()}),
+ * and on flag change and island events.
+ * <p>
+ * This class is meant to be used from the main thread only.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class FlagDecisionCache implements Listener {
+
+    private final BentoBox plugin;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    /**
+     * Incremented every time all the entries must be forgotten
+     */
+    private long epoch;
+    private long hits;
+    private long misses;
+
+    public FlagDecisionCache(@NonNull BentoBox plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Gets a cached decision
+     * @param uuid - player's UUID
+     * @param world - world where the check is done
+     * @param island - island where the check is done, or null if none
+     * @param flag - flag being checked
+     * @return the decision, or null if there is none
+     */
+    @Nullable
+    FlagListener.Why get(@NonNull UUID uuid, @NonNull World world, @Nullable Island island, @NonNull Flag flag) {
+        Entry entry = entries.get(uuid);
+        FlagListener.Why why = null;
+        if (entry != null && entry.matches(world, island, getChanges(island), epoch) && System.currentTimeMillis() < entry.expiry) {
+            why = entry.decisions.get(flag);
+        }
+        if (why == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return why;
+    }
+
+    /**
+     * Stores a decision
+     * @param uuid - player's UUID
+     * @param world - world where the check is done
+     * @param island - island where the check is done, or null if none
+     * @param flag - flag being checked
+     * @param why - the decision
+     */
+    void put(@NonNull UUID uuid, @NonNull World world, @Nullable Island island, @NonNull Flag flag, @NonNull FlagListener.Why why) {
+        int ttl = plugin.getSettings().getProtectionCacheTime();
+        if (ttl <= 0) {
+            return;
+        }
+        Entry entry = entries.get(uuid);
+        long changes = getChanges(island);
+        if (entry == null || !entry.matches(world, island, changes, epoch) || System.currentTimeMillis() >= entry.expiry) {
+            entry = new Entry(world, island, changes, epoch, System.currentTimeMillis() + ttl);
+            entries.put(uuid, entry);
+        }
+        entry.decisions.put(flag, why);
+    }
+
+    private static long getChanges(@Nullable Island island) {
+        return island == null ? 0 : island.getChanges();
+    }
+
+    /**
+     * @return true if decisions are being cached
+     */
+    public boolean isEnabled() {
+        return plugin.getSettings().getProtectionCacheTime() > 0;
+    }
+
+    /**
+     * Forgets all cached decisions for this player, e.g., after their permissions have changed
+     * @param uuid - player's UUID
+     */
+    public void invalidate(@NonNull UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    /**
+     * Forgets all cached decisions
+     */
+    public void invalidateAll() {
+        epoch++;
+        entries.clear();
+    }
+
+    /**
+     * @return number of checks answered from the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of checks that had to be computed
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onFlagChange(FlagChangeEvent e) {
+        invalidateAll();
+    }
+
+    /**
+     * Island and team events may change ranks or island ownership
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onIslandEvent(IslandBaseEvent e) {
+        // Moving around islands happens all the time and changes nothing
+        if (!(e instanceof IslandEnterEvent) && !(e instanceof IslandExitEvent)) {
+            invalidateAll();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        invalidate(e.getPlayer().getUniqueId());
+    }
+
+    private static class Entry {
+        private final World world;
+        private final Island island;
+        private final long changes;
+        private final long epoch;
+        private final long expiry;
+        private final Map<Flag, FlagListener.Why> decisions = new HashMap<>();
+
+        Entry(World world, Island island, long changes, long epoch, long expiry) {
+            this.world = world;
+            this.island = island;
+            this.changes = changes;
+            this.epoch = epoch;
+            this.expiry = expiry;
+        }
+
+        boolean matches(World world, Island island, long changes, long epoch) {
+            return this.world == world && this.island == island && this.changes == changes && this.epoch == epoch;
+        }
+    }
+}
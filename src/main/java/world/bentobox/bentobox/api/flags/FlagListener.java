@@ -4,6 +4,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
@@ -154,14 +155,14 @@ public abstract class FlagListener implements Listener {
 
         // Protection flag
 
+        // Check if the plugin is set in User (required for testing)
+        User.setPlugin(plugin);
+
+        Why why = checkBypassAndRank(user, loc.getWorld(), flag, island.orElse(null));
+
         // Ops or "bypass everywhere" moderators can do anything
-        if (user.hasPermission(getIWM().getPermissionPrefix(loc.getWorld()) + "mod.bypassprotect")
-                || user.hasPermission(getIWM().getPermissionPrefix(loc.getWorld()) + "mod.bypass." + flag.getID() + ".everywhere")) {
-            if (user.isOp()) {
-                report(user, e, loc, flag,  Why.OP);
-            } else {
-                report(user, e, loc, flag,  Why.BYPASS_EVERYWHERE);
-            }
+        if (why == Why.OP || why == Why.BYPASS_EVERYWHERE) {
+            report(user, e, loc, flag, why);
             return true;
         }
 
@@ -176,19 +177,12 @@ public abstract class FlagListener implements Listener {
             return false;
         }
 
-        // Check if the plugin is set in User (required for testing)
-        User.setPlugin(plugin);
-
         if (island.isPresent()) {
             // If it is not allowed on the island, "bypass island" moderators can do anything
-            if (island.get().isAllowed(user, flag)) {
-                report(user, e, loc, flag,  Why.RANK_ALLOWED);
-                return true;
-            } else if (user.hasPermission(getIWM().getPermissionPrefix(loc.getWorld()) + "mod.bypass." + flag.getID() + ".island")) {
-                report(user, e, loc, flag,  Why.BYPASS_ISLAND);
+            report(user, e, loc, flag, why);
+            if (why == Why.RANK_ALLOWED || why == Why.BYPASS_ISLAND) {
                 return true;
             }
-            report(user, e, loc, flag,  Why.NOT_ALLOWED_ON_ISLAND);
             noGo(e, flag, silent, island.get().isSpawn() ? "protection.spawn-protected" : "protection.protected");
             return false;
         }
@@ -203,6 +197,79 @@ public abstract class FlagListener implements Listener {
         }
     }
 
+    /**
+     * Checks the bypass permissions of the user and their rank on the island.
+     * These only depend on the user and on the flags and ranks of the island, so the result is cached by the
+     * {@link FlagDecisionCache} for as long as {@link Island#getChanges()} stays the same.
+     * @param user - user
+     * @param world - world
+     * @param flag - protection or world setting flag
+     * @param island - island at the location, or null if none
+     * @return {@link Why#OP} or {@link Why#BYPASS_EVERYWHERE} if the user bypasses protection everywhere,
+     * {@link Why#NOT_SET} if there is no island or the flag is a world setting,
+     * otherwise {@link Why#RANK_ALLOWED}, {@link Why#BYPASS_ISLAND} or {@link Why#NOT_ALLOWED_ON_ISLAND}
+     */
+    @NonNull
+    private Why checkBypassAndRank(@NonNull User user, @NonNull World world, @NonNull Flag flag, @Nullable Island island) {
+        FlagDecisionCache cache = getDecisionCache();
+        UUID uuid = user.getUniqueId();
+        boolean useCache = cache != null && uuid != null && cache.isEnabled();
+        Why why = useCache ? cache.get(uuid, world, island, flag) : null;
+        if (why != null) {
+            return why;
+        }
+        if (user.hasPermission(getBypassProtectPermission(world))
+                || user.hasPermission(getBypassPermission(world, flag, true))) {
+            why = user.isOp() ? Why.OP : Why.BYPASS_EVERYWHERE;
+        } else if (island == null || flag.getType().equals(Flag.Type.WORLD_SETTING)) {
+            why = Why.NOT_SET;
+        } else if (island.isAllowed(user, flag)) {
+            why = Why.RANK_ALLOWED;
+        } else if (user.hasPermission(getBypassPermission(world, flag, false))) {
+            why = Why.BYPASS_ISLAND;
+        } else {
+            why = Why.NOT_ALLOWED_ON_ISLAND;
+        }
+        if (useCache) {
+            cache.put(uuid, world, island, flag, why);
+        }
+        return why;
+    }
+
+    /**
+     * Get the permission to bypass all protections in this world.
+     * Uses the node made when the game mode was registered and only builds it if there is none.
+     * @param world - world
+     * @return permission node
+     */
+    @NonNull
+    private String getBypassProtectPermission(@NonNull World world) {
+        String node = getIWM().getBypassProtectPermission(world);
+        return node != null ? node : getIWM().getPermissionPrefix(world) + "mod.bypassprotect";
+    }
+
+    /**
+     * Get the permission to bypass this flag in this world.
+     * Uses the node made when the flag was registered and only builds it if there is none.
+     * @param world - world
+     * @param flag - flag
+     * @param everywhere - true for the "everywhere" node, false for the "island" node
+     * @return permission node
+     */
+    @NonNull
+    private String getBypassPermission(@NonNull World world, @NonNull Flag flag, boolean everywhere) {
+        String node = getIWM().getBypassPermission(world, flag, everywhere);
+        return node != null ? node : getIWM().getPermissionPrefix(world) + "mod.bypass." + flag.getID() + (everywhere ? ".everywhere" : ".island");
+    }
+
+    /**
+     * @return the protection decision cache, or null if there is none
+     */
+    @Nullable
+    private FlagDecisionCache getDecisionCache() {
+        return plugin.getFlagsManager() == null ? null : plugin.getFlagsManager().getDecisionCache();
+    }
+
     private void report(@Nullable User user, @NonNull Event e, @NonNull Location loc, @NonNull Flag flag, @NonNull Why why) {
         // A quick way to debug flag listener unit tests is to add this line here: System.out.println(why.name()); NOSONAR
         if (user != null && user.isPlayer() && user.getPlayer().getMetadata(loc.getWorld().getName() + "_why_debug").stream()
@@ -0,0 +1,223 @@
+package world.bentobox.bentobox.api.localization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.ChatColor;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.util.Util;
+
+/**
+ * A translation compiled for rendering: the prefixes are put in, the color codes are translated
+ * and the text variables, like {@link TextVariables#NAME}, are found once.
+ * Rendering a template only appends its parts and the values of the variables.
+ * <p>
+ * Templates are made and cached by {@link world.bentobox.bentobox.managers.LocalesManager}.
+ *
+ * @author tastybento
+ * @since 1.13.0
+ */
+public final class MessageTemplate {
+
+    private static final String GAMEMODE = "[gamemode]";
+    private static final String FRIENDLY_NAME = "[friendly_name]";
+    private static final String PREFIX = "[prefix_";
+
+    private enum Type {
+        /**
+         * Text with its colors already translated
+         */
+        TEXT,
+        /**
+         * A text variable
+         */
+        VARIABLE,
+        /**
+         * The game mode name in a prefix
+         */
+        GAMEMODE,
+        /**
+         * The friendly name of the world in a prefix
+         */
+        FRIENDLY_NAME
+    }
+
+    private final Type[] types;
+    private final String[] parts;
+    private final boolean context;
+
+    private MessageTemplate(List<Type> types, List<String> parts) {
+        this.types = types.toArray(new Type[0]);
+        this.parts = parts.toArray(new String[0]);
+        this.context = types.contains(Type.GAMEMODE) || types.contains(Type.FRIENDLY_NAME);
+    }
+
+    /**
+     * Compiles a translation
+     * @param translation - translation, as found in the locale file
+     * @param prefixes - prefix names and their translation
+     * @return template
+     */
+    @NonNull
+    public static MessageTemplate compile(@NonNull String translation, @NonNull Map<String, String> prefixes) {
+        List<Type> types = new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        int i = 0;
+        while (i < translation.length()) {
+            int end = getTokenEnd(translation, i);
+            if (end < 0) {
+                text.append(translation.charAt(i++));
+                continue;
+            }
+            String token = translation.substring(i, end);
+            i = end;
+            if (token.startsWith(PREFIX) && prefixes.containsKey(token.substring(PREFIX.length(), token.length() - 1))) {
+                // Put the prefix in
+                String prefix = prefixes.get(token.substring(PREFIX.length(), token.length() - 1));
+                int j = 0;
+                while (j < prefix.length()) {
+                    int prefixEnd = getTokenEnd(prefix, j);
+                    if (prefixEnd < 0) {
+                        text.append(prefix.charAt(j++));
+                        continue;
+                    }
+                    String prefixToken = prefix.substring(j, prefixEnd);
+                    j = prefixEnd;
+                    addText(types, parts, text);
+                    types.add(prefixToken.equals(GAMEMODE) ? Type.GAMEMODE : prefixToken.equals(FRIENDLY_NAME) ? Type.FRIENDLY_NAME : Type.VARIABLE);
+                    parts.add(prefixToken);
+                }
+            } else {
+                addText(types, parts, text);
+                types.add(Type.VARIABLE);
+                parts.add(token);
+            }
+        }
+        addText(types, parts, text);
+        return new MessageTemplate(types, parts);
+    }
+
+    /**
+     * @return index just after the text variable starting at i, or -1 if there is none there
+     */
+    private static int getTokenEnd(String s, int i) {
+        if (s.charAt(i) != '[') {
+            return -1;
+        }
+        for (int j = i + 1; j < s.length(); j++) {
+            char c = s.charAt(j);
+            if (c == ']') {
+                return j + 1;
+            } else if (c == '[' || Character.isWhitespace(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void addText(List<Type> types, List<String> parts, StringBuilder text) {
+        if (text.length() > 0) {
+            types.add(Type.TEXT);
+            parts.add(colorize(text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    private static String colorize(String s) {
+        return Util.stripSpaceAfterColorCodes(ChatColor.translateAlternateColorCodes('&', s));
+    }
+
+    /**
+     * Checks if variables can be put in a template. They must come in pairs, and each must be a single text variable,
+     * like {@link TextVariables#NAME}.
+     * @param variables - variables in pairs
+     * @return true if they can be put in a template
+     */
+    public static boolean canRender(@NonNull String... variables) {
+        if (variables.length % 2 != 0) {
+            return false;
+        }
+        for (int i = 0; i < variables.length; i += 2) {
+            if (variables[i] == null || variables[i + 1] == null || variables[i].isEmpty() || getTokenEnd(variables[i], 0) != variables[i].length()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the template needs the game mode or the friendly name of the world
+     */
+    public boolean hasContext() {
+        return context;
+    }
+
+    /**
+     * Renders the template
+     * @param gameMode - game mode name, or null if there is none
+     * @param friendlyName - friendly name of the world, or null if there is none
+     * @param variables - variables in pairs, checked by {@link #canRender(String...)}
+     * @return message with its colors translated
+     */
+    @NonNull
+    public String render(@Nullable String gameMode, @Nullable String friendlyName, @NonNull String... variables) {
+        if (types.length == 1 && types[0] == Type.TEXT) {
+            return parts[0];
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+            case TEXT:
+                append(sb, parts[i], false);
+                break;
+            case GAMEMODE:
+                appendContext(sb, gameMode, parts[i], variables);
+                break;
+            case FRIENDLY_NAME:
+                appendContext(sb, friendlyName, parts[i], variables);
+                break;
+            default:
+                appendVariable(sb, parts[i], variables);
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendContext(StringBuilder sb, @Nullable String value, String token, String[] variables) {
+        if (value != null) {
+            append(sb, value, true);
+        } else {
+            // Left for the variables, like it is in the prefix
+            appendVariable(sb, token, variables);
+        }
+    }
+
+    private static void appendVariable(StringBuilder sb, String token, String[] variables) {
+        for (int i = 0; i < variables.length; i += 2) {
+            if (variables[i].equals(token)) {
+                append(sb, variables[i + 1], true);
+                return;
+            }
+        }
+        append(sb, token, true);
+    }
+
+    private static void append(StringBuilder sb, String s, boolean translate) {
+        if (translate && s.indexOf('&') >= 0) {
+            s = colorize(s);
+        }
+        // No space after a color code, even where the code and the space are in different parts
+        int len = sb.length();
+        if (!s.isEmpty() && len > 1 && sb.charAt(len - 2) == ChatColor.COLOR_CHAR && Character.isWhitespace(s.charAt(0))
+                && (len < 3 || sb.charAt(len - 3) != ChatColor.COLOR_CHAR)) {
+            sb.append(s, 1, s.length());
+        } else {
+            sb.append(s);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.events.OfflineMessageEvent;
+import world.bentobox.bentobox.api.localization.MessageTemplate;
 import world.bentobox.bentobox.util.Util;
 
 /**
@@ -367,6 +368,14 @@ public class User {
     }
 
     private String translate(String addonPrefix, String reference, String[] variables) {
+        // Use the compiled translation if there is one
+        if (!reference.startsWith("prefixes.") && MessageTemplate.canRender(variables)) {
+            MessageTemplate template = plugin.getLocalesManager().getTemplate(this, addonPrefix,
+                    addon == null ? "" : addon.getDescription().getName().toLowerCase() + ".", reference);
+            if (template != null) {
+                return render(template, variables);
+            }
+        }
         String translation = plugin.getLocalesManager().get(this, addonPrefix + reference);
 
         if (translation == null) {
@@ -409,6 +418,24 @@ public class User {
         }
     }
 
+    private String render(MessageTemplate template, String[] variables) {
+        String translation;
+        if (template.hasContext()) {
+            translation = template.render(addon != null ? addon.getDescription().getName() : null,
+                    getWorld() != null ? plugin.getIWM().getFriendlyName(getWorld()) : null, variables);
+        } else {
+            translation = template.render(null, null, variables);
+        }
+        // Then replace Placeholders, this will only work if this is a player
+        if (player != null) {
+            String replaced = plugin.getPlaceholdersManager().replacePlaceholders(player, translation);
+            if (!translation.equals(replaced)) {
+                translation = Util.stripSpaceAfterColorCodes(ChatColor.translateAlternateColorCodes('&', replaced));
+            }
+        }
+        return translation;
+    }
+
     /**
      * Gets a translation of this reference for this user.
      * @param reference - reference found in a locale file
@@ -46,6 +46,10 @@ public class Blueprint {
     private int zSize;
     @Expose
     private Vector bedrock;
+    /**
+     * Plan for pasting this blueprint, shared by all its pastes
+     */
+    private transient volatile BlueprintPlan plan;
     /**
      * @return the name
      */
@@ -120,6 +124,7 @@ public class Blueprint {
      */
     public void setAttached(Map<Vector, BlueprintBlock> attached) {
         this.attached = attached;
+        this.plan = null;
     }
     /**
      * @return the entities
@@ -136,6 +141,7 @@ public class Blueprint {
         } else {
             this.entities.putAll(entities);
         }
+        this.plan = null;
     }
     /**
      * @return the blocks
@@ -148,6 +154,7 @@ public class Blueprint {
      */
     public void setBlocks(Map<Vector, BlueprintBlock> blocks) {
         this.blocks = blocks;
+        this.plan = null;
     }
     /**
      * @return the xSize
@@ -197,5 +204,18 @@ public class Blueprint {
     public void setBedrock(Vector bedrock) {
         this.bedrock = bedrock;
     }
-
+    /**
+     * Gets the plan for pasting this blueprint, compiling it if it has not been compiled since the blocks or
+     * entities were last set
+     * @return plan for pasting this blueprint
+     * @since 1.13.0
+     */
+    public BlueprintPlan getPlan() {
+        BlueprintPlan p = plan;
+        if (p == null) {
+            p = BlueprintPlan.compile(this);
+            plan = p;
+        }
+        return p;
+    }
 }
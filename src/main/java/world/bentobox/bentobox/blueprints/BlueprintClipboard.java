@@ -3,14 +3,15 @@ package world.bentobox.bentobox.blueprints;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -62,6 +63,7 @@ public class BlueprintClipboard {
     private boolean copying;
     private int index;
     private int lastPercentage;
+    private long copyStart;
     private Map<Vector, List<BlueprintEntity>> bpEntities = new LinkedHashMap<>();
     private Map<Vector, BlueprintBlock> bpAttachable = new LinkedHashMap<>();
     private Map<Vector, BlueprintBlock> bpBlocks = new LinkedHashMap<>();
@@ -117,60 +119,108 @@ public class BlueprintClipboard {
         blueprint.setySize((int)toCopy.getHeight());
         blueprint.setzSize((int)toCopy.getWidthZ());
 
+        copying = true;
         int speed = plugin.getSettings().getPasteSpeed();
-        List<Vector> vectorsToCopy = getVectors(toCopy);
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> copyAsync(world, user, vectorsToCopy, speed, copyAir));
+        // Entities and chunk snapshots are taken now, on the main thread, so that the blocks worth copying can be found async
+        Map<Vector, List<LivingEntity>> entities = getEntities(world, toCopy);
+        Map<Long, ChunkSnapshot> snapshots = getSnapshots(world, toCopy);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<Vector> vectorsToCopy = getVectors(toCopy, snapshots, entities.keySet(), copyAir);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                copyStart = System.currentTimeMillis();
+                copyTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> copyTick(world, user, vectorsToCopy, entities, speed, copyAir), 0L, 1L);
+            });
+        });
         return true;
     }
 
-    private void copyAsync(World world, User user, List<Vector> vectorsToCopy, int speed, boolean copyAir) {
-        copying = false;
-        copyTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (copying) {
-                return;
+    private void copyTick(World world, User user, List<Vector> vectorsToCopy, Map<Vector, List<LivingEntity>> entities, int speed, boolean copyAir) {
+        int end = Math.min(index + speed, vectorsToCopy.size());
+        for (; index < end; index++) {
+            Vector v = vectorsToCopy.get(index);
+            if (copyBlock(v.toLocation(world), origin, copyAir, entities.getOrDefault(v, Collections.emptyList()))) {
+                count++;
             }
-            copying = true;
-            vectorsToCopy.stream().skip(index).limit(speed).forEach(v -> {
-                List<LivingEntity> ents = world.getLivingEntities().stream()
-                        .filter(Objects::nonNull)
-                        .filter(e -> !(e instanceof Player))
-                        .filter(e -> new Vector(Math.rint(e.getLocation().getX()),
-                                Math.rint(e.getLocation().getY()),
-                                Math.rint(e.getLocation().getZ())).equals(v))
-                        .collect(Collectors.toList());
-                if (copyBlock(v.toLocation(world), origin, copyAir, ents)) {
-                    count++;
-                }
-            });
-            index += speed;
-            int percent = (int)(index * 100 / (double)vectorsToCopy.size());
-            if (percent != lastPercentage && percent % 10 == 0) {
-                user.sendMessage("commands.admin.blueprint.copied-percent", TextVariables.NUMBER, String.valueOf(percent));
-                lastPercentage = percent;
+        }
+        int percent = vectorsToCopy.isEmpty() ? 100 : (int)(index * 100 / (double)vectorsToCopy.size());
+        if (percent != lastPercentage && percent % 10 == 0) {
+            long rate = index * 1000L / Math.max(1L, System.currentTimeMillis() - copyStart);
+            user.sendMessage("commands.admin.blueprint.copied-percent", TextVariables.NUMBER, String.valueOf(percent), "[rate]", String.valueOf(rate));
+            lastPercentage = percent;
+        }
+        if (index >= vectorsToCopy.size()) {
+            copyTask.cancel();
+            blueprint.setAttached(bpAttachable);
+            blueprint.setBlocks(bpBlocks);
+            blueprint.setEntities(bpEntities);
+            copying = false;
+            user.sendMessage("general.success");
+            user.sendMessage("commands.admin.blueprint.copied-blocks", TextVariables.NUMBER, String.valueOf(count));
+        }
+    }
+
+    /**
+     * Get the living entities, other than players, in the bounding box by the block they are at
+     * @param world - world
+     * @param b - bounding box
+     * @return map of block positions to the entities there
+     */
+    private Map<Vector, List<LivingEntity>> getEntities(World world, BoundingBox b) {
+        Map<Vector, List<LivingEntity>> r = new HashMap<>();
+        for (LivingEntity e : world.getLivingEntities()) {
+            if (e == null || e instanceof Player) {
+                continue;
             }
-            if (index > vectorsToCopy.size()) {
-                copyTask.cancel();
-                blueprint.setAttached(bpAttachable);
-                blueprint.setBlocks(bpBlocks);
-                blueprint.setEntities(bpEntities);
-                user.sendMessage("general.success");
-                user.sendMessage("commands.admin.blueprint.copied-blocks", TextVariables.NUMBER, String.valueOf(count));
+            Location l = e.getLocation();
+            int x = (int)Math.rint(l.getX());
+            int y = (int)Math.rint(l.getY());
+            int z = (int)Math.rint(l.getZ());
+            if (x >= (int)b.getMinX() && x <= b.getMaxX() && y >= (int)b.getMinY() && y <= b.getMaxY()
+                    && z >= (int)b.getMinZ() && z <= b.getMaxZ()) {
+                r.computeIfAbsent(new Vector(x, y, z), k -> new ArrayList<>()).add(e);
             }
-            copying = false;
-        }, 0L, 1L);
+        }
+        return r;
     }
 
     /**
-     * Get all the x,y,z coords that must be copied
+     * Get snapshots of the chunks in the bounding box
+     * @param world - world
      * @param b - bounding box
+     * @return map of chunk keys to snapshots
+     */
+    private Map<Long, ChunkSnapshot> getSnapshots(World world, BoundingBox b) {
+        Map<Long, ChunkSnapshot> r = new HashMap<>();
+        for (int x = (int)b.getMinX() >> 4; x <= (int)Math.floor(b.getMaxX()) >> 4; x++) {
+            for (int z = (int)b.getMinZ() >> 4; z <= (int)Math.floor(b.getMaxZ()) >> 4; z++) {
+                r.put(getChunkKey(x, z), world.getChunkAt(x, z).getChunkSnapshot(false, false, false));
+            }
+        }
+        return r;
+    }
+
+    private static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get all the x,y,z coords that must be copied. Air blocks without entities are left out unless air is copied.
+     * @param b - bounding box
+     * @param snapshots - snapshots of the chunks in the bounding box
+     * @param entityPositions - positions of the entities to copy
+     * @param copyAir - whether air blocks are copied
      * @return - list of vectors
      */
-    private List<Vector> getVectors(BoundingBox b) {
+    private List<Vector> getVectors(BoundingBox b, Map<Long, ChunkSnapshot> snapshots, Set<Vector> entityPositions, boolean copyAir) {
         List<Vector> r = new ArrayList<>();
         for (int y = (int)b.getMinY(); y <= b.getMaxY(); y++) {
             for (int x = (int)b.getMinX(); x <= b.getMaxX(); x++) {
                 for (int z = (int)b.getMinZ(); z <= b.getMaxZ(); z++) {
-                    r.add(new Vector(x,y,z));
+                    Vector v = new Vector(x,y,z);
+                    if (copyAir || entityPositions.contains(v)
+                            || !snapshots.get(getChunkKey(x >> 4, z >> 4)).getBlockType(x & 0xF, y, z & 0xF).equals(Material.AIR)) {
+                        r.add(v);
+                    }
                 }
             }
         }
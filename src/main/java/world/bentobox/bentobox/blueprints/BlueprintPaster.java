@@ -2,16 +2,17 @@ package world.bentobox.bentobox.blueprints;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -20,20 +21,16 @@ import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.CreatureSpawner;
-import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.type.Sign;
 import org.bukkit.block.data.type.WallSign;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
-import com.google.common.collect.ImmutableMap;
-
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.localization.TextVariables;
 import world.bentobox.bentobox.api.user.User;
@@ -41,10 +38,15 @@ import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintCreatureSpawner;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintEntity;
 import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.util.TickScheduler;
 import world.bentobox.bentobox.util.Util;
 
 /**
- * This class pastes the clipboard it is given
+ * This class pastes the clipboard it is given.
+ * <p>
+ * Pastes are run by the {@link TickScheduler} for at most
+ * {@link world.bentobox.bentobox.Settings#getPasteTickBudget()} milliseconds per tick, sharing it with island deletions.
+ * Blocks are pasted a chunk at a time, from the bottom up, following the {@link BlueprintPlan} of the blueprint.
  * @author tastybento
  *
  */
@@ -56,8 +58,7 @@ public class BlueprintPaster {
         BLOCKS,
         ATTACHMENTS,
         ENTITIES,
-        DONE,
-        CANCEL
+        DONE
     }
 
     /**
@@ -67,17 +68,15 @@ public class BlueprintPaster {
      */
     private static long chunkLoadTime = 0;
 
-    private static final String MINECRAFT = "minecraft:";
-
-    private static final Map<String, String> BLOCK_CONVERSION = ImmutableMap.of("sign", "oak_sign", "wall_sign", "oak_wall_sign");
+    /**
+     * Blocks and entities pasted per second by the last paste.
+     * It is used to estimate the pasting time.
+     * @since 1.13.0
+     */
+    private static double pasteRate = 0;
 
     private BentoBox plugin;
-    // The minimum block position (x,y,z)
-    private Location pos1;
-    // The maximum block position (x,y,z)
-    private Location pos2;
     private PasteState pasteState;
-    private BukkitTask pastingTask;
     private BlueprintClipboard clipboard;
 
     /**
@@ -104,6 +103,39 @@ public class BlueprintPaster {
     @Nullable
     private Island island;
 
+    /**
+     * Owner of the island, if this is an island overworld paste.
+     */
+    @Nullable
+    private User owner;
+
+    private World world;
+    private BlueprintPlan plan;
+    /**
+     * Order the blocks and attached blocks of the plan are pasted in
+     */
+    private int[] blocksOrder;
+    private int[] attachedOrder;
+    /**
+     * Next block or entity to paste
+     */
+    private int index;
+    private long startTime;
+    /**
+     * Chunk that was loaded when the last block was pasted
+     */
+    private int chunkX = Integer.MAX_VALUE;
+    private int chunkZ = Integer.MAX_VALUE;
+    @Nullable
+    private CompletableFuture<Chunk> loading;
+    // The minimum and maximum block positions
+    private int minX = Integer.MAX_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int minZ = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+    private int maxZ = Integer.MIN_VALUE;
+
     /**
      * Paste a clipboard to a location and run task
      * @param plugin - BentoBox
@@ -150,135 +182,207 @@ public class BlueprintPaster {
      * The main pasting method
      */
     private void paste() {
-        // Iterators for the various maps to paste
-        Map<Vector, BlueprintBlock> blocks = blueprint.getBlocks() == null ? Collections.emptyMap() : blueprint.getBlocks();
-        Map<Vector, BlueprintBlock> attached = blueprint.getAttached() == null ? Collections.emptyMap() : blueprint.getAttached();
-        Map<Vector, List<BlueprintEntity>> entities = blueprint.getEntities() == null ? Collections.emptyMap() : blueprint.getEntities();
-        Iterator<Entry<Vector, BlueprintBlock>> it = blocks.entrySet().iterator();
-        Iterator<Entry<Vector, BlueprintBlock>> it2 = attached.entrySet().iterator();
-        Iterator<Entry<Vector, List<BlueprintEntity>>> it3 = entities.entrySet().iterator();
-
-        // Initial state & speed
+        world = location.getWorld();
+        // The plan is shared by all the pastes of the blueprint, only the order depends on where it is pasted
+        plan = blueprint.getPlan();
+        blocksOrder = plan.getBlocks().getPasteOrder(location.getBlockX(), location.getBlockZ());
+        attachedOrder = plan.getAttached().getPasteOrder(location.getBlockX(), location.getBlockZ());
+
+        // Initial state
         pasteState = PasteState.CHUNK_LOAD;
-        final int pasteSpeed = plugin.getSettings().getPasteSpeed();
 
         // If this is an island OVERWORLD paste, get the island owner.
-        final Optional<User> owner = Optional.ofNullable(island)
-                .filter(i -> location.getWorld().getEnvironment().equals(World.Environment.NORMAL))
-                .map(i -> User.getInstance(i.getOwner()));
+        owner = Optional.ofNullable(island)
+                .filter(i -> world.getEnvironment().equals(World.Environment.NORMAL))
+                .map(i -> User.getInstance(i.getOwner()))
+                .orElse(null);
         // Tell the owner we're pasting blocks and how much time it might take
-        owner.ifPresent(user -> {
+        if (owner != null) {
             // Estimated time:
-            double total = (double) blocks.size() + attached.size() + entities.size();
-            BigDecimal time = BigDecimal.valueOf(total / (pasteSpeed * 20.0D) + (chunkLoadTime / 1000.0D)).setScale(1, RoundingMode.UP);
-            user.sendMessage("commands.island.create.pasting.estimated-time", TextVariables.NUMBER, String.valueOf(time.doubleValue()));
+            double total = plan.size();
+            double rate = pasteRate > 0 ? pasteRate : Math.max(1, plugin.getSettings().getPasteSpeed()) * 20.0D;
+            BigDecimal time = BigDecimal.valueOf(total / rate + (chunkLoadTime / 1000.0D)).setScale(1, RoundingMode.UP);
+            owner.sendMessage("commands.island.create.pasting.estimated-time", TextVariables.NUMBER, String.valueOf(time.doubleValue()));
             // We're pasting blocks!
-            user.sendMessage("commands.island.create.pasting.blocks", TextVariables.NUMBER, String.valueOf(blocks.size() + attached.size()));
-        });
+            owner.sendMessage("commands.island.create.pasting.blocks", TextVariables.NUMBER, String.valueOf(plan.getBlocks().size() + plan.getAttached().size()));
+        }
 
-        pastingTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            long timer = System.currentTimeMillis();
-            int count = 0;
-            if (pasteState.equals(PasteState.CHUNK_LOAD)) {
-                pasteState = PasteState.CHUNK_LOADING;
-                // Load chunk
-                Util.getChunkAtAsync(location).thenRun(() -> {
-                    pasteState = PasteState.BLOCKS;
-                    long duration = System.currentTimeMillis() - timer;
-                    if (duration > chunkLoadTime) {
-                        chunkLoadTime = duration;
-                    }
-                });
+        TickScheduler.schedule(plugin, new TickScheduler.Job() {
+            @Override
+            public int getTickBudget() {
+                return plugin.getSettings().getPasteTickBudget();
+            }
+
+            @Override
+            public boolean step() {
+                return BlueprintPaster.this.step();
             }
-            while (pasteState.equals(PasteState.BLOCKS) && count < pasteSpeed && it.hasNext()) {
-                pasteBlock(location, it.next());
-                count++;
+
+            @Override
+            public boolean isDone() {
+                return pasteState.equals(PasteState.DONE);
             }
-            while (pasteState.equals(PasteState.ATTACHMENTS) && count < pasteSpeed && it2.hasNext()) {
-                pasteBlock(location, it2.next());
-                count++;
+
+            @Override
+            public void finish() {
+                BlueprintPaster.this.finish();
             }
-            while (pasteState.equals(PasteState.ENTITIES) && count < pasteSpeed && it3.hasNext()) {
-                pasteEntity(location, it3.next());
-                count++;
+        });
+    }
+
+    /**
+     * Pastes the next block or entity
+     * @return true if anything was done, false if waiting for chunks to load
+     */
+    private boolean step() {
+        switch (pasteState) {
+        case CHUNK_LOAD:
+            loadChunks();
+            return true;
+        case BLOCKS:
+            if (index < blocksOrder.length) {
+                return pasteBlock(plan.getBlocks(), blocksOrder[index]);
             }
-            // STATE SHIFT
-            if (pasteState.equals(PasteState.BLOCKS) && !it.hasNext()) {
-                // Blocks done
-                // Next paste attachments
-                pasteState = PasteState.ATTACHMENTS;
+            // Blocks done
+            // Next paste attachments
+            index = 0;
+            pasteState = PasteState.ATTACHMENTS;
+            return true;
+        case ATTACHMENTS:
+            if (index < attachedOrder.length) {
+                return pasteBlock(plan.getAttached(), attachedOrder[index]);
             }
-            else if (pasteState.equals(PasteState.ATTACHMENTS) && !it2.hasNext()) {
-                // Attachments done. Next paste entities
-                pasteState = PasteState.ENTITIES;
-                if (entities.size() != 0) {
-                    owner.ifPresent(user -> user.sendMessage("commands.island.create.pasting.entities", TextVariables.NUMBER, String.valueOf(entities.size())));
-                }
+            // Attachments done. Next paste entities
+            index = 0;
+            pasteState = PasteState.ENTITIES;
+            if (owner != null && !plan.getEntities().isEmpty()) {
+                owner.sendMessage("commands.island.create.pasting.entities", TextVariables.NUMBER, String.valueOf(plan.getEntities().size()));
             }
-            else if (pasteState.equals(PasteState.ENTITIES) && !it3.hasNext()) {
-                pasteState = PasteState.DONE;
-                owner.ifPresent(user -> user.sendMessage("commands.island.create.pasting.done"));
+            return true;
+        case ENTITIES:
+            if (index < plan.getEntities().size()) {
+                pasteEntity(location, plan.getEntities().get(index++));
+                return true;
             }
-            else if (pasteState.equals(PasteState.DONE)) {
-                // All done. Cancel task
-                // Set pos1 and 2 if this was a clipboard paste
-                if (island == null && clipboard != null) {
-                    clipboard.setPos1(pos1);
-                    clipboard.setPos2(pos2);
-                }
-                if (afterPasteTask != null) {
-                    // Run follow-on task if it exists
-                    Bukkit.getScheduler().runTask(plugin, afterPasteTask);
-                }
-                pasteState = PasteState.CANCEL;
-            } else if (pasteState.equals(PasteState.CANCEL)) {
-                // This state makes sure the follow-on task only ever runs once
-                pastingTask.cancel();
+            pasteState = PasteState.DONE;
+            if (owner != null) {
+                owner.sendMessage("commands.island.create.pasting.done");
             }
-        }, 0L, 1L);
+            return true;
+        default:
+            return false;
+        }
     }
 
-    private void pasteBlock(Location location, Entry<Vector, BlueprintBlock> entry) {
-        World world = location.getWorld();
-        Location pasteTo = location.clone().add(entry.getKey());
-        BlueprintBlock bpBlock = entry.getValue();
-        Util.getChunkAtAsync(pasteTo).thenRun(() -> {
-            Block block = pasteTo.getBlock();
-            // Set the block data - default is AIR
-            BlockData bd;
-            try {
-                bd = Bukkit.createBlockData(bpBlock.getBlockData());
-            } catch (Exception e) {
-                bd = convertBlockData(world, bpBlock);
-            }
-            block.setBlockData(bd, false);
-            setBlockState(block, bpBlock);
-            // pos1 and pos2 update
-            updatePos(block.getLocation());
-        });
+    /**
+     * Loads all the chunks that will be pasted in at the same time
+     */
+    private void loadChunks() {
+        pasteState = PasteState.CHUNK_LOADING;
+        long timer = System.currentTimeMillis();
+        Set<Long> chunks = new LinkedHashSet<>();
+        addChunks(chunks, plan.getBlocks());
+        addChunks(chunks, plan.getAttached());
+        plan.getEntities().forEach(en -> chunks.add(getChunkKey((location.getBlockX() + en.getKey().getBlockX()) >> 4,
+                (location.getBlockZ() + en.getKey().getBlockZ()) >> 4)));
+        CompletableFuture.allOf(chunks.stream()
+                .map(k -> Util.getChunkAtAsync(world, (int)(k >> 32), k.intValue()))
+                .toArray(CompletableFuture[]::new)).whenComplete((v, e) -> {
+                    if (e != null) {
+                        // Chunks that did not load are loaded when blocks are pasted into them
+                        plugin.logError("Could not load the chunks to paste into in " + world.getName() + " before pasting: " + e.getMessage());
+                    }
+                    pasteState = PasteState.BLOCKS;
+                    startTime = System.currentTimeMillis();
+                    long duration = startTime - timer;
+                    if (duration > chunkLoadTime) {
+                        chunkLoadTime = duration;
+                    }
+                });
+    }
+
+    private void addChunks(Set<Long> chunks, BlueprintPlan.Layer layer) {
+        for (int i = 0; i < layer.size(); i++) {
+            chunks.add(getChunkKey((location.getBlockX() + layer.getX(i)) >> 4, (location.getBlockZ() + layer.getZ(i)) >> 4));
+        }
+    }
+
+    private static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
     }
 
     /**
-     * Tries to convert the BlockData to a newer version, and logs a warning if it fails to do so.
-     * @return the converted BlockData or a default AIR BlockData.
-     * @since 1.6.0
+     * Runs once everything has been pasted
      */
-    private BlockData convertBlockData(World world, BlueprintBlock block) {
-        BlockData blockData = Bukkit.createBlockData(Material.AIR);
-        try {
-            for (Entry<String, String> en : BLOCK_CONVERSION.entrySet()) {
-                if (block.getBlockData().startsWith(MINECRAFT + en.getKey())) {
-                    blockData = Bukkit.createBlockData(block.getBlockData().replace(MINECRAFT + en.getKey(), MINECRAFT + en.getValue()));
-                    break;
-                }
+    private void finish() {
+        long duration = System.currentTimeMillis() - startTime;
+        if (duration > 0) {
+            pasteRate = plan.size() * 1000D / duration;
+        }
+        // Set pos1 and 2 if this was a clipboard paste
+        if (island == null && clipboard != null) {
+            boolean pasted = minX <= maxX;
+            clipboard.setPos1(pasted ? new Location(world, minX, minY, minZ) : null);
+            clipboard.setPos2(pasted ? new Location(world, maxX, maxY, maxZ) : null);
+        }
+        if (afterPasteTask != null) {
+            // Run follow-on task if it exists
+            Bukkit.getScheduler().runTask(plugin, afterPasteTask);
+        }
+    }
+
+    /**
+     * Pastes a block if its chunk is loaded
+     * @param layer - blocks or attached blocks of the plan
+     * @param i - index of the block in the layer
+     * @return true if it was pasted, false if waiting for its chunk to load
+     */
+    private boolean pasteBlock(BlueprintPlan.Layer layer, int i) {
+        int x = location.getBlockX() + layer.getX(i);
+        int y = location.getBlockY() + layer.getY(i);
+        int z = location.getBlockZ() + layer.getZ(i);
+        if (!isChunkLoaded(x >> 4, z >> 4)) {
+            return false;
+        }
+        Block block = world.getBlockAt(x, y, z);
+        block.setBlockData(layer.getBlockData(i), false);
+        BlueprintBlock state = layer.getState(i);
+        if (state != null) {
+            setBlockState(block, state);
+        }
+        // pos1 and pos2 update
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+        index++;
+        return true;
+    }
+
+    /**
+     * Checks that a chunk is loaded before pasting in it, and loads it again if it has been unloaded since
+     * @param x - chunk x
+     * @param z - chunk z
+     * @return true if the chunk is loaded
+     */
+    private boolean isChunkLoaded(int x, int z) {
+        if (x == chunkX && z == chunkZ) {
+            return true;
+        }
+        if (loading == null && !world.isChunkLoaded(x, z)) {
+            loading = Util.getChunkAtAsync(world, x, z);
+        }
+        if (loading != null) {
+            if (!loading.isDone()) {
+                return false;
             }
-        } catch (IllegalArgumentException e) {
-            // This may happen if the block type is no longer supported by the server
-            plugin.logWarning("Blueprint references materials not supported on this server version.");
-            plugin.logWarning("Load blueprint manually, check and save to fix for this server version.");
-            plugin.logWarning("World: " + world.getName() + "; Failed block data: " + block.getBlockData());
+            loading = null;
         }
-        return blockData;
+        chunkX = x;
+        chunkZ = z;
+        return true;
     }
 
     private void pasteEntity(Location location, Entry<Vector, List<BlueprintEntity>> entry) {
@@ -359,37 +463,6 @@ public class BlueprintPaster {
         });
     }
 
-    /**
-     * Tracks the minimum and maximum block positions
-     * @param l - location of block pasted
-     */
-    private void updatePos(Location l) {
-        if (pos1 == null) {
-            pos1 = l.clone();
-        }
-        if (pos2 == null) {
-            pos2 = l.clone();
-        }
-        if (l.getBlockX() < pos1.getBlockX()) {
-            pos1.setX(l.getBlockX());
-        }
-        if (l.getBlockX() > pos2.getBlockX()) {
-            pos2.setX(l.getBlockX());
-        }
-        if (l.getBlockY() < pos1.getBlockY()) {
-            pos1.setY(l.getBlockY());
-        }
-        if (l.getBlockY() > pos2.getBlockY()) {
-            pos2.setY(l.getBlockY());
-        }
-        if (l.getBlockZ() < pos1.getBlockZ()) {
-            pos1.setZ(l.getBlockZ());
-        }
-        if (l.getBlockZ() > pos2.getBlockZ()) {
-            pos2.setZ(l.getBlockZ());
-        }
-    }
-
     private void writeSign(final Block block, final List<String> lines) {
         BlockFace bf;
         if (block.getType().name().contains("WALL_SIGN")) {
@@ -0,0 +1,223 @@
+package world.bentobox.bentobox.blueprints;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.util.Vector;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.common.collect.ImmutableMap;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintEntity;
+
+/**
+ * A blueprint made ready for pasting: the block data is parsed, the blocks are sorted from the bottom up and the
+ * entities that can be spawned are listed. A plan is immutable and is shared by all the pastes of its blueprint.
+ * The blueprints of game modes are compiled when they are loaded by {@link world.bentobox.bentobox.managers.BlueprintsManager}.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public final class BlueprintPlan {
+
+    private static final String MINECRAFT = "minecraft:";
+
+    private static final Map<String, String> BLOCK_CONVERSION = ImmutableMap.of("sign", "oak_sign", "wall_sign", "oak_wall_sign");
+
+    private final Layer blocks;
+    private final Layer attached;
+    private final List<Entry<Vector, List<BlueprintEntity>>> entities;
+
+    private BlueprintPlan(Layer blocks, Layer attached, List<Entry<Vector, List<BlueprintEntity>>> entities) {
+        this.blocks = blocks;
+        this.attached = attached;
+        this.entities = entities;
+    }
+
+    /**
+     * Compiles a blueprint into a plan
+     * @param bp - blueprint
+     * @return plan for pasting the blueprint
+     */
+    @NonNull
+    public static BlueprintPlan compile(@NonNull Blueprint bp) {
+        Map<String, BlockData> parsed = new HashMap<>();
+        List<Entry<Vector, List<BlueprintEntity>>> entities = new ArrayList<>();
+        if (bp.getEntities() != null) {
+            bp.getEntities().forEach((v, list) -> {
+                List<BlueprintEntity> spawnable = new ArrayList<>();
+                list.stream().filter(Objects::nonNull).filter(e -> e.getType() != null).forEach(spawnable::add);
+                if (!spawnable.isEmpty()) {
+                    entities.add(new SimpleImmutableEntry<>(v, Collections.unmodifiableList(spawnable)));
+                }
+            });
+        }
+        return new BlueprintPlan(new Layer(bp, bp.getBlocks(), parsed), new Layer(bp, bp.getAttached(), parsed),
+                Collections.unmodifiableList(entities));
+    }
+
+    /**
+     * @return the blocks, which are pasted first
+     */
+    Layer getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * @return the attached blocks, like torches and signs, which are pasted after the blocks
+     */
+    Layer getAttached() {
+        return attached;
+    }
+
+    /**
+     * @return the positions of the entities and the entities to spawn there
+     */
+    List<Entry<Vector, List<BlueprintEntity>>> getEntities() {
+        return entities;
+    }
+
+    /**
+     * @return number of blocks, attached blocks and entity positions
+     */
+    public int size() {
+        return blocks.size() + attached.size() + entities.size();
+    }
+
+    /**
+     * Tries to convert the BlockData to a newer version, and logs a warning if it fails to do so.
+     * @return the converted BlockData or a default AIR BlockData.
+     * @since 1.6.0
+     */
+    private static BlockData convertBlockData(Blueprint bp, String blockDataString) {
+        BlockData blockData = Bukkit.createBlockData(Material.AIR);
+        try {
+            for (Entry<String, String> en : BLOCK_CONVERSION.entrySet()) {
+                if (blockDataString.startsWith(MINECRAFT + en.getKey())) {
+                    blockData = Bukkit.createBlockData(blockDataString.replace(MINECRAFT + en.getKey(), MINECRAFT + en.getValue()));
+                    break;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // This may happen if the block type is no longer supported by the server
+            BentoBox plugin = BentoBox.getInstance();
+            plugin.logWarning("Blueprint references materials not supported on this server version.");
+            plugin.logWarning("Load blueprint manually, check and save to fix for this server version.");
+            plugin.logWarning("Blueprint: " + bp.getName() + "; Failed block data: " + blockDataString);
+        }
+        return blockData;
+    }
+
+    /**
+     * Blocks sorted from the bottom up, with their position relative to the paste location
+     */
+    static final class Layer {
+        private final int[] x;
+        private final int[] y;
+        private final int[] z;
+        private final BlockData[] blockData;
+        /**
+         * Blueprint blocks that have a sign, inventory, spawner or banner to set, null for the others
+         */
+        private final BlueprintBlock[] states;
+
+        private Layer(Blueprint bp, @Nullable Map<Vector, BlueprintBlock> map, Map<String, BlockData> parsed) {
+            List<Entry<Vector, BlueprintBlock>> sorted = new ArrayList<>(map == null ? Collections.emptySet() : map.entrySet());
+            sorted.sort(Comparator.<Entry<Vector, BlueprintBlock>>comparingInt(en -> en.getKey().getBlockY())
+                    .thenComparingInt(en -> en.getKey().getBlockZ())
+                    .thenComparingInt(en -> en.getKey().getBlockX()));
+            int n = sorted.size();
+            x = new int[n];
+            y = new int[n];
+            z = new int[n];
+            blockData = new BlockData[n];
+            states = new BlueprintBlock[n];
+            for (int i = 0; i < n; i++) {
+                Vector v = sorted.get(i).getKey();
+                BlueprintBlock b = sorted.get(i).getValue();
+                x[i] = v.getBlockX();
+                y[i] = v.getBlockY();
+                z[i] = v.getBlockZ();
+                blockData[i] = parsed.computeIfAbsent(b.getBlockData(), s -> {
+                    try {
+                        return Bukkit.createBlockData(s);
+                    } catch (Exception e) {
+                        return convertBlockData(bp, s);
+                    }
+                });
+                if (b.getSignLines() != null || b.getInventory() != null || b.getCreatureSpawner() != null || b.getBannerPatterns() != null) {
+                    states[i] = b;
+                }
+            }
+        }
+
+        int size() {
+            return x.length;
+        }
+
+        int getX(int i) {
+            return x[i];
+        }
+
+        int getY(int i) {
+            return y[i];
+        }
+
+        int getZ(int i) {
+            return z[i];
+        }
+
+        BlockData getBlockData(int i) {
+            return blockData[i];
+        }
+
+        @Nullable
+        BlueprintBlock getState(int i) {
+            return states[i];
+        }
+
+        /**
+         * Gets the order to paste the blocks in at a location: chunk by chunk, and from the bottom up in each chunk.
+         * @param offsetX - block x of the paste location
+         * @param offsetZ - block z of the paste location
+         * @return indexes of the blocks in the order to paste them
+         */
+        int[] getPasteOrder(int offsetX, int offsetZ) {
+            // Count the blocks in each chunk, keeping the chunks in the order they are first met
+            Map<Long, int[]> chunks = new LinkedHashMap<>();
+            for (int i = 0; i < x.length; i++) {
+                chunks.computeIfAbsent(getChunkKey(offsetX + x[i], offsetZ + z[i]), k -> new int[1])[0]++;
+            }
+            // Turn the counts into start positions
+            int start = 0;
+            for (int[] c : chunks.values()) {
+                int count = c[0];
+                c[0] = start;
+                start += count;
+            }
+            // The blocks are already sorted from the bottom up, so they stay that way in each chunk
+            int[] order = new int[x.length];
+            for (int i = 0; i < x.length; i++) {
+                order[chunks.get(getChunkKey(offsetX + x[i], offsetZ + z[i]))[0]++] = i;
+            }
+            return order;
+        }
+
+        private static long getChunkKey(int blockX, int blockZ) {
+            return ((long) (blockX >> 4) << 32) | ((blockZ >> 4) & 0xFFFFFFFFL);
+        }
+    }
+}
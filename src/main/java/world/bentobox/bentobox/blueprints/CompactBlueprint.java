@@ -0,0 +1,303 @@
+package world.bentobox.bentobox.blueprints;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.bukkit.util.Vector;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+
+/**
+ * Reads and writes blueprints in the compact binary format.
+ * <p>
+ * Instead of storing every block with its block data string, as the zipped JSON format does, the block data strings
+ * are stored once in a palette, and the blocks are stored as palette indexes packed into longs, like the sections
+ * of a region file. The few blocks that carry more than block data, like signs and chests, are stored as JSON
+ * after the packed indexes, and so are the name, icon, description, sizes and entities of the blueprint.
+ * Everything after the magic bytes is deflated, and is written and read as a stream.
+ * <p>
+ * Blocks that only have block data are shared by all the positions they are at in a loaded blueprint.
+ *
+ * @author tastybento
+ * @since 1.13.0
+ */
+public final class CompactBlueprint {
+
+    private static final byte[] MAGIC = {'B', 'B', 'P', 'C'};
+    private static final int VERSION = 1;
+    /**
+     * Bits used for the palette index when sorting the blocks of a layer by position
+     */
+    private static final int ID_BITS = 24;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private CompactBlueprint() {}
+
+    /**
+     * Checks if a file is a blueprint in the compact format
+     * @param file - blueprint file
+     * @return true if the file starts with the compact format's magic bytes
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCompact(@NonNull File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] start = new byte[MAGIC.length];
+            int read = 0;
+            while (read < start.length) {
+                int n = in.read(start, read, start.length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+            return Arrays.equals(MAGIC, start);
+        }
+    }
+
+    /**
+     * Writes a blueprint in the compact format. The stream is closed.
+     * @param bp - blueprint
+     * @param os - stream to write to
+     * @param gson - gson used for the blueprint's JSON format
+     * @throws IOException if the blueprint cannot be written
+     */
+    public static void write(@NonNull Blueprint bp, @NonNull OutputStream os, @NonNull Gson gson) throws IOException {
+        os.write(MAGIC);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DeflaterOutputStream(os)))) {
+            out.writeInt(VERSION);
+            // Everything but the blocks
+            Blueprint header = new Blueprint();
+            header.setName(bp.getName());
+            header.setDisplayName(bp.getDisplayName());
+            header.setIcon(bp.getIcon());
+            header.setDescription(bp.getDescription());
+            header.setEntities(bp.getEntities());
+            header.setxSize(bp.getxSize());
+            header.setySize(bp.getySize());
+            header.setzSize(bp.getzSize());
+            header.setBedrock(bp.getBedrock());
+            writeString(out, gson.toJson(header, Blueprint.class));
+            // Palette
+            Map<String, Integer> palette = new LinkedHashMap<>();
+            addToPalette(palette, bp.getBlocks());
+            addToPalette(palette, bp.getAttached());
+            out.writeInt(palette.size());
+            for (String blockData : palette.keySet()) {
+                out.writeUTF(blockData);
+            }
+            writeLayer(out, bp.getBlocks(), palette, gson);
+            writeLayer(out, bp.getAttached(), palette, gson);
+        }
+    }
+
+    private static void addToPalette(Map<String, Integer> palette, @Nullable Map<Vector, BlueprintBlock> blocks) {
+        if (blocks != null) {
+            // Palette indexes start at 1 so that 0 means no block
+            blocks.values().stream().map(BlueprintBlock::getBlockData).filter(Objects::nonNull)
+            .forEach(s -> palette.computeIfAbsent(s, k -> palette.size() + 1));
+        }
+    }
+
+    private static void writeLayer(DataOutputStream out, @Nullable Map<Vector, BlueprintBlock> blocks, Map<String, Integer> palette, Gson gson) throws IOException {
+        out.writeBoolean(blocks != null);
+        if (blocks == null) {
+            return;
+        }
+        out.writeInt(blocks.size());
+        if (blocks.isEmpty()) {
+            return;
+        }
+        // Bounds
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        int maxZ = Integer.MIN_VALUE;
+        for (Vector v : blocks.keySet()) {
+            minX = Math.min(minX, v.getBlockX());
+            minY = Math.min(minY, v.getBlockY());
+            minZ = Math.min(minZ, v.getBlockZ());
+            maxX = Math.max(maxX, v.getBlockX());
+            maxY = Math.max(maxY, v.getBlockY());
+            maxZ = Math.max(maxZ, v.getBlockZ());
+        }
+        int sizeX = maxX - minX + 1;
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        out.writeInt(minX);
+        out.writeInt(minY);
+        out.writeInt(minZ);
+        out.writeInt(sizeX);
+        out.writeInt(sizeY);
+        out.writeInt(sizeZ);
+        // Palette index of each position, sorted by position
+        long[] entries = new long[blocks.size()];
+        Map<Long, BlueprintBlock> extras = new LinkedHashMap<>();
+        int n = 0;
+        for (Entry<Vector, BlueprintBlock> en : blocks.entrySet()) {
+            Vector v = en.getKey();
+            long index = getIndex(v.getBlockX() - minX, v.getBlockY() - minY, v.getBlockZ() - minZ, sizeX, sizeZ);
+            BlueprintBlock b = en.getValue();
+            if (hasExtras(b)) {
+                extras.put(index, b);
+            }
+            if (b.getBlockData() != null) {
+                entries[n++] = index << ID_BITS | palette.get(b.getBlockData());
+            }
+        }
+        Arrays.sort(entries, 0, n);
+        int bits = getBits(palette.size());
+        int perLong = 64 / bits;
+        long words = ((long)sizeX * sizeY * sizeZ + perLong - 1) / perLong;
+        int e = 0;
+        for (long w = 0; w < words; w++) {
+            long word = 0;
+            long first = w * perLong;
+            while (e < n && (entries[e] >>> ID_BITS) < first + perLong) {
+                int slot = (int)((entries[e] >>> ID_BITS) - first);
+                word |= (entries[e] & ID_MASK) << (slot * bits);
+                e++;
+            }
+            out.writeLong(word);
+        }
+        // Blocks with more than block data
+        out.writeInt(extras.size());
+        for (Entry<Long, BlueprintBlock> en : extras.entrySet()) {
+            out.writeLong(en.getKey());
+            writeString(out, gson.toJson(en.getValue(), BlueprintBlock.class));
+        }
+    }
+
+    /**
+     * Reads a blueprint in the compact format. The stream is closed.
+     * @param is - stream to read from
+     * @param gson - gson used for the blueprint's JSON format
+     * @return blueprint
+     * @throws IOException if the blueprint cannot be read or is not in the compact format
+     */
+    @NonNull
+    public static Blueprint read(@NonNull InputStream is, @NonNull Gson gson) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+            byte[] start = new byte[MAGIC.length];
+            in.readFully(start);
+            if (!Arrays.equals(MAGIC, start)) {
+                throw new IOException("Not a compact blueprint");
+            }
+            return read(new DataInputStream(new BufferedInputStream(new InflaterInputStream(in))), gson);
+        }
+    }
+
+    private static Blueprint read(DataInputStream in, Gson gson) throws IOException {
+        int version = in.readInt();
+        if (version > VERSION) {
+            throw new IOException("Compact blueprint version " + version + " is newer than this version of BentoBox can read");
+        }
+        Blueprint bp = gson.fromJson(readString(in), Blueprint.class);
+        if (bp == null) {
+            throw new IOException("Compact blueprint has no header");
+        }
+        BlueprintBlock[] palette = new BlueprintBlock[in.readInt()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = new BlueprintBlock(in.readUTF());
+        }
+        bp.setBlocks(readLayer(in, palette, gson));
+        bp.setAttached(readLayer(in, palette, gson));
+        return bp;
+    }
+
+    @Nullable
+    private static Map<Vector, BlueprintBlock> readLayer(DataInputStream in, BlueprintBlock[] palette, Gson gson) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int count = in.readInt();
+        Map<Vector, BlueprintBlock> blocks = new LinkedHashMap<>(count * 4 / 3 + 1);
+        if (count == 0) {
+            return blocks;
+        }
+        int minX = in.readInt();
+        int minY = in.readInt();
+        int minZ = in.readInt();
+        int sizeX = in.readInt();
+        int sizeY = in.readInt();
+        int sizeZ = in.readInt();
+        int bits = getBits(palette.length);
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        long words = ((long)sizeX * sizeY * sizeZ + perLong - 1) / perLong;
+        for (long w = 0; w < words; w++) {
+            long word = in.readLong();
+            for (int slot = 0; word != 0 && slot < perLong; slot++, word >>>= bits) {
+                int id = (int)(word & mask);
+                if (id != 0) {
+                    blocks.put(getVector(w * perLong + slot, minX, minY, minZ, sizeX, sizeZ), palette[id - 1]);
+                }
+            }
+        }
+        int extras = in.readInt();
+        Map<Long, BlueprintBlock> extraBlocks = new HashMap<>();
+        for (int i = 0; i < extras; i++) {
+            extraBlocks.put(in.readLong(), gson.fromJson(readString(in), BlueprintBlock.class));
+        }
+        extraBlocks.forEach((index, b) -> blocks.put(getVector(index, minX, minY, minZ, sizeX, sizeZ), b));
+        return blocks;
+    }
+
+    private static boolean hasExtras(BlueprintBlock b) {
+        return b.getBlockData() == null || b.getSignLines() != null || b.getInventory() != null
+                || b.getCreatureSpawner() != null || b.getBannerPatterns() != null;
+    }
+
+    private static long getIndex(int x, int y, int z, int sizeX, int sizeZ) {
+        return ((long)y * sizeZ + z) * sizeX + x;
+    }
+
+    private static Vector getVector(long index, int minX, int minY, int minZ, int sizeX, int sizeZ) {
+        int x = (int)(index % sizeX);
+        long rest = index / sizeX;
+        int z = (int)(rest % sizeZ);
+        int y = (int)(rest / sizeZ);
+        return new Vector(minX + x, minY + y, minZ + z);
+    }
+
+    /**
+     * @param paletteSize - number of entries in the palette
+     * @return number of bits needed for a palette index, where 0 means no block
+     */
+    private static int getBits(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize));
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
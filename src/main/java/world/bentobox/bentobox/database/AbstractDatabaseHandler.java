@@ -2,9 +2,16 @@ package world.bentobox.bentobox.database;
 
 import java.beans.IntrospectionException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.scheduler.BukkitTask;
@@ -12,10 +19,17 @@ import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.addons.Addon;
 
 /**
  * An abstract class that handles insert/select-operations into/from a database
+ * <p>
+ * Saves and deletions are done async by a write-behind queue. Writes are queued by the unique id of the object
+ * and a newer write of an object replaces the one that is still waiting, so an object that is saved many
+ * times in a short while is only written once. The queue is written every
+ * {@link Settings#getDatabaseWriteInterval()} milliseconds, in batches of up to
+ * {@link Settings#getDatabaseWriteBatchSize()} writes.
  *
  * @author tastybento
  *
@@ -29,14 +43,45 @@ public abstract class AbstractDatabaseHandler<T> {
      * possible to load something before it has been saved. So, in general, load your objects and then
      * save them async only when you do not need the data again immediately.
      */
-    protected Queue<Runnable> processQueue;
+    protected Queue<Runnable> processQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Writes waiting to be done, by unique id. Only the latest write of each object is kept.
+     * @see #queueWrite(String, Runnable)
+     */
+    private final Map<String, Runnable> pendingWrites = new ConcurrentHashMap<>();
+    /**
+     * Unique ids of {@link #pendingWrites} in the order they were first queued
+     */
+    private final Queue<String> pendingOrder = new ConcurrentLinkedQueue<>();
+    /**
+     * Unique ids of the writes taken from {@link #pendingWrites} that are being done now
+     */
+    private final Set<String> writing = ConcurrentHashMap.newKeySet();
+    /**
+     * Tasks waiting for the writes of objects to be done, by the key the writes are queued by
+     * @see #whenWritten(String, Runnable)
+     */
+    private final Map<String, List<Runnable>> writeListeners = new ConcurrentHashMap<>();
+    /**
+     * Held while writes are done so that two writes of the same object can never overtake each other
+     */
+    private final Object writeLock = new Object();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    private volatile long lastFlushTime;
+    private volatile int lastFlushSize;
 
     /**
      * Async save task that runs repeatedly
      */
     private BukkitTask asyncSaveTask;
 
-    protected boolean shutdown;
+    protected volatile boolean shutdown;
+
+    /**
+     * Set once the connection of this handler has been given back to the connector
+     */
+    private final AtomicBoolean connectionClosed = new AtomicBoolean();
 
     /**
      * Name of the folder where databases using files will live
@@ -98,31 +143,254 @@ public abstract class AbstractDatabaseHandler<T> {
         // Return if plugin disabled
         if (!plugin.isEnabled()) return;
         // Run async queue
-        processQueue = new ConcurrentLinkedQueue<>();
         asyncSaveTask = Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             // Loop continuously
-            while (!shutdown || !processQueue.isEmpty()) {
-                while (!processQueue.isEmpty()) {
-                    processQueue.poll().run();
-                }
-                // Shutdown flag
-                shutdown = plugin.isShutdown();
-                // Clear the queue and then sleep
+            while (!shutdown) {
+                // Sleep so that writes of the same object can be merged, then write the queue
                 try {
-                    Thread.sleep(25);
+                    Thread.sleep(getWriteInterval());
                 } catch (InterruptedException e) {
                     plugin.logError("Thread sleep error " + e.getMessage());
                     Thread.currentThread().interrupt();
+                    shutdown = true;
+                }
+                flush();
+                // Shutdown flag
+                if (plugin.isShutdown()) {
+                    shutdown = true;
                 }
             }
+            // Write anything that was queued since
+            flush();
             // Cancel
             asyncSaveTask.cancel();
-            databaseConnector.closeConnection(dataObject);
+            closeConnection();
         });
     }
 
     protected AbstractDatabaseHandler() {}
 
+    /**
+     * Queues a save or deletion of an object. If a write of the same object is still waiting, it is replaced
+     * by this one. If the write-behind queue is not running, e.g., because the plugin is being disabled,
+     * the write is done immediately in this thread.
+     * @param uniqueId - unique id of the object, used to merge writes of the same object. If null, the write
+     * is never merged.
+     * @param write - task that saves or deletes the object
+     * @since 1.13.0
+     */
+    protected void queueWrite(@Nullable String uniqueId, @NonNull Runnable write) {
+        if (asyncSaveTask == null || shutdown || !plugin.isEnabled()) {
+            synchronized (writeLock) {
+                // Drop any older write of this object so that it does not overwrite this one later
+                if (uniqueId != null) {
+                    pendingWrites.remove(uniqueId);
+                }
+                write.run();
+                if (uniqueId != null) {
+                    notifyWritten(uniqueId);
+                }
+            }
+            return;
+        }
+        if (uniqueId == null) {
+            processQueue.add(write);
+        } else if (pendingWrites.put(uniqueId, write) == null) {
+            pendingOrder.add(uniqueId);
+        } else {
+            coalescedWrites.incrementAndGet();
+        }
+    }
+
+    /**
+     * Does all the writes that are waiting, in batches. Runs in the calling thread.
+     */
+    protected void flush() {
+        synchronized (writeLock) {
+            long start = System.nanoTime();
+            int batchSize = getWriteBatchSize();
+            int count = 0;
+            List<Runnable> batch = new ArrayList<>();
+            List<String> written = new ArrayList<>();
+            while (true) {
+                Runnable task;
+                while (batch.size() < batchSize && (task = processQueue.poll()) != null) {
+                    batch.add(task);
+                }
+                String uniqueId;
+                while (batch.size() < batchSize && (uniqueId = pendingOrder.poll()) != null) {
+                    // Marked as being written before it leaves the pending writes, so it is always one or the other
+                    writing.add(uniqueId);
+                    written.add(uniqueId);
+                    task = pendingWrites.remove(uniqueId);
+                    if (task != null) {
+                        batch.add(task);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    writing.clear();
+                    written.forEach(this::notifyWritten);
+                    break;
+                }
+                try {
+                    processBatch(batch);
+                } finally {
+                    writing.clear();
+                    written.forEach(this::notifyWritten);
+                    written.clear();
+                }
+                count += batch.size();
+                batch.clear();
+            }
+            if (count > 0) {
+                lastFlushTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                lastFlushSize = count;
+            }
+        }
+    }
+
+    /**
+     * Does a batch of queued writes. Handlers that can do several writes at once, e.g., in one transaction,
+     * can override this. It is only ever called by one thread at a time.
+     * @param batch - writes, in the order they were queued
+     * @since 1.13.0
+     */
+    protected void processBatch(@NonNull List<Runnable> batch) {
+        for (Runnable write : batch) {
+            try {
+                write.run();
+            } catch (Exception e) {
+                plugin.logError("Could not write to the database: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the write-behind queue and does all the writes that are still waiting in this thread,
+     * so that nothing is lost. Handlers should call this when they are closed.
+     * @since 1.13.0
+     */
+    protected void shutdownQueue() {
+        shutdown = true;
+        flush();
+    }
+
+    /**
+     * Gives the connection of this handler back to the connector. Only the first call does anything,
+     * so handlers that close their connection themselves do not release it twice.
+     * @since 1.13.0
+     */
+    protected void closeConnection() {
+        if (connectionClosed.compareAndSet(false, true)) {
+            databaseConnector.closeConnection(dataObject);
+        }
+    }
+
+    private int getWriteInterval() {
+        Settings settings = plugin.getSettings();
+        return settings == null ? 100 : Math.max(1, settings.getDatabaseWriteInterval());
+    }
+
+    private int getWriteBatchSize() {
+        Settings settings = plugin.getSettings();
+        return settings == null ? 500 : Math.max(1, settings.getDatabaseWriteBatchSize());
+    }
+
+    /**
+     * @return number of saves and deletions waiting in the write-behind queue
+     * @since 1.13.0
+     */
+    public int getQueueSize() {
+        return pendingWrites.size() + processQueue.size();
+    }
+
+    /**
+     * Checks if a save or deletion of an object is still waiting to be written, or is being written now.
+     * Until it has been written, loading the object from the database may give an older copy.
+     * @param uniqueId - unique id of the object
+     * @return true if a write of the object has not been done yet
+     * @since 1.13.0
+     */
+    public boolean isWritePending(@NonNull String uniqueId) {
+        String key = getWriteKey(uniqueId);
+        return pendingWrites.containsKey(key) || writing.contains(key);
+    }
+
+    /**
+     * Runs a task once the save or deletion of an object that is waiting now has been written.
+     * If none is waiting, the task is run straight away in this thread, otherwise it is run in the thread
+     * that does the write, which is usually not the main thread.
+     * @param uniqueId - unique id of the object
+     * @param task - task to run
+     * @since 1.13.0
+     */
+    public void whenWritten(@NonNull String uniqueId, @NonNull Runnable task) {
+        String key = getWriteKey(uniqueId);
+        writeListeners.compute(key, (k, tasks) -> {
+            List<Runnable> list = tasks == null ? new ArrayList<>() : tasks;
+            list.add(task);
+            return list;
+        });
+        // The write may have been done before the task was added
+        if (!isWritePending(uniqueId)) {
+            notifyWritten(key);
+        }
+    }
+
+    /**
+     * Runs the tasks waiting for the write of an object
+     * @param key - key the write was queued by
+     */
+    private void notifyWritten(String key) {
+        List<Runnable> tasks = writeListeners.isEmpty() ? null : writeListeners.remove(key);
+        if (tasks == null) {
+            return;
+        }
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                plugin.logError("Could not run a task after writing to the database: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the key that writes of an object are queued by in {@link #queueWrite(String, Runnable)}.
+     * Handlers that queue writes by something other than the unique id must override this.
+     * @param uniqueId - unique id of the object
+     * @return key of the writes of the object
+     * @since 1.13.0
+     */
+    @NonNull
+    protected String getWriteKey(@NonNull String uniqueId) {
+        return uniqueId;
+    }
+
+    /**
+     * @return number of writes that were not done because a newer write of the same object replaced them
+     * @since 1.13.0
+     */
+    public long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+
+    /**
+     * @return how long the last flush of the write-behind queue took, in milliseconds
+     * @since 1.13.0
+     */
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    /**
+     * @return how many writes the last flush of the write-behind queue did
+     * @since 1.13.0
+     */
+    public int getLastFlushSize() {
+        return lastFlushSize;
+    }
+
     /**
      * Loads all the records in this table and returns a list of them
      * @return list of <T>
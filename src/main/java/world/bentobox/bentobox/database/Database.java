@@ -128,6 +128,43 @@ public class Database<T> {
         }
     }
 
+    /**
+     * @return number of saves and deletions that are waiting to be written to the database
+     * @since 1.13.0
+     */
+    public int getQueueSize() {
+        return handler.getQueueSize();
+    }
+
+    /**
+     * Checks if a save or deletion of an object is still waiting to be written to the database
+     * @param uniqueId - unique id of the object
+     * @return true if loading the object now may give an older copy
+     * @since 1.13.0
+     */
+    public boolean isWritePending(@NonNull String uniqueId) {
+        return handler.isWritePending(uniqueId);
+    }
+
+    /**
+     * Runs a task once the save or deletion of an object that is waiting now has been written to the database.
+     * If none is waiting, the task is run straight away, otherwise it is usually run off the main thread.
+     * @param uniqueId - unique id of the object
+     * @param task - task to run
+     * @since 1.13.0
+     */
+    public void whenWritten(@NonNull String uniqueId, @NonNull Runnable task) {
+        handler.whenWritten(uniqueId, task);
+    }
+
+    /**
+     * @return how long the last write of queued saves and deletions took, in milliseconds
+     * @since 1.13.0
+     */
+    public long getLastFlushTime() {
+        return handler.getLastFlushTime();
+    }
+
     /**
      * Close the database
      */
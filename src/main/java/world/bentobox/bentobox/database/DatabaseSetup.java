@@ -5,6 +5,7 @@ import java.util.Arrays;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.json.JSONDatabase;
 import world.bentobox.bentobox.database.mongodb.MongoDBDatabase;
+import world.bentobox.bentobox.database.packed.PackedDatabase;
 import world.bentobox.bentobox.database.sql.mariadb.MariaDBDatabase;
 import world.bentobox.bentobox.database.sql.mysql.MySQLDatabase;
 import world.bentobox.bentobox.database.sql.postgresql.PostgreSQLDatabase;
@@ -12,17 +13,20 @@ import world.bentobox.bentobox.database.sql.sqlite.SQLiteDatabase;
 import world.bentobox.bentobox.database.transition.Json2MariaDBDatabase;
 import world.bentobox.bentobox.database.transition.Json2MongoDBDatabase;
 import world.bentobox.bentobox.database.transition.Json2MySQLDatabase;
+import world.bentobox.bentobox.database.transition.Json2PackedDatabase;
 import world.bentobox.bentobox.database.transition.Json2PostgreSQLDatabase;
 import world.bentobox.bentobox.database.transition.Json2SQLiteDatabase;
 import world.bentobox.bentobox.database.transition.MariaDB2JsonDatabase;
 import world.bentobox.bentobox.database.transition.MongoDB2JsonDatabase;
 import world.bentobox.bentobox.database.transition.MySQL2JsonDatabase;
+import world.bentobox.bentobox.database.transition.Packed2JsonDatabase;
 import world.bentobox.bentobox.database.transition.PostgreSQL2JsonDatabase;
 import world.bentobox.bentobox.database.transition.SQLite2JsonDatabase;
 import world.bentobox.bentobox.database.transition.Yaml2JsonDatabase;
 import world.bentobox.bentobox.database.transition.Yaml2MariaDBDatabase;
 import world.bentobox.bentobox.database.transition.Yaml2MongoDBDatabase;
 import world.bentobox.bentobox.database.transition.Yaml2MySQLDatabase;
+import world.bentobox.bentobox.database.transition.Yaml2PackedDatabase;
 import world.bentobox.bentobox.database.transition.Yaml2SQLiteDatabase;
 import world.bentobox.bentobox.database.yaml.YamlDatabase;
 
@@ -33,7 +37,7 @@ public interface DatabaseSetup {
 
     /**
      * Gets the type of database being used.
-     * Currently supported options are YAML, JSON, MYSQL, MARIADB and MONGODB.
+     * Currently supported options are YAML, JSON, PACKED, MYSQL, MARIADB, MONGODB, SQLITE and POSTGRESQL.
      * Default is JSON.
      * @return Database type
      */
@@ -156,7 +160,31 @@ public interface DatabaseSetup {
          * Transition database, from PostgreSQL to JSON
          * @since 1.6.0
          */
-        POSTGRESQL2JSON(new PostgreSQL2JsonDatabase());
+        POSTGRESQL2JSON(new PostgreSQL2JsonDatabase()),
+
+        /**
+         * File-based database that keeps all the objects of a class in one file
+         * @since 1.13.0
+         */
+        PACKED(new PackedDatabase()),
+
+        /**
+         * Transition database, from JSON to packed
+         * @since 1.13.0
+         */
+        JSON2PACKED(new Json2PackedDatabase()),
+
+        /**
+         * Transition database, from YAML to packed
+         * @since 1.13.0
+         */
+        YAML2PACKED(new Yaml2PackedDatabase()),
+
+        /**
+         * Transition database, from packed to JSON
+         * @since 1.13.0
+         */
+        PACKED2JSON(new Packed2JsonDatabase());
 
         DatabaseSetup database;
 
@@ -17,12 +17,14 @@ import com.google.gson.reflect.TypeToken;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.flags.Flag;
 import world.bentobox.bentobox.database.json.adapters.BukkitObjectTypeAdapter;
+import world.bentobox.bentobox.database.json.adapters.FlagRanksTypeAdapter;
 import world.bentobox.bentobox.database.json.adapters.FlagTypeAdapter;
 import world.bentobox.bentobox.database.json.adapters.ItemStackTypeAdapter;
 import world.bentobox.bentobox.database.json.adapters.LocationTypeAdapter;
 import world.bentobox.bentobox.database.json.adapters.PotionEffectTypeAdapter;
 import world.bentobox.bentobox.database.json.adapters.VectorTypeAdapter;
 import world.bentobox.bentobox.database.json.adapters.WorldTypeAdapter;
+import world.bentobox.bentobox.database.objects.FlagRanks;
 
 /**
  * Allocates type adapters based on class type.
@@ -54,6 +56,8 @@ public class BentoboxTypeAdapterFactory implements TypeAdapterFactory {
         } else if (ItemStack.class.isAssignableFrom(rawType)) {
             // Use our current location adapter for backward compatibility
             return (TypeAdapter<T>) new ItemStackTypeAdapter();
+        } else if (FlagRanks.class.isAssignableFrom(rawType)) {
+            return (TypeAdapter<T>) new FlagRanksTypeAdapter(plugin);
         } else if (Flag.class.isAssignableFrom(rawType)) {
             return (TypeAdapter<T>) new FlagTypeAdapter(plugin);
         } else if (PotionEffectType.class.isAssignableFrom(rawType)) {
@@ -9,14 +9,21 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.DatabaseConnector;
@@ -25,6 +32,10 @@ import world.bentobox.bentobox.database.objects.DataObject;
 public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     private static final String JSON = ".json";
+    /**
+     * Folders with fewer files than this are loaded in the calling thread
+     */
+    private static final int PARALLEL_LOAD_THRESHOLD = 64;
 
     /**
      * Constructor
@@ -41,8 +52,6 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
     @Override
     public List<T> loadObjects() {
         // In this case, all the objects of a specific type are being loaded.
-        List<T> list = new ArrayList<>();
-
         // The path is the simple name of the class
         String path = dataObject.getSimpleName();
 
@@ -54,26 +63,68 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
             // Nothing there...
             tableFolder.mkdirs();
         }
-        // Load each object from the file system, filtered, non-null
-        for (File file: Objects.requireNonNull(tableFolder.listFiles((dir, name) ->  name.toLowerCase(Locale.ENGLISH).endsWith(JSON)))) {
-            try (FileReader reader = new FileReader(file)){
-                T object = getGson().fromJson(reader, dataObject);
-                if (object != null) {
-                    list.add(object);
-                } else {
-                    plugin.logError("JSON file created a null object: " + file.getPath());
-                    reader.close(); // NOSONAR Required to keep OS file handlers low and not rely on GC
-                }
-            } catch (FileNotFoundException e) {
-                plugin.logError("Could not load file '" + file.getName() + "': File not found.");
-
-            } catch (Exception e) {
-                plugin.logError("Could not load objects " + file.getName() + " " + e.getMessage());
+        // List the files without making a File for each of them
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tableFolder.toPath(),
+                p -> p.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(JSON))) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            plugin.logError("Could not load objects " + path + " " + e.getMessage());
+            return new ArrayList<>();
+        }
+        // Each file has a slot, so the objects come back in the order of the files whatever thread loaded them.
+        // This keeps the handling of duplicates by the caller the same as when loading one by one.
+        Object[] loaded = new Object[files.size()];
+        if (files.size() < PARALLEL_LOAD_THRESHOLD) {
+            for (int i = 0; i < loaded.length; i++) {
+                loaded[i] = loadFile(files.get(i));
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+            try {
+                // Gson is thread-safe, so all threads share the handler's instance
+                pool.submit(() -> IntStream.range(0, loaded.length).parallel().forEach(i -> loaded[i] = loadFile(files.get(i)))).get();
+            } catch (InterruptedException e) {
+                plugin.logError("Interrupted while loading objects " + path);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                plugin.logError("Could not load objects " + path + " " + e.getMessage());
+            } finally {
+                pool.shutdown();
+            }
+        }
+        List<T> list = new ArrayList<>(loaded.length);
+        for (Object object : loaded) {
+            if (object != null) {
+                list.add(dataObject.cast(object));
             }
         }
         return list;
     }
 
+    /**
+     * Loads an object from a file. May be called from any thread.
+     * @param file - JSON file
+     * @return the object, or null if it could not be loaded
+     */
+    @Nullable
+    private T loadFile(Path file) {
+        try {
+            // One read of the whole file, which is small, instead of many unbuffered ones
+            String json = new String(Files.readAllBytes(file), Charset.defaultCharset());
+            T object = getGson().fromJson(json, dataObject);
+            if (object == null) {
+                plugin.logError("JSON file created a null object: " + file);
+            }
+            return object;
+        } catch (NoSuchFileException e) {
+            plugin.logError("Could not load file '" + file.getFileName() + "': File not found.");
+        } catch (Exception e) {
+            plugin.logError("Could not load objects " + file.getFileName() + " " + e.getMessage());
+        }
+        return null;
+    }
+
     @Override
     public T loadObject(@NonNull String uniqueId) {
         // Objects are loaded from a folder named after the simple name of the class being stored
@@ -112,7 +163,8 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
         // Obtain the value of uniqueId within the instance (which must be a DataObject)
         PropertyDescriptor propertyDescriptor = new PropertyDescriptor("uniqueId", dataObject);
         Method method = propertyDescriptor.getReadMethod();
-        String fileName = method.invoke(instance) + JSON;
+        String uniqueId = String.valueOf(method.invoke(instance));
+        String fileName = uniqueId + JSON;
 
         File tableFolder = new File(plugin.getDataFolder(), path);
         File file = new File(tableFolder, fileName);
@@ -121,13 +173,7 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
         }
 
         String toStore = getGson().toJson(instance);
-        if (plugin.isEnabled()) {
-            // Async
-            processQueue.add(() -> store(toStore, file, tableFolder, fileName));
-        } else {
-            // Sync
-            store(toStore, file, tableFolder, fileName);
-        }
+        queueWrite(uniqueId, () -> store(toStore, file, tableFolder, fileName));
     }
 
     private void store(String toStore, File file, File tableFolder, String fileName) {
@@ -149,11 +195,12 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
      */
     @Override
     public void deleteID(String uniqueId) {
-        if (plugin.isEnabled()) {
-            processQueue.add(() -> delete(uniqueId));
-        } else {
-            delete(uniqueId);
-        }
+        queueWrite(getWriteKey(uniqueId), () -> delete(uniqueId));
+    }
+
+    @Override
+    protected String getWriteKey(String uniqueId) {
+        return uniqueId.endsWith(JSON) ? uniqueId.substring(0, uniqueId.length() - JSON.length()) : uniqueId;
     }
 
     private void delete(String uniqueId) {
@@ -202,6 +249,6 @@ public class JSONDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     @Override
     public void close() {
-        shutdown = true;
+        shutdownQueue();
     }
 }
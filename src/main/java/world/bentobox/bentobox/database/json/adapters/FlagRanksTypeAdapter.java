@@ -0,0 +1,76 @@
+package world.bentobox.bentobox.database.json.adapters;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.database.objects.FlagRanks;
+
+/**
+ * Stores {@link FlagRanks} as an object of flag IDs to ranks, which is how the island flags map
+ * was always stored.
+ * Flags that are not known, e.g., because the addon that made them was removed, are dropped.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class FlagRanksTypeAdapter extends TypeAdapter<FlagRanks> {
+
+    private BentoBox plugin;
+
+    public FlagRanksTypeAdapter(BentoBox plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void write(JsonWriter out, FlagRanks value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        for (Entry<Flag, Integer> en : value.toMap().entrySet()) {
+            out.name(en.getKey().getID()).value(en.getValue());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public FlagRanks read(JsonReader reader) throws IOException {
+        FlagRanks result = new FlagRanks();
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            // Map written as an array of [key, value] pairs
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.beginArray();
+                set(result, reader.nextString(), reader);
+                reader.endArray();
+            }
+            reader.endArray();
+        } else {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                set(result, reader.nextName(), reader);
+            }
+            reader.endObject();
+        }
+        return result;
+    }
+
+    private void set(FlagRanks result, String id, JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        }
+        int rank = reader.nextInt();
+        plugin.getFlagsManager().getFlag(id).ifPresent(flag -> result.set(flag, rank));
+    }
+}
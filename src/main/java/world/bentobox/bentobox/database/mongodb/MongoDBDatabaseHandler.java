@@ -117,31 +117,36 @@ public class MongoDBDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
             return;
         }
         DataObject dataObj = (DataObject)instance;
-        try {
-            Gson gson = getGson();
-            String toStore = gson.toJson(instance);
-            // Change uniqueId to _id
-            toStore = toStore.replaceFirst(UNIQUEID, MONGO_ID);
-            // This parses JSON to a Mongo Document
-            Document document = Document.parse(toStore);
-            // Filter based on the id
-            Bson filter = new Document(MONGO_ID, dataObj.getUniqueId());
-            // Set the options to upsert (update or insert if doc is not there)
-            FindOneAndReplaceOptions options = new FindOneAndReplaceOptions().upsert(true);
-            // Do the deed
-            collection.findOneAndReplace(filter, document, options);
-        } catch (Exception e) {
-            plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
-        }
+        // This has to be on the main thread to avoid concurrent modification errors
+        Gson gson = getGson();
+        // Change uniqueId to _id
+        String toStore = gson.toJson(instance).replaceFirst(UNIQUEID, MONGO_ID);
+        String uniqueId = dataObj.getUniqueId();
+        queueWrite(uniqueId, () -> {
+            try {
+                // This parses JSON to a Mongo Document
+                Document document = Document.parse(toStore);
+                // Filter based on the id
+                Bson filter = new Document(MONGO_ID, uniqueId);
+                // Set the options to upsert (update or insert if doc is not there)
+                FindOneAndReplaceOptions options = new FindOneAndReplaceOptions().upsert(true);
+                // Do the deed
+                collection.findOneAndReplace(filter, document, options);
+            } catch (Exception e) {
+                plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
+            }
+        });
     }
 
     @Override
     public void deleteID(String uniqueId) {
-        try {
-            collection.findOneAndDelete(new Document(MONGO_ID, uniqueId));
-        } catch (Exception e) {
-            plugin.logError("Could not delete object " + plugin.getSettings().getDatabasePrefix() + dataObject.getCanonicalName() + " " + uniqueId + " " + e.getMessage());
-        }
+        queueWrite(uniqueId, () -> {
+            try {
+                collection.findOneAndDelete(new Document(MONGO_ID, uniqueId));
+            } catch (Exception e) {
+                plugin.logError("Could not delete object " + plugin.getSettings().getDatabasePrefix() + dataObject.getCanonicalName() + " " + uniqueId + " " + e.getMessage());
+            }
+        });
     }
 
     @Override
@@ -165,6 +170,7 @@ public class MongoDBDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     @Override
     public void close() {
+        shutdownQueue();
         dbConnecter.closeConnection(dataObject);
     }
 }
@@ -0,0 +1,157 @@
+package world.bentobox.bentobox.database.objects;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.managers.FlagsManager;
+
+/**
+ * Ranks set for the flags of an island.
+ * <p>
+ * Ranks of registered flags are kept in a primitive array indexed by {@link Flag#getOrdinal()}, so
+ * reading one is an array access and there is no boxing. Flags that are not registered with the
+ * {@link FlagsManager} are kept in a map, which is only made if needed.
+ * <p>
+ * Ranks are stored as a map of flag IDs to ranks in the database, exactly as they were before, by
+ * {@link world.bentobox.bentobox.database.objects.adapters.FlagSerializer} and
+ * {@link world.bentobox.bentobox.database.json.adapters.FlagRanksTypeAdapter}.
+ *
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class FlagRanks {
+
+    /**
+     * Marks a flag that has no rank set. No rank can be this low.
+     */
+    private static final int UNSET = Integer.MIN_VALUE;
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Ranks by flag ordinal, minus one. The array is replaced, never shrunk, when it has to grow.
+     */
+    private int[] ranks = EMPTY;
+    @Nullable
+    private Map<Flag, Integer> unregistered;
+    /**
+     * Goes up every time a rank is set here, and every time the island that these ranks belong to counts a change
+     * of its members. Kept here rather than in {@link Island} so that it is not a field of the stored island.
+     */
+    private long changes;
+
+    public FlagRanks() {
+        // Nothing set
+    }
+
+    /**
+     * @param flags - ranks to set
+     */
+    public FlagRanks(@Nullable Map<Flag, Integer> flags) {
+        if (flags != null) {
+            flags.forEach((f, r) -> {
+                if (f != null && r != null) {
+                    set(f, r);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get the rank set for a flag
+     * @param flag - flag
+     * @param defaultRank - rank to return if none is set
+     * @return rank or defaultRank
+     */
+    public int get(@NonNull Flag flag, int defaultRank) {
+        int ordinal = flag.getOrdinal();
+        if (ordinal > 0) {
+            int[] r = ranks;
+            return ordinal <= r.length && r[ordinal - 1] != UNSET ? r[ordinal - 1] : defaultRank;
+        }
+        return unregistered == null ? defaultRank : unregistered.getOrDefault(flag, defaultRank);
+    }
+
+    /**
+     * Sets the rank for a flag
+     * @param flag - flag
+     * @param rank - rank
+     */
+    public void set(@NonNull Flag flag, int rank) {
+        int ordinal = flag.getOrdinal();
+        if (ordinal > 0) {
+            if (ordinal > ranks.length) {
+                // Fill the new array before it is seen, so readers never see a rank of 0 by mistake
+                int[] grown = Arrays.copyOf(ranks, ordinal);
+                Arrays.fill(grown, ranks.length, ordinal, UNSET);
+                grown[ordinal - 1] = rank;
+                ranks = grown;
+            } else {
+                ranks[ordinal - 1] = rank;
+            }
+        } else {
+            if (unregistered == null) {
+                unregistered = new HashMap<>();
+            }
+            unregistered.put(flag, rank);
+        }
+        changes++;
+    }
+
+    /**
+     * Replaces all the ranks
+     * @param flags - ranks to set
+     */
+    public void setAll(@Nullable Map<Flag, Integer> flags) {
+        FlagRanks set = new FlagRanks(flags);
+        ranks = set.ranks;
+        unregistered = set.unregistered;
+        changes++;
+    }
+
+    /**
+     * Counts a change of the island that these ranks belong to that is not a change of these ranks
+     */
+    public void countChange() {
+        changes++;
+    }
+
+    /**
+     * @return number of times ranks were set here, plus the number of other changes counted by {@link #countChange()}
+     */
+    public long getChanges() {
+        return changes;
+    }
+
+    /**
+     * @return a new map of the flags that have a rank set and their ranks
+     */
+    @NonNull
+    public Map<Flag, Integer> toMap() {
+        Map<Flag, Integer> result = new HashMap<>();
+        int[] r = ranks;
+        FlagsManager flagsManager = r.length == 0 ? null : BentoBox.getInstance().getFlagsManager();
+        for (int i = 0; flagsManager != null && i < r.length; i++) {
+            if (r[i] != UNSET) {
+                Flag flag = flagsManager.getFlagByOrdinal(i + 1);
+                if (flag != null) {
+                    result.put(flag, r[i]);
+                }
+            }
+        }
+        if (unregistered != null) {
+            result.putAll(unregistered);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
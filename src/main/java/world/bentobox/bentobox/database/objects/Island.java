@@ -1,5 +1,6 @@
 package world.bentobox.bentobox.database.objects;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -131,7 +132,7 @@ public class Island implements DataObject {
     //// Protection flags ////
     @Adapter(FlagSerializer.class)
     @Expose
-    private Map<Flag, Integer> flags = new HashMap<>();
+    private FlagRanks flags = new FlagRanks();
 
     //// Island History ////
     @Adapter(LogEntryListAdapter.class)
@@ -197,7 +198,7 @@ public class Island implements DataObject {
         this.createdDate = island.getCreatedDate();
         this.deleted = island.isDeleted();
         this.doNotLoad = island.isDoNotLoad();
-        this.flags.putAll(island.getFlags());
+        this.flags = new FlagRanks(island.getFlags());
         this.gameMode = island.getGameMode();
         this.history.addAll(island.getHistory());
         this.levelHandicap = island.getLevelHandicap();
@@ -270,6 +271,7 @@ public class Island implements DataObject {
      */
     public boolean unban(@NonNull UUID issuer, @NonNull UUID target) {
         if (members.remove(target) != null) {
+            flags.countChange();
             log(new LogEntry.Builder("UNBAN").data("player", target.toString()).data("issuer", issuer.toString()).build());
             return true;
         }
@@ -300,15 +302,18 @@ public class Island implements DataObject {
      * @return flag value
      */
     public int getFlag(@NonNull Flag flag) {
-        flags.putIfAbsent(flag, flag.getDefaultRank());
-        return flags.get(flag);
+        return flags.get(flag, flag.getDefaultRank());
     }
 
     /**
+     * Get the flags that have a value set on this island.
+     * <br/><br/>
+     * Since 1.13.0, this is a read-only copy and changing it throws an {@link UnsupportedOperationException}.
+     * Use {@link #setFlag(Flag, int)} or {@link #setFlags(Map)} to change the flags of the island.
      * @return the flags
      */
     public Map<Flag, Integer> getFlags() {
-        return flags;
+        return Collections.unmodifiableMap(flags.toMap());
     }
 
     /**
@@ -713,6 +718,7 @@ public class Island implements DataObject {
      */
     public void removeMember(UUID playerUUID) {
         members.remove(playerUUID);
+        flags.countChange();
     }
 
     /**
@@ -738,14 +744,14 @@ public class Island implements DataObject {
      * @param value - Use RanksManager settings, e.g. RanksManager.MEMBER
      */
     public void setFlag(Flag flag, int value){
-        flags.put(flag, value);
+        flags.set(flag, value);
     }
 
     /**
      * @param flags the flags to set
      */
     public void setFlags(Map<Flag, Integer> flags) {
-        this.flags = flags;
+        this.flags.setAll(flags);
     }
 
     /**
@@ -774,18 +780,32 @@ public class Island implements DataObject {
      */
     public void setMembers(Map<UUID, Integer> members) {
         this.members = members;
+        flags.countChange();
     }
 
     /**
      * Sets the display name of this Island.
      * <br/><br/>
      * An empty String or {@code null} will remove the display name.
+     * <br/><br/>
+     * For an island that is loaded, use {@link world.bentobox.bentobox.managers.IslandsManager#setIslandName(Island, String)}
+     * instead, so that the island can be found by its new name.
      * @param name The display name to set.
      */
     public void setName(String name){
         this.name = (name != null && !name.equals("")) ? name : null;
     }
 
+    /**
+     * Gets a number that changes every time the flags or ranks of this island are set through this object.
+     * Changes made directly to the map returned by {@link #getMembers()} are not counted.
+     * @return number of times the flags or ranks of this island were set
+     * @since 1.13.0
+     */
+    public long getChanges() {
+        return flags.getChanges();
+    }
+
     /**
      * Sets the owner of the island.
      * @param owner the island owner - the owner to set
@@ -796,6 +816,7 @@ public class Island implements DataObject {
         }
 
         this.owner = owner;
+        flags.countChange();
         if (owner == null) {
             log(new LogEntry.Builder("UNOWNED").build());
             return;
@@ -862,6 +883,7 @@ public class Island implements DataObject {
             return; // Defensive code
         }
         members.put(uuid, rank);
+        flags.countChange();
     }
 
     /**
@@ -869,6 +891,7 @@ public class Island implements DataObject {
      */
     public void setRanks(Map<UUID, Integer> ranks) {
         members = ranks;
+        flags.countChange();
     }
 
     /**
@@ -887,6 +910,7 @@ public class Island implements DataObject {
         if (isSpawn) {
             setOwner(null);
             members.clear();
+            flags.countChange();
             setFlagsDefaults();
             setFlag(Flags.LOCK, RanksManager.VISITOR_RANK);
         }
@@ -1014,7 +1038,7 @@ public class Island implements DataObject {
      */
     public void setSettingsFlag(Flag flag, boolean state) {
         if (flag.getType().equals(Flag.Type.SETTING) || flag.getType().equals(Flag.Type.WORLD_SETTING)) {
-            flags.put(flag, state ? 1 : -1);
+            flags.set(flag, state ? 1 : -1);
         }
     }
 
@@ -1043,6 +1067,7 @@ public class Island implements DataObject {
      */
     public void removeRank(Integer rank) {
         members.values().removeIf(rank::equals);
+        flags.countChange();
     }
 
     /**
@@ -0,0 +1,90 @@
+package world.bentobox.bentobox.database.objects;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.annotations.Expose;
+
+/**
+ * Stores how far a purge has got, so that it can carry on after a restart
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class PurgeProgress implements DataObject {
+
+    @Expose
+    private String uniqueId = ""; // world name
+    /**
+     * Unique ids of the islands that are still to be purged
+     */
+    @Expose
+    private List<String> islands = new ArrayList<>();
+    @Expose
+    private int purged;
+    @Expose
+    private int total;
+
+    public PurgeProgress() {}
+
+    /**
+     * @param worldName - name of the game world being purged
+     * @param islands - unique ids of the islands to purge
+     */
+    public PurgeProgress(String worldName, List<String> islands) {
+        this.uniqueId = worldName;
+        this.islands = islands;
+        this.total = islands.size();
+    }
+
+    @Override
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    @Override
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    /**
+     * @return the unique ids of the islands that are still to be purged
+     */
+    public List<String> getIslands() {
+        return islands;
+    }
+
+    /**
+     * @param islands the islands to set
+     */
+    public void setIslands(List<String> islands) {
+        this.islands = islands;
+    }
+
+    /**
+     * @return the number of islands purged so far
+     */
+    public int getPurged() {
+        return purged;
+    }
+
+    /**
+     * @param purged the purged to set
+     */
+    public void setPurged(int purged) {
+        this.purged = purged;
+    }
+
+    /**
+     * @return the number of islands there were to purge when the purge started
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @param total the total to set
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
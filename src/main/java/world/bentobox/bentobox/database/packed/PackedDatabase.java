@@ -0,0 +1,23 @@
+package world.bentobox.bentobox.database.packed;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.AbstractDatabaseHandler;
+import world.bentobox.bentobox.database.DatabaseSetup;
+
+/**
+ * File-based database that keeps all the objects of a class in one file
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class PackedDatabase implements DatabaseSetup {
+
+    private PackedDatabaseConnector connector = new PackedDatabaseConnector(BentoBox.getInstance());
+
+    /* (non-Javadoc)
+     * @see world.bentobox.bentobox.database.DatabaseSetup#getHandler(java.lang.Class)
+     */
+    @Override
+    public <T> AbstractDatabaseHandler<T> getHandler(Class<T> dataObjectClass) {
+        return new PackedDatabaseHandler<>(BentoBox.getInstance(), dataObjectClass, connector);
+    }
+}
@@ -0,0 +1,115 @@
+package world.bentobox.bentobox.database.packed;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.NonNull;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.DatabaseConnector;
+
+/**
+ * Opens the files of the packed database. Each file is opened once, however many handlers use it,
+ * and is closed when the last of them is closed.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class PackedDatabaseConnector implements DatabaseConnector {
+
+    private static final int MAX_LOOPS = 100;
+    private static final String DATABASE_FOLDER_NAME = "database";
+    static final String EXTENSION = ".db";
+    /**
+     * Tables by file, shared by all the connectors so that a file is never opened twice
+     */
+    private static final Map<File, PackedTable> tables = new HashMap<>();
+    private static final Map<File, Integer> users = new HashMap<>();
+    private final File dataFolder;
+
+    PackedDatabaseConnector(BentoBox plugin) {
+        dataFolder = new File(plugin.getDataFolder(), DATABASE_FOLDER_NAME);
+    }
+
+    private File getFile(String tableName) {
+        return new File(dataFolder, tableName + EXTENSION);
+    }
+
+    /**
+     * Opens the table of a class
+     * @param type - class of the objects in the table
+     * @return the {@link PackedTable}, or null if it could not be opened
+     */
+    @Override
+    public Object createConnection(Class<?> type) {
+        File file = getFile(type.getSimpleName());
+        synchronized (tables) {
+            PackedTable table = tables.get(file);
+            if (table == null) {
+                try {
+                    dataFolder.mkdirs();
+                    table = new PackedTable(file);
+                } catch (IOException e) {
+                    Bukkit.getLogger().severe("Could not open database file " + file.getName() + ": " + e.getMessage());
+                    return null;
+                }
+                if (table.getDiscardedBytes() > 0) {
+                    Bukkit.getLogger().warning("Removed " + table.getDiscardedBytes() + " bytes of incomplete records from the end of "
+                            + file.getName() + ". The server probably stopped while it was being written.");
+                }
+                tables.put(file, table);
+            }
+            users.merge(file, 1, Integer::sum);
+            return table;
+        }
+    }
+
+    @Override
+    public void closeConnection(Class<?> type) {
+        File file = getFile(type.getSimpleName());
+        synchronized (tables) {
+            Integer count = users.get(file);
+            if (count == null) {
+                return;
+            }
+            if (count > 1) {
+                users.put(file, count - 1);
+                return;
+            }
+            users.remove(file);
+            try {
+                tables.remove(file).close();
+            } catch (IOException e) {
+                Bukkit.getLogger().severe("Could not close database file " + file.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String getConnectionUrl() {
+        return null; // Not used
+    }
+
+    @Override
+    @NonNull
+    public String getUniqueId(String tableName) {
+        UUID uuid = UUID.randomUUID();
+        int limit = 0;
+        while (uniqueIdExists(tableName, uuid.toString()) && limit++ < MAX_LOOPS) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid.toString();
+    }
+
+    @Override
+    public boolean uniqueIdExists(String tableName, String key) {
+        PackedTable table;
+        synchronized (tables) {
+            table = tables.get(getFile(tableName));
+        }
+        return table != null && table.contains(key);
+    }
+}
@@ -0,0 +1,204 @@
+package world.bentobox.bentobox.database.packed;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.DatabaseConnector;
+import world.bentobox.bentobox.database.json.AbstractJSONDatabaseHandler;
+import world.bentobox.bentobox.database.objects.DataObject;
+
+/**
+ * Stores objects as JSON in a {@link PackedTable}, i.e., one file per class instead of one file per object.
+ * Saving an object appends to the file, without making backups or new files.
+ *
+ * @author tastybento
+ * @since 1.13.0
+ *
+ * @param <T> Class that will be stored
+ */
+public class PackedDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
+
+    private static final String JSON = ".json";
+    private static final String COULD_NOT_LOAD_OBJECT = "Could not load object ";
+    private static final String COULD_NOT_LOAD_OBJECTS = "Could not load objects ";
+
+    private volatile PackedTable table;
+
+    /**
+     * Constructor
+     *
+     * @param plugin            BentoBox plugin
+     * @param type              The type of the objects that should be created and filled with
+     *                          values from the database or inserted into the database
+     * @param databaseConnector Contains the settings to create a connection to the database
+     */
+    PackedDatabaseHandler(BentoBox plugin, Class<T> type, DatabaseConnector databaseConnector) {
+        super(plugin, type, databaseConnector);
+        table = (PackedTable) databaseConnector.createConnection(type);
+        if (table == null) {
+            plugin.logError("Could not open the database file for " + type.getSimpleName());
+            plugin.logWarning("Disabling the plugin...");
+            Bukkit.getPluginManager().disablePlugin(plugin);
+        }
+    }
+
+    @Override
+    public List<T> loadObjects() {
+        if (table == null) {
+            return Collections.emptyList();
+        }
+        List<String> records;
+        try {
+            records = table.readAll();
+        } catch (IOException e) {
+            plugin.logError(COULD_NOT_LOAD_OBJECTS + dataObject.getSimpleName() + " " + e.getMessage());
+            return Collections.emptyList();
+        }
+        List<T> list = new ArrayList<>(records.size());
+        Gson gson = getGson();
+        for (String json : records) {
+            try {
+                T object = gson.fromJson(json, dataObject);
+                if (object != null) {
+                    list.add(object);
+                }
+            } catch (JsonSyntaxException e) {
+                plugin.logError(COULD_NOT_LOAD_OBJECT + e.getMessage());
+                plugin.logError(json);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public T loadObject(@NonNull String uniqueId) {
+        if (table == null) {
+            return null;
+        }
+        try {
+            String json = table.read(getKey(uniqueId));
+            if (json == null) {
+                plugin.logError(COULD_NOT_LOAD_OBJECT + uniqueId + ": Not found.");
+                return null;
+            }
+            return getGson().fromJson(json, dataObject);
+        } catch (Exception e) {
+            plugin.logError(COULD_NOT_LOAD_OBJECT + uniqueId + " " + e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public boolean objectExists(String uniqueId) {
+        return table != null && table.contains(getKey(uniqueId));
+    }
+
+    @Override
+    public void saveObject(T instance) {
+        // Null check
+        if (instance == null) {
+            plugin.logError("Packed database request to store a null. ");
+            return;
+        }
+        if (!(instance instanceof DataObject)) {
+            plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
+            return;
+        }
+        PackedTable t = table;
+        if (t == null) {
+            return;
+        }
+        String uniqueId = ((DataObject)instance).getUniqueId();
+        // This has to be on the main thread to avoid concurrent modification errors
+        String toStore = getGson().toJson(instance);
+        queueWrite(uniqueId, () -> {
+            try {
+                t.save(uniqueId, toStore);
+            } catch (IOException e) {
+                plugin.logError("Could not save object " + instance.getClass().getName() + " " + uniqueId + " " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void deleteObject(T instance) {
+        // Null check
+        if (instance == null) {
+            plugin.logError("Packed database request to delete a null.");
+            return;
+        }
+        if (!(instance instanceof DataObject)) {
+            plugin.logError("This class is not a DataObject: " + instance.getClass().getName());
+            return;
+        }
+        deleteID(((DataObject)instance).getUniqueId());
+    }
+
+    @Override
+    public void deleteID(String uniqueId) {
+        PackedTable t = table;
+        if (t == null) {
+            return;
+        }
+        String key = getKey(uniqueId);
+        queueWrite(key, () -> {
+            try {
+                t.delete(key);
+            } catch (IOException e) {
+                plugin.logError("Could not delete object " + dataObject.getSimpleName() + " " + key + " " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes the batch and then makes sure it is on the disk. Compacts the file if it has become mostly old records.
+     * @see world.bentobox.bentobox.database.AbstractDatabaseHandler#processBatch(java.util.List)
+     */
+    @Override
+    protected void processBatch(@NonNull List<Runnable> batch) {
+        super.processBatch(batch);
+        PackedTable t = table;
+        if (t == null) {
+            return;
+        }
+        try {
+            t.sync();
+            if (t.needsCompaction()) {
+                t.compact();
+            }
+        } catch (IOException e) {
+            plugin.logError("Could not write database file for " + dataObject.getSimpleName() + " " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdownQueue();
+        if (table != null) {
+            // The write-behind queue also closes the connection when it stops
+            closeConnection();
+            table = null;
+        }
+    }
+
+    /**
+     * Unique IDs are sometimes given with the .json file extension of the JSON database
+     */
+    private String getKey(String uniqueId) {
+        return uniqueId.endsWith(JSON) ? uniqueId.substring(0, uniqueId.length() - JSON.length()) : uniqueId;
+    }
+
+    @Override
+    protected String getWriteKey(String uniqueId) {
+        return getKey(uniqueId);
+    }
+}
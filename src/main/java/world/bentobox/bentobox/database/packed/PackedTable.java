@@ -0,0 +1,436 @@
+package world.bentobox.bentobox.database.packed;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * One table of the packed database: all the objects of a class in a single append-only file.
+ * <p>
+ * The file starts with a header and is followed by records. Each record is the length of its body and
+ * a CRC32 checksum of that length and the body, then the body: a type byte, the unique ID of the object and,
+ * for saves, the object as JSON. A save or deletion appends one record, and the offset of the latest save of
+ * each object is kept in memory, so loading an object is a single read.
+ * <p>
+ * When the file is opened, an incomplete, zero-filled or damaged last record, which is what a crash in the middle
+ * of a write leaves behind, is cut from the end of the file. If there is a good record anywhere after the damage,
+ * the file itself is damaged: it is then copied aside and is not opened, so that nothing is lost by writing to it.
+ * Overwritten and deleted records are dropped by {@link #compact()}, which copies the live records
+ * to a new file and then moves it over the old one.
+ * <p>
+ * All the methods are synchronized.
+ *
+ * @author tastybento
+ * @since 1.13.0
+ */
+class PackedTable {
+
+    /**
+     * "BBPK"
+     */
+    private static final int MAGIC = 0x4242504B;
+    /**
+     * Version 2 has the length of each record in its checksum
+     */
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    /**
+     * Length and checksum
+     */
+    private static final int RECORD_HEADER_SIZE = 8;
+    /**
+     * Bytes read at a time when looking for a good record after some damage
+     */
+    private static final int SCAN_WINDOW = 64 * 1024;
+    private static final byte SAVE = 1;
+    private static final byte DELETE = 2;
+    /**
+     * Files smaller than this are never compacted
+     */
+    private static final long MIN_COMPACT_SIZE = 1024L * 1024L;
+
+    private final File file;
+    private FileChannel channel;
+    private final Map<String, Slot> index = new HashMap<>();
+    /**
+     * End of the last good record, where the next one is written
+     */
+    private long size;
+    /**
+     * Bytes taken by the records in the index
+     */
+    private long liveBytes;
+    private long discardedBytes;
+
+    /**
+     * Opens the table, creating the file if it does not exist
+     * @param file - file of the table
+     * @throws IOException if the file cannot be opened or is not a table
+     */
+    PackedTable(@NonNull File file) throws IOException {
+        this.file = file;
+        open();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        index.clear();
+        liveBytes = 0;
+        long end = channel.size();
+        if (end < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            write(header, 0);
+            size = HEADER_SIZE;
+            return;
+        }
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException(file.getName() + " is not a BentoBox database file");
+        }
+        long pos = HEADER_SIZE;
+        byte[] body;
+        while (pos < end && (body = readRecord(pos, end)) != null) {
+            replay(body, pos);
+            pos += RECORD_HEADER_SIZE + body.length;
+        }
+        if (pos < end) {
+            // Only a write that was cut short can be cut off, so there must be no good record after it
+            long next = findRecord(pos + 1, end);
+            if (next >= 0) {
+                quarantine(pos, next);
+            }
+        }
+        discardedBytes = end - pos;
+        if (discardedBytes > 0) {
+            channel.truncate(pos);
+        }
+        size = pos;
+    }
+
+    /**
+     * Reads the body of the record at an offset, checking that it is whole and that its length and body match
+     * its checksum
+     * @param pos - offset of the record
+     * @param end - end of the file
+     * @return the body, or null if there is no good record there
+     * @throws IOException if the file cannot be read
+     */
+    @Nullable
+    private byte[] readRecord(long pos, long end) throws IOException {
+        if (pos + RECORD_HEADER_SIZE > end) {
+            return null;
+        }
+        ByteBuffer recordHeader = read(pos, RECORD_HEADER_SIZE);
+        int length = recordHeader.getInt();
+        int checksum = recordHeader.getInt();
+        if (length <= 0 || length > end - pos - RECORD_HEADER_SIZE) {
+            return null;
+        }
+        byte[] body = read(pos + RECORD_HEADER_SIZE, length).array();
+        return checksum(length, body) == checksum ? body : null;
+    }
+
+    /**
+     * Looks for the first good record after some damage
+     * @param from - offset to start looking from
+     * @param end - end of the file
+     * @return offset of the record, or -1 if there is none
+     * @throws IOException if the file cannot be read
+     */
+    private long findRecord(long from, long end) throws IOException {
+        long windowStart = from;
+        ByteBuffer window = ByteBuffer.allocate(0);
+        for (long pos = from; pos + RECORD_HEADER_SIZE <= end; pos++) {
+            if (pos + RECORD_HEADER_SIZE > windowStart + window.limit()) {
+                // Read the lengths ahead in one go rather than one by one
+                windowStart = pos;
+                window = read(pos, (int) Math.min(SCAN_WINDOW, end - pos));
+            }
+            int length = window.getInt((int) (pos - windowStart));
+            // Only lengths that fit are worth checking
+            if (length > 0 && length <= end - pos - RECORD_HEADER_SIZE && readRecord(pos, end) != null) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the file aside and refuses to open it, because a record that is not at the end of it is damaged
+     * @param pos - offset of the damaged record
+     * @param next - offset of the good record found after it
+     * @throws IOException always
+     */
+    private void quarantine(long pos, long next) throws IOException {
+        channel.close();
+        File copy = new File(file.getParentFile(), file.getName() + ".damaged-" + System.currentTimeMillis());
+        Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        throw new IOException(file.getName() + " is damaged at byte " + pos + " of " + file.length()
+        + ", before a good record at byte " + next + ". A copy was saved as " + copy.getName() + ". Restore the file from a backup or remove the damaged record.");
+    }
+
+    private void replay(byte[] body, long pos) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte type = in.readByte();
+        String uniqueId = in.readUTF();
+        Slot old = type == SAVE ? index.put(uniqueId, new Slot(pos, body.length)) : index.remove(uniqueId);
+        if (old != null) {
+            liveBytes -= old.getTotalLength();
+        }
+        if (type == SAVE) {
+            liveBytes += RECORD_HEADER_SIZE + body.length;
+        }
+    }
+
+    /**
+     * @param uniqueId - unique ID of the object
+     * @return the object as JSON, or null if there is none
+     * @throws IOException if the file cannot be read or the record is damaged
+     */
+    @Nullable
+    synchronized String read(@NonNull String uniqueId) throws IOException {
+        Slot slot = index.get(uniqueId);
+        return slot == null ? null : readJson(slot);
+    }
+
+    /**
+     * @return all the objects as JSON, in the order they are in the file
+     * @throws IOException if the file cannot be read
+     */
+    @NonNull
+    synchronized List<String> readAll() throws IOException {
+        List<Slot> slots = new ArrayList<>(index.values());
+        slots.sort(Comparator.comparingLong(Slot::getOffset));
+        List<String> result = new ArrayList<>(slots.size());
+        for (Slot slot : slots) {
+            result.add(readJson(slot));
+        }
+        return result;
+    }
+
+    private String readJson(Slot slot) throws IOException {
+        byte[] body = read(slot.getOffset() + RECORD_HEADER_SIZE, slot.getLength()).array();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        in.readByte();
+        // Length of the unique ID, plus its two byte length
+        int start = 1 + 2 + in.readUnsignedShort();
+        return new String(body, start, body.length - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param uniqueId - unique ID of the object
+     * @return true if the object is in the table
+     */
+    synchronized boolean contains(@NonNull String uniqueId) {
+        return index.containsKey(uniqueId);
+    }
+
+    /**
+     * Saves an object, replacing any older save of it
+     * @param uniqueId - unique ID of the object
+     * @param json - the object as JSON
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void save(@NonNull String uniqueId, @NonNull String json) throws IOException {
+        Slot slot = append(SAVE, uniqueId, json.getBytes(StandardCharsets.UTF_8));
+        Slot old = index.put(uniqueId, slot);
+        if (old != null) {
+            liveBytes -= old.getTotalLength();
+        }
+        liveBytes += slot.getTotalLength();
+    }
+
+    /**
+     * Deletes an object. Nothing is written if the object is not in the table.
+     * @param uniqueId - unique ID of the object
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void delete(@NonNull String uniqueId) throws IOException {
+        if (index.containsKey(uniqueId)) {
+            append(DELETE, uniqueId, new byte[0]);
+            liveBytes -= index.remove(uniqueId).getTotalLength();
+        }
+    }
+
+    private Slot append(byte type, String uniqueId, byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length + uniqueId.length() + 3);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeUTF(uniqueId);
+        out.write(data);
+        byte[] body = bytes.toByteArray();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + body.length);
+        record.putInt(body.length).putInt(checksum(body.length, body)).put(body).flip();
+        Slot slot = new Slot(size, body.length);
+        write(record, size);
+        size += record.capacity();
+        return slot;
+    }
+
+    /**
+     * Makes sure that everything written so far is on the disk
+     * @throws IOException if the file cannot be written
+     */
+    synchronized void sync() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * @return true if the file is big and more than half of it is old records
+     */
+    synchronized boolean needsCompaction() {
+        return size > MIN_COMPACT_SIZE && size > 2 * (HEADER_SIZE + liveBytes);
+    }
+
+    /**
+     * Rewrites the file with only the latest save of each object in it.
+     * If this fails or is interrupted, the old file is kept as it was.
+     * @throws IOException if the new file cannot be written
+     */
+    synchronized void compact() throws IOException {
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        List<Map.Entry<String, Slot>> slots = new ArrayList<>(index.entrySet());
+        slots.sort(Comparator.comparingLong(e -> e.getValue().getOffset()));
+        Map<String, Slot> moved = new HashMap<>();
+        try (FileChannel out = FileChannel.open(tmpFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            long pos = HEADER_SIZE;
+            for (Map.Entry<String, Slot> entry : slots) {
+                Slot slot = entry.getValue();
+                long copied = 0;
+                while (copied < slot.getTotalLength()) {
+                    copied += channel.transferTo(slot.getOffset() + copied, slot.getTotalLength() - copied, out);
+                }
+                moved.put(entry.getKey(), new Slot(pos, slot.getLength()));
+                pos += slot.getTotalLength();
+            }
+            out.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // Reopen whichever file is there now
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        index.clear();
+        index.putAll(moved);
+        size = channel.size();
+    }
+
+    /**
+     * @return number of bytes of incomplete or damaged records that were cut from the end of the file when it was opened
+     */
+    synchronized long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * @return number of objects in the table
+     */
+    synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * @return size of the file in bytes
+     */
+    synchronized long getFileSize() {
+        return size;
+    }
+
+    /**
+     * Writes everything to the disk and closes the file
+     * @throws IOException if the file cannot be closed
+     */
+    synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private ByteBuffer read(long pos, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, pos + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + file.getName());
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void write(ByteBuffer buffer, long pos) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, pos + buffer.position());
+        }
+    }
+
+    private static int checksum(int length, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(4).putInt(length).array(), 0, 4);
+        crc.update(body, 0, body.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Where a record is in the file
+     */
+    private static class Slot {
+        private final long offset;
+        private final int length;
+
+        Slot(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return length of the record's body
+         */
+        int getLength() {
+            return length;
+        }
+
+        /**
+         * @return length of the record, including its length and checksum
+         */
+        long getTotalLength() {
+            return (long) RECORD_HEADER_SIZE + length;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+
+/**
+ * Contains the packed database, which keeps each table in a single append-only file.
+ */
+package world.bentobox.bentobox.database.packed;
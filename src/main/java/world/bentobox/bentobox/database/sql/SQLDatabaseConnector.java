@@ -8,6 +8,7 @@ import java.util.Set;
 
 import org.bukkit.Bukkit;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import world.bentobox.bentobox.database.DatabaseConnectionSettingsImpl;
 import world.bentobox.bentobox.database.DatabaseConnector;
@@ -18,6 +19,12 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
     private DatabaseConnectionSettingsImpl dbSettings;
     protected static Connection connection = null;
     protected static Set<Class<?>> types = new HashSet<>();
+    /**
+     * Connection used to write the queued saves and deletions of all the types in batches, so that the
+     * transactions of the batches are kept apart from the reads on {@link #connection}. It is made on first
+     * use and is closed with the last type that uses this connector.
+     */
+    private Connection writeConnection;
 
     public SQLDatabaseConnector(DatabaseConnectionSettingsImpl dbSettings, String connectionUrl) {
         this.dbSettings = dbSettings;
@@ -45,6 +52,9 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
     @Override
     public void closeConnection(Class<?> type) {
         types.remove(type);
+        if (types.isEmpty()) {
+            closeWriteConnection();
+        }
         if (types.isEmpty() && connection != null) {
             try {
                 connection.close();
@@ -69,4 +79,34 @@ public abstract class SQLDatabaseConnector implements DatabaseConnector {
         return connection;
     }
 
+    /**
+     * Get the connection used to write queued saves and deletions. It is made on first use and is shared by
+     * all the types, so writers must synchronize on it while they use it.
+     * @param type - type of objects being written
+     * @return connection or null if it could not be made
+     * @since 1.13.0
+     */
+    @Nullable
+    public synchronized Connection getWriteConnection(Class<?> type) {
+        if (writeConnection == null) {
+            try {
+                writeConnection = DriverManager.getConnection(connectionUrl, dbSettings.getUsername(), dbSettings.getPassword());
+            } catch (SQLException e) {
+                Bukkit.getLogger().severe("Could not connect to the database! " + e.getMessage());
+            }
+        }
+        return writeConnection;
+    }
+
+    private synchronized void closeWriteConnection() {
+        if (writeConnection != null && writeConnection != connection) {
+            try {
+                writeConnection.close();
+            } catch (SQLException e) {
+                Bukkit.getLogger().severe("Could not close database connection");
+            }
+        }
+        writeConnection = null;
+    }
+
 }
@@ -8,7 +8,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.eclipse.jdt.annotation.NonNull;
@@ -45,6 +47,23 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
      */
     private SQLConfiguration sqlConfig;
 
+    /**
+     * Connection that batches of queued writes are done on, and its prepared statements by SQL string.
+     * Only used while holding the write lock, see {@link #processBatch(List)}.
+     */
+    private Connection batchConnection;
+    private final Map<String, PreparedStatement> batchStatements = new LinkedHashMap<>();
+    private boolean batching;
+    /**
+     * Statement that the last writes of the batch were added to. Its writes are run before writes with
+     * any other statement are added, so that writes are done in the order they were queued.
+     */
+    private PreparedStatement lastBatchStatement;
+    /**
+     * Set if running part of the batch failed, so the whole batch must be done again one by one
+     */
+    private SQLException batchFailure;
+
     /**
      * Handles the connection to the database and creation of the initial database schema (tables) for
      * the class that will be stored.
@@ -157,32 +176,170 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
         // This has to be on the main thread to avoid concurrent modification errors
         String toStore = getGson().toJson(instance);
         // Async
-        processQueue.add(() -> store(instance.getClass().getName(), toStore, sqlConfig.getSaveObjectSQL()));
+        queueWrite(((DataObject)instance).getUniqueId(), () -> store(instance.getClass().getName(), toStore, sqlConfig.getSaveObjectSQL()));
     }
 
     private void store(String name, String toStore, String sb) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sb)) {
-            preparedStatement.setString(1, toStore);
-            preparedStatement.setString(2, toStore);
-            preparedStatement.execute();
+        try {
+            executeWrite(sb, toStore, toStore);
         } catch (SQLException e) {
             plugin.logError("Could not save object " + name + " " + e.getMessage());
         }
     }
 
+    /**
+     * Runs an insert, update or delete statement. While a batch of queued writes is being written, the
+     * statement is added to the batch instead and is run when the batch is committed.
+     * @param sql - SQL statement
+     * @param parameters - string parameters of the statement, in order
+     * @throws SQLException if the statement cannot be run or added to the batch
+     * @since 1.13.0
+     */
+    protected void executeWrite(String sql, String... parameters) throws SQLException {
+        if (batching) {
+            if (batchFailure != null) {
+                // The batch will be done again one by one
+                return;
+            }
+            try {
+                addToBatch(sql, parameters);
+            } catch (SQLException e) {
+                // Nothing in the batch may be committed without this write, so do it all again one by one
+                batchFailure = e;
+                throw e;
+            }
+            return;
+        }
+        synchronized (connection) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                setParameters(preparedStatement, parameters);
+                preparedStatement.execute();
+            }
+        }
+    }
+
+    private void addToBatch(String sql, String... parameters) throws SQLException {
+        PreparedStatement preparedStatement = batchStatements.get(sql);
+        if (preparedStatement == null) {
+            preparedStatement = batchConnection.prepareStatement(sql);
+            batchStatements.put(sql, preparedStatement);
+        }
+        if (lastBatchStatement != null && lastBatchStatement != preparedStatement) {
+            runBatchStatement();
+        }
+        lastBatchStatement = preparedStatement;
+        setParameters(preparedStatement, parameters);
+        preparedStatement.addBatch();
+    }
+
+    /**
+     * Runs the writes that were added to the last statement of the batch
+     * @throws SQLException if they cannot be run. The whole batch is then done again one by one.
+     */
+    private void runBatchStatement() throws SQLException {
+        PreparedStatement preparedStatement = lastBatchStatement;
+        lastBatchStatement = null;
+        preparedStatement.executeBatch();
+    }
+
+    private void setParameters(PreparedStatement preparedStatement, String... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            preparedStatement.setString(i + 1, parameters[i]);
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction, using JDBC batches of prepared statements that are kept between
+     * batches. Consecutive writes with the same statement are run together, in the order they were queued.
+     * If the transaction fails, it is rolled back and the writes are done again one by one, so
+     * that only the ones that are really failing are lost.
+     * @see world.bentobox.bentobox.database.AbstractDatabaseHandler#processBatch(java.util.List)
+     */
+    @Override
+    protected void processBatch(@NonNull List<Runnable> batch) {
+        Connection writeConnection = getBatchConnection();
+        if (writeConnection == null || batch.size() == 1) {
+            super.processBatch(batch);
+            return;
+        }
+        // The connection may be shared with other tables, e.g., by SQLite
+        synchronized (writeConnection) {
+            try {
+                writeConnection.setAutoCommit(false);
+                batching = true;
+                super.processBatch(batch);
+                if (batchFailure != null) {
+                    throw batchFailure;
+                }
+                if (lastBatchStatement != null) {
+                    runBatchStatement();
+                }
+                writeConnection.commit();
+            } catch (SQLException e) {
+                plugin.logError("Could not write " + batch.size() + " objects to the database in one go, writing them one by one. " + e.getMessage());
+                rollback(writeConnection);
+                batching = false;
+                lastBatchStatement = null;
+                super.processBatch(batch);
+            } finally {
+                batching = false;
+                lastBatchStatement = null;
+                batchFailure = null;
+                try {
+                    writeConnection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    plugin.logError("Could not end database transaction " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void rollback(Connection writeConnection) {
+        try {
+            writeConnection.rollback();
+            for (PreparedStatement preparedStatement : batchStatements.values()) {
+                preparedStatement.clearBatch();
+            }
+        } catch (SQLException e) {
+            plugin.logError("Could not roll back database transaction " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the connection that batches are written on, or null if batches cannot be used
+     */
+    private Connection getBatchConnection() {
+        if (!(databaseConnector instanceof SQLDatabaseConnector)) {
+            return null;
+        }
+        Connection writeConnection = ((SQLDatabaseConnector)databaseConnector).getWriteConnection(dataObject);
+        try {
+            if (writeConnection != null && writeConnection.isClosed()) {
+                writeConnection = null;
+            }
+        } catch (SQLException e) {
+            writeConnection = null;
+        }
+        if (writeConnection != batchConnection) {
+            // Prepared statements belong to the connection they were made on
+            batchStatements.clear();
+            batchConnection = writeConnection;
+        }
+        return writeConnection;
+    }
+
     /* (non-Javadoc)
      * @see world.bentobox.bentobox.database.AbstractDatabaseHandler#deleteID(java.lang.String)
      */
     @Override
     public void deleteID(String uniqueId) {
-        processQueue.add(() -> delete(uniqueId));
+        queueWrite(uniqueId, () -> delete(uniqueId));
     }
 
     private void delete(String uniqueId) {
-        try (PreparedStatement preparedStatement = connection.prepareStatement(sqlConfig.getDeleteObjectSQL())) {
+        try {
             // UniqueId needs to be placed in quotes
-            preparedStatement.setString(1, "\"" + uniqueId + "\"");
-            preparedStatement.execute();
+            executeWrite(sqlConfig.getDeleteObjectSQL(), "\"" + uniqueId + "\"");
         } catch (Exception e) {
             plugin.logError("Could not delete object " + plugin.getSettings().getDatabasePrefix() + dataObject.getCanonicalName() + " " + uniqueId + " " + e.getMessage());
         }
@@ -226,7 +383,15 @@ public class SQLDatabaseHandler<T> extends AbstractJSONDatabaseHandler<T> {
 
     @Override
     public void close() {
-        shutdown = true;
+        shutdownQueue();
+        for (PreparedStatement preparedStatement : batchStatements.values()) {
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                // Closed with the connection anyway
+            }
+        }
+        batchStatements.clear();
     }
 
     /**
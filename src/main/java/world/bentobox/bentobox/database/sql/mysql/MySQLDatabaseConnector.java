@@ -11,6 +11,6 @@ public class MySQLDatabaseConnector extends SQLDatabaseConnector {
      */
     MySQLDatabaseConnector(DatabaseConnectionSettingsImpl dbSettings) {
         super(dbSettings, "jdbc:mysql://" + dbSettings.getHost() + ":" + dbSettings.getPort() + "/" + dbSettings.getDatabaseName()
-        + "?autoReconnect=true&useSSL=" + dbSettings.isUseSSL() + "&allowMultiQueries=true&useUnicode=true&characterEncoding=UTF-8");
+        + "?autoReconnect=true&useSSL=" + dbSettings.isUseSSL() + "&allowMultiQueries=true&useUnicode=true&characterEncoding=UTF-8&rewriteBatchedStatements=true");
     }
 }
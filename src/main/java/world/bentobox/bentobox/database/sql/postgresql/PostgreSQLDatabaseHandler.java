@@ -1,6 +1,5 @@
 package world.bentobox.bentobox.database.sql.postgresql;
 
-import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 import com.google.gson.Gson;
@@ -64,12 +63,10 @@ public class PostgreSQLDatabaseHandler<T> extends SQLDatabaseHandler<T> {
         Gson gson = getGson();
         String toStore = gson.toJson(instance);
         String uniqueId = ((DataObject)instance).getUniqueId();
-        processQueue.add(() -> {
-            try (PreparedStatement preparedStatement = getConnection().prepareStatement(getSqlConfig().getSaveObjectSQL())) {
-                preparedStatement.setString(1, uniqueId); // INSERT
-                preparedStatement.setString(2, toStore); // INSERT
-                preparedStatement.setString(3, toStore); // ON CONFLICT
-                preparedStatement.execute();
+        queueWrite(uniqueId, () -> {
+            try {
+                // INSERT uniqueId and json, ON CONFLICT json
+                executeWrite(getSqlConfig().getSaveObjectSQL(), uniqueId, toStore, toStore);
             } catch (SQLException e) {
                 plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
             }
@@ -1,6 +1,7 @@
 package world.bentobox.bentobox.database.sql.sqlite;
 
 import java.io.File;
+import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 
@@ -45,4 +46,13 @@ public class SQLiteDatabaseConnector extends SQLDatabaseConnector {
         }
         return connection;
     }
+
+    /**
+     * SQLite only allows one writer at a time, so all the writes are done on the one connection.
+     * @see world.bentobox.bentobox.database.sql.SQLDatabaseConnector#getWriteConnection(java.lang.Class)
+     */
+    @Override
+    public Connection getWriteConnection(Class<?> type) {
+        return connection;
+    }
 }
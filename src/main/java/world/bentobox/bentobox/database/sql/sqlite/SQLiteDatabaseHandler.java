@@ -51,12 +51,10 @@ public class SQLiteDatabaseHandler<T> extends SQLDatabaseHandler<T> {
         }
         Gson gson = getGson();
         String toStore = gson.toJson(instance);
-        processQueue.add(() -> {
-            try (PreparedStatement preparedStatement = getConnection().prepareStatement(getSqlConfig().getSaveObjectSQL())) {
-                preparedStatement.setString(1, toStore);
-                preparedStatement.setString(2, ((DataObject)instance).getUniqueId());
-                preparedStatement.setString(3, toStore);
-                preparedStatement.execute();
+        String uniqueId = ((DataObject)instance).getUniqueId();
+        queueWrite(uniqueId, () -> {
+            try {
+                executeWrite(getSqlConfig().getSaveObjectSQL(), toStore, uniqueId, toStore);
             } catch (SQLException e) {
                 plugin.logError("Could not save object " + instance.getClass().getName() + " " + e.getMessage());
             }
@@ -65,11 +63,10 @@ public class SQLiteDatabaseHandler<T> extends SQLDatabaseHandler<T> {
 
     @Override
     public void deleteID(String uniqueId) {
-        processQueue.add(() -> {
-            try (PreparedStatement preparedStatement = getConnection().prepareStatement(getSqlConfig().getDeleteObjectSQL())) {
+        queueWrite(uniqueId, () -> {
+            try {
                 // UniqueId must *not* be placed in quotes
-                preparedStatement.setString(1, uniqueId);
-                preparedStatement.executeUpdate();
+                executeWrite(getSqlConfig().getDeleteObjectSQL(), uniqueId);
             } catch (Exception e) {
                 plugin.logError("Could not delete object " + plugin.getSettings().getDatabasePrefix() + dataObject.getCanonicalName() + " " + uniqueId + " " + e.getMessage());
             }
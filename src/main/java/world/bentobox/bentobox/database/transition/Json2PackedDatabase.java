@@ -0,0 +1,19 @@
+package world.bentobox.bentobox.database.transition;
+
+import world.bentobox.bentobox.database.AbstractDatabaseHandler;
+import world.bentobox.bentobox.database.DatabaseSetup;
+import world.bentobox.bentobox.database.json.JSONDatabase;
+import world.bentobox.bentobox.database.packed.PackedDatabase;
+
+/**
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class Json2PackedDatabase implements DatabaseSetup {
+
+    @Override
+    public <T> AbstractDatabaseHandler<T> getHandler(Class<T> type) {
+        return new TransitionDatabaseHandler<>(type, new JSONDatabase().getHandler(type), new PackedDatabase().getHandler(type));
+    }
+
+}
@@ -108,8 +108,15 @@ public class TransitionDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         fromHandler.deleteObject(instance);
     }
 
+    @Override
+    public int getQueueSize() {
+        return toHandler.getQueueSize() + fromHandler.getQueueSize();
+    }
+
     @Override
     public void close() {
-        // Not used
+        // Write anything that is still queued in both databases
+        toHandler.close();
+        fromHandler.close();
     }
 }
@@ -0,0 +1,19 @@
+package world.bentobox.bentobox.database.transition;
+
+import world.bentobox.bentobox.database.AbstractDatabaseHandler;
+import world.bentobox.bentobox.database.DatabaseSetup;
+import world.bentobox.bentobox.database.packed.PackedDatabase;
+import world.bentobox.bentobox.database.yaml.YamlDatabase;
+
+/**
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class Yaml2PackedDatabase implements DatabaseSetup {
+
+    @Override
+    public <T> AbstractDatabaseHandler<T> getHandler(Class<T> type) {
+        return new TransitionDatabaseHandler<>(type, new YamlDatabase().getHandler(type), new PackedDatabase().getHandler(type));
+    }
+
+}
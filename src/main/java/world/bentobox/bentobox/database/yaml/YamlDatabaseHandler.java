@@ -9,6 +9,7 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
@@ -148,8 +149,8 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
         // Run through all the fields in the object
         for (Field field : dataObject.getDeclaredFields()) {
-            // Ignore synthetic fields, such as those added by Jacoco or the compiler
-            if (field.isSynthetic()) {
+            // Ignore synthetic fields, such as those added by Jacoco or the compiler, and fields that are not stored
+            if (field.isSynthetic() || isNotStored(field)) {
                 continue;
             }
             // Get the getter and setters for this field using the JavaBeans system
@@ -298,6 +299,15 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
         method.invoke(instance, value);
     }
 
+    /**
+     * Static fields are not part of the stored object
+     * @param field - field
+     * @return true if this field is not stored
+     */
+    private boolean isNotStored(Field field) {
+        return Modifier.isStatic(field.getModifiers());
+    }
+
     /**
      * Get a list of parameter types for the collection argument in this method
      * @param writeMethod - write method
@@ -355,7 +365,7 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
         // Run through all the fields in the class that is being stored. EVERY field must have a get and set method
         for (Field field : dataObject.getDeclaredFields()) {
-            if (field.isSynthetic()) {
+            if (field.isSynthetic() || isNotStored(field)) {
                 continue;
             }
             // Get the property descriptor for this field
@@ -418,13 +428,17 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
     }
 
     private void save(String name, String data, String path, Map<String, String> yamlComments) {
-        if (plugin.isEnabled()) {
-            // Async
-            processQueue.add(() -> ((YamlDatabaseConnector)databaseConnector).saveYamlFile(data, path, name, yamlComments));
-        } else {
-            // Sync for shutdown
-            ((YamlDatabaseConnector)databaseConnector).saveYamlFile(data, path, name, yamlComments);
-        }
+        queueWrite(getWriteKey(path, name), () -> ((YamlDatabaseConnector)databaseConnector).saveYamlFile(data, path, name, yamlComments));
+    }
+
+    /**
+     * Saves and deletions of the same file must have the same key in the write queue
+     * @param path - folder of the file
+     * @param name - name of the file, with or without the .yml extension
+     * @return key
+     */
+    private String getWriteKey(String path, String name) {
+        return path + File.separator + (name.endsWith(YML) ? name.substring(0, name.length() - YML.length()) : name);
     }
 
     private void serializeSet(Set<Object> value, YamlConfiguration config, String storageLocation) {
@@ -631,11 +645,15 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
     @Override
     public void deleteID(String uniqueId) {
-        if (plugin.isEnabled()) {
-            processQueue.add(() -> delete(uniqueId));
-        } else {
-            delete(uniqueId);
+        if (uniqueId == null) {
+            return;
         }
+        queueWrite(getWriteKey(uniqueId), () -> delete(uniqueId));
+    }
+
+    @Override
+    protected String getWriteKey(String uniqueId) {
+        return getWriteKey(DATABASE_FOLDER_NAME + File.separator + dataObject.getSimpleName(), uniqueId);
     }
 
     private void delete(String uniqueId) {
@@ -684,6 +702,6 @@ public class YamlDatabaseHandler<T> extends AbstractDatabaseHandler<T> {
 
     @Override
     public void close() {
-        // Not used
+        shutdownQueue();
     }
 }
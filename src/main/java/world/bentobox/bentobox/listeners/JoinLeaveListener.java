@@ -11,8 +11,10 @@ import org.bukkit.World;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.eclipse.jdt.annotation.NonNull;
 
@@ -42,6 +44,30 @@ public class JoinLeaveListener implements Listener {
         players = plugin.getPlayers();
     }
 
+    /**
+     * Loads the player's data off the main thread while they log in, so that joining does not wait for the database
+     * @param event - AsyncPlayerPreLoginEvent
+     * @since 1.13.0
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(final AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            players.prefetch(event.getUniqueId());
+        }
+    }
+
+    /**
+     * Forgets the player's data loaded when they logged in if they are not allowed to join
+     * @param event - PlayerLoginEvent
+     * @since 1.13.0
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(final PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            players.discardPrefetch(event.getPlayer().getUniqueId());
+        }
+    }
+
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onPlayerJoin(final PlayerJoinEvent event) {
         User user = User.getInstance(event.getPlayer());
@@ -228,6 +254,8 @@ public class JoinLeaveListener implements Listener {
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onPlayerQuit(final PlayerQuitEvent event) {
+        // Forget anything loaded when the player logged in that was not used
+        players.discardPrefetch(event.getPlayer().getUniqueId());
         // Remove any coops if all the island players have left
         plugin.getIWM().getOverWorlds().forEach(w -> {
             Island island = plugin.getIslands().getIsland(w, User.getInstance(event.getPlayer()));
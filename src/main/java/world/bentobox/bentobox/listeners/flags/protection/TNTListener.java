@@ -82,7 +82,8 @@ public class TNTListener extends FlagListener {
     public void onExplosion(final EntityExplodeEvent e) {
         // Remove any blocks from the explosion list if they are inside a protected area
         if (tntTypes.contains(e.getEntityType())
-                && e.blockList().removeIf(b -> getIslands().getProtectedIslandAt(b.getLocation()).map(i -> !i.isAllowed(Flags.TNT_DAMAGE)).orElse(false))) {
+                && e.blockList().removeIf(b -> getIslands().getIslandsInChunk(b.getWorld(), b.getX() >> 4, b.getZ() >> 4)
+                        .getProtectedIslandAt(b.getLocation()).map(i -> !i.isAllowed(Flags.TNT_DAMAGE)).orElse(false))) {
             // If any were removed
             e.setCancelled(true); // Seems to have no effect.
         }
@@ -35,6 +35,12 @@ public class LiquidsFlowingOutListener extends FlagListener {
             return;
         }
 
+        // Flowing within a chunk that is all inside one island's protected area is always fine
+        if (from.getX() >> 4 == to.getX() >> 4 && from.getZ() >> 4 == to.getZ() >> 4
+                && getIslands().getIslandsInChunk(from.getWorld(), from.getX() >> 4, from.getZ() >> 4).isFullyProtected()) {
+            return;
+        }
+
         // Only prevent if it is flowing into the area between islands or into another island.
         Optional<Island> fromIsland = getIslands().getProtectedIslandAt(from.getLocation());
         Optional<Island> toIsland = getIslands().getProtectedIslandAt(to.getLocation());
@@ -1,15 +1,11 @@
 package world.bentobox.bentobox.listeners.flags.worldsettings;
 
-import java.util.UUID;
-
-import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockRedstoneEvent;
 
 import world.bentobox.bentobox.api.flags.FlagListener;
 import world.bentobox.bentobox.lists.Flags;
-import world.bentobox.bentobox.managers.RanksManager;
 
 /**
  * Handles {@link Flags#OFFLINE_REDSTONE} flag.
@@ -27,21 +23,8 @@ public class OfflineRedstoneListener extends FlagListener {
         // Check if island exists and members are online, or mods or ops are on the island - ignores spawn
         getIslands().getProtectedIslandAt(e.getBlock().getLocation())
         .filter(i -> !i.isSpawn())
-        .ifPresent(i -> {
-            // Check team members
-            for (UUID uuid : i.getMemberSet(RanksManager.COOP_RANK)) {
-                if (Bukkit.getPlayer(uuid) != null) {
-                    return;
-                }
-            }
-            // Check mods or Ops on island
-            if (Bukkit.getOnlinePlayers().parallelStream()
-                    .filter(p -> p.isOp() || p.hasPermission(getIWM().getPermissionPrefix(i.getWorld()) + "mod.bypassprotect"))
-                    .anyMatch(p -> i.onIsland(p.getLocation()))) {
-                return;
-            }
-            // No one there...
-            e.setNewCurrent(0);
-        });
+        .filter(i -> !getIslands().getPresenceTracker().isAttended(i))
+        // No one there...
+        .ifPresent(i -> e.setNewCurrent(0));
     }
 }
@@ -1,10 +1,12 @@
 package world.bentobox.bentobox.listeners.flags.worldsettings;
 
+import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.block.BlockPistonExtendEvent;
 
 import world.bentobox.bentobox.api.flags.FlagListener;
+import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.lists.Flags;
 
 /**
@@ -22,9 +24,20 @@ public class PistonPushListener extends FlagListener {
             e.setCancelled(
                     // Run through the location of all the relative blocks and see if they are outside the island
                     !e.getBlocks().stream()
-                    .map(b -> b.getRelative(e.getDirection()).getLocation())
+                    .map(b -> b.getRelative(e.getDirection()))
                     // All blocks must be on the island, otherwise the event is cancelled
-                    .allMatch(i::onIsland)));
+                    .allMatch(b -> isOnIsland(i, b))));
         }
     }
+
+    /**
+     * Checks if a block is in the protected area of an island, without checking the block if its whole chunk is
+     * @param island - island
+     * @param block - block
+     * @return true if the block is on the island
+     */
+    private boolean isOnIsland(Island island, Block block) {
+        return getIslands().getIslandsInChunk(block.getWorld(), block.getX() >> 4, block.getZ() >> 4).getProtectingIsland() == island
+                || island.onIsland(block.getLocation());
+    }
 }
@@ -15,6 +15,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.logging.Level;
@@ -52,6 +55,15 @@ public class AddonsManager {
     private Map<@NonNull Addon, @Nullable AddonClassLoader> loaders;
     @NonNull
     private final Map<String, Class<?>> classes;
+    /**
+     * Names of classes that no addon has. Cleared when an addon is loaded.
+     * @since 1.13.0
+     */
+    @NonNull
+    private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+    private final AtomicLong classIndexHits = new AtomicLong();
+    private final AtomicLong classSearches = new AtomicLong();
+    private final AtomicLong classSearchTime = new AtomicLong();
     private BentoBox plugin;
     private @NonNull Map<@NonNull String, @Nullable GameModeAddon> worldNames;
     private @NonNull Map<@NonNull Addon, @NonNull List<Listener>> listeners;
@@ -60,7 +72,7 @@ public class AddonsManager {
         this.plugin = plugin;
         addons = new ArrayList<>();
         loaders = new HashMap<>();
-        classes = new HashMap<>();
+        classes = new ConcurrentHashMap<>();
         listeners = new HashMap<>();
         worldNames = new HashMap<>();
     }
@@ -119,6 +131,8 @@ public class AddonsManager {
 
         // Add to the list of loaders
         loaders.put(addon, addonClassLoader);
+        // Classes that were missing may be in this addon
+        missingClasses.clear();
 
         // Checks if this addon is compatible with the current BentoBox version.
         if (!isAddonCompatibleWithBentoBox(addon)) {
@@ -287,6 +301,7 @@ public class AddonsManager {
         addons.clear();
         loaders.clear();
         classes.clear();
+        missingClasses.clear();
     }
 
     /**
@@ -358,15 +373,35 @@ public class AddonsManager {
     }
 
     /**
-     * Finds a class by name that has been loaded by this loader
+     * Finds a class by name that has been loaded by this loader.
+     * Classes already found, and names that no addon has, are answered from an index.
+     * Otherwise the addons are searched.
      * @param name name of the class, not null
      * @return Class the class or null if not found
      */
     @Nullable
     public Class<?> getClassByName(@NonNull final String name) {
+        Class<?> clazz = classes.get(name);
+        if (clazz != null || missingClasses.contains(name)) {
+            classIndexHits.incrementAndGet();
+            return clazz;
+        }
+        long start = System.nanoTime();
         try {
-            return classes.getOrDefault(name, loaders.values().stream().map(l -> l.findClass(name, false)).filter(Objects::nonNull).findFirst().orElse(null));
-        } catch (Exception e) {}
+            for (AddonClassLoader l : loaders.values()) {
+                clazz = l == null ? null : l.findClass(name, false);
+                if (clazz != null) {
+                    setClass(name, clazz);
+                    return clazz;
+                }
+            }
+            missingClasses.add(name);
+        } catch (Exception e) {
+            // Not found
+        } finally {
+            classSearches.incrementAndGet();
+            classSearchTime.addAndGet(System.nanoTime() - start);
+        }
         return null;
     }
 
@@ -378,6 +413,7 @@ public class AddonsManager {
      */
     public void setClass(@NonNull final String name, @NonNull final Class<?> clazz) {
         classes.putIfAbsent(name, clazz);
+        missingClasses.remove(name);
     }
 
     private void sortAddons() {
@@ -510,6 +546,11 @@ public class AddonsManager {
      */
     public void allLoaded() {
         addons.forEach(Addon::allLoaded);
+        if (classSearches.get() > 0) {
+            plugin.log("Searched addons for " + classSearches.get() + " classes in "
+                    + TimeUnit.NANOSECONDS.toMillis(classSearchTime.get()) + " ms; "
+                    + classIndexHits.get() + " class lookups were answered by the class index.");
+        }
     }
 
 }
@@ -1,15 +1,17 @@
 package world.bentobox.bentobox.managers;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -24,6 +26,7 @@ import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.blueprints.Blueprint;
 import world.bentobox.bentobox.blueprints.BlueprintClipboard;
+import world.bentobox.bentobox.blueprints.CompactBlueprint;
 import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
 import world.bentobox.bentobox.database.json.BentoboxTypeAdapterFactory;
 
@@ -85,7 +88,7 @@ public class BlueprintClipboardManager {
     }
 
     /**
-     * Loads a blueprint
+     * Loads a blueprint. Both the compact format and zipped JSON can be loaded.
      * @param fileName - the filename without the suffix
      * @return the blueprint
      * @throws IOException exception if there's an issue loading or unzipping
@@ -96,20 +99,7 @@ public class BlueprintClipboardManager {
             plugin.logError(LOAD_ERROR + zipFile.getName());
             throw new IOException(LOAD_ERROR + zipFile.getName());
         }
-        unzip(zipFile.getAbsolutePath());
-        File file = new File(blueprintFolder, BlueprintsManager.sanitizeFileName(fileName));
-        if (!file.exists()) {
-            plugin.logError(LOAD_ERROR + file.getName());
-            throw new IOException(LOAD_ERROR + file.getName() + " temp file");
-        }
-        Blueprint bp;
-        try (FileReader fr = new FileReader(file)) {
-            bp = gson.fromJson(fr, Blueprint.class);
-        } catch (Exception e) {
-            plugin.logError("Blueprint has JSON error: " + zipFile.getName());
-            throw new IOException("Blueprint has JSON error: " + zipFile.getName());
-        }
-        Files.delete(file.toPath());
+        Blueprint bp = CompactBlueprint.isCompact(zipFile) ? loadCompact(zipFile) : loadJson(zipFile, fileName);
         // Bedrock check and set
         if (bp.getBedrock() == null) {
             bp.setBedrock(new Vector(bp.getxSize() / 2, bp.getySize() / 2, bp.getzSize() / 2));
@@ -119,6 +109,50 @@ public class BlueprintClipboardManager {
         return bp;
     }
 
+    private Blueprint loadCompact(File file) throws IOException {
+        try {
+            return CompactBlueprint.read(new FileInputStream(file), gson);
+        } catch (Exception e) {
+            plugin.logError("Blueprint has format error: " + file.getName() + " " + e.getMessage());
+            throw new IOException("Blueprint has format error: " + file.getName());
+        }
+    }
+
+    /**
+     * Reads zipped JSON straight from the zip file
+     */
+    private Blueprint loadJson(File zipFile, String fileName) throws IOException {
+        try (ZipInputStream zipInputStream = new ZipInputStream(new BufferedInputStream(new FileInputStream(zipFile)))) {
+            if (zipInputStream.getNextEntry() == null) {
+                plugin.logError(LOAD_ERROR + BlueprintsManager.sanitizeFileName(fileName));
+                throw new IOException(LOAD_ERROR + BlueprintsManager.sanitizeFileName(fileName) + " temp file");
+            }
+            Blueprint bp;
+            try {
+                bp = gson.fromJson(new InputStreamReader(zipInputStream), Blueprint.class);
+            } catch (Exception e) {
+                bp = null;
+            }
+            if (bp == null) {
+                plugin.logError("Blueprint has JSON error: " + zipFile.getName());
+                throw new IOException("Blueprint has JSON error: " + zipFile.getName());
+            }
+            return bp;
+        }
+    }
+
+    /**
+     * Checks if a blueprint file is in the compact format
+     * @param fileName - the filename without the suffix
+     * @return true if it is, false if it is zipped JSON or does not exist
+     * @throws IOException if the file cannot be read
+     * @since 1.13.0
+     */
+    public boolean isCompact(String fileName) throws IOException {
+        File file = new File(blueprintFolder, BlueprintsManager.sanitizeFileName(fileName) + BlueprintsManager.BLUEPRINT_SUFFIX);
+        return file.exists() && CompactBlueprint.isCompact(file);
+    }
+
     /**
      * Load a blueprint to the clipboard for a user
      * @param user - user trying to load
@@ -154,79 +188,59 @@ public class BlueprintClipboardManager {
     }
 
     /**
-     * Save a blueprint
+     * Save a blueprint in the format set in the config
      * @param blueprint - blueprint
      * @return true if successful, false if not
      */
     public boolean saveBlueprint(Blueprint blueprint) {
+        return saveBlueprint(blueprint, plugin.getSettings().isCompactBlueprints());
+    }
+
+    /**
+     * Save a blueprint
+     * @param blueprint - blueprint
+     * @param compact - true to save in the compact format, false to save as zipped JSON
+     * @return true if successful, false if not
+     * @since 1.13.0
+     */
+    public boolean saveBlueprint(Blueprint blueprint, boolean compact) {
         if (blueprint.getName().isEmpty()) {
             plugin.logError("Blueprint name was empty - could not save it");
             return false;
         }
-        File file = new File(blueprintFolder, BlueprintsManager.sanitizeFileName(blueprint.getName()));
-        String toStore = gson.toJson(blueprint, Blueprint.class);
-        try (FileWriter fileWriter = new FileWriter(file)) {
-            fileWriter.write(toStore);
-        } catch (IOException e) {
-            plugin.logError("Could not save temporary blueprint file: " + file.getName());
-            return false;
-        }
+        String name = BlueprintsManager.sanitizeFileName(blueprint.getName());
+        File file = new File(blueprintFolder, name + BlueprintsManager.BLUEPRINT_SUFFIX);
+        // Written next to the old file and then moved over it, so the old file is kept if anything goes wrong
+        File tmpFile = new File(blueprintFolder, file.getName() + ".tmp");
         try {
-            zip(file);
-        } catch (IOException e) {
-            plugin.logError("Could not zip temporary blueprint file: " + file.getName());
-            return false;
-        }
-        return true;
-    }
-
-    private void unzip(final String zipFilePath) throws IOException {
-        Path path = Paths.get(zipFilePath);
-        if (!(path.toFile().exists())) {
-            throw new IOException("No file exists!");
-        }
-        try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(zipFilePath))) {
-            ZipEntry entry = zipInputStream.getNextEntry();
-            while (entry != null) {
-                Path filePath = Paths.get(path.getParent().toString(), entry.getName());
-                if (!entry.isDirectory()) {
-                    unzipFiles(zipInputStream, filePath);
-                } else {
-                    Files.createDirectories(filePath);
+            if (compact) {
+                try (FileOutputStream os = new FileOutputStream(tmpFile)) {
+                    CompactBlueprint.write(blueprint, os, gson);
                 }
-
-                zipInputStream.closeEntry();
-                entry = zipInputStream.getNextEntry();
-            }
-        }
-    }
-
-    private void unzipFiles(final ZipInputStream zipInputStream, final Path unzipFilePath) throws IOException {
-        try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(unzipFilePath.toAbsolutePath().toString()))) {
-            byte[] bytesIn = new byte[1024];
-            int read;
-            while ((read = zipInputStream.read(bytesIn)) != -1) {
-                bos.write(bytesIn, 0, read);
-            }
-        }
-    }
-
-    private void zip(File targetFile) throws IOException {
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(targetFile.getAbsolutePath() + BlueprintsManager.BLUEPRINT_SUFFIX))) {
-            zipOutputStream.putNextEntry(new ZipEntry(targetFile.getName()));
-            try (FileInputStream inputStream = new FileInputStream(targetFile)) {
-                final byte[] buffer = new byte[1024];
-                int length;
-                while((length = inputStream.read(buffer)) >= 0) {
-                    zipOutputStream.write(buffer, 0, length);
+            } else {
+                try (ZipOutputStream zipOutputStream = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+                    zipOutputStream.putNextEntry(new ZipEntry(name));
+                    Writer writer = new OutputStreamWriter(zipOutputStream);
+                    gson.toJson(blueprint, Blueprint.class, writer);
+                    writer.flush();
+                    zipOutputStream.closeEntry();
                 }
             }
             try {
-                Files.delete(targetFile.toPath());
-            } catch (Exception e) {
-                plugin.logError(e.getMessage());
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            plugin.logError("Could not save blueprint file: " + file.getName() + " " + e.getMessage());
+            try {
+                Files.deleteIfExists(tmpFile.toPath());
+            } catch (IOException ignored) {
+                // Overwritten next time
             }
+            return false;
         }
+        return true;
     }
 
 }
@@ -305,12 +305,21 @@ public class BlueprintsManager {
         for (File file : bps) {
             String fileName = file.getName().substring(0, file.getName().length() - BLUEPRINT_SUFFIX.length());
             try {
-                Blueprint bp = new BlueprintClipboardManager(plugin, bpf).loadBlueprint(fileName);
+                BlueprintClipboardManager bcm = new BlueprintClipboardManager(plugin, bpf);
+                boolean compact = bcm.isCompact(fileName);
+                Blueprint bp = bcm.loadBlueprint(fileName);
                 if (bp.getName() == null) {
                     bp.setName(fileName);
                 }
+                // Get it ready for pasting now, rather than when the first island is made
+                bp.getPlan();
                 blueprints.get(addon).add(bp);
                 plugin.log("Loaded blueprint '" + bp.getName() + FOR + addon.getDescription().getName());
+                // Convert to the format set in the config
+                if (compact != plugin.getSettings().isCompactBlueprints() && sanitizeFileName(bp.getName()).equals(fileName)
+                        && (compact || backUp(file)) && bcm.saveBlueprint(bp, !compact)) {
+                    plugin.log("Converted blueprint '" + bp.getName() + "' to " + (compact ? "zipped JSON" : "the compact format"));
+                }
             } catch (Exception e) {
                 plugin.logError("Could not load blueprint " + fileName + " " + e.getMessage());
                 plugin.logStacktrace(e);
@@ -318,6 +327,26 @@ public class BlueprintsManager {
         }
     }
 
+    /**
+     * Keeps a copy of a zipped JSON blueprint before it is converted to the compact format.
+     * An existing copy is not replaced, so it stays the original file.
+     * @param file - blueprint file
+     * @return true if there is a copy
+     */
+    private boolean backUp(@NonNull File file) {
+        File backup = new File(file.getParentFile(), file.getName() + ".json.bak");
+        if (backup.exists()) {
+            return true;
+        }
+        try {
+            Files.copy(file.toPath(), backup.toPath());
+            return true;
+        } catch (IOException e) {
+            plugin.logError("Could not back up blueprint " + file.getName() + " so it was not converted: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Adds a blueprint to addon's list of blueprints. If the list already contains a blueprint with the same name
      * it is replaced.
@@ -328,6 +357,7 @@ public class BlueprintsManager {
     public void addBlueprint(@NonNull GameModeAddon addon, @NonNull Blueprint bp) {
         blueprints.putIfAbsent(addon, new ArrayList<>());
         blueprints.get(addon).removeIf(b -> b.getName().equals(bp.getName()));
+        bp.getPlan();
         blueprints.get(addon).add(bp);
         plugin.log("Added blueprint '" + bp.getName() + FOR + addon.getDescription().getName());
     }
@@ -399,6 +429,22 @@ public class BlueprintsManager {
         return blueprints.get(addon).stream().collect(Collectors.toMap(Blueprint::getName, b -> b));
     }
 
+    /**
+     * Gets a blueprint of this game mode without making a map of them all
+     *
+     * @param addon - game mode addon
+     * @param name  - blueprint name
+     * @return blueprint or null if there is none with this name
+     */
+    @Nullable
+    private Blueprint getBlueprint(GameModeAddon addon, @Nullable String name) {
+        if (name == null) {
+            return null;
+        }
+        return blueprints.getOrDefault(addon, Collections.emptyList()).stream()
+                .filter(b -> name.equals(b.getName())).findFirst().orElse(null);
+    }
+
     /**
      * Unregisters the Blueprint from the manager and deletes the file.
      * @param addon game mode addon
@@ -451,10 +497,10 @@ public class BlueprintsManager {
             plugin.logError("No blueprints loaded for bundle '" + name + "'!");
             return false;
         }
-        Blueprint bp = getBlueprints(addon).get(bb.getBlueprint(World.Environment.NORMAL));
+        Blueprint bp = getBlueprint(addon, bb.getBlueprint(World.Environment.NORMAL));
         if (bp == null) {
             // Oops, no overworld
-            bp = getBlueprints(addon).get("island");
+            bp = getBlueprint(addon, "island");
             plugin.logError("Blueprint bundle has no normal world blueprint, using default");
             if (bp == null) {
                 plugin.logError("NO DEFAULT BLUEPRINT FOUND! Make sure 'island.blu' exists!");
@@ -469,7 +515,7 @@ public class BlueprintsManager {
                 && addon.getWorldSettings().isNetherGenerate()
                 && addon.getWorldSettings().isNetherIslands()
                 && addon.getNetherWorld() != null) {
-            bp = getBlueprints(addon).get(bb.getBlueprint(World.Environment.NETHER));
+            bp = getBlueprint(addon, bb.getBlueprint(World.Environment.NETHER));
             if (bp != null) {
                 new BlueprintPaster(plugin, bp, addon.getNetherWorld(), island, null);
             }
@@ -479,7 +525,7 @@ public class BlueprintsManager {
                 && addon.getWorldSettings().isEndGenerate()
                 && addon.getWorldSettings().isEndIslands()
                 && addon.getEndWorld() != null) {
-            bp = getBlueprints(addon).get(bb.getBlueprint(World.Environment.THE_END));
+            bp = getBlueprint(addon, bb.getBlueprint(World.Environment.THE_END));
             if (bp != null) {
                 new BlueprintPaster(plugin, bp, addon.getEndWorld(), island, null);
             }
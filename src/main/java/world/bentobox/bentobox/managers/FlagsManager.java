@@ -15,6 +15,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.api.flags.FlagDecisionCache;
 import world.bentobox.bentobox.lists.Flags;
 
 /**
@@ -25,6 +26,17 @@ public class FlagsManager {
 
     private @NonNull BentoBox plugin;
     private Map<@NonNull Flag, @Nullable Addon> flags = new HashMap<>();
+    private Map<@NonNull String, @NonNull Flag> flagsById = new HashMap<>();
+
+    /**
+     * Ordinal given to each flag ID. Ordinals are kept when flags are unregistered so that they
+     * mean the same thing for as long as the server runs.
+     */
+    private Map<@NonNull String, @NonNull Integer> ordinals = new HashMap<>();
+    /**
+     * Flags by ordinal, minus one. Unregistered flags are kept so that their ranks can still be saved.
+     */
+    private List<@NonNull Flag> flagsByOrdinal = new ArrayList<>();
 
     /**
      * Stores the flag listeners that have already been registered into Bukkit's API to avoid duplicates.
@@ -34,8 +46,11 @@ public class FlagsManager {
      */
     private Map<@NonNull Listener, @NonNull Boolean> registeredListeners = new HashMap<>();
 
+    private final @NonNull FlagDecisionCache decisionCache;
+
     public FlagsManager(@NonNull BentoBox plugin) {
         this.plugin = plugin;
+        this.decisionCache = new FlagDecisionCache(plugin);
 
         // Register default flags
         Flags.values().forEach(f -> registerFlag(null, f));
@@ -60,13 +75,24 @@ public class FlagsManager {
      * @since 1.5.0
      */
     public boolean registerFlag(@Nullable Addon addon, @NonNull Flag flag) {
+        // Flags with the same ID share the same ordinal, even if this one is a duplicate
+        int ordinal = ordinals.computeIfAbsent(flag.getID(), k -> ordinals.size() + 1);
+        flag.setOrdinal(ordinal);
         // Check in case the flag id or icon already exists
-        for (Flag fl : flags.keySet()) {
-            if (fl.getID().equals(flag.getID())) {
-                return false;
-            }
+        if (flagsById.containsKey(flag.getID())) {
+            return false;
         }
         flags.put(flag, addon);
+        flagsById.put(flag.getID(), flag);
+        if (ordinal > flagsByOrdinal.size()) {
+            flagsByOrdinal.add(flag);
+        } else {
+            flagsByOrdinal.set(ordinal - 1, flag);
+        }
+        // Build the bypass permissions for the game modes that are already registered
+        if (plugin.getIWM() != null) {
+            plugin.getIWM().getPermissionPrefixes().forEach(flag::addBypassPermissions);
+        }
         // If there is a listener which is not already registered, register it into Bukkit if the plugin is fully loaded
         flag.getListener().ifPresent(this::registerListener);
         return true;
@@ -108,7 +134,29 @@ public class FlagsManager {
      */
     @NonNull
     public Optional<Flag> getFlag(@NonNull String id) {
-        return flags.keySet().stream().filter(flag -> flag.getID().equals(id)).findFirst();
+        return Optional.ofNullable(flagsById.get(id));
+    }
+
+    /**
+     * Gets a Flag by its ordinal.
+     * Flags that have been unregistered are still returned, so that the ranks set for them can be kept.
+     * @param ordinal - ordinal of the flag, starting at 1
+     * @return the Flag or null if no flag has this ordinal
+     * @see Flag#getOrdinal()
+     * @since 1.13.0
+     */
+    @Nullable
+    public Flag getFlagByOrdinal(int ordinal) {
+        return ordinal > 0 && ordinal <= flagsByOrdinal.size() ? flagsByOrdinal.get(ordinal - 1) : null;
+    }
+
+    /**
+     * @return the cache of protection decisions used by {@link world.bentobox.bentobox.api.flags.FlagListener}
+     * @since 1.13.0
+     */
+    @NonNull
+    public FlagDecisionCache getDecisionCache() {
+        return decisionCache;
     }
 
     /**
@@ -122,5 +170,6 @@ public class FlagsManager {
                 .forEach(f -> f.getListener().ifPresent(HandlerList::unregisterAll));
         // Remove flags
         flags.values().removeIf(addon::equals);
+        flagsById.values().removeIf(f -> !flags.containsKey(f));
     }
 }
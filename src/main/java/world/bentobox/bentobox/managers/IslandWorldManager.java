@@ -3,6 +3,7 @@ package world.bentobox.bentobox.managers;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -37,6 +38,19 @@ public class IslandWorldManager {
      * Map associating Worlds (Overworld, Nether and End) with the GameModeAddon that creates them.
      */
     private Map<@NonNull World, @NonNull GameModeAddon> gameModes;
+    /**
+     * Permission prefix of the game mode of each world, trailing dot included.
+     * Kept so that the hot protection paths do not have to build it.
+     */
+    private Map<@NonNull World, @NonNull String> permissionPrefixes;
+    /**
+     * The "bypass all protection" permission node for each world
+     */
+    private Map<@NonNull World, @NonNull String> bypassProtectPermissions;
+    /**
+     * Overworld of each world (Overworld, Nether and End) registered by a GameModeAddon
+     */
+    private Map<@NonNull World, @NonNull World> overWorlds;
 
     /**
      * Manages worlds registered with BentoBox
@@ -44,6 +58,9 @@ public class IslandWorldManager {
     public IslandWorldManager(BentoBox plugin) {
         this.plugin = plugin;
         gameModes = new HashMap<>();
+        permissionPrefixes = new HashMap<>();
+        bypassProtectPermissions = new HashMap<>();
+        overWorlds = new HashMap<>();
     }
 
     public void registerWorldsToMultiverse() {
@@ -152,21 +169,35 @@ public class IslandWorldManager {
         String friendlyName = settings.getFriendlyName().isEmpty() ? world.getName() : settings.getFriendlyName();
         // Add worlds to map
         gameModes.put(world, gameMode);
+        overWorlds.put(world, world);
         // Call Multiverse
         registerToMultiverse(world, true);
         if (settings.isNetherGenerate()) {
             gameModes.put(gameMode.getNetherWorld(), gameMode);
+            overWorlds.put(gameMode.getNetherWorld(), world);
             if (settings.isNetherIslands()) {
                 registerToMultiverse(gameMode.getNetherWorld(), true);
             }
         }
         if (settings.isEndGenerate()) {
             gameModes.put(gameMode.getEndWorld(), gameMode);
+            overWorlds.put(gameMode.getEndWorld(), world);
             if (settings.isEndIslands()) {
                 registerToMultiverse(gameMode.getEndWorld(), true);
             }
         }
 
+        // Build the permission nodes used by protection checks
+        String permissionPrefix = (settings.getPermissionPrefix() + ".").intern();
+        String bypassProtect = (permissionPrefix + "mod.bypassprotect").intern();
+        gameModes.forEach((w, gm) -> {
+            if (gm == gameMode) {
+                permissionPrefixes.put(w, permissionPrefix);
+                bypassProtectPermissions.put(w, bypassProtect);
+            }
+        });
+        plugin.getFlagsManager().getFlags().forEach(f -> f.addBypassPermissions(permissionPrefix));
+
         // Set default island settings
         plugin.getFlagsManager().getFlags().stream().filter(f -> f.getType().equals(Flag.Type.PROTECTION))
         .forEach(f -> settings.getDefaultIslandFlags().putIfAbsent(f, f.getDefaultRank()));
@@ -218,6 +249,18 @@ public class IslandWorldManager {
                 .map(GameModeAddon::getOverWorld).findFirst().orElse(null);
     }
 
+    /**
+     * Get the overworld of a world registered by a GameModeAddon
+     *
+     * @param world - overworld, nether or end world
+     * @return overworld, or null if the world is not registered by a GameModeAddon
+     * @since 1.13.0
+     */
+    @Nullable
+    public World getOverWorld(@Nullable World world) {
+        return overWorlds.get(world);
+    }
+
     /**
      * @return the islandDistance
      */
@@ -488,6 +531,46 @@ public class IslandWorldManager {
 
     }
 
+    /**
+     * Get the permission prefixes of all the registered game modes, trailing dot included.
+     * @return set of permission prefixes
+     * @since 1.13.0
+     */
+    @NonNull
+    public Set<String> getPermissionPrefixes() {
+        return new HashSet<>(permissionPrefixes.values());
+    }
+
+    /**
+     * Get the permission that lets a player bypass all protections in this world.
+     * The node is built once when the game mode is added.
+     * @param world - world
+     * @return permission node, or null if the world is not a game world
+     * @since 1.13.0
+     */
+    @Nullable
+    public String getBypassProtectPermission(@NonNull World world) {
+        return bypassProtectPermissions.get(world);
+    }
+
+    /**
+     * Get the permission that lets a player bypass a flag in this world.
+     * The node is built once when the game mode or the flag is registered.
+     * @param world - world
+     * @param flag - flag
+     * @param everywhere - true for the "everywhere" node, false for the "island" node
+     * @return permission node, or null if the world is not a game world
+     * @since 1.13.0
+     */
+    @Nullable
+    public String getBypassPermission(@NonNull World world, @NonNull Flag flag, boolean everywhere) {
+        String prefix = permissionPrefixes.get(world);
+        if (prefix == null) {
+            return null;
+        }
+        return everywhere ? flag.getBypassEverywherePermission(prefix) : flag.getBypassIslandPermission(prefix);
+    }
+
     /**
      * Get the invincible visitor settings for this world
      *
@@ -12,10 +12,11 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.TreeSpecies;
@@ -49,7 +50,10 @@ import world.bentobox.bentobox.database.Database;
 import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.database.objects.IslandDeletion;
 import world.bentobox.bentobox.lists.Flags;
+import world.bentobox.bentobox.managers.island.ChunkIslands;
 import world.bentobox.bentobox.managers.island.IslandCache;
+import world.bentobox.bentobox.managers.island.IslandChunkCache;
+import world.bentobox.bentobox.managers.island.IslandPresenceTracker;
 import world.bentobox.bentobox.util.DeleteIslandChunks;
 import world.bentobox.bentobox.util.Util;
 import world.bentobox.bentobox.util.teleport.SafeSpotTeleport;
@@ -91,6 +95,8 @@ public class IslandsManager {
     // Island Cache
     @NonNull
     private IslandCache islandCache;
+    private final IslandPresenceTracker presenceTracker;
+    private final IslandChunkCache chunkCache;
     // Quarantined islands
     @NonNull
     private Map<UUID, List<Island>> quarantineCache;
@@ -99,6 +105,10 @@ public class IslandsManager {
     private List<String> deletedIslands;
 
     private Set<String> toSave = new HashSet<>();
+    /**
+     * Time that {@link #asyncSaveAll()} may spend queueing saves in each tick
+     */
+    private static final long SAVE_TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(2);
 
     private BukkitTask task;
 
@@ -111,6 +121,8 @@ public class IslandsManager {
         // Set up the database handler to store and retrieve Island classes
         handler = new Database<>(plugin, Island.class);
         islandCache = new IslandCache();
+        presenceTracker = new IslandPresenceTracker(plugin);
+        chunkCache = new IslandChunkCache(plugin, this);
         quarantineCache = new HashMap<>();
         spawn = new HashMap<>();
         last = new HashMap<>();
@@ -151,6 +163,9 @@ public class IslandsManager {
         }
 
         // Work outwards from l until the closest safe location is found.
+        // Each chunk is read once, rather than a block at a time
+        World world = l.getWorld();
+        Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
         int minXradius = 0;
         int maxXradius = 0;
         int minZradius = 0;
@@ -168,11 +183,9 @@ public class IslandsManager {
             for (int x = minX; x<= maxX; x++) {
                 for (int z = minZ; z <= maxZ; z++) {
                     for (int y = minY; y <= maxY; y++) {
-                        if (!((x > minX && x < maxX) && (z > minZ && z < maxZ) && (y > minY && y < maxY))) {
-                            Location ultimate = new Location(l.getWorld(), x + 0.5D, y, z + 0.5D);
-                            if (isSafeLocation(ultimate)) {
-                                return ultimate;
-                            }
+                        if (!((x > minX && x < maxX) && (z > minZ && z < maxZ) && (y > minY && y < maxY))
+                                && isSafe(world, snapshots, x, y, z)) {
+                            return new Location(world, x + 0.5D, y, z + 0.5D);
                         }
                     }
                 }
@@ -201,6 +214,25 @@ public class IslandsManager {
         return null;
     }
 
+    /**
+     * Checks if a spot is safe using chunk snapshots
+     * @param world - world
+     * @param snapshots - snapshots of the chunks read so far, by chunk key
+     * @param x - block x
+     * @param y - block y of the space above the ground
+     * @param z - block z
+     * @return true if safe
+     */
+    private boolean isSafe(World world, Map<Long, ChunkSnapshot> snapshots, int x, int y, int z) {
+        if (y < 1 || y + 1 >= world.getMaxHeight()) {
+            return false;
+        }
+        ChunkSnapshot chunk = snapshots.computeIfAbsent(((long) (x >> 4) << 32) | ((z >> 4) & 0xFFFFFFFFL),
+                k -> world.getChunkAt(x >> 4, z >> 4).getChunkSnapshot());
+        return checkIfSafe(world, chunk.getBlockType(x & 15, y - 1, z & 15), chunk.getBlockType(x & 15, y, z & 15),
+                chunk.getBlockType(x & 15, y + 1, z & 15));
+    }
+
     /**
      * Checks if this location is safe for a player to teleport to. Used by
      * warps and boat exits Unsafe is any liquid or air and also if there's no
@@ -414,6 +446,24 @@ public class IslandsManager {
         return islandCache.getIslands(world);
     }
 
+    /**
+     * @return the tracker of online members and moderators on islands
+     * @since 1.13.0
+     */
+    @NonNull
+    public IslandPresenceTracker getPresenceTracker() {
+        return presenceTracker;
+    }
+
+    /**
+     * @return the cache of the islands in each loaded chunk
+     * @since 1.13.0
+     */
+    @NonNull
+    public IslandChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
     /**
      * Returns the IslandCache instance.
      * @return the islandCache
@@ -430,6 +480,7 @@ public class IslandsManager {
      */
     public void setIslandCache(@NonNull IslandCache islandCache) {
         this.islandCache = islandCache;
+        chunkCache.clear();
     }
 
     /**
@@ -490,6 +541,23 @@ public class IslandsManager {
         return getIslandAt(location).filter(i -> i.onIsland(location));
     }
 
+    /**
+     * Returns the islands in a chunk, and the island whose protected area covers the whole chunk if there is one.
+     * This is meant for listeners that check many blocks at a time: if the chunk is fully protected
+     * by one island, every block in it can be taken as being on that island without checking each one.
+     * The answer is remembered while the chunk is loaded and until islands are added, removed or resized.
+     *
+     * @param world - world
+     * @param chunkX - chunk x coordinate, i.e., block x coordinate divided by 16
+     * @param chunkZ - chunk z coordinate, i.e., block z coordinate divided by 16
+     * @return the islands in the chunk, none if the world is not a game world
+     * @since 1.13.0
+     */
+    @NonNull
+    public ChunkIslands getIslandsInChunk(@NonNull World world, int chunkX, int chunkZ) {
+        return chunkCache.get(world, chunkX, chunkZ);
+    }
+
     /**
      * Determines a safe teleport spot on player's island or the team island
      * they belong to.
@@ -879,10 +947,6 @@ public class IslandsManager {
                 } else if (island.isSpawn()) {
                     // Success, set spawn if this is the spawn island.
                     this.setSpawn(island);
-                } else {
-                    // Successful load
-                    // Clean any null flags out of the island - these can occur for various reasons
-                    island.getFlags().keySet().removeIf(f -> f.getID().startsWith("NULL_FLAG"));
                 }
             }
 
@@ -1040,7 +1104,7 @@ public class IslandsManager {
     }
 
     /**
-     * Saves all the players at a rate of 1 per tick. Used as a backup.
+     * Saves all the islands, spreading the saves over several ticks. Used as a backup.
      * @since 1.8.0
      */
     public void asyncSaveAll() {
@@ -1049,9 +1113,12 @@ public class IslandsManager {
         toSave = new HashSet<>(islandCache.getAllIslandIds());
         Iterator<String> it = toSave.iterator();
         task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (plugin.isEnabled() && it.hasNext()) {
+            // Saves are only queued here, so hand over as many as fit in the tick budget
+            long end = System.nanoTime() + SAVE_TICK_BUDGET;
+            while (plugin.isEnabled() && it.hasNext() && System.nanoTime() < end) {
                 getIslandById(it.next()).ifPresent(this::save);
-            } else {
+            }
+            if (!plugin.isEnabled() || !it.hasNext()) {
                 toSave.clear();
                 task.cancel();
             }
@@ -1334,8 +1401,18 @@ public class IslandsManager {
      * @since 1.7.0
      */
     public boolean nameExists(@NonNull World world, @NonNull String name) {
-        return getIslands(world).stream().filter(island -> island.getName() != null).map(Island::getName)
-                .anyMatch(n -> ChatColor.stripColor(n).equals(ChatColor.stripColor(name)));
+        return islandCache.nameExists(world, name);
+    }
+
+    /**
+     * Sets the display name of this island.
+     * Use this rather than {@link Island#setName(String)} so that {@link #nameExists(World, String)} stays accurate.
+     * @param island island
+     * @param name the display name, or {@code null} to remove it
+     * @since 1.13.0
+     */
+    public void setIslandName(@NonNull Island island, @Nullable String name) {
+        islandCache.setName(island, name);
     }
 
 }
@@ -14,6 +14,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 
 import org.bukkit.Bukkit;
@@ -26,6 +27,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.localization.BentoBoxLocale;
+import world.bentobox.bentobox.api.localization.MessageTemplate;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.util.FileLister;
 import world.bentobox.bentobox.util.Util;
@@ -37,6 +39,11 @@ public class LocalesManager {
 
     private BentoBox plugin;
     private Map<Locale, BentoBoxLocale> languages = new HashMap<>();
+    /**
+     * Compiled translations, by locale, addon prefixes and reference
+     * @since 1.13.0
+     */
+    private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
     private static final String LOCALE_FOLDER = "locales";
     private static final String BENTOBOX = "BentoBox";
     private static final String SPACER = "*************************************************";
@@ -140,6 +147,53 @@ public class LocalesManager {
         return prefixes;
     }
 
+    /**
+     * Gets the compiled translation of a reference for this user. The translation is looked up and compiled the
+     * first time, with the prefixes available in the user's locale put in.
+     * @param user the user to get the locale, not null.
+     * @param addonPrefix prefix of the addon whose translation is tried first, e.g. "bskyblock.", or an empty string.
+     * @param prefixesAddonPrefix prefix of the addon whose prefixes are tried first, or an empty string.
+     * @param reference a reference that can be found in a locale file, not a prefix.
+     * @return the template, or null if the reference cannot be found anywhere.
+     * @since 1.13.0
+     */
+    @Nullable
+    public MessageTemplate getTemplate(@NonNull User user, @NonNull String addonPrefix, @NonNull String prefixesAddonPrefix, @NonNull String reference) {
+        Locale locale = user.getLocale();
+        String key = locale.toLanguageTag() + '|' + prefixesAddonPrefix + '|' + addonPrefix + reference;
+        MessageTemplate template = templates.get(key);
+        if (template != null) {
+            return template;
+        }
+        String translation = get(user, addonPrefix + reference);
+        if (translation == null) {
+            translation = get(user, reference);
+            if (translation == null) {
+                return null;
+            }
+        }
+        Map<String, String> prefixes = new HashMap<>();
+        for (String prefix : getAvailablePrefixes(user)) {
+            String prefixTranslation = get(user, prefixesAddonPrefix + "prefixes." + prefix);
+            if (prefixTranslation == null) {
+                prefixTranslation = getOrDefault(user, "prefixes." + prefix, "prefixes." + prefix);
+            }
+            prefixes.put(prefix, prefixTranslation);
+        }
+        template = MessageTemplate.compile(translation, prefixes);
+        templates.put(key, template);
+        return template;
+    }
+
+    /**
+     * Forgets the compiled translations. They are compiled again when they are next used.
+     * This must be called when translations are changed.
+     * @since 1.13.0
+     */
+    public void clearTemplates() {
+        templates.clear();
+    }
+
     /**
      * Copies locale files from the addon jar to the file system and updates current locales with the latest references
      * @param addon - addon
@@ -231,6 +285,7 @@ public class LocalesManager {
      * @param localeFolder - locale folder location relative to the plugin's data folder
      */
     public void loadLocalesFromFile(String localeFolder) {
+        clearTemplates();
         // Filter for files ending with .yml with a name whose length is >= 6 (xx.yml)
         FilenameFilter ymlFilter = (dir, name) -> name.toLowerCase(java.util.Locale.ENGLISH).endsWith(".yml") && name.length() >= 6;
 
@@ -306,6 +361,7 @@ public class LocalesManager {
      */
     public void reloadLanguages() {
         languages.clear();
+        clearTemplates();
         copyLocalesFromPluginJar();
         loadLocalesFromFile(BENTOBOX);
         plugin.getAddonsManager().getAddons().forEach(addon -> {
@@ -324,6 +380,7 @@ public class LocalesManager {
      */
     public void analyzeLocales(boolean fix) {
         languages.clear();
+        clearTemplates();
 
         User user = User.getInstance(Bukkit.getConsoleSender());
 
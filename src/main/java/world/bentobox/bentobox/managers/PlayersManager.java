@@ -1,13 +1,21 @@
 package world.bentobox.bentobox.managers;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -30,9 +38,54 @@ public class PlayersManager {
     private Database<Names> names;
 
     private Map<UUID, Players> playerCache;
+    /**
+     * UUIDs of the players in {@link #playerCache}, from the least to the most recently used. Kept apart from the
+     * cache so that looking a player up does not change the cache while it is being iterated. Synchronized on itself.
+     * @since 1.13.0
+     */
+    private final Set<UUID> recentlyUsed = new LinkedHashSet<>();
+    /**
+     * Players dropped from {@link #playerCache} whose save has not been written yet. They are used again if they are
+     * needed before then, so that an older copy is not loaded.
+     * @since 1.13.0
+     */
+    private final Map<UUID, Players> evicted = new HashMap<>();
     private Set<UUID> inTeleport;
     private Set<UUID> toSave = new HashSet<>();
+    /**
+     * Time that {@link #asyncSaveAll()} may spend queueing saves in each tick
+     */
+    private static final long SAVE_TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(2);
     private BukkitTask task;
+    /**
+     * Players loaded from the database when they logged in, waiting for them to join
+     * @since 1.13.0
+     */
+    private final Map<UUID, Prefetched> prefetched = new ConcurrentHashMap<>();
+    /**
+     * Time that a player loaded when they logged in is kept for them to join. Players who disconnect before they
+     * join are forgotten after this.
+     */
+    private static final long PREFETCH_TIME = TimeUnit.MINUTES.toNanos(1);
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong prefetchMisses = new AtomicLong();
+    private final AtomicLong prefetchCount = new AtomicLong();
+    private final AtomicLong prefetchTime = new AtomicLong();
+    /**
+     * UUIDs of the players whose names are known, by lower case name
+     * @since 1.13.0
+     */
+    private final Map<String, UUID> nameIndex = new ConcurrentHashMap<>();
+    /**
+     * Lower case names that are not in the names database, with the time they were looked up
+     * @since 1.13.0
+     */
+    private final Map<String, Long> unknownNames = new ConcurrentHashMap<>();
+    /**
+     * Time that a name is remembered as unknown
+     */
+    private static final long UNKNOWN_NAME_TIME = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_UNKNOWN_NAMES = 1000;
 
     /**
      * Provides a memory cache of online player information
@@ -64,8 +117,14 @@ public class PlayersManager {
      */
     public void load(){
         playerCache.clear();
+        clearRecentlyUsed();
+        evicted.clear();
         inTeleport.clear();
-        handler.loadObjects().forEach(p -> playerCache.put(p.getPlayerUUID(), p));
+        handler.loadObjects().forEach(p -> {
+            playerCache.put(p.getPlayerUUID(), p);
+            touch(p.getPlayerUUID());
+            indexName(p.getPlayerUUID(), p.getPlayerName());
+        });
     }
 
     /**
@@ -76,7 +135,8 @@ public class PlayersManager {
     }
 
     /**
-     * Saves all the players at a rate of 1 per tick. Used as a backup.
+     * Saves all the players, spreading the saves over several ticks. Used as a backup.
+     * Players who are not online are dropped from the cache once they are saved.
      * @since 1.8.0
      */
     public void asyncSaveAll() {
@@ -85,9 +145,17 @@ public class PlayersManager {
         toSave = new HashSet<>(playerCache.keySet());
         Iterator<UUID> it = toSave.iterator();
         task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (plugin.isEnabled() && it.hasNext()) {
-                this.save(it.next());
-            } else {
+            // Saves are only queued here, so hand over as many as fit in the tick budget
+            long end = System.nanoTime() + SAVE_TICK_BUDGET;
+            while (plugin.isEnabled() && it.hasNext() && System.nanoTime() < end) {
+                UUID uuid = it.next();
+                if (Bukkit.getPlayer(uuid) == null) {
+                    evict(uuid);
+                } else {
+                    this.save(uuid);
+                }
+            }
+            if (!plugin.isEnabled() || !it.hasNext()) {
                 toSave.clear();
                 task.cancel();
             }
@@ -97,6 +165,8 @@ public class PlayersManager {
     public void shutdown(){
         saveAll();
         playerCache.clear();
+        clearRecentlyUsed();
+        evicted.clear();
         handler.close();
     }
 
@@ -106,9 +176,7 @@ public class PlayersManager {
      * @return player object or null if it does not exist
      */
     public Players getPlayer(UUID uuid){
-        if (!playerCache.containsKey(uuid)) {
-            addPlayer(uuid);
-        }
+        addPlayer(uuid);
         return playerCache.get(uuid);
     }
 
@@ -134,24 +202,186 @@ public class PlayersManager {
         if (playerUUID == null) {
             return;
         }
-        if (!playerCache.containsKey(playerUUID)) {
-            Players player;
-            // If the player is in the database, load it, otherwise create a new player
-            if (handler.objectExists(playerUUID.toString())) {
-                player = handler.loadObject(playerUUID.toString());
-                if (player == null) {
-                    player = new Players(plugin, playerUUID);
-                    // Corrupted database entry
-                    plugin.logError("Corrupted player database entry for " + playerUUID + " - unrecoverable. Recreated.");
-                    player.setUniqueId(playerUUID.toString());
-                }
+        Prefetched p = takePrefetched(playerUUID);
+        if (playerCache.containsKey(playerUUID)) {
+            touch(playerUUID);
+        } else if (!restore(playerUUID)) {
+            if (p != null) {
+                // Loaded when the player logged in
+                prefetchHits.incrementAndGet();
+                cache(playerUUID, p.player, p.known);
             } else {
-                player = new Players(plugin, playerUUID);
+                // If the player is in the database, load it, otherwise create a new player
+                prefetchMisses.incrementAndGet();
+                boolean known = handler.objectExists(playerUUID.toString());
+                cache(playerUUID, known ? handler.loadObject(playerUUID.toString()) : null, known);
             }
-            playerCache.put(playerUUID, player);
         }
     }
 
+    /**
+     * Gets a player, loading them from the database in another thread if they are not in the cache.
+     * Use this instead of {@link #getPlayer(UUID)} for players who may be offline, so that the main thread
+     * does not wait for the database.
+     * @param uuid - the player's UUID
+     * @return future completed in the main thread with the player, who is then in the cache.
+     * If the player is not in the database, a new player is made.
+     * @since 1.13.0
+     */
+    @NonNull
+    public CompletableFuture<Players> getPlayerAsync(@NonNull UUID uuid) {
+        if (playerCache.containsKey(uuid)) {
+            touch(uuid);
+            return CompletableFuture.completedFuture(playerCache.get(uuid));
+        }
+        if (restore(uuid)) {
+            return CompletableFuture.completedFuture(playerCache.get(uuid));
+        }
+        Prefetched p = takePrefetched(uuid);
+        if (p != null) {
+            prefetchHits.incrementAndGet();
+            cache(uuid, p.player, p.known);
+            return CompletableFuture.completedFuture(playerCache.get(uuid));
+        }
+        CompletableFuture<Players> result = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean known = handler.objectExists(uuid.toString());
+            Players player = known ? handler.loadObject(uuid.toString()) : null;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // The player may have been added while they were being loaded
+                if (!playerCache.containsKey(uuid) && !restore(uuid)) {
+                    prefetchMisses.incrementAndGet();
+                    cache(uuid, player, known);
+                }
+                result.complete(playerCache.get(uuid));
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Puts a player in the cache, and drops the players least recently used if there are too many
+     * @param playerUUID - the player's UUID
+     * @param player - player loaded from the database, or null if they could not be loaded
+     * @param known - true if the player is in the database
+     */
+    private void cache(UUID playerUUID, @Nullable Players player, boolean known) {
+        if (player == null) {
+            player = new Players(plugin, playerUUID);
+            if (known) {
+                // Corrupted database entry
+                plugin.logError("Corrupted player database entry for " + playerUUID + " - unrecoverable. Recreated.");
+                player.setUniqueId(playerUUID.toString());
+            }
+        }
+        playerCache.put(playerUUID, player);
+        touch(playerUUID);
+        indexName(playerUUID, player.getPlayerName());
+        trim(playerUUID);
+    }
+
+    /**
+     * Drops the offline players least recently used from the cache until there are no more of them than the limit
+     * in the settings. Online players are always kept.
+     * @param keep - the player just added, who is never dropped
+     */
+    private void trim(UUID keep) {
+        int max = plugin.getSettings().getPlayerCacheSize();
+        if (max <= 0 || playerCache.size() <= max) {
+            return;
+        }
+        int limit = max + Bukkit.getOnlinePlayers().size();
+        List<UUID> dropped = new ArrayList<>();
+        synchronized (recentlyUsed) {
+            Iterator<UUID> it = recentlyUsed.iterator();
+            while (playerCache.size() - dropped.size() > limit && it.hasNext()) {
+                UUID uuid = it.next();
+                if (!uuid.equals(keep) && Bukkit.getPlayer(uuid) == null) {
+                    it.remove();
+                    dropped.add(uuid);
+                }
+            }
+        }
+        dropped.forEach(uuid -> {
+            Players player = playerCache.remove(uuid);
+            if (player != null) {
+                writeBack(uuid, player);
+            }
+        });
+    }
+
+    /**
+     * Marks a player in the cache as the most recently used
+     * @param playerUUID - the player's UUID
+     */
+    private void touch(UUID playerUUID) {
+        synchronized (recentlyUsed) {
+            recentlyUsed.remove(playerUUID);
+            recentlyUsed.add(playerUUID);
+        }
+    }
+
+    private void clearRecentlyUsed() {
+        synchronized (recentlyUsed) {
+            recentlyUsed.clear();
+        }
+    }
+
+    /**
+     * Saves a player and drops them from the cache
+     * @param playerUUID - the player's UUID
+     */
+    private void evict(UUID playerUUID) {
+        Players player = playerCache.remove(playerUUID);
+        if (player != null) {
+            synchronized (recentlyUsed) {
+                recentlyUsed.remove(playerUUID);
+            }
+            writeBack(playerUUID, player);
+        }
+    }
+
+    private void writeBack(UUID playerUUID, Players player) {
+        handler.saveObject(player);
+        evicted.put(playerUUID, player);
+        handler.whenWritten(playerUUID.toString(), () -> forget(playerUUID, player));
+    }
+
+    /**
+     * Forgets a player dropped from the cache once their save has been written
+     * @param playerUUID - the player's UUID
+     * @param player - player that was saved
+     */
+    private void forget(UUID playerUUID, Players player) {
+        if (!Bukkit.isPrimaryThread()) {
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> forget(playerUUID, player));
+            }
+            return;
+        }
+        // The player may have been put back in the cache, or saved again since
+        if (evicted.get(playerUUID) == player && !handler.isWritePending(playerUUID.toString())) {
+            evicted.remove(playerUUID);
+        }
+    }
+
+    /**
+     * Puts a player dropped from the cache back in, if they are still kept because their save has not been written.
+     * They are the latest copy of the player even if the save has been written since.
+     * @param playerUUID - the player's UUID
+     * @return true if the player was put back
+     */
+    private boolean restore(UUID playerUUID) {
+        Players player = evicted.isEmpty() ? null : evicted.remove(playerUUID);
+        if (player == null) {
+            return false;
+        }
+        playerCache.put(playerUUID, player);
+        touch(playerUUID);
+        trim(playerUUID);
+        return true;
+    }
+
     /**
      * Checks if the player is known or not.
      * Will check not just the cache but if the object but in the database too.
@@ -160,7 +390,83 @@ public class PlayersManager {
      * @return true if player is known, otherwise false
      */
     public boolean isKnown(UUID uniqueID) {
-        return uniqueID != null && (playerCache.containsKey(uniqueID) || handler.objectExists(uniqueID.toString()));
+        if (uniqueID == null) {
+            return false;
+        }
+        Prefetched p = prefetched.get(uniqueID);
+        if (p != null && p.isExpired(System.nanoTime())) {
+            p = null;
+        }
+        return playerCache.containsKey(uniqueID) || evicted.containsKey(uniqueID) || (p != null ? p.known : handler.objectExists(uniqueID.toString()));
+    }
+
+    /**
+     * Loads a player from the database, ready for when they join, so that the database is not used on the main thread
+     * when they do. This is done when the player logs in, and must not be called from the main thread.
+     * The cache belongs to the main thread, so the player is loaded even if they are in it, and what was loaded is
+     * left unused if they still are when they join.
+     * @param uniqueID - unique ID of the player logging in
+     * @since 1.13.0
+     */
+    public void prefetch(@NonNull UUID uniqueID) {
+        // Forget the players who never joined
+        if (!prefetched.isEmpty()) {
+            long now = System.nanoTime();
+            prefetched.values().removeIf(p -> p.isExpired(now));
+        }
+        long start = System.nanoTime();
+        boolean known = handler.objectExists(uniqueID.toString());
+        Players player = known ? handler.loadObject(uniqueID.toString()) : null;
+        long end = System.nanoTime();
+        prefetched.put(uniqueID, new Prefetched(player, known, end));
+        prefetchCount.incrementAndGet();
+        prefetchTime.addAndGet(end - start);
+    }
+
+    /**
+     * Takes the player loaded by {@link #prefetch(UUID)}, if they were loaded a short time ago
+     * @param uniqueID - unique ID of the player
+     * @return player loaded when they logged in, or null if there is none
+     */
+    @Nullable
+    private Prefetched takePrefetched(UUID uniqueID) {
+        Prefetched p = prefetched.isEmpty() ? null : prefetched.remove(uniqueID);
+        return p == null || p.isExpired(System.nanoTime()) ? null : p;
+    }
+
+    /**
+     * Forgets the player loaded by {@link #prefetch(UUID)}, if they are not going to join after all
+     * @param uniqueID - unique ID of the player
+     * @since 1.13.0
+     */
+    public void discardPrefetch(@NonNull UUID uniqueID) {
+        prefetched.remove(uniqueID);
+    }
+
+    /**
+     * @return number of players that were loaded when they logged in and were used when they joined
+     * @since 1.13.0
+     */
+    public long getPrefetchHits() {
+        return prefetchHits.get();
+    }
+
+    /**
+     * @return number of players that had to be looked up in the database when they were added to the cache,
+     * rather than when they logged in
+     * @since 1.13.0
+     */
+    public long getPrefetchMisses() {
+        return prefetchMisses.get();
+    }
+
+    /**
+     * @return average time in milliseconds taken to load a player when they logged in, or 0 if none were loaded yet
+     * @since 1.13.0
+     */
+    public double getAveragePrefetchTime() {
+        long count = prefetchCount.get();
+        return count == 0 ? 0D : prefetchTime.get() / (count * 1_000_000D);
     }
 
     /**
@@ -256,7 +562,50 @@ public class PlayersManager {
      */
     @Nullable
     public UUID getUUID(@NonNull String name) {
-        // See if this is a UUID
+        UUID uuid = parseUUID(name);
+        if (uuid != null) {
+            return uuid;
+        }
+        // Look in the name index, then the data base and then give up
+        String key = getNameKey(name);
+        uuid = nameIndex.get(key);
+        if (uuid != null || isUnknownName(key)) {
+            return uuid;
+        }
+        return lookUpName(name, key);
+    }
+
+    /**
+     * Attempts to return a UUID for a given player's name without waiting for the database in the main thread
+     * @param name - name of player
+     * @return future completed in the main thread with the UUID of the player, or null if unknown
+     * @since 1.13.0
+     */
+    @NonNull
+    public CompletableFuture<UUID> getUUIDAsync(@NonNull String name) {
+        UUID uuid = parseUUID(name);
+        if (uuid != null) {
+            return CompletableFuture.completedFuture(uuid);
+        }
+        String key = getNameKey(name);
+        uuid = nameIndex.get(key);
+        if (uuid != null || isUnknownName(key)) {
+            return CompletableFuture.completedFuture(uuid);
+        }
+        CompletableFuture<UUID> result = new CompletableFuture<>();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            UUID found = lookUpName(name, key);
+            Bukkit.getScheduler().runTask(plugin, () -> result.complete(found));
+        });
+        return result;
+    }
+
+    /**
+     * @param name - name of player, or a UUID
+     * @return the UUID if the name is one, otherwise null
+     */
+    @Nullable
+    private static UUID parseUUID(String name) {
         // example: 5988eecd-1dcd-4080-a843-785b62419abb
         if (name.length() == 36 && name.contains("-")) {
             try {
@@ -265,11 +614,68 @@ public class PlayersManager {
                 // Not used
             }
         }
-        // Look in the name cache, then the data base and then give up
-        return playerCache.values().stream()
-                .filter(p -> p.getPlayerName().equalsIgnoreCase(name)).findFirst()
-                .map(p -> UUID.fromString(p.getUniqueId()))
-                .orElse(names.objectExists(name) ? names.loadObject(name).getUuid() : null);
+        return null;
+    }
+
+    private static String getNameKey(String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Adds a player's name to the name index
+     * @param playerUUID - the player's UUID
+     * @param name - the player's name, which is their UUID if it is not known
+     */
+    private void indexName(UUID playerUUID, @Nullable String name) {
+        if (name != null && !name.equals(playerUUID.toString())) {
+            String key = getNameKey(name);
+            nameIndex.put(key, playerUUID);
+            unknownNames.remove(key);
+        }
+    }
+
+    /**
+     * Looks a name up in the names database, and remembers the result. May be called from any thread.
+     * @param name - name of player
+     * @param key - lower case name
+     * @return UUID of player or null if unknown
+     */
+    @Nullable
+    private UUID lookUpName(String name, String key) {
+        Names n = names.objectExists(name) ? names.loadObject(name) : null;
+        if (n == null || n.getUuid() == null) {
+            if (unknownNames.size() >= MAX_UNKNOWN_NAMES) {
+                long now = System.nanoTime();
+                unknownNames.values().removeIf(time -> now - time > UNKNOWN_NAME_TIME);
+                if (unknownNames.size() >= MAX_UNKNOWN_NAMES) {
+                    unknownNames.clear();
+                }
+            }
+            // The name may have been added while it was being looked up
+            if (!nameIndex.containsKey(key)) {
+                unknownNames.put(key, System.nanoTime());
+            }
+            return nameIndex.get(key);
+        }
+        // A name set while this one was being looked up is newer than the one in the database
+        UUID uuid = nameIndex.putIfAbsent(key, n.getUuid());
+        return uuid == null ? n.getUuid() : uuid;
+    }
+
+    /**
+     * @param key - lower case name
+     * @return true if the name was looked up a short time ago and was not in the names database
+     */
+    private boolean isUnknownName(String key) {
+        Long time = unknownNames.get(key);
+        if (time == null) {
+            return false;
+        }
+        if (System.nanoTime() - time > UNKNOWN_NAME_TIME) {
+            unknownNames.remove(key);
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -278,7 +684,14 @@ public class PlayersManager {
      */
     public void setPlayerName(@NonNull User user) {
         addPlayer(user.getUniqueId());
-        playerCache.get(user.getUniqueId()).setPlayerName(user.getName());
+        Players player = playerCache.get(user.getUniqueId());
+        String oldName = player.getPlayerName();
+        if (oldName != null && !oldName.equalsIgnoreCase(user.getName())) {
+            // The old name may belong to someone else by now
+            nameIndex.remove(getNameKey(oldName), user.getUniqueId());
+        }
+        player.setPlayerName(user.getName());
+        indexName(user.getUniqueId(), user.getName());
         Names newName = new Names(user.getName(), user.getUniqueId());
         // Add to names database
         names.saveObject(newName);
@@ -300,6 +713,21 @@ public class PlayersManager {
         return playerCache.get(playerUUID).getPlayerName();
     }
 
+    /**
+     * Obtains the name of the player from their UUID without waiting for the database in the main thread
+     * @param playerUUID - the player's UUID
+     * @return future completed in the main thread with the player's name, empty string if UUID is null
+     * @see #getPlayerAsync(UUID)
+     * @since 1.13.0
+     */
+    @NonNull
+    public CompletableFuture<String> getNameAsync(@Nullable UUID playerUUID) {
+        if (playerUUID == null) {
+            return CompletableFuture.completedFuture("");
+        }
+        return getPlayerAsync(playerUUID).thenApply(Players::getPlayerName);
+    }
+
     /**
      * Returns how many island resets the player has done.
      * @param world world
@@ -478,4 +906,36 @@ public class PlayersManager {
         addPlayer(playerUUID);
         return playerCache.get(playerUUID).getFlagsDisplayMode();
     }
+
+    /**
+     * A player loaded when they logged in
+     */
+    private static class Prefetched {
+        /**
+         * Player as loaded from the database, null if they are not in it or their entry could not be loaded
+         */
+        private final Players player;
+        /**
+         * True if the player is in the database
+         */
+        private final boolean known;
+        /**
+         * {@link System#nanoTime()} when the player was loaded
+         */
+        private final long time;
+
+        Prefetched(Players player, boolean known, long time) {
+            this.player = player;
+            this.known = known;
+            this.time = time;
+        }
+
+        /**
+         * @param now - {@link System#nanoTime()} now
+         * @return true if the player was loaded too long ago to be used
+         */
+        private boolean isExpired(long now) {
+            return now - time > PREFETCH_TIME;
+        }
+    }
 }
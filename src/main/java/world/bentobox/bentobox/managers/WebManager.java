@@ -170,6 +170,9 @@ public class WebManager {
             }
         }
 
+        // The translations changed
+        plugin.getLocalesManager().clearTemplates();
+
         // Register the catalog data
         if (!catalogContent.isEmpty()) {
             try {
@@ -0,0 +1,117 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.bukkit.Location;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * The islands that a chunk is in, worked out once so that listeners that run for every block,
+ * e.g., liquids flowing, pistons pushing or explosions, do not have to look up the island of each block.
+ * <p>
+ * If the whole chunk is inside the protected area of one island, then {@link #getProtectingIsland()}
+ * returns it and every block in the chunk can be taken as being on that island without checking.
+ * Otherwise, the protected area of the islands in {@link #getIslands()} must be checked block by block,
+ * which {@link #getProtectedIslandAt(Location)} does.
+ * <p>
+ * Objects of this class do not change. Get them from
+ * {@link world.bentobox.bentobox.managers.IslandsManager#getIslandsInChunk(org.bukkit.World, int, int)}
+ * every time and do not keep them, because they become out of date when islands are made, deleted or resized.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class ChunkIslands {
+
+    private final long version;
+    private final List<Island> islands;
+    private final Island protectingIsland;
+    /**
+     * The min protected x, min protected z and protection range of each island when this was worked out
+     */
+    private final int[] bounds;
+
+    /**
+     * @param version - version of the island cache this was worked out from
+     * @param islands - islands whose space overlaps the chunk
+     * @param protectingIsland - island whose protected area covers the whole chunk, or null if none
+     */
+    ChunkIslands(long version, @NonNull List<Island> islands, @Nullable Island protectingIsland) {
+        this.version = version;
+        this.islands = Collections.unmodifiableList(islands);
+        this.protectingIsland = protectingIsland;
+        this.bounds = new int[islands.size() * 3];
+        for (int n = 0; n < islands.size(); n++) {
+            Island island = islands.get(n);
+            bounds[n * 3] = island.getMinProtectedX();
+            bounds[n * 3 + 1] = island.getMinProtectedZ();
+            bounds[n * 3 + 2] = island.getProtectionRange();
+        }
+    }
+
+    /**
+     * @return unmodifiable list of the islands whose island space overlaps this chunk, not just the protected area
+     */
+    @NonNull
+    public List<Island> getIslands() {
+        return islands;
+    }
+
+    /**
+     * @return the island whose protected area covers the whole chunk, or null if there is none
+     */
+    @Nullable
+    public Island getProtectingIsland() {
+        return protectingIsland;
+    }
+
+    /**
+     * @return true if the whole chunk is inside the protected area of one island
+     */
+    public boolean isFullyProtected() {
+        return protectingIsland != null;
+    }
+
+    /**
+     * Gets the island whose protected area a location in this chunk is in.
+     * Works like {@link world.bentobox.bentobox.managers.IslandsManager#getProtectedIslandAt(Location)}
+     * but without having to find the island first.
+     * @param location - location in this chunk
+     * @return Optional island
+     */
+    @NonNull
+    public Optional<Island> getProtectedIslandAt(@NonNull Location location) {
+        if (protectingIsland != null) {
+            return Optional.of(protectingIsland);
+        }
+        for (Island island : islands) {
+            if (island.onIsland(location)) {
+                return Optional.of(island);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks if this is still right
+     * @param cacheVersion - current version of the island cache
+     * @return true if no islands have been added or removed and none of the islands has moved or changed its protection range
+     */
+    boolean isValid(long cacheVersion) {
+        if (cacheVersion != version) {
+            return false;
+        }
+        for (int n = 0; n < islands.size(); n++) {
+            Island island = islands.get(n);
+            if (bounds[n * 3 + 2] != island.getProtectionRange() || bounds[n * 3] != island.getMinProtectedX()
+                    || bounds[n * 3 + 1] != island.getMinProtectedZ()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
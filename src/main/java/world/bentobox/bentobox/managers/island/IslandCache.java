@@ -1,16 +1,14 @@
 package world.bentobox.bentobox.managers.island;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.eclipse.jdt.annotation.NonNull;
@@ -19,9 +17,16 @@ import org.eclipse.jdt.annotation.Nullable;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.flags.Flag;
 import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.util.Util;
 
 /**
+ * Holds all the loaded islands and the indexes used to find them.
+ * <p>
+ * The cache can be read from any thread. Lookups such as {@link #getIslandAt(Location)}, {@link #get(World, UUID)}
+ * and {@link #getIslandById(String)} do not lock. Changes to the cache are serialized on the cache itself,
+ * so readers never see an island in one index but not yet in another for longer than the change takes.
+ * The {@link Island} objects themselves are not thread-safe.
  * @author tastybento
  */
 public class IslandCache {
@@ -39,12 +44,28 @@ public class IslandCache {
     private Map<@NonNull World, @NonNull Map<@NonNull UUID, @NonNull Island>> islandsByUUID;
     @NonNull
     private Map<@NonNull World, @NonNull IslandGrid> grids;
+    /**
+     * Islands in each game mode, keyed by overworld
+     */
+    @NonNull
+    private Map<@NonNull World, @NonNull Set<@NonNull Island>> islandsByWorld;
+    /**
+     * Named islands in each game mode, keyed by overworld and then by the island name stripped of colors
+     */
+    @NonNull
+    private Map<@NonNull World, @NonNull Map<@NonNull String, @NonNull Set<@NonNull Island>>> islandsByName;
+    /**
+     * Goes up every time an island is added or removed, so that things worked out from the cache know when to look again
+     */
+    private volatile long version;
 
     public IslandCache() {
-        islandsByLocation = new HashMap<>();
-        islandsById = new HashMap<>();
-        islandsByUUID = new HashMap<>();
-        grids = new HashMap<>();
+        islandsByLocation = new ConcurrentHashMap<>();
+        islandsById = new ConcurrentHashMap<>();
+        islandsByUUID = new ConcurrentHashMap<>();
+        grids = new ConcurrentHashMap<>();
+        islandsByWorld = new ConcurrentHashMap<>();
+        islandsByName = new ConcurrentHashMap<>();
     }
 
     /**
@@ -52,7 +73,7 @@ public class IslandCache {
      * @param island island to add, not null
      * @return true if successfully added, false if not
      */
-    public boolean addIsland(@NonNull Island island) {
+    public synchronized boolean addIsland(@NonNull Island island) {
         if (island.getCenter() == null || island.getWorld() == null) {
             /* Special handling - return true.
                The island will not be quarantined, but just not loaded
@@ -62,14 +83,16 @@ public class IslandCache {
             return true;
         }
         if (addToGrid(island)) {
+            version++;
             islandsByLocation.put(island.getCenter(), island);
             islandsById.put(island.getUniqueId(), island);
+            addToWorldIndex(island);
             // Make world
-            islandsByUUID.putIfAbsent(island.getWorld(), new HashMap<>());
+            Map<UUID, Island> byUUID = islandsByUUID.computeIfAbsent(island.getWorld(), k -> new ConcurrentHashMap<>());
             // Only add islands to this map if they are owned
             if (island.isOwned()) {
-                islandsByUUID.get(island.getWorld()).put(island.getOwner(), island);
-                island.getMemberSet().forEach(member -> islandsByUUID.get(island.getWorld()).put(member, island));
+                byUUID.put(island.getOwner(), island);
+                island.getMemberSet().forEach(member -> byUUID.put(member, island));
             }
             return true;
         }
@@ -81,9 +104,10 @@ public class IslandCache {
      * @param uuid player's uuid
      * @param island island to associate with this uuid. Only one island can be associated per world.
      */
-    public void addPlayer(@NonNull UUID uuid, @NonNull Island island) {
-        islandsByUUID.putIfAbsent(island.getWorld(), new HashMap<>());
-        islandsByUUID.get(island.getWorld()).put(uuid, island);
+    public synchronized void addPlayer(@NonNull UUID uuid, @NonNull Island island) {
+        if (island.getWorld() != null) {
+            islandsByUUID.computeIfAbsent(island.getWorld(), k -> new ConcurrentHashMap<>()).put(uuid, island);
+        }
     }
 
     /**
@@ -92,14 +116,89 @@ public class IslandCache {
      * @return true if successfully added, false if not
      */
     private boolean addToGrid(@NonNull Island newIsland) {
-        grids.putIfAbsent(newIsland.getWorld(), new IslandGrid());
-        return grids.get(newIsland.getWorld()).addToGrid(newIsland);
+        return grids.computeIfAbsent(newIsland.getWorld(), this::createGrid).addToGrid(newIsland);
     }
 
-    public void clear() {
+    /**
+     * Makes the grid of a world, aligned with where the game mode puts islands
+     * @param world world
+     * @return grid
+     */
+    @NonNull
+    private IslandGrid createGrid(@NonNull World world) {
+        BentoBox plugin = BentoBox.getInstance();
+        IslandWorldManager iwm = plugin == null ? null : plugin.getIWM();
+        int distance = iwm == null ? 0 : iwm.getIslandDistance(world);
+        if (distance <= 0) {
+            // Not a game mode world, so the islands set the grid
+            return new IslandGrid();
+        }
+        return new IslandGrid(distance, iwm.getIslandStartX(world) + iwm.getIslandXOffset(world),
+                iwm.getIslandStartZ(world) + iwm.getIslandZOffset(world));
+    }
+
+    /**
+     * Adds an island to the per-world and name indexes
+     * @param island island to add
+     */
+    private void addToWorldIndex(@NonNull Island island) {
+        World w = Util.getWorld(island.getWorld());
+        if (w == null) {
+            // The overworld of this world is not loaded
+            return;
+        }
+        islandsByWorld.computeIfAbsent(w, k -> ConcurrentHashMap.newKeySet()).add(island);
+        addToNameIndex(w, island, island.getName());
+    }
+
+    private void addToNameIndex(@NonNull World w, @NonNull Island island, @Nullable String name) {
+        // Empty names are no names, as in Island#setName
+        if (name != null && !name.isEmpty()) {
+            islandsByName.computeIfAbsent(w, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(normalizeName(name), k -> ConcurrentHashMap.newKeySet(1)).add(island);
+        }
+    }
+
+    /**
+     * Removes an island from the per-world and name indexes
+     * @param island island to remove
+     */
+    private void removeFromWorldIndex(@NonNull Island island) {
+        World w = Util.getWorld(island.getWorld());
+        if (w == null) {
+            return;
+        }
+        Set<Island> set = islandsByWorld.get(w);
+        if (set != null) {
+            set.remove(island);
+        }
+        removeFromNameIndex(w, island, island.getName());
+    }
+
+    private void removeFromNameIndex(@NonNull World w, @NonNull Island island, @Nullable String name) {
+        Map<String, Set<Island>> names = islandsByName.get(w);
+        if (name == null || name.isEmpty() || names == null) {
+            return;
+        }
+        String key = normalizeName(name);
+        Set<Island> set = names.get(key);
+        if (set != null && set.remove(island) && set.isEmpty()) {
+            names.remove(key);
+        }
+    }
+
+    @NonNull
+    private static String normalizeName(@NonNull String name) {
+        return ChatColor.stripColor(name);
+    }
+
+    public synchronized void clear() {
+        version++;
         islandsByLocation.clear();
         islandsById.clear();
         islandsByUUID.clear();
+        islandsByWorld.clear();
+        islandsByName.clear();
     }
 
     /**
@@ -107,15 +206,18 @@ public class IslandCache {
      * @param island island to delete
      * @return true if successful, false if not
      */
-    public boolean deleteIslandFromCache(@NonNull Island island) {
-        if (!islandsByLocation.remove(island.getCenter(), island) || !islandsByUUID.containsKey(island.getWorld())) {
+    public synchronized boolean deleteIslandFromCache(@NonNull Island island) {
+        if (island.getCenter() == null || island.getWorld() == null
+                || !islandsByLocation.remove(island.getCenter(), island) || !islandsByUUID.containsKey(island.getWorld())) {
             return false;
         }
+        version++;
         islandsById.remove(island.getUniqueId());
+        removeFromWorldIndex(island);
         islandsByUUID.get(island.getWorld()).entrySet().removeIf(en -> en.getValue().equals(island));
         // Remove from grid
-        grids.putIfAbsent(island.getWorld(), new IslandGrid());
-        return grids.get(island.getWorld()).removeFromGrid(island);
+        IslandGrid grid = grids.get(island.getWorld());
+        return grid != null && grid.removeFromGrid(island);
     }
 
     /**
@@ -125,7 +227,7 @@ public class IslandCache {
      */
     @Nullable
     public Island get(@NonNull Location location) {
-        return islandsByLocation.get(location);
+        return location == null ? null : islandsByLocation.get(location);
     }
 
     /**
@@ -136,7 +238,9 @@ public class IslandCache {
      */
     @Nullable
     public Island get(@NonNull World world, @NonNull UUID uuid) {
-        return islandsByUUID.containsKey(Util.getWorld(world)) ? islandsByUUID.get(Util.getWorld(world)).get(uuid) : null;
+        World w = Util.getWorld(world);
+        Map<UUID, Island> byUUID = w == null ? null : islandsByUUID.get(w);
+        return byUUID == null || uuid == null ? null : byUUID.get(uuid);
     }
 
     /**
@@ -148,10 +252,9 @@ public class IslandCache {
      */
     @Nullable
     public Island getIslandAt(@NonNull Location location) {
-        if (!grids.containsKey(Util.getWorld(location.getWorld()))) {
-            return null;
-        }
-        return grids.get(Util.getWorld(location.getWorld())).getIslandAt(location.getBlockX(), location.getBlockZ());
+        World w = Util.getWorld(location.getWorld());
+        IslandGrid grid = w == null ? null : grids.get(w);
+        return grid == null ? null : grid.getIslandAt(location.getBlockX(), location.getBlockZ());
     }
 
     /**
@@ -165,19 +268,52 @@ public class IslandCache {
 
     /**
      * Returns an <strong>unmodifiable collection</strong> of all the islands (even those who may be unowned) in the specified world.
+     * This is a live view of the cache, so it must be copied before adding or removing islands while iterating over it.
      * @param world World of the gamemode.
      * @return unmodifiable collection containing all the islands in the specified world.
      * @since 1.7.0
      */
     @NonNull
     public Collection<Island> getIslands(@NonNull World world) {
-        World overworld = Util.getWorld(world);
-        List<Island> islandsInWorld = islandsByLocation.entrySet().stream()
-                .filter(entry -> overworld.equals(Util.getWorld(entry.getKey().getWorld()))) // shouldn't make NPEs
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toCollection(ArrayList::new));
+        World w = Util.getWorld(world);
+        Set<Island> islandsInWorld = w == null ? null : islandsByWorld.get(w);
+        return islandsInWorld == null ? Collections.emptySet() : Collections.unmodifiableCollection(islandsInWorld);
+    }
 
-        return Collections.unmodifiableCollection(islandsInWorld);
+    /**
+     * Returns whether an island in this world has this name. Color codes are ignored in the comparison.
+     * @param world World of the gamemode
+     * @param name Name of an island
+     * @return {@code true} if there is an island with the specified name in this world, {@code false} otherwise.
+     * @since 1.13.0
+     */
+    public boolean nameExists(@NonNull World world, @NonNull String name) {
+        World w = Util.getWorld(world);
+        if (w == null) {
+            return false;
+        }
+        String key = normalizeName(name);
+        Map<String, Set<Island>> names = islandsByName.get(w);
+        Set<Island> set = names == null ? null : names.get(key);
+        // Double check in case the name was changed without going through the cache
+        return set != null && set.stream().anyMatch(i -> i.getName() != null && normalizeName(i.getName()).equals(key));
+    }
+
+    /**
+     * Sets the display name of an island and keeps the name index up to date.
+     * @param island island
+     * @param name the display name, or {@code null} to remove it
+     * @since 1.13.0
+     */
+    public synchronized void setName(@NonNull Island island, @Nullable String name) {
+        World w = Util.getWorld(island.getWorld());
+        if (w != null) {
+            removeFromNameIndex(w, island, island.getName());
+        }
+        island.setName(name);
+        if (w != null && islandsById.get(island.getUniqueId()) == island) {
+            addToNameIndex(w, island, name);
+        }
     }
 
     /**
@@ -188,8 +324,7 @@ public class IslandCache {
      */
     @NonNull
     public Set<UUID> getMembers(@NonNull World world, @NonNull UUID uuid, int minimumRank) {
-        islandsByUUID.putIfAbsent(Util.getWorld(world), new HashMap<>());
-        Island island = islandsByUUID.get(Util.getWorld(world)).get(uuid);
+        Island island = get(world, uuid);
         if (island != null) {
             return island.getMemberSet(minimumRank);
         }
@@ -203,8 +338,7 @@ public class IslandCache {
      */
     @Nullable
     public UUID getOwner(@NonNull World world, @NonNull UUID uuid) {
-        islandsByUUID.putIfAbsent(Util.getWorld(world), new HashMap<>());
-        Island island = islandsByUUID.get(Util.getWorld(world)).get(uuid);
+        Island island = get(world, uuid);
         if (island != null) {
             return island.getOwner();
         }
@@ -217,8 +351,7 @@ public class IslandCache {
      * @return true if player has island and owns it
      */
     public boolean hasIsland(@NonNull World world, @NonNull UUID uuid) {
-        islandsByUUID.putIfAbsent(Util.getWorld(world), new HashMap<>());
-        Island island = islandsByUUID.get(Util.getWorld(world)).get(uuid);
+        Island island = get(world, uuid);
         return island != null && uuid.equals(island.getOwner());
     }
 
@@ -230,10 +363,9 @@ public class IslandCache {
      * @return island player had or null if none
      */
     @Nullable
-    public Island removePlayer(@NonNull World world, @NonNull UUID uuid) {
+    public synchronized Island removePlayer(@NonNull World world, @NonNull UUID uuid) {
         world = Util.getWorld(world);
-        islandsByUUID.putIfAbsent(world, new HashMap<>());
-        Island island = islandsByUUID.get(world).get(uuid);
+        Island island = get(world, uuid);
         if (island != null) {
             if (uuid.equals(island.getOwner())) {
                 // Clear ownership and members
@@ -244,7 +376,9 @@ public class IslandCache {
                 island.removeMember(uuid);
             }
         }
-        islandsByUUID.get(world).remove(uuid);
+        if (island != null) {
+            islandsByUUID.get(world).remove(uuid);
+        }
         return island;
     }
 
@@ -262,7 +396,8 @@ public class IslandCache {
      * @return the number of islands
      */
     public int size(World world) {
-        return islandsByUUID.getOrDefault(world, new HashMap<>(0)).size();
+        Map<UUID, Island> byUUID = world == null ? null : islandsByUUID.get(world);
+        return byUUID == null ? 0 : byUUID.size();
     }
 
     /**
@@ -271,13 +406,19 @@ public class IslandCache {
      * @param island island
      * @param newOwnerUUID new owner
      */
-    public void setOwner(@NonNull Island island, @Nullable UUID newOwnerUUID) {
+    public synchronized void setOwner(@NonNull Island island, @Nullable UUID newOwnerUUID) {
         island.setOwner(newOwnerUUID);
-        if (newOwnerUUID != null) {
-            islandsByUUID.computeIfAbsent(Util.getWorld(island.getWorld()), k -> new HashMap<>()).put(newOwnerUUID, island);
+        World w = Util.getWorld(island.getWorld());
+        if (newOwnerUUID != null && w != null) {
+            islandsByUUID.computeIfAbsent(w, k -> new ConcurrentHashMap<>()).put(newOwnerUUID, island);
+        }
+        if (island.getCenter() != null) {
+            islandsByLocation.put(island.getCenter(), island);
         }
-        islandsByLocation.put(island.getCenter(), island);
         islandsById.put(island.getUniqueId(), island);
+        if (w != null) {
+            islandsByWorld.computeIfAbsent(w, k -> ConcurrentHashMap.newKeySet()).add(island);
+        }
     }
 
     /**
@@ -288,7 +429,7 @@ public class IslandCache {
      */
     @Nullable
     public Island getIslandById(@NonNull String uniqueId) {
-        return islandsById.get(uniqueId);
+        return uniqueId == null ? null : islandsById.get(uniqueId);
     }
 
     /**
@@ -296,14 +437,22 @@ public class IslandCache {
      * @param island - island to remove
      * @since 1.3.0
      */
-    public void removeIsland(@NonNull Island island) {
+    public synchronized void removeIsland(@NonNull Island island) {
+        version++;
         islandsByLocation.values().removeIf(island::equals);
         islandsById.values().removeIf(island::equals);
-        if (islandsByUUID.containsKey(Util.getWorld(island.getWorld()))) {
-            islandsByUUID.get(Util.getWorld(island.getWorld())).values().removeIf(island::equals);
+        removeFromWorldIndex(island);
+        World w = Util.getWorld(island.getWorld());
+        if (w == null) {
+            return;
+        }
+        Map<UUID, Island> byUUID = islandsByUUID.get(w);
+        if (byUUID != null) {
+            byUUID.values().removeIf(island::equals);
         }
-        if (grids.containsKey(Util.getWorld(island.getWorld()))) {
-            grids.get(Util.getWorld(island.getWorld())).removeFromGrid(island);
+        IslandGrid grid = grids.get(w);
+        if (grid != null) {
+            grid.removeFromGrid(island);
         }
     }
 
@@ -313,8 +462,7 @@ public class IslandCache {
      * @since 1.3.0
      */
     public void resetAllFlags(World world) {
-        World w = Util.getWorld(world);
-        islandsById.values().stream().filter(i -> i.getWorld().equals(w)).forEach(Island::setFlagsDefaults);
+        getIslands(world).forEach(Island::setFlagsDefaults);
     }
 
     /**
@@ -325,8 +473,11 @@ public class IslandCache {
      */
     public void resetFlag(World world, Flag flag) {
         World w = Util.getWorld(world);
+        if (w == null) {
+            return;
+        }
         int setting = BentoBox.getInstance().getIWM().getDefaultIslandFlags(w).getOrDefault(flag, flag.getDefaultRank());
-        islandsById.values().stream().filter(i -> i.getWorld().equals(w)).forEach(i -> i.setFlag(flag, setting));
+        getIslands(w).forEach(i -> i.setFlag(flag, setting));
     }
     
     /**
@@ -337,4 +488,14 @@ public class IslandCache {
     public Set<String> getAllIslandIds() {
         return islandsById.keySet();
     }
+
+    /**
+     * Gets a number that changes every time an island is added to or removed from the cache.
+     * Anything worked out from where islands are can be kept for as long as this does not change.
+     * @return version of the cache
+     * @since 1.13.0
+     */
+    public long getVersion() {
+        return version;
+    }
 }
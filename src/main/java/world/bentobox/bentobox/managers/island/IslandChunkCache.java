@@ -0,0 +1,127 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.eclipse.jdt.annotation.NonNull;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.IslandsManager;
+
+/**
+ * Remembers the {@link ChunkIslands} of chunks while they are loaded.
+ * Entries are worked out again when islands are added or removed, or when one of the islands of the chunk
+ * is moved or resized, and are forgotten when the chunk or world unloads.
+ * Chunks that are not loaded are worked out every time and are not remembered, because no unload event
+ * would ever remove them.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class IslandChunkCache implements Listener {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private final BentoBox plugin;
+    private final IslandsManager islandsManager;
+    private final Map<World, Map<Long, ChunkIslands>> chunks = new ConcurrentHashMap<>();
+
+    public IslandChunkCache(@NonNull BentoBox plugin, @NonNull IslandsManager islandsManager) {
+        this.plugin = plugin;
+        this.islandsManager = islandsManager;
+    }
+
+    /**
+     * Gets the islands in a chunk
+     * @param world - world
+     * @param chunkX - chunk x coordinate
+     * @param chunkZ - chunk z coordinate
+     * @return islands in the chunk
+     */
+    @NonNull
+    public ChunkIslands get(@NonNull World world, int chunkX, int chunkZ) {
+        IslandCache islandCache = islandsManager.getIslandCache();
+        long version = islandCache.getVersion();
+        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+            return compute(islandCache, version, world, chunkX, chunkZ);
+        }
+        Map<Long, ChunkIslands> worldChunks = chunks.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
+        long key = getKey(chunkX, chunkZ);
+        ChunkIslands chunk = worldChunks.get(key);
+        if (chunk == null || !chunk.isValid(version)) {
+            chunk = compute(islandCache, version, world, chunkX, chunkZ);
+            worldChunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * @return number of chunks remembered
+     */
+    public int size() {
+        return chunks.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Forgets everything
+     */
+    public void clear() {
+        chunks.clear();
+    }
+
+    private ChunkIslands compute(IslandCache islandCache, long version, World world, int chunkX, int chunkZ) {
+        List<Island> islands = new ArrayList<>(1);
+        if (!plugin.getIWM().inWorld(world)) {
+            return new ChunkIslands(version, islands, null);
+        }
+        int minX = chunkX << 4;
+        int minZ = chunkZ << 4;
+        // If islands are at least a chunk wide, a chunk can only overlap the islands at its corners
+        int step = plugin.getIWM().getIslandDistance(world) * 2 >= CHUNK_SIZE ? CHUNK_SIZE - 1 : 1;
+        for (int x = 0; x < CHUNK_SIZE; x += step) {
+            for (int z = 0; z < CHUNK_SIZE; z += step) {
+                Island island = islandCache.getIslandAt(new Location(world, minX + x, 0, minZ + z));
+                if (island != null && !islands.contains(island)) {
+                    islands.add(island);
+                }
+            }
+        }
+        Island protectingIsland = islands.size() == 1 && covers(islands.get(0), minX, minZ) ? islands.get(0) : null;
+        return new ChunkIslands(version, islands, protectingIsland);
+    }
+
+    /**
+     * @return true if the protected area of the island covers the whole chunk
+     */
+    private boolean covers(Island island, int minX, int minZ) {
+        int size = island.getProtectionRange() * 2;
+        return minX >= island.getMinProtectedX() && minX + CHUNK_SIZE <= island.getMinProtectedX() + size
+                && minZ >= island.getMinProtectedZ() && minZ + CHUNK_SIZE <= island.getMinProtectedZ() + size;
+    }
+
+    private static long getKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent e) {
+        Map<Long, ChunkIslands> worldChunks = chunks.get(e.getWorld());
+        if (worldChunks != null) {
+            worldChunks.remove(getKey(e.getChunk().getX(), e.getChunk().getZ()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent e) {
+        chunks.remove(e.getWorld());
+    }
+}
@@ -2,18 +2,59 @@ package world.bentobox.bentobox.managers.island;
 
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
 
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.database.objects.Island;
 
 /**
- * Handles the island location grid for each world
+ * Handles the island location grid for each world.
+ * <p>
+ * Islands of a game mode sit on a regular grid whose cell size is twice the island distance and whose
+ * origin is set by the island offsets. Islands that fall on that grid are stored in a primitive
+ * long-keyed table indexed by cell coordinates, so {@link #getIslandAt(int, int)} is a couple of
+ * divisions and an array probe, without boxing or allocation.
+ * Islands that do not fit the grid (legacy islands, islands made before the distance was changed, etc.)
+ * are kept in a sorted fallback map that is only walked when the grid has no answer.
+ * <p>
+ * The grid geometry is taken from the island distance, start and offsets in the world settings. If they are not
+ * known, it is taken from the first island added with a positive range.
+ * <p>
+ * The grid is safe to read from any thread. Changes are done under a write lock and on-grid lookups
+ * use an optimistic read, so they do not block unless they race with a change.
  * @author tastybento
  *
  */
 class IslandGrid {
+    private final StampedLock lock = new StampedLock();
+    private final CellTable cells = new CellTable();
     private TreeMap<Integer, TreeMap<Integer, Island>> grid = new TreeMap<>();
     private BentoBox plugin = BentoBox.getInstance();
+    /**
+     * Cell size in blocks, i.e., twice the island distance. 0 until the first on-grid island is added.
+     */
+    private int cellSize;
+    private int originX;
+    private int originZ;
+
+    /**
+     * Makes a grid whose geometry is set by the first island added with a positive range
+     */
+    IslandGrid() {}
+
+    /**
+     * Makes a grid for the islands of a world
+     * @param islandDistance - island distance in the world settings, i.e., half the distance between island centers
+     * @param centerX - x of the center of an island on the grid, i.e., island start x plus x offset
+     * @param centerZ - z of the center of an island on the grid, i.e., island start z plus z offset
+     */
+    IslandGrid(int islandDistance, int centerX, int centerZ) {
+        if (islandDistance > 0) {
+            cellSize = islandDistance * 2;
+            originX = Math.floorMod(centerX - islandDistance, cellSize);
+            originZ = Math.floorMod(centerZ - islandDistance, cellSize);
+        }
+    }
 
     /**
      * Adds island to grid
@@ -21,55 +62,76 @@ class IslandGrid {
      * @return true if successfully added, false if island already exists, or there is an overlap
      */
     public boolean addToGrid(Island island) {
-        if (grid.containsKey(island.getMinX())) {
-            TreeMap<Integer, Island> zEntry = grid.get(island.getMinX());
-            if (zEntry.containsKey(island.getMinZ())) {
-                // There is an overlap or duplicate
-                plugin.logError("Cannot load island. Overlapping: " + island.getUniqueId());
-                plugin.logError("Location: " + island.getCenter());
-                // Get the previously loaded island
-                Island firstLoaded = zEntry.get(island.getMinZ());
-                if (firstLoaded.getOwner() == null && island.getOwner() != null) {
-                    // This looks fishy. We prefer to load islands that have an owner. Swap the two
-                    plugin.logError("Duplicate island has an owner, so using that one. " + island.getOwner());
-                    firstLoaded = new Island(island);
-                    zEntry.put(island.getMinZ(), firstLoaded);
-                } else if (firstLoaded.getOwner() != null && island.getOwner() != null) {
-                    // Check if the owners are the same - this is a true duplicate
-                    if (firstLoaded.getOwner().equals(island.getOwner())) {
-                        // Find out which one is the original
-                        if (firstLoaded.getCreatedDate() > island.getCreatedDate()) {
-                            plugin.logError("Same owner duplicate. Swaping based on creation date.");
-                            // FirstLoaded is the newer
-                            firstLoaded = new Island(island);
-                            zEntry.put(island.getMinZ(), firstLoaded);
-                        } else {
-                            plugin.logError("Same owner duplicate.");
-                        }
-                    } else {
-                        plugin.logError("Duplicate but different owner. Keeping first loaded.");
-                        plugin.logError("This is serious!");
-                        plugin.logError("1st loaded ID: " + firstLoaded.getUniqueId());
-                        plugin.logError("1st loaded owner: " + firstLoaded.getOwner());
-                        plugin.logError("2nd loaded ID: " + island.getUniqueId());
-                        plugin.logError("2nd loaded owner: " + island.getOwner());
-                    }
-                }
+        long stamp = lock.writeLock();
+        try {
+            return add(island);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private boolean add(Island island) {
+        if (isOnGrid(island)) {
+            long key = key(cellX(island.getMinX()), cellZ(island.getMinZ()));
+            Island firstLoaded = cells.get(key);
+            if (firstLoaded != null) {
+                cells.put(key, resolveDuplicate(firstLoaded, island));
                 return false;
-            } else {
-                // Add island
-                zEntry.put(island.getMinZ(), island);
-                grid.put(island.getMinX(), zEntry);
             }
-        } else {
-            // Add island
-            TreeMap<Integer, Island> zEntry = new TreeMap<>();
-            zEntry.put(island.getMinZ(), island);
-            grid.put(island.getMinX(), zEntry);
+            cells.put(key, island);
+            return true;
         }
+        return addToFallback(island);
+    }
+
+    private boolean addToFallback(Island island) {
+        TreeMap<Integer, Island> zEntry = grid.computeIfAbsent(island.getMinX(), k -> new TreeMap<>());
+        if (zEntry.containsKey(island.getMinZ())) {
+            zEntry.put(island.getMinZ(), resolveDuplicate(zEntry.get(island.getMinZ()), island));
+            return false;
+        }
+        // Add island
+        zEntry.put(island.getMinZ(), island);
         return true;
     }
 
+    /**
+     * Decides which of two islands occupying the same space should be kept in the grid
+     * @param firstLoaded - the island already in the grid
+     * @param island - the island that is being added
+     * @return the island to keep in the grid
+     */
+    private Island resolveDuplicate(Island firstLoaded, Island island) {
+        // There is an overlap or duplicate
+        plugin.logError("Cannot load island. Overlapping: " + island.getUniqueId());
+        plugin.logError("Location: " + island.getCenter());
+        if (firstLoaded.getOwner() == null && island.getOwner() != null) {
+            // This looks fishy. We prefer to load islands that have an owner. Swap the two
+            plugin.logError("Duplicate island has an owner, so using that one. " + island.getOwner());
+            return new Island(island);
+        } else if (firstLoaded.getOwner() != null && island.getOwner() != null) {
+            // Check if the owners are the same - this is a true duplicate
+            if (firstLoaded.getOwner().equals(island.getOwner())) {
+                // Find out which one is the original
+                if (firstLoaded.getCreatedDate() > island.getCreatedDate()) {
+                    plugin.logError("Same owner duplicate. Swaping based on creation date.");
+                    // FirstLoaded is the newer
+                    return new Island(island);
+                } else {
+                    plugin.logError("Same owner duplicate.");
+                }
+            } else {
+                plugin.logError("Duplicate but different owner. Keeping first loaded.");
+                plugin.logError("This is serious!");
+                plugin.logError("1st loaded ID: " + firstLoaded.getUniqueId());
+                plugin.logError("1st loaded owner: " + firstLoaded.getOwner());
+                plugin.logError("2nd loaded ID: " + island.getUniqueId());
+                plugin.logError("2nd loaded owner: " + island.getOwner());
+            }
+        }
+        return firstLoaded;
+    }
+
     /**
      * Remove island from grid
      * @param island - the island to remove
@@ -78,21 +140,33 @@ class IslandGrid {
     public boolean removeFromGrid(Island island) {
         // Remove from grid
         if (island != null) {
-            int x = island.getMinX();
-            int z = island.getMinZ();
-            if (grid.containsKey(x)) {
-                TreeMap<Integer, Island> zEntry = grid.get(x);
-                if (zEntry.containsKey(z)) {
-                    // Island exists - delete it
-                    zEntry.remove(z);
-                    grid.put(x, zEntry);
-                    return true;
-                }
+            long stamp = lock.writeLock();
+            try {
+                return remove(island);
+            } finally {
+                lock.unlockWrite(stamp);
             }
         }
         return false;
     }
 
+    private boolean remove(Island island) {
+        int x = island.getMinX();
+        int z = island.getMinZ();
+        if (isOnGrid(island) && cells.remove(key(cellX(x), cellZ(z)))) {
+            return true;
+        }
+        TreeMap<Integer, Island> zEntry = grid.get(x);
+        if (zEntry != null && zEntry.remove(z) != null) {
+            // Island existed - deleted it
+            if (zEntry.isEmpty()) {
+                grid.remove(x);
+            }
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Returns the island at the x,z location or null if there is none.
      * This includes the full island space, not just the protected area.
@@ -102,17 +176,214 @@ class IslandGrid {
      * @return Island or null
      */
     public Island getIslandAt(int x, int z) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            Island island = findInCells(x, z);
+            boolean noFallback = grid.isEmpty();
+            if (lock.validate(stamp) && (island != null || noFallback)) {
+                return island;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(x, z);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Looks for an island in the grid cells. May run without holding the lock, so it must
+     * never throw or loop forever when it sees the table in the middle of a change.
+     * @param x - x coordinate
+     * @param z - z coordinate
+     * @return Island or null
+     */
+    private Island findInCells(int x, int z) {
+        int size = cellSize;
+        if (size <= 0) {
+            return null;
+        }
+        Island island = cells.get(key(Math.floorDiv(x - originX, size), Math.floorDiv(z - originZ, size)));
+        return island != null && island.inIslandSpace(x, z) ? island : null;
+    }
+
+    private Island find(int x, int z) {
+        Island island = findInCells(x, z);
+        if (island != null || grid.isEmpty()) {
+            return island;
+        }
         Entry<Integer, TreeMap<Integer, Island>> en = grid.floorEntry(x);
         if (en != null) {
             Entry<Integer, Island> ent = en.getValue().floorEntry(z);
-            if (ent != null) {
-                // Check if in the island range
-                Island island = ent.getValue();
-                if (island.inIslandSpace(x, z)) {
+            // Check if in the island range
+            if (ent != null && ent.getValue().inIslandSpace(x, z)) {
+                return ent.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of islands in this grid
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return cells.size() + grid.values().stream().mapToInt(TreeMap::size).sum();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Checks if the island fits exactly into a cell of the grid.
+     * If the grid geometry is not set yet, this island sets it.
+     * @param island - island
+     * @return true if the island is aligned to the grid
+     */
+    private boolean isOnGrid(Island island) {
+        int size = island.getRange() * 2;
+        if (size <= 0) {
+            return false;
+        }
+        if (cellSize == 0) {
+            cellSize = size;
+            originX = Math.floorMod(island.getMinX(), cellSize);
+            originZ = Math.floorMod(island.getMinZ(), cellSize);
+        }
+        return size == cellSize
+                && Math.floorMod(island.getMinX(), cellSize) == originX
+                && Math.floorMod(island.getMinZ(), cellSize) == originZ;
+    }
+
+    private int cellX(int x) {
+        return Math.floorDiv(x - originX, cellSize);
+    }
+
+    private int cellZ(int z) {
+        return Math.floorDiv(z - originZ, cellSize);
+    }
+
+    private static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Open-addressing hash table from a packed cell coordinate to the island in that cell.
+     * Uses linear probing and backward-shift deletion so there are no tombstones.
+     */
+    private static final class CellTable {
+        private static final int INITIAL_CAPACITY = 64;
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Island[] values = new Island[INITIAL_CAPACITY];
+        private int size;
+
+        Island get(long key) {
+            // Read the arrays once so a concurrent resize cannot make them disagree mid-probe
+            long[] k = keys;
+            Island[] v = values;
+            if (k.length != v.length) {
+                return null;
+            }
+            int mask = v.length - 1;
+            int i = hash(key) & mask;
+            for (int n = 0; n < v.length; n++, i = (i + 1) & mask) {
+                Island island = v[i];
+                if (island == null) {
+                    return null;
+                }
+                if (k[i] == key) {
                     return island;
                 }
             }
+            return null;
+        }
+
+        void put(long key, Island island) {
+            int mask = values.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    values[i] = island;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = island;
+            // Keep the load factor at or below 0.5
+            if (++size * 2 > values.length) {
+                resize(values.length * 2);
+            }
+        }
+
+        boolean remove(long key) {
+            int mask = values.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    shiftBack(i, mask);
+                    size--;
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Closes the gap left at slot {@code gap} by moving back any following entries
+         * that would otherwise become unreachable.
+         */
+        private void shiftBack(int gap, int mask) {
+            int i = gap;
+            while (true) {
+                i = (i + 1) & mask;
+                if (values[i] == null) {
+                    break;
+                }
+                int home = hash(keys[i]) & mask;
+                // Move the entry if its home slot is not cyclically in (gap, i]
+                if ((i > gap && (home <= gap || home > i)) || (i < gap && home <= gap && home > i)) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    gap = i;
+                }
+            }
+            values[gap] = null;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Island[] oldValues = values;
+            keys = new long[capacity];
+            values = new Island[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldValues.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = hash(oldKeys[j]) & mask;
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            // Murmur3 64-bit finalizer
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            key *= 0xc4ceb9fe1a85ec53L;
+            key ^= key >>> 33;
+            return (int) key;
         }
-        return null;
     }
 }
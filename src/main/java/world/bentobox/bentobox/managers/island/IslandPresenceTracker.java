@@ -0,0 +1,290 @@
+package world.bentobox.bentobox.managers.island;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.events.IslandBaseEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandEnterEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandExitEvent;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.RanksManager;
+
+/**
+ * Keeps track of which islands have someone looking after them, so that listeners that run for every
+ * block update, like the offline redstone and growth ones, do not have to look through players.
+ * <p>
+ * Two things are tracked:
+ * <ul>
+ * <li>whether an island has a member of coop rank or higher online. This is worked out when first asked
+ * and then kept until a player joins or quits, an island or team event happens, or a second has passed.</li>
+ * <li>how many moderators, i.e., ops or players with the game mode's {@code mod.bypassprotect} permission,
+ * are in the protected area of each island. This is updated as players join, quit, move, ride and teleport.
+ * The island space a player is in is remembered, so that moving around in it does not look the island up again.
+ * Permissions are checked when a player gets onto an island, and again for everyone on an island when
+ * moderators are asked about if a second has passed since the last check.</li>
+ * </ul>
+ * This class is meant to be used from the main thread only.
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class IslandPresenceTracker implements Listener {
+
+    /**
+     * Longest time whether members are online is remembered for, in case team changes happen without an event
+     */
+    private static final long MEMBERS_ONLINE_TTL = 1000L;
+    /**
+     * Longest time a change of the permissions of players on islands may go unnoticed for
+     */
+    private static final long MODERATORS_TTL = 1000L;
+
+    private final BentoBox plugin;
+    private final Map<Island, Boolean> membersOnline = new HashMap<>();
+    private long membersOnlineExpiry;
+    /**
+     * Island whose space each online player is in, if any
+     */
+    private final Map<UUID, Island> playerSpaces = new HashMap<>();
+    /**
+     * Protected island each online player is on, if any
+     */
+    private final Map<UUID, Island> playerIslands = new HashMap<>();
+    /**
+     * Island on which each player is counted as a moderator
+     */
+    private final Map<UUID, Island> moderatorIslands = new HashMap<>();
+    private final Map<Island, Integer> moderators = new HashMap<>();
+    private long moderatorsExpiry;
+    private long hits;
+    private long misses;
+
+    public IslandPresenceTracker(@NonNull BentoBox plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @param island - island
+     * @return true if a member of this island of coop rank or higher is online
+     */
+    public boolean hasMembersOnline(@NonNull Island island) {
+        long now = System.currentTimeMillis();
+        if (now >= membersOnlineExpiry) {
+            membersOnline.clear();
+            membersOnlineExpiry = now + MEMBERS_ONLINE_TTL;
+        }
+        Boolean online = membersOnline.get(island);
+        if (online != null) {
+            hits++;
+            return online;
+        }
+        misses++;
+        online = island.getMemberSet(RanksManager.COOP_RANK).stream().anyMatch(uuid -> Bukkit.getPlayer(uuid) != null);
+        membersOnline.put(island, online);
+        return online;
+    }
+
+    /**
+     * @param island - island
+     * @return true if a moderator is in the protected area of this island
+     */
+    public boolean hasModeratorsOn(@NonNull Island island) {
+        long now = System.currentTimeMillis();
+        if (now >= moderatorsExpiry) {
+            moderatorsExpiry = now + MODERATORS_TTL;
+            checkModerators();
+        }
+        return moderators.containsKey(island);
+    }
+
+    /**
+     * @param island - island
+     * @return true if a member of this island is online or a moderator is on it
+     */
+    public boolean isAttended(@NonNull Island island) {
+        return hasMembersOnline(island) || hasModeratorsOn(island);
+    }
+
+    /**
+     * @return number of checks of online members and of moves that were answered from what is already known,
+     * without looking through the members or looking up the island
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of checks that had to look through an island's members or look up the island a player is in
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Forgets everything and looks again where all the online players are, e.g., after the islands have been loaded
+     */
+    public void refresh() {
+        membersOnline.clear();
+        playerSpaces.clear();
+        playerIslands.clear();
+        moderatorIslands.clear();
+        moderators.clear();
+        moderatorsExpiry = System.currentTimeMillis() + MODERATORS_TTL;
+        Bukkit.getOnlinePlayers().forEach(p -> update(p, p.getLocation()));
+    }
+
+    /**
+     * Updates the island a player is on
+     * @param player - player
+     * @param location - where the player is now, or null if they have left the server
+     */
+    void update(@NonNull Player player, @Nullable Location location) {
+        UUID uuid = player.getUniqueId();
+        Island island = location == null ? null : getProtectedIsland(uuid, location);
+        if (location == null) {
+            playerSpaces.remove(uuid);
+        } else if (island == playerIslands.get(uuid)) {
+            return;
+        }
+        if (island == null) {
+            playerIslands.remove(uuid);
+        } else {
+            playerIslands.put(uuid, island);
+        }
+        setModerator(uuid, island != null && isModerator(player, island) ? island : null);
+    }
+
+    /**
+     * Gets the protected island at a location, using the island space the player was in last if it still has it
+     * @param uuid - player's UUID
+     * @param location - where the player is now
+     * @return island or null if the location is not in the protected area of one
+     */
+    @Nullable
+    private Island getProtectedIsland(UUID uuid, Location location) {
+        Island space = playerSpaces.get(uuid);
+        if (space != null && !space.isDeleted() && space.inIslandSpace(location)) {
+            hits++;
+        } else {
+            misses++;
+            space = plugin.getIslands() == null ? null : plugin.getIslands().getIslandAt(location).orElse(null);
+            if (space == null) {
+                playerSpaces.remove(uuid);
+            } else {
+                playerSpaces.put(uuid, space);
+            }
+        }
+        return space != null && space.onIsland(location) ? space : null;
+    }
+
+    /**
+     * Sets the island a player is counted as a moderator on
+     * @param uuid - player's UUID
+     * @param island - island or null if the player is not a moderator on any
+     */
+    private void setModerator(UUID uuid, @Nullable Island island) {
+        Island old = island == null ? moderatorIslands.remove(uuid) : moderatorIslands.put(uuid, island);
+        if (old == island) {
+            return;
+        }
+        if (old != null) {
+            moderators.computeIfPresent(old, (i, n) -> n > 1 ? n - 1 : null);
+        }
+        if (island != null) {
+            moderators.merge(island, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Checks the permissions of everyone on an island again, as they may have been changed
+     */
+    private void checkModerators() {
+        playerIslands.forEach((uuid, island) -> {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                setModerator(uuid, isModerator(player, island) ? island : null);
+            }
+        });
+    }
+
+    private boolean isModerator(Player player, Island island) {
+        return player.isOp() || (plugin.getIWM() != null && island.getWorld() != null
+                && player.hasPermission(plugin.getIWM().getPermissionPrefix(island.getWorld()) + "mod.bypassprotect"));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent e) {
+        membersOnline.clear();
+        update(e.getPlayer(), e.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        membersOnline.clear();
+        update(e.getPlayer(), null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent e) {
+        move(e.getPlayer(), e.getFrom(), e.getTo());
+    }
+
+    /**
+     * Players riding something do not fire move events, so the vehicle's moves are used
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent e) {
+        e.getVehicle().getPassengers().stream().filter(Player.class::isInstance)
+        .forEach(p -> move((Player) p, e.getFrom(), e.getTo()));
+    }
+
+    private void move(Player player, Location from, @Nullable Location to) {
+        // Only look again when the player moves to another block column
+        if (to != null && (from.getBlockX() != to.getBlockX() || from.getBlockZ() != to.getBlockZ() || from.getWorld() != to.getWorld())) {
+            update(player, to);
+        } else {
+            hits++;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent e) {
+        if (e.getTo() != null) {
+            update(e.getPlayer(), e.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent e) {
+        update(e.getPlayer(), e.getRespawnLocation());
+    }
+
+    /**
+     * Island and team events may change who the members of an island are
+     * @param e - event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onIslandEvent(IslandBaseEvent e) {
+        // Moving around islands happens all the time and changes nothing
+        if (!(e instanceof IslandEnterEvent) && !(e instanceof IslandExitEvent)) {
+            membersOnline.clear();
+        }
+    }
+}
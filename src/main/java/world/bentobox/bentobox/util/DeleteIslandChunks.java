@@ -1,18 +1,28 @@
 package world.bentobox.bentobox.util;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.generator.ChunkGenerator;
 import org.bukkit.generator.ChunkGenerator.ChunkData;
 import org.bukkit.inventory.InventoryHolder;
-import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
 
 import io.papermc.lib.PaperLib;
 import world.bentobox.bentobox.BentoBox;
@@ -22,96 +32,377 @@ import world.bentobox.bentobox.api.events.island.IslandEvent.Reason;
 import world.bentobox.bentobox.database.objects.IslandDeletion;
 
 /**
- * Deletes islands chunk by chunk
+ * Deletes islands chunk by chunk.
+ * <p>
+ * Deletions are run by the {@link TickScheduler} for at most
+ * {@link world.bentobox.bentobox.Settings#getDeleteTickBudget()} milliseconds per tick, sharing it with pastes.
+ * The islands take turns, and each chunk is regenerated one 16 block high section at a time, so that no tick
+ * takes much longer than that. Blocks that are already what the generator would make are left alone, as are
+ * sections that are empty and would be generated empty. The chunk data of worlds whose generator makes
+ * nothing but air is only generated once.
  *
  * @author tastybento
  */
 public class DeleteIslandChunks {
 
+    private static final int SECTION_HEIGHT = 16;
+    /**
+     * Number of chunks of each island that may be loading at the same time
+     */
+    private static final int MAX_LOADING = 4;
+
+    /**
+     * Islands being deleted, in the order they were started
+     */
+    private static final List<DeleteIslandChunks> inProgress = new ArrayList<>();
+    /**
+     * Generated chunk of each world whose generator makes nothing but air, by world name
+     */
+    private static final Map<String, Template> voidTemplates = new HashMap<>();
+
+    private final BentoBox plugin;
+    private final IslandDeletion di;
+    private final GameModeAddon gm;
+    private final List<World> worlds = new ArrayList<>();
+    private final int chunkCount;
+    private final long startTime;
+    /**
+     * Next chunk to load
+     */
     private int chunkX;
     private int chunkZ;
-    private BukkitTask task;
-    private IslandDeletion di;
-    private boolean inDelete;
+    private int worldIndex;
+    private int chunksDone;
+    private int loading;
+    private final Deque<ChunkJob> loaded = new ArrayDeque<>();
+    private ChunkJob current;
 
     public DeleteIslandChunks(BentoBox plugin, IslandDeletion di) {
         // Fire event
         IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETE_CHUNKS).build();
-
+        this.plugin = plugin;
+        this.di = di;
         this.chunkX = di.getMinXChunk();
         this.chunkZ = di.getMinZChunk();
-        this.di = di;
-        // Run through all chunks of the islands and regenerate them.
-        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            if (inDelete) return;
-            inDelete = true;
-            for (int i = 0; i < plugin.getSettings().getDeleteSpeed(); i++) {
-                plugin.getIWM().getAddon(di.getWorld()).ifPresent(gm -> {
-                    // Overworld
-                    processChunk(gm, di.getWorld(), chunkX, chunkZ);
-                    // Nether
-                    if (plugin.getIWM().isNetherGenerate(di.getWorld()) && plugin.getIWM().isNetherIslands(di.getWorld())) {
-                        processChunk(gm, plugin.getIWM().getNetherWorld(di.getWorld()), chunkX, chunkZ);
-                    }
-                    // End
-                    if (plugin.getIWM().isEndGenerate(di.getWorld()) && plugin.getIWM().isEndIslands(di.getWorld())) {
-                        processChunk(gm, plugin.getIWM().getEndWorld(di.getWorld()), chunkX, chunkZ);
-                    }
-                    chunkZ++;
-                    if (chunkZ > di.getMaxZChunk()) {
-                        chunkZ = di.getMinZChunk();
-                        chunkX++;
-                        if (chunkX > di.getMaxXChunk()) {
-                            // We're done
-                            task.cancel();
-                            // Fire event
-                            IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETED).build();
-                        }
-                    }
-                });
+        this.startTime = System.currentTimeMillis();
+        this.gm = plugin.getIWM().getAddon(di.getWorld()).orElse(null);
+        if (gm != null) {
+            worlds.add(di.getWorld());
+            // Nether
+            if (plugin.getIWM().isNetherGenerate(di.getWorld()) && plugin.getIWM().isNetherIslands(di.getWorld())) {
+                worlds.add(plugin.getIWM().getNetherWorld(di.getWorld()));
+            }
+            // End
+            if (plugin.getIWM().isEndGenerate(di.getWorld()) && plugin.getIWM().isEndIslands(di.getWorld())) {
+                worlds.add(plugin.getIWM().getEndWorld(di.getWorld()));
+            }
+        }
+        this.chunkCount = worlds.size() * (di.getMaxXChunk() - di.getMinXChunk() + 1) * (di.getMaxZChunk() - di.getMinZChunk() + 1);
+        if (gm == null) {
+            // The game mode is not loaded, so the deletion stays pending until it is
+            plugin.logError("Cannot delete island chunks in " + (di.getWorld() == null ? "an unknown world" : di.getWorld().getName())
+                    + " because its game mode is not loaded");
+            return;
+        }
+        if (plugin.getSettings().getDeleteSpeed() <= 0) {
+            // Leave the blocks
+            complete();
+            return;
+        }
+        inProgress.add(this);
+        TickScheduler.schedule(plugin, new TickScheduler.Job() {
+            @Override
+            public int getTickBudget() {
+                return plugin.getSettings().getDeleteTickBudget();
+            }
+
+            @Override
+            public boolean step() {
+                return DeleteIslandChunks.this.step();
+            }
+
+            @Override
+            public boolean isDone() {
+                return isComplete();
+            }
+
+            @Override
+            public void finish() {
+                inProgress.remove(DeleteIslandChunks.this);
+                complete();
+            }
+        });
+    }
+
+    /**
+     * Does the next bit of work
+     * @return true if anything was done, false if waiting for chunks to load
+     */
+    private boolean step() {
+        loadChunks();
+        if (current == null) {
+            current = loaded.poll();
+            if (current == null) {
+                return false;
             }
-            inDelete = false;
-        }, 0L, 20L);
+            current.start();
+        } else if (!current.nextSection()) {
+            current.finish();
+            current = null;
+            chunksDone++;
+        }
+        return true;
     }
 
-    private void processChunk(GameModeAddon gm, World world, int x, int z) {
-        if (PaperLib.isChunkGenerated(world, x, z)) {
-            PaperLib.getChunkAtAsync(world, x, z).thenAccept(chunk -> regenerateChunk(gm, chunk));
+    /**
+     * Asks for the next chunks to be loaded, if not too many are loading already
+     */
+    private void loadChunks() {
+        while (loading < MAX_LOADING && chunkX <= di.getMaxXChunk()) {
+            World world = worlds.get(worldIndex);
+            int x = chunkX;
+            int z = chunkZ;
+            // Next chunk
+            if (++worldIndex >= worlds.size()) {
+                worldIndex = 0;
+                if (++chunkZ > di.getMaxZChunk()) {
+                    chunkZ = di.getMinZChunk();
+                    chunkX++;
+                }
+            }
+            if (!PaperLib.isChunkGenerated(world, x, z)) {
+                // Nothing to delete
+                chunksDone++;
+                continue;
+            }
+            boolean wasLoaded = world.isChunkLoaded(x, z);
+            loading++;
+            PaperLib.getChunkAtAsync(world, x, z).whenComplete((chunk, ex) -> {
+                loading--;
+                if (chunk != null) {
+                    // Keep the chunk loaded until it has been regenerated
+                    chunk.addPluginChunkTicket(plugin);
+                    loaded.add(new ChunkJob(chunk, wasLoaded));
+                } else {
+                    chunksDone++;
+                }
+            });
         }
     }
 
-    private void regenerateChunk(GameModeAddon gm, Chunk chunk) {
-        boolean isLoaded = chunk.isLoaded();
-        // Clear all inventories
-        Arrays.stream(chunk.getTileEntities()).filter(te -> (te instanceof InventoryHolder))
-        .filter(te -> di.inBounds(te.getLocation().getBlockX(), te.getLocation().getBlockZ()))
-        .forEach(te -> ((InventoryHolder)te).getInventory().clear());
-        // Reset blocks
-        MyBiomeGrid grid = new MyBiomeGrid(chunk.getWorld().getEnvironment());
-        ChunkGenerator cg = gm.getDefaultWorldGenerator(chunk.getWorld().getName(), "");
+    private boolean isComplete() {
+        return current == null && loaded.isEmpty() && loading == 0 && chunkX > di.getMaxXChunk();
+    }
+
+    private void complete() {
+        // Fire event
+        IslandEvent.builder().deletedIslandInfo(di).reason(Reason.DELETED).build();
+    }
+
+    /**
+     * Gets the generated chunk, using the one of the world if its generator only makes air
+     * @return generated chunk or null if the game mode generates its worlds itself
+     */
+    @Nullable
+    private Template getTemplate(World world, int x, int z) {
+        Template template = voidTemplates.get(world.getName());
+        if (template != null) {
+            return template;
+        }
+        ChunkGenerator cg = gm.getDefaultWorldGenerator(world.getName(), "");
         // Will be null if use-own-generator is set to true
-        if (cg != null) {
-            ChunkData cd = cg.generateChunkData(chunk.getWorld(), new Random(), chunk.getX(), chunk.getZ(), grid);
+        if (cg == null) {
+            return null;
+        }
+        MyBiomeGrid grid = new MyBiomeGrid(world.getEnvironment());
+        ChunkData cd = cg.generateChunkData(world, new Random(), x, z, grid);
+        template = new Template(cd, grid, world.getMaxHeight());
+        if (template.isVoid()) {
+            voidTemplates.put(world.getName(), template);
+        }
+        return template;
+    }
+
+    /**
+     * @return the island being deleted
+     * @since 1.13.0
+     */
+    @NonNull
+    public IslandDeletion getDeletedIslandInfo() {
+        return di;
+    }
+
+    /**
+     * @return the number of chunks to delete, in all the worlds
+     * @since 1.13.0
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * @return the number of chunks deleted so far, in all the worlds
+     * @since 1.13.0
+     */
+    public int getChunksDone() {
+        return chunksDone;
+    }
+
+    /**
+     * @return percentage of the chunks deleted
+     * @since 1.13.0
+     */
+    public double getProgress() {
+        return chunkCount == 0 ? 100D : chunksDone * 100D / chunkCount;
+    }
+
+    /**
+     * @return chunks deleted per second since the deletion started
+     * @since 1.13.0
+     */
+    public double getChunksPerSecond() {
+        return chunksDone * 1000D / Math.max(1L, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * @return unmodifiable list of the island deletions going on
+     * @since 1.13.0
+     */
+    @NonNull
+    public static List<DeleteIslandChunks> getInProgress() {
+        return Collections.unmodifiableList(inProgress);
+    }
+
+    /**
+     * Chunk data made by a generator, and which of its sections have blocks in them
+     */
+    private static class Template {
+        private final ChunkData data;
+        private final MyBiomeGrid grid;
+        private final boolean[] emptySections;
+
+        Template(ChunkData data, MyBiomeGrid grid, int maxHeight) {
+            this.data = data;
+            this.grid = grid;
+            this.emptySections = new boolean[maxHeight / SECTION_HEIGHT];
+            for (int section = 0; section < emptySections.length; section++) {
+                emptySections[section] = isEmpty(section);
+            }
+        }
+
+        private boolean isEmpty(int section) {
+            for (int y = section * SECTION_HEIGHT; y < (section + 1) * SECTION_HEIGHT; y++) {
+                for (int x = 0; x < 16; x++) {
+                    for (int z = 0; z < 16; z++) {
+                        if (!data.getType(x, y, z).isAir()) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        boolean isVoid() {
+            for (boolean empty : emptySections) {
+                if (!empty) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A loaded chunk being regenerated
+     */
+    private class ChunkJob {
+        private final Chunk chunk;
+        private final boolean wasLoaded;
+        private ChunkSnapshot snapshot;
+        private Template template;
+        private int section;
+
+        ChunkJob(Chunk chunk, boolean wasLoaded) {
+            this.chunk = chunk;
+            this.wasLoaded = wasLoaded;
+        }
+
+        /**
+         * Clears inventories, generates the chunk and resets biomes
+         */
+        void start() {
+            // Clear all inventories
+            Arrays.stream(chunk.getTileEntities()).filter(te -> (te instanceof InventoryHolder))
+            .filter(te -> di.inBounds(te.getLocation().getBlockX(), te.getLocation().getBlockZ()))
+            .forEach(te -> ((InventoryHolder)te).getInventory().clear());
+            template = getTemplate(chunk.getWorld(), chunk.getX(), chunk.getZ());
+            if (template == null) {
+                return;
+            }
             int baseX = chunk.getX() << 4;
             int baseZ = chunk.getZ() << 4;
             for (int x = 0; x < 16; x++) {
                 for (int z = 0; z < 16; z++) {
                     if (di.inBounds(baseX + x, baseZ + z)) {
-                        chunk.getBlock(x, 0, z).setBiome(grid.getBiome(x, z));
-                        for (int y = 0; y < chunk.getWorld().getMaxHeight(); y++) {
-                            // Note: setting block to air before setting it to something else stops a bug in the server
-                            // where it reports a "
-                            chunk.getBlock(x, y, z).setType(Material.AIR, false);
-                            chunk.getBlock(x, y, z).setBlockData(cd.getBlockData(x, y, z), false);
+                        chunk.getBlock(x, 0, z).setBiome(template.grid.getBiome(x, z));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Resets the blocks of the next section
+         * @return false if there are no more sections
+         */
+        boolean nextSection() {
+            if (template == null || section >= template.emptySections.length) {
+                return false;
+            }
+            int s = section++;
+            // Blocks may have changed since the last section was done, so take a new snapshot
+            snapshot = chunk.getChunkSnapshot(false, false, false);
+            if (snapshot.isSectionEmpty(s) && template.emptySections[s]) {
+                return true;
+            }
+            int baseX = chunk.getX() << 4;
+            int baseZ = chunk.getZ() << 4;
+            for (int x = 0; x < 16; x++) {
+                for (int z = 0; z < 16; z++) {
+                    if (di.inBounds(baseX + x, baseZ + z)) {
+                        for (int y = s * SECTION_HEIGHT; y < (s + 1) * SECTION_HEIGHT; y++) {
+                            resetBlock(x, y, z);
                         }
                     }
                 }
             }
+            return true;
+        }
+
+        private void resetBlock(int x, int y, int z) {
+            BlockData blockData = template.data.getBlockData(x, y, z);
+            BlockData old = snapshot.getBlockData(x, y, z);
+            if (old.equals(blockData) || (old.getMaterial().isAir() && blockData.getMaterial().isAir())) {
+                return;
+            }
+            Block block = chunk.getBlock(x, y, z);
+            if (!old.getMaterial().isAir()) {
+                // Note: setting block to air before setting it to something else stops a bug in the server
+                block.setType(Material.AIR, false);
+            }
+            block.setBlockData(blockData, false);
         }
-        // Remove all entities in chunk, including any dropped items as a result of clearing the blocks above
-        Arrays.stream(chunk.getEntities()).filter(e -> !(e instanceof Player) && di.inBounds(e.getLocation().getBlockX(), e.getLocation().getBlockZ())).forEach(Entity::remove);
-        if (!isLoaded) {
-            chunk.unload(true);
+
+        /**
+         * Removes entities, lets the chunk go and unloads it if it was not loaded before
+         */
+        void finish() {
+            // Remove all entities in chunk, including any dropped items as a result of clearing the blocks above
+            Arrays.stream(chunk.getEntities()).filter(e -> !(e instanceof Player) && di.inBounds(e.getLocation().getBlockX(), e.getLocation().getBlockZ())).forEach(Entity::remove);
+            chunk.removePluginChunkTicket(plugin);
+            if (!wasLoaded) {
+                chunk.unload(true);
+            }
         }
     }
 }
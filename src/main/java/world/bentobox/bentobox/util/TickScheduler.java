@@ -0,0 +1,116 @@
+package world.bentobox.bentobox.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.eclipse.jdt.annotation.NonNull;
+
+/**
+ * Runs long jobs, such as blueprint pastes and island deletions, a little at a time on the main thread.
+ * <p>
+ * All the jobs share one task that runs every tick. The jobs take turns, and each job keeps getting turns until
+ * its own tick budget, counted from the start of the tick, has been spent. So the time spent in a tick is never
+ * much more than the largest budget of the jobs going on, and less if the server is not keeping up.
+ * At least one step is done in each tick.
+ *
+ * @author tastybento
+ * @since 1.13.0
+ */
+public class TickScheduler {
+
+    /**
+     * Length of a tick when the server is keeping up
+     */
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * Jobs being run, in the order they take turns
+     */
+    private static final List<Job> jobs = new ArrayList<>();
+    private static BukkitTask task;
+    private static long lastTick;
+    private static int turn;
+
+    private TickScheduler() {}
+
+    /**
+     * A job that is done one step at a time
+     */
+    public interface Job {
+        /**
+         * @return the longest time in milliseconds that this job may be worked on in each tick
+         */
+        int getTickBudget();
+
+        /**
+         * Does the next bit of work
+         * @return true if anything was done, false if waiting for something, e.g. chunks to load
+         */
+        boolean step();
+
+        /**
+         * @return true if there is nothing left to do
+         */
+        boolean isDone();
+
+        /**
+         * Runs once the job is done, after it has been removed from the scheduler
+         */
+        void finish();
+    }
+
+    /**
+     * Adds a job that takes turns with the other jobs from the next tick on
+     * @param plugin - plugin that owns the task if it has to be started
+     * @param job - job to run
+     */
+    public static void schedule(@NonNull Plugin plugin, @NonNull Job job) {
+        jobs.add(job);
+        if (task == null) {
+            lastTick = System.nanoTime();
+            task = Bukkit.getScheduler().runTaskTimer(plugin, TickScheduler::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Works on the jobs until the time for this tick is up or they are all waiting
+     */
+    private static void tick() {
+        long now = System.nanoTime();
+        long interval = now - lastTick;
+        lastTick = now;
+        // Do less when the server is not keeping up
+        double speed = interval > TICK ? (double) TICK / interval : 1D;
+        boolean first = true;
+        // Number of jobs in a row that were waiting or out of time
+        int idle = 0;
+        while (!jobs.isEmpty() && idle < jobs.size()) {
+            if (turn >= jobs.size()) {
+                turn = 0;
+            }
+            Job job = jobs.get(turn);
+            long budget = (long) (TimeUnit.MILLISECONDS.toNanos(job.getTickBudget()) * speed);
+            if (!first && System.nanoTime() - now >= budget) {
+                idle++;
+                turn++;
+                continue;
+            }
+            first = false;
+            idle = job.step() ? 0 : idle + 1;
+            if (job.isDone()) {
+                jobs.remove(turn);
+                job.finish();
+            } else {
+                turn++;
+            }
+        }
+        if (jobs.isEmpty()) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
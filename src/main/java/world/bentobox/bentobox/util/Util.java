@@ -207,12 +207,21 @@ public class Util {
     }
 
     /**
-     * Checks is world = world2 irrespective of the world type. Only strips _nether and _the_end from world name.
+     * Checks is world = world2 irrespective of the world type. Worlds registered by game modes are compared
+     * by their overworld, other worlds by their names without _nether and _the_end.
      * @param world - world
      * @param world2 - world
      * @return true if the same
      */
     public static boolean sameWorld(World world, World world2) {
+        if (world == world2) {
+            return true;
+        }
+        World overWorld = getRegisteredOverWorld(world);
+        World overWorld2 = overWorld == null ? null : getRegisteredOverWorld(world2);
+        if (overWorld2 != null) {
+            return overWorld.equals(overWorld2);
+        }
         return stripName(world).equals(stripName(world2));
     }
 
@@ -233,7 +242,20 @@ public class Util {
      */
     @Nullable
     public static World getWorld(@Nullable World world) {
-        return world == null ? null : world.getEnvironment().equals(Environment.NORMAL) ? world : Bukkit.getWorld(world.getName().replace(NETHER, "").replace(THE_END, ""));
+        if (world == null || world.getEnvironment().equals(Environment.NORMAL)) {
+            return world;
+        }
+        World overWorld = getRegisteredOverWorld(world);
+        return overWorld != null ? overWorld : Bukkit.getWorld(world.getName().replace(NETHER, "").replace(THE_END, ""));
+    }
+
+    /**
+     * @param world - world
+     * @return overworld of the world if it is registered by a game mode, otherwise null
+     */
+    @Nullable
+    private static World getRegisteredOverWorld(World world) {
+        return plugin == null || plugin.getIWM() == null ? null : plugin.getIWM().getOverWorld(world);
     }
 
     /**
@@ -1,8 +1,17 @@
 package world.bentobox.bentobox.util.teleport;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChunkSnapshot;
@@ -25,15 +34,37 @@ import world.bentobox.bentobox.util.Util;
 
 /**
  * A class that calculates finds a safe spot asynchronously and then teleports the player there.
+ * <p>
+ * Chunks are loaded asynchronously and scanned off the main thread, the surface of each chunk first.
+ * The spot found for a location is remembered, so the next teleport there goes straight to it if it is still safe.
  * @author tastybento
  *
  */
 public class SafeSpotTeleport {
 
-    private static final int MAX_CHUNKS = 6;
+    private static final int MAX_CHUNKS = 16;
     private static final long SPEED = 1;
     private static final int MAX_RADIUS = 50;
     private static final int MAX_HEIGHT = 235;
+    /**
+     * Number of safe spots remembered
+     */
+    private static final int MAX_CACHED_SPOTS = 1000;
+
+    /**
+     * Safe spots found for a location, for portal or other teleports, least recently used first.
+     * Only coordinates are kept so that unloaded worlds are not held in memory.
+     */
+    private static final Map<SpotKey, Vector> safeSpots = Collections.synchronizedMap(
+            new LinkedHashMap<SpotKey, Vector>(16, 0.75F, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SpotKey, Vector> eldest) {
+                    return size() > MAX_CACHED_SPOTS;
+                }
+            });
+
     private boolean notChecking;
     private BukkitTask task;
 
@@ -42,6 +73,8 @@ public class SafeSpotTeleport {
     private final Location location;
     private boolean portal;
     private final int homeNumber;
+    private final String failureMessage;
+    private final SpotKey cacheKey;
 
     // Locations
     private Location bestSpot;
@@ -61,6 +94,8 @@ public class SafeSpotTeleport {
         this.portal = builder.isPortal();
         this.homeNumber = builder.getHomeNumber();
         this.runnable = builder.getRunnable();
+        this.failureMessage = builder.getFailureMessage();
+        this.cacheKey = new SpotKey(location, portal);
         // If there is no portal scan required, try the desired location immediately
         if (plugin.getIslands().isSafeLocation(location)) {
             if (portal) {
@@ -74,7 +109,27 @@ public class SafeSpotTeleport {
                 return;
             }
         }
+        // Try the spot found last time
+        Vector cachedSpot = safeSpots.get(cacheKey);
+        if (cachedSpot == null) {
+            scan();
+            return;
+        }
+        Location cached = cachedSpot.toLocation(location.getWorld());
+        Util.getChunkAtAsync(cached).thenRun(() -> {
+            if (plugin.getIslands().isSafeLocation(cached)) {
+                teleportEntity(cached);
+            } else {
+                safeSpots.remove(cacheKey);
+                scan();
+            }
+        });
+    }
 
+    /**
+     * Starts scanning the chunks around the location for a safe spot
+     */
+    private void scan() {
         // Get chunks to scan
         chunksToScan = getChunksToScan();
 
@@ -82,40 +137,46 @@ public class SafeSpotTeleport {
         notChecking = true;
 
         // Start a recurring task until done or cancelled
-        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> gatherChunks(builder.getFailureMessage()), 0L, SPEED);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::gatherChunks, 0L, SPEED);
     }
 
-    private void gatherChunks(String failureMessage) {
+    private void gatherChunks() {
         if (!notChecking) {
             return;
         }
         notChecking = false;
-        List<ChunkSnapshot> chunkSnapshot = new ArrayList<>();
         Iterator<Pair<Integer, Integer>> it = chunksToScan.iterator();
-        if (!it.hasNext()) {
+        World world = location.getWorld();
+        if (!it.hasNext() || world == null) {
             // Nothing left
             tidyUp(entity, failureMessage);
             return;
         }
-        // Add chunk snapshots to the list
-        while (it.hasNext() && chunkSnapshot.size() < MAX_CHUNKS) {
+        // Load the chunks without holding up the server
+        List<CompletableFuture<ChunkSnapshot>> snapshots = new ArrayList<>();
+        while (it.hasNext() && snapshots.size() < MAX_CHUNKS) {
             Pair<Integer, Integer> pair = it.next();
-            if (location.getWorld() != null) {
-                boolean isLoaded = location.getWorld().getChunkAt(pair.x, pair.z).isLoaded();
-                chunkSnapshot.add(location.getWorld().getChunkAt(pair.x, pair.z).getChunkSnapshot());
+            boolean isLoaded = world.isChunkLoaded(pair.x, pair.z);
+            snapshots.add(Util.getChunkAtAsync(world, pair.x, pair.z).thenApply(chunk -> {
+                ChunkSnapshot snapshot = chunk.getChunkSnapshot();
                 if (!isLoaded) {
-                    location.getWorld().getChunkAt(pair.x, pair.z).unload();
+                    chunk.unload();
                 }
-            }
+                return snapshot;
+            }));
             it.remove();
         }
-        // Move to next step
-        checkChunks(chunkSnapshot);
+        // Move to next step when they are all in
+        CompletableFuture.allOf(snapshots.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            List<ChunkSnapshot> chunkSnapshot = new ArrayList<>();
+            snapshots.stream().filter(f -> !f.isCompletedExceptionally()).forEach(f -> chunkSnapshot.add(f.join()));
+            checkChunks(chunkSnapshot);
+        });
     }
 
     private void tidyUp(Entity entity, String failureMessage) {
         // Nothing left to check and still not canceled
-        task.cancel();
+        cancelTask();
         // Check portal
         if (portal && bestSpot != null) {
             // Portals found, teleport to the best spot we found
@@ -160,8 +221,9 @@ public class SafeSpotTeleport {
      * @return - list of chunk coords to be scanned
      */
     private List<Pair<Integer, Integer>> getChunksToScan() {
-        List<Pair<Integer, Integer>> result = new ArrayList<>();
-        int maxRadius = plugin.getIslands().getIslandAt(location).map(Island::getProtectionRange).orElse(plugin.getIWM().getIslandProtectionRange(location.getWorld()));
+        Set<Pair<Integer, Integer>> result = new LinkedHashSet<>();
+        Optional<Island> island = plugin.getIslands().getIslandAt(location);
+        int maxRadius = island.map(Island::getProtectionRange).orElse(plugin.getIWM().getIslandProtectionRange(location.getWorld()));
         maxRadius = Math.min(MAX_RADIUS, maxRadius);
         int x = location.getBlockX();
         int z = location.getBlockZ();
@@ -170,18 +232,15 @@ public class SafeSpotTeleport {
         do {
             for (int i = x - radius; i <= x + radius; i+=16) {
                 for (int j = z - radius; j <= z + radius; j+=16) {
-                    addChunk(result, new Pair<>(i,j), new Pair<>(i >> 4, j >> 4));
+                    Pair<Integer, Integer> blockCoord = new Pair<>(i, j);
+                    if (island.map(is -> is.inIslandSpace(blockCoord)).orElse(true)) {
+                        result.add(new Pair<>(i >> 4, j >> 4));
+                    }
                 }
             }
             radius++;
         } while (radius < maxRadius);
-        return result;
-    }
-
-    private void addChunk(List<Pair<Integer, Integer>> result, Pair<Integer, Integer> blockCoord, Pair<Integer, Integer> chunkCoord) {
-        if (!result.contains(chunkCoord) && plugin.getIslands().getIslandAt(location).map(is -> is.inIslandSpace(blockCoord)).orElse(true)) {
-            result.add(chunkCoord);
-        }
+        return new ArrayList<>(result);
     }
 
     /**
@@ -193,7 +252,7 @@ public class SafeSpotTeleport {
         Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
             for (ChunkSnapshot chunk: chunkSnapshot) {
                 if (scanChunk(chunk)) {
-                    task.cancel();
+                    cancelTask();
                     return;
                 }
             }
@@ -208,11 +267,22 @@ public class SafeSpotTeleport {
      * @return true if a safe spot was found
      */
     private boolean scanChunk(ChunkSnapshot chunk) {
-        // Run through the chunk
+        // Try the surface first, using the height map
+        int[] top = new int[256];
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int y = Math.min(chunk.getHighestBlockYAt(x, z), MAX_HEIGHT);
+                top[x << 4 | z] = y;
+                if (y >= 0 && checkBlock(chunk, x, y, z)) {
+                    return true;
+                }
+            }
+        }
+        // Then run through the rest of the chunk
         for (int x = 0; x< 16; x++) {
             for (int z = 0; z < 16; z++) {
-                // Work down from the entry point up
-                for (int y = Math.min(chunk.getHighestBlockYAt(x, z), MAX_HEIGHT); y >= 0; y--) {
+                // Work down from below the surface
+                for (int y = top[x << 4 | z] - 1; y >= 0; y--) {
                     if (checkBlock(chunk, x,y,z)) {
                         return true;
                     }
@@ -226,7 +296,11 @@ public class SafeSpotTeleport {
      * Teleports entity to the safe spot
      */
     private void teleportEntity(final Location loc) {
-        task.cancel();
+        cancelTask();
+        // Remember it for next time, unless it is only the fallback for a portal that was not found
+        if (!portal) {
+            safeSpots.put(cacheKey, loc.toVector());
+        }
         if (!portal && entity instanceof Player && homeNumber > 0) {
             // Set home if so marked
             plugin.getPlayers().setHomeLocation(User.getInstance(entity), loc, homeNumber);
@@ -237,6 +311,12 @@ public class SafeSpotTeleport {
         }));
     }
 
+    private void cancelTask() {
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
     /**
      * Returns true if the location is a safe one.
      * @param chunk - chunk snapshot
@@ -274,6 +354,43 @@ public class SafeSpotTeleport {
         }
     }
 
+    /**
+     * Key of a remembered safe spot: the world and block of the desired location, and the kind of teleport
+     */
+    private static final class SpotKey {
+        private final UUID worldId;
+        private final int x;
+        private final int y;
+        private final int z;
+        private final boolean portal;
+
+        SpotKey(Location location, boolean portal) {
+            this.worldId = location.getWorld() == null ? null : location.getWorld().getUID();
+            this.x = location.getBlockX();
+            this.y = location.getBlockY();
+            this.z = location.getBlockZ();
+            this.portal = portal;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(worldId, x, y, z, portal);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof SpotKey)) {
+                return false;
+            }
+            SpotKey other = (SpotKey) obj;
+            return x == other.x && y == other.y && z == other.z && portal == other.portal
+                    && Objects.equals(worldId, other.worldId);
+        }
+    }
+
     public static class Builder {
         private final BentoBox plugin;
         private Entity entity;
@@ -9,6 +9,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,12 +19,16 @@ import java.util.UUID;
 
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
 import org.eclipse.jdt.annotation.NonNull;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
@@ -31,11 +37,16 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.commands.CompositeCommand;
+import world.bentobox.bentobox.api.events.BentoBoxReadyEvent;
 import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
 import world.bentobox.bentobox.api.user.User;
+import world.bentobox.bentobox.database.Database;
 import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.IslandDeletion;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
 import world.bentobox.bentobox.managers.CommandsManager;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.IslandsManager;
@@ -65,6 +76,16 @@ public class AdminPurgeCommandTest {
     private Island island;
     @Mock
     private World world;
+    @Mock
+    private Location location;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+    @Mock
+    private Settings settings;
+    @Mock
+    private Database<PurgeProgress> handler;
 
     /**
      * @throws java.lang.Exception
@@ -73,11 +94,28 @@ public class AdminPurgeCommandTest {
     public void setUp() throws Exception {
         // Set up plugin
         Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        // Settings
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getDeleteSpeed()).thenReturn(1);
+
+        // Scheduler - run everything straight away
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskAsynchronously(any(), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return task;
+        });
+        when(scheduler.runTask(any(), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return task;
+        });
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), Mockito.anyLong(), Mockito.anyLong())).thenReturn(task);
 
         // Command manager
         CommandsManager cm = mock(CommandsManager.class);
         when(plugin.getCommandsManager()).thenReturn(cm);
         when(ac.getWorld()).thenReturn(world);
+        when(world.getName()).thenReturn("bskyblock");
 
         when(ac.getAddon()).thenReturn(addon);
         when(ac.getTopLabel()).thenReturn("bsb");
@@ -94,13 +132,16 @@ public class AdminPurgeCommandTest {
 
         // Island
         when(island.isOwned()).thenReturn(true); // Default owned
+        when(island.getCenter()).thenReturn(location);
 
         // Command
         apc = new AdminPurgeCommand(ac);
+        // Purge progress database
+        Whitebox.setInternalState(apc, "handler", handler);
     }
 
     @After
-    public void tearDown() {
+    public void tearDown() throws Exception {
         Mockito.framework().clearInlineMocks();
     }
 
@@ -251,7 +292,6 @@ public class AdminPurgeCommandTest {
         team.put(UUID.randomUUID(), RanksManager.OWNER_RANK);
         when(island.getMembers()).thenReturn(team);
         when(im.getIslands()).thenReturn(Collections.singleton(island));
-        PowerMockito.mockStatic(Bukkit.class);
         OfflinePlayer op = mock(OfflinePlayer.class);
         when(op.getLastPlayed()).thenReturn(System.currentTimeMillis());
         when(Bukkit.getOfflinePlayer(any(UUID.class))).thenReturn(op);
@@ -265,6 +305,7 @@ public class AdminPurgeCommandTest {
     @Test
     public void testExecuteUserStringListOfStringIslandsFound() {
         when(island.getPurgeProtected()).thenReturn(false);
+        when(island.getUniqueId()).thenReturn("island");
         when(island.getWorld()).thenReturn(world);
         when(island.getOwner()).thenReturn(UUID.randomUUID());
         when(island.isOwned()).thenReturn(true);
@@ -272,11 +313,10 @@ public class AdminPurgeCommandTest {
         team.put(UUID.randomUUID(), RanksManager.OWNER_RANK);
         when(island.getMembers()).thenReturn(team);
         when(im.getIslands()).thenReturn(Collections.singleton(island));
-        PowerMockito.mockStatic(Bukkit.class);
         OfflinePlayer op = mock(OfflinePlayer.class);
         when(op.getLastPlayed()).thenReturn(0L);
         when(Bukkit.getOfflinePlayer(any(UUID.class))).thenReturn(op);
-        assertFalse(apc.execute(user, "", Collections.singletonList("10")));
+        assertTrue(apc.execute(user, "", Collections.singletonList("10")));
         verify(user).sendMessage(eq("commands.admin.purge.purgable-islands"), eq("[number]"), eq("1"));
         verify(user).sendMessage(eq("commands.admin.purge.confirm"), eq("[label]"), eq("bsb"));
     }
@@ -290,6 +330,8 @@ public class AdminPurgeCommandTest {
         @NonNull
         Optional<Island> opIsland = Optional.of(island);
         when(im.getIslandById(any())).thenReturn(opIsland);
+        // The island's chunks are being deleted
+        when(island.isDeleted()).thenReturn(true);
         testExecuteUserStringListOfStringIslandsFound();
         assertTrue(apc.execute(user, "", Collections.singletonList("confirm")));
         verify(im).deleteIsland(eq(island), eq(true), eq(null));
@@ -315,9 +357,28 @@ public class AdminPurgeCommandTest {
     public void testOnIslandDeletedPurgeCompleted() {
         testRemoveIslands();
         IslandDeletedEvent e = mock(IslandDeletedEvent.class);
+        IslandDeletion di = mock(IslandDeletion.class);
+        when(di.getLocation()).thenReturn(location);
+        when(e.getDeletedIslandInfo()).thenReturn(di);
         apc.onIslandDeleted(e);
         verify(user).sendMessage(eq("commands.admin.purge.completed"));
         verify(plugin, Mockito.never()).log("");
+        assertFalse(apc.isInPurge());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.api.commands.admin.purge.AdminPurgeCommand#onIslandDeleted(world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent)}.
+     */
+    @Test
+    public void testOnIslandDeletedOtherIsland() {
+        testRemoveIslands();
+        IslandDeletedEvent e = mock(IslandDeletedEvent.class);
+        IslandDeletion di = mock(IslandDeletion.class);
+        when(di.getLocation()).thenReturn(mock(Location.class));
+        when(e.getDeletedIslandInfo()).thenReturn(di);
+        apc.onIslandDeleted(e);
+        verify(user, Mockito.never()).sendMessage(eq("commands.admin.purge.completed"));
+        assertTrue(apc.isInPurge());
     }
 
     /**
@@ -348,7 +409,92 @@ public class AdminPurgeCommandTest {
     public void testSetUser() {
         apc.setUser(user);
         apc.removeIslands();
-        verify(user, Mockito.times(1)).sendMessage(any());
+        verify(user).sendMessage(eq("commands.admin.purge.see-console-for-status"), eq("[label]"), eq("bsb"));
+        // Nothing to purge
+        verify(user).sendMessage(eq("commands.admin.purge.completed"));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.api.commands.admin.purge.AdminPurgeCommand#findOldIslands(int, java.util.function.Consumer)}.
+     */
+    @Test
+    public void testExecuteUserStringListOfStringManyDays() {
+        when(island.getPurgeProtected()).thenReturn(false);
+        when(island.getWorld()).thenReturn(world);
+        when(island.getOwner()).thenReturn(UUID.randomUUID());
+        when(island.getUniqueId()).thenReturn("island");
+        Map<UUID, Integer> team = new HashMap<>();
+        team.put(UUID.randomUUID(), RanksManager.OWNER_RANK);
+        when(island.getMembers()).thenReturn(team);
+        when(im.getIslands()).thenReturn(Collections.singleton(island));
+        OfflinePlayer op = mock(OfflinePlayer.class);
+        when(Bukkit.getOfflinePlayer(any(UUID.class))).thenReturn(op);
+        // Last played 40 days ago
+        when(op.getLastPlayed()).thenReturn(System.currentTimeMillis() - 40L * 24 * 3600 * 1000);
+        assertTrue(apc.execute(user, "", Collections.singletonList("50")));
+        verify(user).sendMessage(eq("commands.admin.purge.purgable-islands"), eq("[number]"), eq("0"));
+        assertTrue(apc.execute(user, "", Collections.singletonList("30")));
+        verify(user).sendMessage(eq("commands.admin.purge.purgable-islands"), eq("[number]"), eq("1"));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.api.commands.admin.purge.AdminPurgeCommand#findOldIslands(int, java.util.function.Consumer)}.
+     */
+    @Test
+    public void testExecuteUserStringListOfStringLookUpOverTicks() {
+        Island island2 = mock(Island.class);
+        for (Island i : Arrays.asList(island, island2)) {
+            when(i.isOwned()).thenReturn(true);
+            when(i.getWorld()).thenReturn(world);
+            when(i.getOwner()).thenReturn(UUID.randomUUID());
+            when(i.getMembers()).thenReturn(Collections.singletonMap(UUID.randomUUID(), RanksManager.OWNER_RANK));
+        }
+        when(island.getUniqueId()).thenReturn("island");
+        when(island2.getUniqueId()).thenReturn("island2");
+        when(im.getIslands()).thenReturn(Arrays.asList(island, island2));
+        OfflinePlayer op = mock(OfflinePlayer.class);
+        when(Bukkit.getOfflinePlayer(any(UUID.class))).thenReturn(op);
+        when(op.getLastPlayed()).thenReturn(0L);
+        // No time to spare, so one owner is looked up per tick
+        when(settings.getPurgeTickBudget()).thenReturn(0);
+        assertTrue(apc.execute(user, "", Collections.singletonList("10")));
+        verify(user, Mockito.never()).sendMessage(eq("commands.admin.purge.purgable-islands"), any(), any());
+        ArgumentCaptor<Runnable> tick = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runTaskTimer(eq(plugin), tick.capture(), eq(1L), eq(1L));
+        // Next tick
+        tick.getValue().run();
+        verify(task).cancel();
+        verify(user).sendMessage(eq("commands.admin.purge.purgable-islands"), eq("[number]"), eq("2"));
+        // Each owner is looked up once
+        PowerMockito.verifyStatic(Bukkit.class, Mockito.times(2));
+        Bukkit.getOfflinePlayer(any(UUID.class));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.api.commands.admin.purge.AdminPurgeCommand#onBentoBoxReady(BentoBoxReadyEvent)}.
+     */
+    @Test
+    public void testOnBentoBoxReadyResumePurge() {
+        when(im.getIslandById("island")).thenReturn(Optional.of(island));
+        when(island.isDeleted()).thenReturn(true);
+        PurgeProgress progress = new PurgeProgress("bskyblock", new ArrayList<>(Collections.singletonList("island")));
+        when(handler.objectExists("bskyblock")).thenReturn(true);
+        when(handler.loadObject("bskyblock")).thenReturn(progress);
+
+        apc.onBentoBoxReady(new BentoBoxReadyEvent());
+        assertTrue(apc.isInPurge());
+        verify(im).deleteIsland(eq(island), eq(true), eq(null));
+        assertEquals(1, apc.getPurgedIslandsCount());
+        assertEquals(1, apc.getPurgeableIslandsCount());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.api.commands.admin.purge.AdminPurgeCommand#onBentoBoxReady(BentoBoxReadyEvent)}.
+     */
+    @Test
+    public void testOnBentoBoxReadyNoPurge() {
+        apc.onBentoBoxReady(new BentoBoxReadyEvent());
+        assertFalse(apc.isInPurge());
+        verify(im, Mockito.never()).deleteIsland(any(), Mockito.anyBoolean(), any());
+    }
 }
@@ -0,0 +1,202 @@
+package world.bentobox.bentobox.api.commands.admin.purge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
+import world.bentobox.bentobox.database.Database;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.database.objects.IslandDeletion;
+import world.bentobox.bentobox.database.objects.PurgeProgress;
+import world.bentobox.bentobox.managers.IslandsManager;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class})
+public class IslandPurgerTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private IslandsManager im;
+    @Mock
+    private Database<PurgeProgress> handler;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+    @Mock
+    private Runnable onCompletion;
+
+    private List<Location> centers = new ArrayList<>();
+    private IslandPurger purger;
+
+    @Before
+    public void setUp() {
+        when(plugin.getSettings()).thenReturn(settings);
+        when(plugin.getIslands()).thenReturn(im);
+        when(settings.getPurgeConcurrentDeletions()).thenReturn(2);
+        when(settings.getPurgeTickBudget()).thenReturn(1000);
+        when(settings.getDeleteSpeed()).thenReturn(1);
+
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+
+        // Five islands whose chunks are deleted when they are deleted
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String id = "island" + i;
+            Island island = mock(Island.class);
+            Location center = mock(Location.class);
+            centers.add(center);
+            when(island.getCenter()).thenReturn(center);
+            when(island.isDeleted()).thenReturn(true);
+            when(im.getIslandById(id)).thenReturn(Optional.of(island));
+            ids.add(id);
+        }
+        purger = new IslandPurger(plugin, handler, new PurgeProgress("bskyblock", ids), onCompletion);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private IslandDeletedEvent deleted(Location center) {
+        IslandDeletedEvent e = mock(IslandDeletedEvent.class);
+        IslandDeletion di = mock(IslandDeletion.class);
+        when(di.getLocation()).thenReturn(center);
+        when(e.getDeletedIslandInfo()).thenReturn(di);
+        return e;
+    }
+
+    /**
+     * Test method for {@link IslandPurger#start()}.
+     */
+    @Test
+    public void testStart() {
+        purger.start();
+        assertTrue(purger.isRunning());
+        // Only two at a time
+        assertEquals(2, purger.getDeleting());
+        assertEquals(3, purger.getRemaining());
+        assertEquals(2, purger.getPurged());
+        assertEquals(40F, purger.getPercentage(), 0.01F);
+        verify(im, times(2)).deleteIsland(any(), eq(true), eq(null));
+        verify(handler).saveObject(any());
+        verify(scheduler).runTaskTimer(eq(plugin), any(Runnable.class), eq(1L), eq(1L));
+        // The next tick has no room
+        purger.tick();
+        assertEquals(3, purger.getRemaining());
+    }
+
+    /**
+     * Test method for {@link IslandPurger#onIslandDeleted(IslandDeletedEvent)}.
+     */
+    @Test
+    public void testOnIslandDeleted() {
+        purger.start();
+        purger.onIslandDeleted(deleted(centers.get(0)));
+        assertEquals(2, purger.getDeleting());
+        assertEquals(2, purger.getRemaining());
+        // Not one of this purge's islands
+        purger.onIslandDeleted(deleted(mock(Location.class)));
+        assertEquals(2, purger.getRemaining());
+        // Finish off the rest
+        for (int i = 1; i < 5; i++) {
+            purger.onIslandDeleted(deleted(centers.get(i)));
+        }
+        assertFalse(purger.isRunning());
+        assertEquals(5, purger.getPurged());
+        verify(onCompletion).run();
+        verify(task).cancel();
+        verify(handler).deleteID("bskyblock");
+    }
+
+    /**
+     * Test method for {@link IslandPurger#tick()}.
+     */
+    @Test
+    public void testTickNoChunkDeletion() {
+        when(settings.getDeleteSpeed()).thenReturn(0);
+        purger.start();
+        // Nothing to wait for, so everything is done straight away
+        assertFalse(purger.isRunning());
+        assertEquals(5, purger.getPurged());
+        verify(onCompletion).run();
+        verify(scheduler, never()).runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong());
+    }
+
+    /**
+     * Test method for {@link IslandPurger#tick()}.
+     */
+    @Test
+    public void testTickIslandGone() {
+        when(im.getIslandById("island0")).thenReturn(Optional.empty());
+        purger.start();
+        assertEquals(2, purger.getDeleting());
+        assertEquals(2, purger.getRemaining());
+        assertEquals(2, purger.getPurged());
+    }
+
+    /**
+     * Test method for {@link IslandPurger#stop()}.
+     */
+    @Test
+    public void testStop() {
+        purger.start();
+        purger.stop();
+        assertFalse(purger.isRunning());
+        verify(task).cancel();
+        verify(handler).deleteID("bskyblock");
+        // Deletions finishing do not start any more
+        purger.onIslandDeleted(deleted(centers.get(0)));
+        assertEquals(3, purger.getRemaining());
+        verify(onCompletion, never()).run();
+    }
+
+    /**
+     * Test method for {@link IslandPurger#getRate()}.
+     */
+    @Test
+    public void testGetRate() {
+        purger.start();
+        assertTrue(purger.getRate() > 0);
+        assertTrue(purger.getMinutesLeft() >= 0);
+    }
+}
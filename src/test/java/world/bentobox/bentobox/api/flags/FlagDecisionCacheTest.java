@@ -0,0 +1,137 @@
+package world.bentobox.bentobox.api.flags;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.events.flags.FlagProtectionChangeEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandEnterEvent;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandRankChangeEvent;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+public class FlagDecisionCacheTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private World world;
+    @Mock
+    private Island island;
+    @Mock
+    private Flag flag;
+
+    private UUID uuid = UUID.randomUUID();
+    private FlagDecisionCache cache;
+
+    @Before
+    public void setUp() {
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getProtectionCacheTime()).thenReturn(60000);
+        cache = new FlagDecisionCache(plugin);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    /**
+     * Test method for {@link FlagDecisionCache#get(UUID, World, Island, Flag)}.
+     */
+    @Test
+    public void testGetPut() {
+        assertTrue(cache.isEnabled());
+        assertNull(cache.get(uuid, world, island, flag));
+        cache.put(uuid, world, island, flag, FlagListener.Why.RANK_ALLOWED);
+        assertEquals(FlagListener.Why.RANK_ALLOWED, cache.get(uuid, world, island, flag));
+        // Different island or player
+        assertNull(cache.get(uuid, world, mock(Island.class), flag));
+        assertNull(cache.get(UUID.randomUUID(), world, island, flag));
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    /**
+     * Test method for {@link FlagDecisionCache#get(UUID, World, Island, Flag)}.
+     */
+    @Test
+    public void testGetIslandChanged() {
+        cache.put(uuid, world, island, flag, FlagListener.Why.RANK_ALLOWED);
+        assertEquals(FlagListener.Why.RANK_ALLOWED, cache.get(uuid, world, island, flag));
+        // Rank or flag set without any event
+        when(island.getChanges()).thenReturn(1L);
+        assertNull(cache.get(uuid, world, island, flag));
+        cache.put(uuid, world, island, flag, FlagListener.Why.NOT_ALLOWED_ON_ISLAND);
+        assertEquals(FlagListener.Why.NOT_ALLOWED_ON_ISLAND, cache.get(uuid, world, island, flag));
+    }
+
+    /**
+     * Test method for {@link FlagDecisionCache#put(UUID, World, Island, Flag, FlagListener.Why)}.
+     */
+    @Test
+    public void testPutDisabled() {
+        when(settings.getProtectionCacheTime()).thenReturn(0);
+        assertFalse(cache.isEnabled());
+        cache.put(uuid, world, island, flag, FlagListener.Why.RANK_ALLOWED);
+        assertNull(cache.get(uuid, world, island, flag));
+    }
+
+    /**
+     * Test method for {@link FlagDecisionCache#onFlagChange(world.bentobox.bentobox.api.events.flags.FlagChangeEvent)}.
+     */
+    @Test
+    public void testOnFlagChange() {
+        cache.put(uuid, world, island, flag, FlagListener.Why.NOT_ALLOWED_ON_ISLAND);
+        cache.onFlagChange(new FlagProtectionChangeEvent(island, uuid, flag, 500));
+        assertNull(cache.get(uuid, world, island, flag));
+    }
+
+    /**
+     * Test method for {@link FlagDecisionCache#onIslandEvent(world.bentobox.bentobox.api.events.IslandBaseEvent)}.
+     */
+    @Test
+    public void testOnIslandEvent() {
+        cache.put(uuid, world, island, flag, FlagListener.Why.NOT_ALLOWED_ON_ISLAND);
+        cache.onIslandEvent(mock(IslandEnterEvent.class));
+        assertEquals(FlagListener.Why.NOT_ALLOWED_ON_ISLAND, cache.get(uuid, world, island, flag));
+        cache.onIslandEvent(mock(IslandRankChangeEvent.class));
+        assertNull(cache.get(uuid, world, island, flag));
+    }
+
+    /**
+     * Test method for {@link FlagDecisionCache#onPlayerQuit(PlayerQuitEvent)}.
+     */
+    @Test
+    public void testOnPlayerQuit() {
+        cache.put(uuid, world, island, flag, FlagListener.Why.BYPASS_ISLAND);
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+        cache.onPlayerQuit(new PlayerQuitEvent(player, "bye"));
+        assertNull(cache.get(uuid, world, island, flag));
+    }
+}
@@ -3,6 +3,8 @@ package world.bentobox.bentobox.api.flags;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -402,4 +404,19 @@ public class FlagTest {
     }
 
 
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.api.flags.Flag#addBypassPermissions(String)}.
+     */
+    @Test
+    public void testBypassPermissions() {
+        assertNull(f.getBypassEverywherePermission("bskyblock."));
+        assertNull(f.getBypassIslandPermission("bskyblock."));
+        f.addBypassPermissions("bskyblock.");
+        assertEquals("bskyblock.mod.bypass.flagID.everywhere", f.getBypassEverywherePermission("bskyblock."));
+        assertEquals("bskyblock.mod.bypass.flagID.island", f.getBypassIslandPermission("bskyblock."));
+        // Built only once
+        assertSame(f.getBypassEverywherePermission("bskyblock."), f.getBypassEverywherePermission("bskyblock."));
+        assertNull(f.getBypassIslandPermission("acidisland."));
+    }
 }
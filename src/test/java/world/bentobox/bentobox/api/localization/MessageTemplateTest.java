@@ -0,0 +1,67 @@
+package world.bentobox.bentobox.api.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.ChatColor;
+import org.junit.Test;
+
+/**
+ * @author tastybento
+ *
+ */
+public class MessageTemplateTest {
+
+    /**
+     * Test method for {@link MessageTemplate#render(String, String, String...)}.
+     */
+    @Test
+    public void testRenderText() {
+        MessageTemplate t = MessageTemplate.compile("&a Hello", Collections.emptyMap());
+        assertEquals(ChatColor.GREEN + "Hello", t.render(null, null));
+        assertFalse(t.hasContext());
+    }
+
+    /**
+     * Test method for {@link MessageTemplate#render(String, String, String...)}.
+     */
+    @Test
+    public void testRenderVariables() {
+        MessageTemplate t = MessageTemplate.compile("&c[name] has [number] [unknown]", Collections.emptyMap());
+        assertEquals(ChatColor.RED + "tasty has 3 [unknown]", t.render(null, null, TextVariables.NAME, "tasty", TextVariables.NUMBER, "3"));
+        // Values have their colors translated too
+        assertEquals(ChatColor.RED + "" + ChatColor.BLUE + "tasty has [number] [unknown]", t.render(null, null, TextVariables.NAME, "&9 tasty"));
+    }
+
+    /**
+     * Test method for {@link MessageTemplate#render(String, String, String...)}.
+     */
+    @Test
+    public void testRenderPrefixes() {
+        Map<String, String> prefixes = new HashMap<>();
+        prefixes.put("island", "&6[[gamemode] in [friendly_name]]");
+        MessageTemplate t = MessageTemplate.compile("[prefix_island] [prefix_none] [gamemode]", prefixes);
+        assertTrue(t.hasContext());
+        assertEquals(ChatColor.GOLD + "[BSkyBlock in Island] [prefix_none] [gamemode]", t.render("BSkyBlock", "Island"));
+        // No game mode, so it is left for the variables
+        assertEquals(ChatColor.GOLD + "[mode in [friendly_name]] [prefix_none] mode", t.render(null, null, "[gamemode]", "mode"));
+    }
+
+    /**
+     * Test method for {@link MessageTemplate#canRender(String...)}.
+     */
+    @Test
+    public void testCanRender() {
+        assertTrue(MessageTemplate.canRender());
+        assertTrue(MessageTemplate.canRender(TextVariables.NAME, "tasty"));
+        assertFalse(MessageTemplate.canRender(TextVariables.NAME));
+        assertFalse(MessageTemplate.canRender("name", "tasty"));
+        assertFalse(MessageTemplate.canRender("[name] ", "tasty"));
+        assertFalse(MessageTemplate.canRender(TextVariables.NAME, null));
+    }
+}
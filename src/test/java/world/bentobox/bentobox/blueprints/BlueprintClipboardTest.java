@@ -0,0 +1,191 @@
+package world.bentobox.bentobox.blueprints;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Cow;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Vector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.user.User;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, BentoBox.class})
+public class BlueprintClipboardTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+    @Mock
+    private User user;
+    @Mock
+    private World world;
+    @Mock
+    private Chunk chunk;
+    @Mock
+    private ChunkSnapshot snapshot;
+    @Mock
+    private Block block;
+    @Mock
+    private Cow cow;
+
+    private BlueprintClipboard clipboard;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getPasteSpeed()).thenReturn(1000);
+
+        // Scheduler runs everything straight away, apart from the copy timer
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskAsynchronously(any(), any(Runnable.class))).thenAnswer(i -> {
+            ((Runnable)i.getArgument(1)).run();
+            return task;
+        });
+        when(scheduler.runTask(any(), any(Runnable.class))).thenAnswer(i -> {
+            ((Runnable)i.getArgument(1)).run();
+            return task;
+        });
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+
+        // World of air with one stone block at 1,1,1
+        when(world.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        when(chunk.getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(snapshot);
+        when(snapshot.getBlockType(anyInt(), anyInt(), anyInt())).thenReturn(Material.AIR);
+        when(snapshot.getBlockType(1, 1, 1)).thenReturn(Material.STONE);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenReturn(block);
+        when(block.getType()).thenReturn(Material.STONE);
+        BlockData bd = mock(BlockData.class);
+        when(bd.getAsString()).thenReturn("minecraft:stone");
+        when(block.getBlockData()).thenReturn(bd);
+        when(block.getState()).thenReturn(mock(BlockState.class));
+
+        // A cow at 2,1,2, a player and a cow outside the area
+        when(cow.getLocation()).thenReturn(new Location(world, 2.2, 1, 1.8));
+        when(cow.getType()).thenReturn(EntityType.COW);
+        Player player = mock(Player.class);
+        when(player.getLocation()).thenReturn(new Location(world, 1, 1, 1));
+        Cow farCow = mock(Cow.class);
+        when(farCow.getLocation()).thenReturn(new Location(world, 100, 1, 100));
+        when(world.getLivingEntities()).thenReturn(Arrays.asList(cow, player, farCow));
+
+        clipboard = new BlueprintClipboard();
+        clipboard.setPos1(new Location(world, 0, 0, 0));
+        clipboard.setPos2(new Location(world, 3, 3, 3));
+        clipboard.setOrigin(new Vector(0, 0, 0));
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private Runnable getTimer() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runTaskTimer(eq(plugin), captor.capture(), eq(0L), eq(1L));
+        return captor.getValue();
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.blueprints.BlueprintClipboard#copy(world.bentobox.bentobox.api.user.User, boolean)}.
+     */
+    @Test
+    public void testCopyNoPos() {
+        clipboard.setPos2(null);
+        assertFalse(clipboard.copy(user, false));
+        verify(user).sendMessage("commands.admin.blueprint.need-pos1-pos2");
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.blueprints.BlueprintClipboard#copy(world.bentobox.bentobox.api.user.User, boolean)}.
+     */
+    @Test
+    public void testCopy() {
+        assertTrue(clipboard.copy(user, false));
+        // Chunk is read once
+        verify(chunk).getChunkSnapshot(false, false, false);
+        getTimer().run();
+        // Only the stone and the block the cow is at are copied
+        Blueprint bp = clipboard.getBlueprint();
+        assertEquals(2, bp.getBlocks().size());
+        assertTrue(bp.getBlocks().containsKey(new Vector(1, 1, 1)));
+        assertEquals(1, bp.getEntities().size());
+        assertEquals(EntityType.COW, bp.getEntities().get(new Vector(2, 1, 2)).get(0).getType());
+        verify(task).cancel();
+        verify(user).sendMessage("commands.admin.blueprint.copied-blocks", "[number]", "2");
+        // Can copy again
+        assertTrue(clipboard.copy(user, false));
+        verify(user, never()).sendMessage("commands.admin.blueprint.mid-copy");
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.blueprints.BlueprintClipboard#copy(world.bentobox.bentobox.api.user.User, boolean)}.
+     */
+    @Test
+    public void testCopyAir() {
+        assertTrue(clipboard.copy(user, true));
+        getTimer().run();
+        // 4 x 4 x 4
+        assertEquals(64, clipboard.getBlueprint().getBlocks().size());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.blueprints.BlueprintClipboard#copy(world.bentobox.bentobox.api.user.User, boolean)}.
+     */
+    @Test
+    public void testCopyMidCopy() {
+        when(settings.getPasteSpeed()).thenReturn(1);
+        assertTrue(clipboard.copy(user, false));
+        getTimer().run();
+        assertFalse(clipboard.copy(user, false));
+        verify(user).sendMessage("commands.admin.blueprint.mid-copy");
+    }
+}
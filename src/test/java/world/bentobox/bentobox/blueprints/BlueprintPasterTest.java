@@ -0,0 +1,205 @@
+package world.bentobox.bentobox.blueprints;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.Vector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import io.papermc.lib.PaperLib;
+import io.papermc.lib.environments.CraftBukkitEnvironment;
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+import world.bentobox.bentobox.util.TickScheduler;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, BentoBox.class})
+public class BlueprintPasterTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+    @Mock
+    private World world;
+    @Mock
+    private Chunk chunk;
+    @Mock
+    private Block low;
+    @Mock
+    private Block high;
+    @Mock
+    private BlockData stone;
+    @Mock
+    private Runnable afterPaste;
+
+    private Blueprint bp;
+    private BlueprintClipboard clipboard;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        // Forget anything from the last test
+        Whitebox.<List<?>>getInternalState(TickScheduler.class, "jobs").clear();
+        Whitebox.setInternalState(TickScheduler.class, "task", (Object) null);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getPasteTickBudget()).thenReturn(1000);
+        when(settings.getPasteSpeed()).thenReturn(64);
+
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getVersion()).thenReturn("Paper version git-Paper-225 (MC: 1.14.4) (Implementing API version 1.14.4-R0.1-SNAPSHOT)");
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+        when(Bukkit.createBlockData(anyString())).thenReturn(stone);
+        PaperLib.setCustomEnvironment(new CraftBukkitEnvironment());
+
+        when(world.getEnvironment()).thenReturn(Environment.NORMAL);
+        when(world.isChunkGenerated(anyInt(), anyInt())).thenReturn(true);
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+        when(world.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        when(world.getBlockAt(1, 5, 1)).thenReturn(low);
+        when(world.getBlockAt(1, 6, 1)).thenReturn(high);
+        when(high.getState()).thenReturn(Mockito.mock(BlockState.class));
+
+        // Two stone blocks, the top one first
+        Map<Vector, BlueprintBlock> blocks = new LinkedHashMap<>();
+        BlueprintBlock withState = new BlueprintBlock("minecraft:stone");
+        withState.setBannerPatterns(new ArrayList<>());
+        blocks.put(new Vector(1, 2, 1), withState);
+        blocks.put(new Vector(1, 1, 1), new BlueprintBlock("minecraft:stone"));
+        bp = new Blueprint();
+        bp.setBlocks(blocks);
+        clipboard = new BlueprintClipboard(bp);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private Runnable getTask() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runTaskTimer(eq(plugin), captor.capture(), eq(1L), eq(1L));
+        return captor.getValue();
+    }
+
+    /**
+     * Test method for {@link BlueprintPaster#BlueprintPaster(BentoBox, BlueprintClipboard, Location, Runnable)}.
+     */
+    @Test
+    public void testPaste() {
+        new BlueprintPaster(plugin, clipboard, new Location(world, 0.5, 4, 0.5), afterPaste);
+        // Block data is parsed once for the two blocks
+        PowerMockito.verifyStatic(Bukkit.class, times(1));
+        Bukkit.createBlockData("minecraft:stone");
+        getTask().run();
+        // Pasted from the bottom up
+        InOrder inOrder = Mockito.inOrder(low, high);
+        inOrder.verify(low).setBlockData(stone, false);
+        inOrder.verify(high).setBlockData(stone, false);
+        // Only the block with a banner has its state set
+        verify(low, never()).getState();
+        verify(high).getState();
+        verify(scheduler).runTask(plugin, afterPaste);
+        verify(task).cancel();
+        assertEquals(new Location(world, 1, 5, 1), clipboard.getPos1());
+        assertEquals(new Location(world, 1, 6, 1), clipboard.getPos2());
+    }
+
+    /**
+     * Test method for {@link BlueprintPaster#BlueprintPaster(BentoBox, BlueprintClipboard, Location, Runnable)}.
+     */
+    @Test
+    public void testPasteCachedBlockData() {
+        new BlueprintPaster(plugin, clipboard, new Location(world, 0, 4, 0), null);
+        new BlueprintPaster(plugin, clipboard, new Location(world, 0, 4, 0), null);
+        // The second paste uses the block data already parsed
+        PowerMockito.verifyStatic(Bukkit.class, times(1));
+        Bukkit.createBlockData("minecraft:stone");
+        // Both share one task
+        getTask().run();
+        verify(low, times(2)).setBlockData(stone, false);
+    }
+
+    /**
+     * Test method for {@link BlueprintPaster#BlueprintPaster(BentoBox, BlueprintClipboard, Location, Runnable)}.
+     */
+    @Test
+    public void testPasteNoBudget() {
+        when(settings.getPasteTickBudget()).thenReturn(0);
+        new BlueprintPaster(plugin, clipboard, new Location(world, 0, 4, 0), afterPaste);
+        Runnable tick = getTask();
+        // One step per tick: load chunks, then a block
+        tick.run();
+        tick.run();
+        verify(low).setBlockData(stone, false);
+        verify(high, never()).setBlockData(stone, false);
+        verify(scheduler, never()).runTask(plugin, afterPaste);
+    }
+
+    /**
+     * Test method for {@link BlueprintPaster#BlueprintPaster(BentoBox, BlueprintClipboard, Location, Runnable)}.
+     */
+    @Test
+    public void testPasteChunkLoadFailed() {
+        CompletableFuture<Chunk> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("chunk error"));
+        PaperLib.setCustomEnvironment(new CraftBukkitEnvironment() {
+            @Override
+            public CompletableFuture<Chunk> getChunkAtAsync(World world, int x, int z, boolean gen) {
+                return failed;
+            }
+        });
+        new BlueprintPaster(plugin, clipboard, new Location(world, 0, 4, 0), afterPaste);
+        getTask().run();
+        verify(plugin).logError(Mockito.contains("chunk error"));
+        // Pasting carries on
+        verify(low).setBlockData(stone, false);
+        verify(high).setBlockData(stone, false);
+        verify(scheduler).runTask(plugin, afterPaste);
+    }
+}
@@ -0,0 +1,144 @@
+package world.bentobox.bentobox.blueprints;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.EntityType;
+import org.bukkit.util.Vector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintEntity;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class})
+public class BlueprintPlanTest {
+
+    @Mock
+    private BlockData stone;
+
+    private Blueprint bp;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.createBlockData(anyString())).thenReturn(stone);
+
+        // Blocks either side of the chunk border at x = 16, the top ones first
+        Map<Vector, BlueprintBlock> blocks = new LinkedHashMap<>();
+        BlueprintBlock withState = new BlueprintBlock("minecraft:stone");
+        withState.setBannerPatterns(new ArrayList<>());
+        blocks.put(new Vector(15, 2, 0), withState);
+        blocks.put(new Vector(16, 2, 0), new BlueprintBlock("minecraft:stone"));
+        blocks.put(new Vector(15, 1, 0), new BlueprintBlock("minecraft:stone"));
+        blocks.put(new Vector(16, 1, 0), new BlueprintBlock("minecraft:stone"));
+        bp = new Blueprint();
+        bp.setBlocks(blocks);
+        BlueprintEntity cow = new BlueprintEntity();
+        cow.setType(EntityType.COW);
+        Map<Vector, List<BlueprintEntity>> entities = new LinkedHashMap<>();
+        entities.put(new Vector(0, 3, 0), Collections.singletonList(cow));
+        entities.put(new Vector(1, 3, 0), Arrays.asList(new BlueprintEntity(), null));
+        bp.setEntities(entities);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    /**
+     * Test method for {@link BlueprintPlan#compile(Blueprint)}.
+     */
+    @Test
+    public void testCompile() {
+        BlueprintPlan plan = BlueprintPlan.compile(bp);
+        // Block data is parsed once for the four blocks
+        PowerMockito.verifyStatic(Bukkit.class, times(1));
+        Bukkit.createBlockData("minecraft:stone");
+        BlueprintPlan.Layer blocks = plan.getBlocks();
+        assertEquals(4, blocks.size());
+        assertEquals(0, plan.getAttached().size());
+        // Sorted from the bottom up
+        assertEquals(1, blocks.getY(0));
+        assertEquals(15, blocks.getX(0));
+        assertEquals(2, blocks.getY(3));
+        assertEquals(16, blocks.getX(3));
+        assertSame(stone, blocks.getBlockData(0));
+        // Only the block with a banner has a state
+        assertNull(blocks.getState(0));
+        assertSame(bp.getBlocks().get(new Vector(15, 2, 0)), blocks.getState(2));
+        // Entities without a type are dropped
+        assertEquals(1, plan.getEntities().size());
+        assertEquals(5, plan.size());
+    }
+
+    /**
+     * Test method for {@link BlueprintPlan.Layer#getPasteOrder(int, int)}.
+     */
+    @Test
+    public void testGetPasteOrder() {
+        BlueprintPlan.Layer blocks = BlueprintPlan.compile(bp).getBlocks();
+        // One chunk after the other, from the bottom up in each
+        assertArrayEquals(new int[] {0, 2, 1, 3}, blocks.getPasteOrder(0, 0));
+        // Moved by one block, all the blocks are in the same chunk
+        assertArrayEquals(new int[] {0, 1, 2, 3}, blocks.getPasteOrder(1, 0));
+    }
+
+    /**
+     * Test method for {@link Blueprint#getPlan()}.
+     */
+    @Test
+    public void testGetPlan() {
+        BlueprintPlan plan = bp.getPlan();
+        assertSame(plan, bp.getPlan());
+        // Changing the blocks makes a new plan
+        bp.setBlocks(new LinkedHashMap<>());
+        BlueprintPlan newPlan = bp.getPlan();
+        assertNotSame(plan, newPlan);
+        assertEquals(0, newPlan.getBlocks().size());
+    }
+
+    /**
+     * Test method for {@link Blueprint#getPlan()}.
+     */
+    @Test
+    public void testGetPlanEntitiesAdded() {
+        BlueprintPlan plan = bp.getPlan();
+        assertEquals(1, plan.getEntities().size());
+        // Adding entities to the ones already there makes a new plan
+        BlueprintEntity pig = new BlueprintEntity();
+        pig.setType(EntityType.PIG);
+        bp.setEntities(Collections.singletonMap(new Vector(2, 3, 0), Collections.singletonList(pig)));
+        BlueprintPlan newPlan = bp.getPlan();
+        assertNotSame(plan, newPlan);
+        assertEquals(2, newPlan.getEntities().size());
+    }
+}
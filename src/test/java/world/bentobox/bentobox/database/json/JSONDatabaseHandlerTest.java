@@ -0,0 +1,134 @@
+package world.bentobox.bentobox.database.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest( {BentoBox.class, Bukkit.class} )
+public class JSONDatabaseHandlerTest {
+
+    private static final int ISLANDS = 1000;
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private JSONDatabaseConnector dbConnector;
+
+    private File dataFolder;
+    private File islandTable;
+    private JSONDatabaseHandler<Island> handler;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        when(plugin.isEnabled()).thenReturn(true);
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskAsynchronously(Mockito.any(), Mockito.any(Runnable.class))).thenReturn(mock(BukkitTask.class));
+
+        // File system
+        dataFolder = Files.createTempDirectory("bentobox").toFile();
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        islandTable = new File(new File(dataFolder, "database"), "Island");
+        islandTable.mkdirs();
+
+        handler = new JSONDatabaseHandler<>(plugin, Island.class, dbConnector);
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception {
+        Files.walk(dataFolder.toPath())
+        .sorted(Comparator.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+        Mockito.framework().clearInlineMocks();
+    }
+
+    /**
+     * Writes synthetic island files
+     * @param count - number of files
+     */
+    private void writeIslands(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            String json = "{\n  \"uniqueId\": \"island" + i + "\",\n  \"range\": 50,\n  \"protectionRange\": " + i + "\n}";
+            Files.write(new File(islandTable, "island" + i + ".json").toPath(), json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.json.JSONDatabaseHandler#loadObjects()}.
+     */
+    @Test
+    public void testLoadObjectsFew() throws IOException {
+        writeIslands(10);
+        List<Island> list = handler.loadObjects();
+        assertEquals(10, list.size());
+        assertTrue(list.stream().allMatch(i -> i.getUniqueId().equals("island" + i.getProtectionRange())));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.json.JSONDatabaseHandler#loadObjects()}.
+     */
+    @Test
+    public void testLoadObjectsParallel() throws IOException {
+        writeIslands(ISLANDS);
+        List<Island> list = handler.loadObjects();
+        assertEquals(ISLANDS, list.size());
+        Set<String> ids = list.stream().map(Island::getUniqueId).collect(Collectors.toSet());
+        assertEquals(ISLANDS, ids.size());
+        assertTrue(list.stream().allMatch(i -> i.getUniqueId().equals("island" + i.getProtectionRange())));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.json.JSONDatabaseHandler#loadObjects()}.
+     */
+    @Test
+    public void testLoadObjectsBadFile() throws IOException {
+        writeIslands(ISLANDS);
+        Files.write(new File(islandTable, "bad.json").toPath(), "{ bad".getBytes(StandardCharsets.UTF_8));
+        List<Island> list = handler.loadObjects();
+        assertEquals(ISLANDS, list.size());
+        Mockito.verify(plugin).logError(Mockito.startsWith("Could not load objects bad.json"));
+    }
+}
@@ -0,0 +1,122 @@
+package world.bentobox.bentobox.database.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bukkit.Material;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.flags.Flag;
+import world.bentobox.bentobox.managers.FlagsManager;
+import world.bentobox.bentobox.managers.RanksManager;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({BentoBox.class})
+public class FlagRanksTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private FlagsManager fm;
+
+    private Flag first;
+    private Flag second;
+    private Flag unregistered;
+    private FlagRanks ranks;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        when(plugin.getFlagsManager()).thenReturn(fm);
+        first = new Flag.Builder("FIRST", Material.STONE).build();
+        first.setOrdinal(1);
+        second = new Flag.Builder("SECOND", Material.STONE).build();
+        second.setOrdinal(5);
+        unregistered = new Flag.Builder("UNREGISTERED", Material.STONE).build();
+        when(fm.getFlagByOrdinal(1)).thenReturn(first);
+        when(fm.getFlagByOrdinal(5)).thenReturn(second);
+        ranks = new FlagRanks();
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    /**
+     * Test method for {@link FlagRanks#get(Flag, int)}.
+     */
+    @Test
+    public void testGetSet() {
+        assertEquals(RanksManager.MEMBER_RANK, ranks.get(second, RanksManager.MEMBER_RANK));
+        ranks.set(second, RanksManager.VISITOR_RANK);
+        assertEquals(RanksManager.VISITOR_RANK, ranks.get(second, RanksManager.MEMBER_RANK));
+        // Slots below the one that was set are still unset, even if they are 0
+        assertEquals(RanksManager.OWNER_RANK, ranks.get(first, RanksManager.OWNER_RANK));
+        ranks.set(first, -1);
+        assertEquals(-1, ranks.get(first, RanksManager.OWNER_RANK));
+        // Flags that are not registered
+        assertEquals(RanksManager.OWNER_RANK, ranks.get(unregistered, RanksManager.OWNER_RANK));
+        ranks.set(unregistered, RanksManager.TRUSTED_RANK);
+        assertEquals(RanksManager.TRUSTED_RANK, ranks.get(unregistered, RanksManager.OWNER_RANK));
+    }
+
+    /**
+     * Test method for {@link FlagRanks#toMap()} and {@link FlagRanks#FlagRanks(Map)}.
+     */
+    @Test
+    public void testToMap() {
+        assertTrue(ranks.toMap().isEmpty());
+        Map<Flag, Integer> map = new HashMap<>();
+        map.put(first, RanksManager.COOP_RANK);
+        map.put(second, 0);
+        map.put(unregistered, RanksManager.OWNER_RANK);
+        ranks = new FlagRanks(map);
+        assertEquals(map, ranks.toMap());
+        assertEquals(0, ranks.get(second, RanksManager.OWNER_RANK));
+    }
+
+    /**
+     * Test method for {@link FlagRanks#setAll(Map)}.
+     */
+    @Test
+    public void testSetAll() {
+        ranks.set(first, RanksManager.VISITOR_RANK);
+        ranks.set(unregistered, RanksManager.TRUSTED_RANK);
+        Map<Flag, Integer> map = new HashMap<>();
+        map.put(second, RanksManager.MEMBER_RANK);
+        ranks.setAll(map);
+        assertEquals(RanksManager.OWNER_RANK, ranks.get(first, RanksManager.OWNER_RANK));
+        assertEquals(RanksManager.OWNER_RANK, ranks.get(unregistered, RanksManager.OWNER_RANK));
+        assertEquals(RanksManager.MEMBER_RANK, ranks.get(second, RanksManager.OWNER_RANK));
+    }
+
+    /**
+     * Test method for {@link FlagRanks#getChanges()}.
+     */
+    @Test
+    public void testGetChanges() {
+        assertEquals(0, ranks.getChanges());
+        ranks.set(first, RanksManager.VISITOR_RANK);
+        ranks.setAll(new HashMap<>());
+        ranks.countChange();
+        assertEquals(3, ranks.getChanges());
+    }
+}
@@ -0,0 +1,252 @@
+package world.bentobox.bentobox.database.packed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author tastybento
+ *
+ */
+public class PackedTableTest {
+
+    private File folder;
+    private File file;
+    private PackedTable table;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception {
+        folder = Files.createTempDirectory("bentobox").toFile();
+        file = new File(folder, "Island.db");
+        table = new PackedTable(file);
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception {
+        table.close();
+        Files.walk(folder.toPath())
+        .sorted(Comparator.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+    }
+
+    /**
+     * Test method for {@link PackedTable#save(String, String)}.
+     */
+    @Test
+    public void testSaveRead() throws IOException {
+        assertNull(table.read("abc"));
+        table.save("abc", "{\"uniqueId\":\"abc\"}");
+        table.save("def", "{\"uniqueId\":\"def\"}");
+        table.save("abc", "{\"uniqueId\":\"abc\",\"range\":100}");
+        assertEquals("{\"uniqueId\":\"abc\",\"range\":100}", table.read("abc"));
+        assertTrue(table.contains("def"));
+        assertEquals(2, table.size());
+        assertEquals(Arrays.asList("{\"uniqueId\":\"def\"}", "{\"uniqueId\":\"abc\",\"range\":100}"), table.readAll());
+    }
+
+    /**
+     * Test method for {@link PackedTable#delete(String)}.
+     */
+    @Test
+    public void testDelete() throws IOException {
+        table.save("abc", "{}");
+        long size = table.getFileSize();
+        table.delete("xyz");
+        // Nothing written
+        assertEquals(size, table.getFileSize());
+        table.delete("abc");
+        assertFalse(table.contains("abc"));
+        assertNull(table.read("abc"));
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        table.save("abc", "{\"name\":\"é\"}");
+        table.save("def", "{}");
+        table.delete("def");
+        table.close();
+        table = new PackedTable(file);
+        assertEquals(1, table.size());
+        assertEquals("{\"name\":\"é\"}", table.read("abc"));
+        assertEquals(0, table.getDiscardedBytes());
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test
+    public void testReopenTornWrite() throws IOException {
+        table.save("abc", "{}");
+        long good = table.getFileSize();
+        table.save("def", "{\"uniqueId\":\"def\"}");
+        table.close();
+        // Cut the last record in half
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 5);
+        }
+        table = new PackedTable(file);
+        assertEquals(1, table.size());
+        assertTrue(table.contains("abc"));
+        assertTrue(table.getDiscardedBytes() > 0);
+        assertEquals(good, table.getFileSize());
+        // New records go where the broken one was
+        table.save("ghi", "{}");
+        table.close();
+        table = new PackedTable(file);
+        assertEquals(2, table.size());
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test
+    public void testReopenBadChecksum() throws IOException {
+        table.save("abc", "{}");
+        table.save("def", "{\"uniqueId\":\"def\"}");
+        table.close();
+        // Damage the last byte of the last record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            raf.write('x');
+        }
+        table = new PackedTable(file);
+        assertEquals(1, table.size());
+        assertFalse(table.contains("def"));
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test
+    public void testReopenDamagedBeforeEnd() throws IOException {
+        table.save("abc", "{}");
+        long good = table.getFileSize();
+        table.save("def", "{\"uniqueId\":\"def\"}");
+        table.close();
+        long length = file.length();
+        // Damage the last byte of the first record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(good - 1);
+            raf.write('x');
+        }
+        try {
+            new PackedTable(file);
+            fail("Damaged file was opened");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("damaged"));
+        }
+        // Nothing was cut and a copy was kept
+        assertEquals(length, file.length());
+        File[] copies = folder.listFiles((dir, name) -> name.startsWith("Island.db.damaged-"));
+        assertEquals(1, copies.length);
+        assertEquals(length, copies[0].length());
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test
+    public void testReopenDamagedLengthBeforeEnd() throws IOException {
+        table.save("abc", "{}");
+        long good = table.getFileSize();
+        table.save("def", "{\"uniqueId\":\"def\"}");
+        table.save("ghi", "{}");
+        table.close();
+        long length = file.length();
+        // Make the length of the middle record point past the end of the file
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(good);
+            raf.writeInt(100000);
+        }
+        try {
+            new PackedTable(file);
+            fail("Damaged file was opened");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("damaged"));
+        }
+        // The records after it were not cut off
+        assertEquals(length, file.length());
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test
+    public void testReopenZeroFilledTail() throws IOException {
+        table.save("abc", "{}");
+        long good = table.getFileSize();
+        table.close();
+        // Space was given to a write that never happened
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(good + 100);
+        }
+        table = new PackedTable(file);
+        assertEquals(1, table.size());
+        assertEquals(100, table.getDiscardedBytes());
+        assertEquals(good, table.getFileSize());
+        assertEquals(good, file.length());
+    }
+
+    /**
+     * Test method for {@link PackedTable#PackedTable(File)}.
+     */
+    @Test(expected = IOException.class)
+    public void testNotATable() throws IOException {
+        File other = new File(folder, "other.db");
+        Files.write(other.toPath(), "not a table".getBytes());
+        new PackedTable(other);
+    }
+
+    /**
+     * Test method for {@link PackedTable#compact()}.
+     */
+    @Test
+    public void testCompact() throws IOException {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        String json = "{\"text\":\"" + new String(chars) + "\"}";
+        for (int i = 0; i < 3000; i++) {
+            table.save("id" + (i % 10), json);
+        }
+        table.delete("id9");
+        assertTrue(table.needsCompaction());
+        long before = table.getFileSize();
+        table.compact();
+        assertFalse(table.needsCompaction());
+        assertTrue(table.getFileSize() < before / 100);
+        assertEquals(9, table.size());
+        assertEquals(json, table.read("id3"));
+        // Still works after reopening
+        table.save("id9", "{}");
+        table.close();
+        table = new PackedTable(file);
+        assertEquals(10, table.size());
+        assertEquals(json, table.read("id0"));
+        assertEquals("{}", table.read("id9"));
+        assertFalse(new File(folder, "Island.db.tmp").exists());
+    }
+}
@@ -23,6 +23,7 @@ import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 import world.bentobox.bentobox.database.DatabaseConnectionSettingsImpl;
 
@@ -96,7 +97,7 @@ public class MySQLDatabaseConnectorTest {
         DriverManager.getConnection(any(), any(), any());
         MySQLDatabaseConnector dc = new MySQLDatabaseConnector(dbSettings);
         dc.createConnection(null);
-        verify(logger).severe("Could not connect to the database! No suitable driver found for jdbc:mysql://localhost:1234/bentobox?autoReconnect=true&useSSL=false&allowMultiQueries=true&useUnicode=true&characterEncoding=UTF-8");
+        verify(logger).severe("Could not connect to the database! No suitable driver found for jdbc:mysql://localhost:1234/bentobox?autoReconnect=true&useSSL=false&allowMultiQueries=true&useUnicode=true&characterEncoding=UTF-8&rewriteBatchedStatements=true");
     }
 
     /**
@@ -106,7 +107,8 @@ public class MySQLDatabaseConnectorTest {
     public void testGetConnectionUrl() {
         MySQLDatabaseConnector dc = new MySQLDatabaseConnector(dbSettings);
         assertEquals("jdbc:mysql://localhost:1234/bentobox"
-                + "?autoReconnect=true&useSSL=false&allowMultiQueries=true&useUnicode=true&characterEncoding=UTF-8", dc.getConnectionUrl());
+                + "?autoReconnect=true&useSSL=false&allowMultiQueries=true&useUnicode=true&characterEncoding=UTF-8"
+                + "&rewriteBatchedStatements=true", dc.getConnectionUrl());
     }
 
     /**
@@ -146,4 +148,21 @@ public class MySQLDatabaseConnectorTest {
         dc.closeConnection(null);
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.sql.mysql.MySQLDatabaseConnector#closeConnection()}.
+     */
+    @Test
+    public void testCloseConnectionWriteConnection() throws SQLException {
+        MySQLDatabaseConnector dc = new MySQLDatabaseConnector(dbSettings);
+        Whitebox.setInternalState(dc, "writeConnection", connection);
+        dc.createConnection(String.class);
+        dc.createConnection(Integer.class);
+        assertEquals(connection, dc.getWriteConnection(String.class));
+        assertEquals(connection, dc.getWriteConnection(Integer.class));
+        // Still used by the other type
+        dc.closeConnection(String.class);
+        verify(connection, Mockito.never()).close();
+        dc.closeConnection(Integer.class);
+        verify(connection).close();
+    }
 }
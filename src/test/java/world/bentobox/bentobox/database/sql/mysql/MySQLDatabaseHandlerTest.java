@@ -21,11 +21,13 @@ import java.util.List;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
@@ -443,6 +445,108 @@ public class MySQLDatabaseHandlerTest {
         verify(plugin).logError(eq("Could not check if key exists in database! hello error"));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.sql.SQLDatabaseHandler#processBatch(List)}.
+     * @throws SQLException
+     */
+    @Test
+    public void testDeleteIDQueuedBatch() throws SQLException {
+        Connection writeConnection = mock(Connection.class);
+        PreparedStatement batchPs = mock(PreparedStatement.class);
+        when(writeConnection.prepareStatement(Mockito.anyString())).thenReturn(batchPs);
+        when(dbConn.getWriteConnection(any())).thenReturn(writeConnection);
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenReturn(mock(BukkitTask.class));
+        handler = new MySQLDatabaseHandler<>(plugin, Island.class, dbConn);
+        handler.deleteID("abc123");
+        handler.deleteID("def456");
+        assertEquals(2, handler.getQueueSize());
+        // Closing writes the queue in one transaction
+        handler.close();
+        verify(writeConnection).setAutoCommit(false);
+        verify(batchPs).setString(1, "\"abc123\"");
+        verify(batchPs).setString(1, "\"def456\"");
+        verify(batchPs, Mockito.times(2)).addBatch();
+        verify(batchPs).executeBatch();
+        verify(writeConnection).commit();
+        verify(writeConnection).setAutoCommit(true);
+        verify(batchPs, Mockito.never()).execute();
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.sql.SQLDatabaseHandler#processBatch(List)}.
+     * @throws SQLException
+     */
+    @Test
+    public void testDeleteIDQueuedBatchFail() throws SQLException {
+        Connection writeConnection = mock(Connection.class);
+        PreparedStatement batchPs = mock(PreparedStatement.class);
+        when(writeConnection.prepareStatement(Mockito.anyString())).thenReturn(batchPs);
+        when(batchPs.executeBatch()).thenThrow(new SQLException("fail!"));
+        when(dbConn.getWriteConnection(any())).thenReturn(writeConnection);
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenReturn(mock(BukkitTask.class));
+        handler = new MySQLDatabaseHandler<>(plugin, Island.class, dbConn);
+        handler.deleteID("abc123");
+        handler.deleteID("def456");
+        handler.close();
+        verify(writeConnection).rollback();
+        verify(writeConnection, Mockito.never()).commit();
+        // Each write is done again on its own
+        verify(ps, Mockito.times(2)).execute();
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.sql.SQLDatabaseHandler#processBatch(List)}.
+     * @throws SQLException
+     */
+    @Test
+    public void testQueuedBatchOrder() throws SQLException {
+        Connection writeConnection = mock(Connection.class);
+        PreparedStatement savePs = mock(PreparedStatement.class);
+        PreparedStatement deletePs = mock(PreparedStatement.class);
+        when(writeConnection.prepareStatement(Mockito.anyString())).thenReturn(savePs);
+        when(writeConnection.prepareStatement(Mockito.startsWith("DELETE"))).thenReturn(deletePs);
+        when(dbConn.getWriteConnection(any())).thenReturn(writeConnection);
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenReturn(mock(BukkitTask.class));
+        handler = new MySQLDatabaseHandler<>(plugin, Island.class, dbConn);
+        handler.deleteID("abc123");
+        handler.deleteID("def456");
+        handler.saveObject(instance);
+        handler.deleteID("ghi789");
+        handler.close();
+        // Each run of writes with the same statement is done before the next one is started
+        InOrder inOrder = Mockito.inOrder(deletePs, savePs, writeConnection);
+        inOrder.verify(deletePs, Mockito.times(2)).addBatch();
+        inOrder.verify(deletePs).executeBatch();
+        inOrder.verify(savePs).addBatch();
+        inOrder.verify(savePs).executeBatch();
+        inOrder.verify(deletePs).addBatch();
+        inOrder.verify(deletePs).executeBatch();
+        inOrder.verify(writeConnection).commit();
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.sql.SQLDatabaseHandler#processBatch(List)}.
+     * @throws SQLException
+     */
+    @Test
+    public void testQueuedBatchPrepareFails() throws SQLException {
+        Connection writeConnection = mock(Connection.class);
+        PreparedStatement deletePs = mock(PreparedStatement.class);
+        Mockito.doThrow(new SQLException("fail!")).when(writeConnection).prepareStatement(Mockito.anyString());
+        Mockito.doReturn(deletePs).when(writeConnection).prepareStatement(Mockito.startsWith("DELETE"));
+        when(dbConn.getWriteConnection(any())).thenReturn(writeConnection);
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenReturn(mock(BukkitTask.class));
+        handler = new MySQLDatabaseHandler<>(plugin, Island.class, dbConn);
+        handler.deleteID("abc123");
+        handler.saveObject(instance);
+        handler.deleteID("ghi789");
+        handler.close();
+        // The save could not be added to the batch, so nothing is committed and all the writes are done one by one
+        verify(writeConnection, Mockito.never()).commit();
+        verify(writeConnection).rollback();
+        verify(ps, Mockito.times(3)).execute();
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.database.sql.mysql.MySQLDatabaseHandler#deleteID(java.lang.String)}.
      * @throws SQLException
@@ -192,6 +192,60 @@ public class YamlDatabaseHandlerTest {
         Mockito.verify(dbConnector).saveYamlFile(Mockito.anyString(), Mockito.eq("database/Island"), Mockito.eq("unique"), Mockito.isA(Map.class));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.yaml.YamlDatabaseHandler#saveObject(java.lang.Object)}.
+     * @throws IntrospectionException
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSaveObjectQueued() throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        Island is = new Island();
+        is.setUniqueId("unique");
+        Location center = mock(Location.class);
+        is.setCenter(center);
+        // Deletion followed by two saves of the same object
+        handler.deleteID("unique");
+        handler.saveObject(is);
+        handler.saveObject(is);
+        assertEquals(1, handler.getQueueSize());
+        assertEquals(2, handler.getCoalescedWrites());
+        assertTrue(handler.isWritePending("unique"));
+        assertFalse(handler.isWritePending("other"));
+        Mockito.verify(dbConnector, Mockito.never()).saveYamlFile(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.isA(Map.class));
+        // Closing writes the queue
+        handler.close();
+        assertEquals(0, handler.getQueueSize());
+        assertEquals(1, handler.getLastFlushSize());
+        assertFalse(handler.isWritePending("unique"));
+        Mockito.verify(dbConnector).saveYamlFile(Mockito.anyString(), Mockito.eq("database/Island"), Mockito.eq("unique"), Mockito.isA(Map.class));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.database.AbstractDatabaseHandler#whenWritten(String, Runnable)}.
+     * @throws IntrospectionException
+     * @throws InvocationTargetException
+     * @throws IllegalAccessException
+     */
+    @Test
+    public void testWhenWritten() throws IllegalAccessException, InvocationTargetException, IntrospectionException {
+        Island is = new Island();
+        is.setUniqueId("unique");
+        is.setCenter(mock(Location.class));
+        handler.saveObject(is);
+        Runnable written = mock(Runnable.class);
+        Runnable other = mock(Runnable.class);
+        handler.whenWritten("unique", written);
+        // Nothing is waiting to be written for this one
+        handler.whenWritten("other", other);
+        Mockito.verify(other).run();
+        Mockito.verify(written, Mockito.never()).run();
+        // Closing writes the queue
+        handler.close();
+        Mockito.verify(written).run();
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.database.yaml.YamlDatabaseHandler#saveObject(java.lang.Object)}.
      * @throws IntrospectionException
@@ -10,6 +10,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.net.InetAddress;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -21,8 +22,10 @@ import java.util.UUID;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.PlayerInventory;
@@ -344,6 +347,40 @@ public class JoinLeaveListenerTest {
         jll.onPlayerQuit(event);
         verify(coopPlayer).sendMessage(eq("commands.island.team.uncoop.all-members-logged-off"));
         verify(island).removeRank(eq(RanksManager.COOP_RANK));
+        verify(pm).discardPrefetch(player.getUniqueId());
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.listeners.JoinLeaveListener#onPlayerPreLogin(AsyncPlayerPreLoginEvent)}.
+     */
+    @Test
+    public void testOnPlayerPreLogin() {
+        AsyncPlayerPreLoginEvent event = new AsyncPlayerPreLoginEvent("tastybento", InetAddress.getLoopbackAddress(), player.getUniqueId());
+        jll.onPlayerPreLogin(event);
+        verify(pm).prefetch(player.getUniqueId());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.listeners.JoinLeaveListener#onPlayerPreLogin(AsyncPlayerPreLoginEvent)}.
+     */
+    @Test
+    public void testOnPlayerPreLoginDisallowed() {
+        AsyncPlayerPreLoginEvent event = new AsyncPlayerPreLoginEvent("tastybento", InetAddress.getLoopbackAddress(), player.getUniqueId());
+        event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, "banned");
+        jll.onPlayerPreLogin(event);
+        verify(pm, never()).prefetch(any());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.listeners.JoinLeaveListener#onPlayerLogin(PlayerLoginEvent)}.
+     */
+    @Test
+    public void testOnPlayerLogin() {
+        PlayerLoginEvent event = new PlayerLoginEvent(player, "localhost", InetAddress.getLoopbackAddress());
+        jll.onPlayerLogin(event);
+        verify(pm, never()).discardPrefetch(any());
+        event.disallow(PlayerLoginEvent.Result.KICK_WHITELIST, "whitelist");
+        jll.onPlayerLogin(event);
+        verify(pm).discardPrefetch(player.getUniqueId());
+    }
 }
@@ -3,6 +3,7 @@ package world.bentobox.bentobox.listeners.flags.protection;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -61,6 +62,7 @@ import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.FlagsManager;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.IslandsManager;
+import world.bentobox.bentobox.managers.island.ChunkIslands;
 import world.bentobox.bentobox.managers.LocalesManager;
 import world.bentobox.bentobox.managers.PlaceholdersManager;
 import world.bentobox.bentobox.managers.PlayersManager;
@@ -164,6 +166,9 @@ public class TNTListenerTest {
         Island island = mock(Island.class);
         Optional<Island> optional = Optional.of(island);
         when(im.getProtectedIslandAt(Mockito.any())).thenReturn(optional);
+        ChunkIslands chunk = mock(ChunkIslands.class);
+        when(chunk.getProtectedIslandAt(Mockito.any())).thenReturn(optional);
+        when(im.getIslandsInChunk(any(), anyInt(), anyInt())).thenReturn(chunk);
 
         // Notifier
         notifier = mock(Notifier.class);
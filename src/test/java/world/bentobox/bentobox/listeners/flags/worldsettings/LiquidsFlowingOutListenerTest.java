@@ -3,6 +3,7 @@ package world.bentobox.bentobox.listeners.flags.worldsettings;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -31,6 +32,7 @@ import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.IslandsManager;
+import world.bentobox.bentobox.managers.island.ChunkIslands;
 
 /**
  * Tests {@link world.bentobox.bentobox.listeners.flags.worldsettings.LiquidsFlowingOutListener}.
@@ -56,6 +58,7 @@ public class LiquidsFlowingOutListenerTest {
 
     /* Islands */
     private IslandsManager islandsManager;
+    private ChunkIslands chunk;
 
     @Before
     public void setUp() throws Exception {
@@ -106,6 +109,9 @@ public class LiquidsFlowingOutListenerTest {
         when(plugin.getIslands()).thenReturn(islandsManager);
         // By default, there should be no island's protection range at toLocation.
         when(islandsManager.getProtectedIslandAt(toLocation)).thenReturn(Optional.empty());
+        // By default, the chunk is not all inside one island
+        chunk = mock(ChunkIslands.class);
+        when(islandsManager.getIslandsInChunk(any(), anyInt(), anyInt())).thenReturn(chunk);
     }
 
     @After
@@ -196,4 +202,29 @@ public class LiquidsFlowingOutListenerTest {
         new LiquidsFlowingOutListener().onLiquidFlow(event);
         assertTrue(event.isCancelled());
     }
+
+    /**
+     * Asserts that the event is never cancelled when the liquid flows within a chunk that is all inside one island.
+     */
+    @Test
+    public void testLiquidFlowsInFullyProtectedChunk() {
+        when(chunk.isFullyProtected()).thenReturn(true);
+
+        // Run
+        new LiquidsFlowingOutListener().onLiquidFlow(event);
+        assertFalse(event.isCancelled());
+    }
+
+    /**
+     * Asserts that the event is still checked when the liquid flows out of a chunk that is all inside one island.
+     */
+    @Test
+    public void testLiquidFlowsOutOfFullyProtectedChunk() {
+        when(chunk.isFullyProtected()).thenReturn(true);
+        when(to.getX()).thenReturn(16);
+
+        // Run
+        new LiquidsFlowingOutListener().onLiquidFlow(event);
+        assertTrue(event.isCancelled());
+    }
 }
@@ -40,6 +40,7 @@ import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.IslandsManager;
+import world.bentobox.bentobox.managers.island.IslandPresenceTracker;
 import world.bentobox.bentobox.util.Util;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({BentoBox.class, Util.class, Bukkit.class })
@@ -80,6 +81,7 @@ public class OfflineGrowthListenerTest {
 
 
         when(plugin.getIslands()).thenReturn(im);
+        when(im.getPresenceTracker()).thenReturn(new IslandPresenceTracker(plugin));
         when(im.getIsland(any(), any(UUID.class))).thenReturn(island);
 
         Optional<Island> opIsland = Optional.ofNullable(island);
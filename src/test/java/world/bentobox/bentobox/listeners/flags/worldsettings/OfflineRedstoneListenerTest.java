@@ -41,6 +41,7 @@ import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.IslandsManager;
+import world.bentobox.bentobox.managers.island.IslandPresenceTracker;
 import world.bentobox.bentobox.util.Util;
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({BentoBox.class, Util.class, Bukkit.class })
@@ -60,6 +61,7 @@ public class OfflineRedstoneListenerTest {
     private IslandWorldManager iwm;
     @Mock
     private Island island;
+    private Set<Player> onlinePlayers;
 
     @Before
     public void setUp() throws Exception {
@@ -83,9 +85,12 @@ public class OfflineRedstoneListenerTest {
 
         // Island Manager
         when(plugin.getIslands()).thenReturn(im);
+        when(im.getPresenceTracker()).thenReturn(new IslandPresenceTracker(plugin));
         when(im.getIsland(any(), any(UUID.class))).thenReturn(island);
         Optional<Island> opIsland = Optional.ofNullable(island);
         when(im.getProtectedIslandAt(eq(inside))).thenReturn(opIsland);
+        when(im.getIslandAt(eq(inside))).thenReturn(opIsland);
+        when(island.onIsland(inside)).thenReturn(true);
 
         // Blocks
         when(block.getWorld()).thenReturn(world);
@@ -106,7 +111,7 @@ public class OfflineRedstoneListenerTest {
 
         PowerMockito.mockStatic(Bukkit.class);
         // Online players
-        Set<Player> onlinePlayers = new HashSet<>();
+        onlinePlayers = new HashSet<>();
         for (int j = 0; j < NAMES.length; j++) {
             Player p1 = mock(Player.class);
             UUID u = UUID.randomUUID();
@@ -207,7 +212,8 @@ public class OfflineRedstoneListenerTest {
         // Members are offline
         when(Bukkit.getPlayer(any(UUID.class))).thenReturn(null);
         // On island
-        when(island.onIsland(any())).thenReturn(true);
+        onlinePlayers.forEach(p -> when(p.getLocation()).thenReturn(inside));
+        im.getPresenceTracker().refresh();
 
         orl.onBlockRedstone(e);
         // Current remains 10
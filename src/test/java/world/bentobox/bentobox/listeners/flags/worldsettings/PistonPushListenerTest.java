@@ -3,7 +3,10 @@ package world.bentobox.bentobox.listeners.flags.worldsettings;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -36,6 +39,7 @@ import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.bentobox.lists.Flags;
 import world.bentobox.bentobox.managers.IslandWorldManager;
 import world.bentobox.bentobox.managers.IslandsManager;
+import world.bentobox.bentobox.managers.island.ChunkIslands;
 import world.bentobox.bentobox.util.Util;
 
 @RunWith(PowerMockRunner.class)
@@ -46,6 +50,7 @@ public class PistonPushListenerTest {
     private World world;
     private Block block;
     private List<Block> blocks;
+    private ChunkIslands chunk;
 
     @Before
     public void setUp() throws Exception {
@@ -71,6 +76,9 @@ public class PistonPushListenerTest {
 
         Optional<Island> opIsland = Optional.ofNullable(island);
         when(im.getProtectedIslandAt(Mockito.eq(inside))).thenReturn(opIsland);
+        // The chunks are not all inside the island
+        chunk = mock(ChunkIslands.class);
+        when(im.getIslandsInChunk(any(), anyInt(), anyInt())).thenReturn(chunk);
 
         // Blocks
         block = mock(Block.class);
@@ -150,4 +158,20 @@ public class PistonPushListenerTest {
         assertTrue(e.isCancelled());
     }
 
+    @Test
+    public void testOnPistonExtendFullyProtectedChunk() {
+        // The chunk is all inside the island, so the blocks do not have to be checked one by one
+        when(chunk.getProtectingIsland()).thenReturn(island);
+        when(island.onIsland(Mockito.any())).thenReturn(false);
+        // A full push of 12 blocks
+        blocks.add(block);
+        blocks.add(block);
+
+        BlockPistonExtendEvent e = new BlockPistonExtendEvent(block, blocks, BlockFace.EAST);
+        new PistonPushListener().onPistonExtend(e);
+
+        assertFalse(e.isCancelled());
+        verify(island, never()).onIsland(Mockito.any());
+    }
+
 }
@@ -5,6 +5,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -12,6 +14,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.event.Listener;
@@ -31,6 +34,7 @@ import org.powermock.reflect.Whitebox;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.addons.Addon;
+import world.bentobox.bentobox.api.addons.AddonClassLoader;
 import world.bentobox.bentobox.api.addons.AddonDescription;
 import world.bentobox.bentobox.database.DatabaseSetup.DatabaseType;
 import world.bentobox.bentobox.database.objects.DataObject;
@@ -186,6 +190,29 @@ public class AddonsManagerTest {
         assertNull(am.getClassByName("name"));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.AddonsManager#getClassByName(java.lang.String)}.
+     */
+    @Test
+    public void testGetClassByNameIndex() {
+        AddonClassLoader loader = mock(AddonClassLoader.class);
+        doReturn(String.class).when(loader).findClass("found", false);
+        Whitebox.<Map<Addon, AddonClassLoader>>getInternalState(am, "loaders").put(mock(Addon.class), loader);
+        // The addons are only searched once for each name
+        assertEquals(String.class, am.getClassByName("found"));
+        assertEquals(String.class, am.getClassByName("found"));
+        verify(loader).findClass("found", false);
+        assertNull(am.getClassByName("missing"));
+        assertNull(am.getClassByName("missing"));
+        verify(loader).findClass("missing", false);
+        // Until the class is found
+        am.setClass("missing", Integer.class);
+        assertEquals(Integer.class, am.getClassByName("missing"));
+        // Report
+        am.allLoaded();
+        verify(plugin).log(startsWith("Searched addons for 2 classes in "));
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.managers.AddonsManager#setClass(java.lang.String, java.lang.Class)}.
      */
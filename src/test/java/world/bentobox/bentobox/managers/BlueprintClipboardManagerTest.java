@@ -16,7 +16,11 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -24,6 +28,8 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.util.Vector;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,9 +41,12 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.blueprints.Blueprint;
 import world.bentobox.bentobox.blueprints.BlueprintClipboard;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintBlock;
+import world.bentobox.bentobox.blueprints.dataobjects.BlueprintEntity;
 
 /**
  * @author tastybento
@@ -53,6 +62,8 @@ public class BlueprintClipboardManagerTest {
     private BentoBox plugin;
     @Mock
     private BlueprintClipboard clipboard;
+    @Mock
+    private Settings settings;
 
     private File blueprintFolder;
 
@@ -125,6 +136,7 @@ public class BlueprintClipboardManagerTest {
         blueprintFolder = new File("blueprints");
         // Clear any residual files
         tearDown();
+        when(plugin.getSettings()).thenReturn(settings);
         PowerMockito.mockStatic(Bukkit.class);
         BlockData blockData = mock(BlockData.class);
         when(Bukkit.createBlockData(any(Material.class))).thenReturn(blockData);
@@ -455,4 +467,86 @@ public class BlueprintClipboardManagerTest {
         assertTrue(bp.exists());
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.BlueprintClipboardManager#saveBlueprint(world.bentobox.bentobox.blueprints.Blueprint)}.
+     * @throws IOException
+     */
+    @Test
+    public void testSaveBlueprintCompact() throws IOException {
+        when(settings.isCompactBlueprints()).thenReturn(true);
+        BlueprintClipboardManager bcm = new BlueprintClipboardManager(plugin, blueprintFolder);
+        Blueprint blueprint = new Blueprint();
+        blueprint.setName("test123");
+        blueprint.setDescription("A test");
+        blueprint.setBedrock(new Vector(0, 0, 0));
+        blueprint.setxSize(10);
+        Map<Vector, BlueprintBlock> blocks = new HashMap<>();
+        blocks.put(new Vector(0, 0, 0), new BlueprintBlock("minecraft:bedrock"));
+        blocks.put(new Vector(-3, 5, 8), new BlueprintBlock("minecraft:stone"));
+        blocks.put(new Vector(4, -2, -7), new BlueprintBlock("minecraft:stone"));
+        BlueprintBlock sign = new BlueprintBlock("minecraft:oak_sign");
+        sign.setSignLines(Arrays.asList("a", "b", "c", "d"));
+        blocks.put(new Vector(1, 1, 1), sign);
+        blueprint.setBlocks(blocks);
+        Map<Vector, BlueprintBlock> attached = new HashMap<>();
+        attached.put(new Vector(2, 2, 2), new BlueprintBlock("minecraft:torch"));
+        blueprint.setAttached(attached);
+        BlueprintEntity cow = new BlueprintEntity();
+        cow.setType(EntityType.COW);
+        blueprint.setEntities(Collections.singletonMap(new Vector(1, 2, 3), Collections.singletonList(cow)));
+        assertTrue(bcm.saveBlueprint(blueprint));
+        assertTrue(bcm.isCompact("test123"));
+
+        // Load it back
+        Blueprint bp = bcm.loadBlueprint("test123");
+        assertEquals("test123", bp.getName());
+        assertEquals(Collections.singletonList("A test"), bp.getDescription());
+        assertEquals(10, bp.getxSize());
+        assertEquals(new Vector(0, 0, 0), bp.getBedrock());
+        assertEquals(4, bp.getBlocks().size());
+        assertEquals("minecraft:stone", bp.getBlocks().get(new Vector(-3, 5, 8)).getBlockData());
+        assertEquals("minecraft:stone", bp.getBlocks().get(new Vector(4, -2, -7)).getBlockData());
+        assertEquals("minecraft:bedrock", bp.getBlocks().get(new Vector(0, 0, 0)).getBlockData());
+        assertEquals("minecraft:oak_sign", bp.getBlocks().get(new Vector(1, 1, 1)).getBlockData());
+        assertEquals(Arrays.asList("a", "b", "c", "d"), bp.getBlocks().get(new Vector(1, 1, 1)).getSignLines());
+        assertEquals(1, bp.getAttached().size());
+        assertEquals("minecraft:torch", bp.getAttached().get(new Vector(2, 2, 2)).getBlockData());
+        assertEquals(EntityType.COW, bp.getEntities().get(new Vector(1, 2, 3)).get(0).getType());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.BlueprintClipboardManager#saveBlueprint(world.bentobox.bentobox.blueprints.Blueprint, boolean)}.
+     * @throws IOException
+     */
+    @Test
+    public void testSaveBlueprintJSON() throws IOException {
+        BlueprintClipboardManager bcm = new BlueprintClipboardManager(plugin, blueprintFolder);
+        Blueprint blueprint = new Blueprint();
+        blueprint.setName("test123");
+        blueprint.setBedrock(new Vector(0, 0, 0));
+        blueprint.setBlocks(Collections.singletonMap(new Vector(0, 0, 0), new BlueprintBlock("minecraft:bedrock")));
+        assertTrue(bcm.saveBlueprint(blueprint, false));
+        assertFalse(bcm.isCompact("test123"));
+        Blueprint bp = bcm.loadBlueprint("test123");
+        assertEquals("minecraft:bedrock", bp.getBlocks().get(new Vector(0, 0, 0)).getBlockData());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.BlueprintClipboardManager#loadBlueprint(java.lang.String)}.
+     * @throws IOException
+     */
+    @Test
+    public void testLoadBlueprintCompactError() throws IOException {
+        blueprintFolder.mkdirs();
+        File file = new File(blueprintFolder, "blueprint.blu");
+        Files.write(file.toPath(), "BBPC not deflated".getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
+        BlueprintClipboardManager bcm = new BlueprintClipboardManager(plugin, blueprintFolder);
+        try {
+            bcm.loadBlueprint(BLUEPRINT);
+        } catch (Exception e) {
+            assertTrue(e instanceof IOException);
+        } finally {
+            verify(plugin).logError(Mockito.startsWith("Blueprint has format error: blueprint.blu"));
+        }
+    }
 }
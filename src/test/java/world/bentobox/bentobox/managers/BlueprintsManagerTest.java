@@ -46,6 +46,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.addons.AddonDescription;
 import world.bentobox.bentobox.api.addons.GameModeAddon;
@@ -70,6 +71,8 @@ public class BlueprintsManagerTest {
     @Mock
     private BentoBox plugin;
     @Mock
+    private Settings settings;
+    @Mock
     private GameModeAddon addon;
     @Mock
     private Island island;
@@ -113,6 +116,7 @@ public class BlueprintsManagerTest {
         Map<Vector, BlueprintBlock> map = new HashMap<>();
         map.put(new Vector(0,0,0), new BlueprintBlock("minecraft:bedrock"));
         defaultBp.setBlocks(map);
+        when(plugin.getSettings()).thenReturn(settings);
         // Scheduler
         PowerMockito.mockStatic(Bukkit.class);
         when(Bukkit.getScheduler()).thenReturn(scheduler);
@@ -322,6 +326,33 @@ public class BlueprintsManagerTest {
         verify(plugin, Mockito.times(2)).log("Loaded blueprint 'bedrock' for name");
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.BlueprintsManager#loadBlueprints(world.bentobox.bentobox.api.addons.GameModeAddon)}.
+     */
+    @Test
+    public void testLoadBlueprintsConvertToCompact() throws IOException {
+        when(scheduler.runTaskAsynchronously(eq(plugin), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.getArgument(1,Runnable.class).run();
+            return task;
+        });
+        BlueprintsManager bpm = new BlueprintsManager(plugin);
+        // Makes the default files as zipped JSON
+        bpm.loadBlueprintBundles(addon);
+        File blueprints = new File(dataFolder, BlueprintsManager.FOLDER_NAME);
+        File bp = new File(blueprints, "bedrock" + BlueprintsManager.BLUEPRINT_SUFFIX);
+        File backup = new File(blueprints, "bedrock" + BlueprintsManager.BLUEPRINT_SUFFIX + ".json.bak");
+        long length = bp.length();
+        // Convert
+        when(settings.isCompactBlueprints()).thenReturn(true);
+        bpm.loadBlueprints(addon);
+        verify(plugin).log("Converted blueprint 'bedrock' to the compact format");
+        assertTrue(backup.exists());
+        assertEquals(length, backup.length());
+        assertTrue(new BlueprintClipboardManager(plugin, blueprints).isCompact("bedrock"));
+        // Nothing is left behind
+        assertFalse(new File(blueprints, "bedrock" + BlueprintsManager.BLUEPRINT_SUFFIX + ".tmp").exists());
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.managers.BlueprintsManager#addBlueprint(world.bentobox.bentobox.api.addons.GameModeAddon, world.bentobox.bentobox.blueprints.Blueprint)}.
      */
@@ -3,6 +3,8 @@ package world.bentobox.bentobox.managers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -151,4 +153,23 @@ public class FlagsManagerTest {
 
     }
 
+    /**
+     * Test for {@link FlagsManager#getFlagByOrdinal(int)}
+     */
+    @Test
+    public void testGetFlagByOrdinal() {
+        FlagsManager fm = new FlagsManager(plugin);
+        assertNull(fm.getFlagByOrdinal(0));
+        assertNull(fm.getFlagByOrdinal(Flags.values().size() + 1));
+        Flags.values().forEach(flag -> assertSame(flag, fm.getFlagByOrdinal(flag.getOrdinal())));
+        // Duplicates share the ordinal of the registered flag
+        Flag dupe = new Flag.Builder(Flags.BREAK_BLOCKS.getID(), Material.STONE).build();
+        assertFalse(fm.registerFlag(dupe));
+        assertEquals(Flags.BREAK_BLOCKS.getOrdinal(), dupe.getOrdinal());
+        // New flags are given the next ordinal
+        Flag flag = new Flag.Builder("ORDINAL", Material.STONE).build();
+        assertTrue(fm.registerFlag(flag));
+        assertEquals(Flags.values().size() + 1, flag.getOrdinal());
+    }
+
 }
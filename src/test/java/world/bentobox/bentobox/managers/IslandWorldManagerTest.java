@@ -399,6 +399,23 @@ public class IslandWorldManagerTest {
         assertFalse(iwm.isIslandEnd(world));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.IslandWorldManager#getOverWorld(org.bukkit.World)}.
+     */
+    @Test
+    public void testGetOverWorldWorld() {
+        assertEquals(world, iwm.getOverWorld(world));
+        // Nether and end are not generated
+        assertNull(iwm.getOverWorld(netherWorld));
+        assertNull(iwm.getOverWorld(endWorld));
+        assertNull(iwm.getOverWorld((World)null));
+        when(ws.isNetherGenerate()).thenReturn(true);
+        when(ws.isEndGenerate()).thenReturn(true);
+        iwm.addGameMode(gm);
+        assertEquals(world, iwm.getOverWorld(netherWorld));
+        assertEquals(world, iwm.getOverWorld(endWorld));
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.managers.IslandWorldManager#getNetherWorld(org.bukkit.World)}.
      */
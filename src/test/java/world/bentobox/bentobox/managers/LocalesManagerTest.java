@@ -2,6 +2,7 @@ package world.bentobox.bentobox.managers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -36,6 +37,7 @@ import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.addons.Addon;
 import world.bentobox.bentobox.api.addons.AddonDescription;
+import world.bentobox.bentobox.api.localization.MessageTemplate;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.util.Util;
 
@@ -241,6 +243,34 @@ public class LocalesManagerTest {
     }
 
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.LocalesManager#getTemplate(User, String, String, String)}.
+     * @throws IOException
+     */
+    @Test
+    public void testGetTemplate() throws IOException {
+        File localeDir = new File(plugin.getDataFolder(), LOCALE_FOLDER + File.separator + BENTOBOX);
+        localeDir.mkdirs();
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("test.test", "[prefix_bentobox]test [name]");
+        yaml.set("bskyblock.test.test", "[prefix_bentobox]bskyblock test");
+        yaml.set("prefixes.bentobox", "BentoBox: ");
+        yaml.save(new File(localeDir, Locale.US.toLanguageTag() + ".yml"));
+        LocalesManager lm = new LocalesManager(plugin);
+        User user = mock(User.class);
+        when(user.getLocale()).thenReturn(Locale.US);
+        MessageTemplate t = lm.getTemplate(user, "", "", "test.test");
+        assertEquals("BentoBox: test tasty", t.render(null, null, "[name]", "tasty"));
+        // Compiled once
+        assertSame(t, lm.getTemplate(user, "", "", "test.test"));
+        // Addon translation first
+        assertEquals("BentoBox: bskyblock test", lm.getTemplate(user, "bskyblock.", "", "test.test").render(null, null));
+        assertNull(lm.getTemplate(user, "", "", "test.test.test"));
+        // Compiled again after the translations change
+        lm.clearTemplates();
+        assertEquals("BentoBox: test tasty", lm.getTemplate(user, "", "", "test.test").render(null, null, "[name]", "tasty"));
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.managers.LocalesManager#getAvailableLocales(boolean)}.
      * @throws IOException
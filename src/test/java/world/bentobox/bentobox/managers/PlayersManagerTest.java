@@ -5,9 +5,14 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
@@ -15,7 +20,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
@@ -24,11 +32,13 @@ import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -40,6 +50,7 @@ import world.bentobox.bentobox.Settings;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.Database;
 import world.bentobox.bentobox.database.DatabaseSetup.DatabaseType;
+import world.bentobox.bentobox.database.objects.Names;
 import world.bentobox.bentobox.database.objects.Players;
 import world.bentobox.bentobox.util.Util;
 
@@ -237,6 +248,277 @@ public class PlayersManagerTest {
         assertTrue(pm.isKnown(notUUID));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#prefetch(java.util.UUID)}.
+     */
+    @Test
+    public void testPrefetch() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players p = new Players(plugin, uuid);
+        when(db.objectExists(uuid.toString())).thenReturn(true);
+        when(db.loadObject(uuid.toString())).thenReturn(p);
+        pm.prefetch(uuid);
+        verify(db).loadObject(uuid.toString());
+        // Joining only uses what was loaded
+        Mockito.clearInvocations(db);
+        assertTrue(pm.isKnown(uuid));
+        pm.addPlayer(uuid);
+        assertEquals(p, pm.getPlayer(uuid));
+        verify(db, never()).objectExists(any());
+        verify(db, never()).loadObject(any());
+        assertEquals(1, pm.getPrefetchHits());
+        assertEquals(0, pm.getPrefetchMisses());
+        assertTrue(pm.getAveragePrefetchTime() >= 0D);
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#prefetch(java.util.UUID)}.
+     */
+    @Test
+    public void testPrefetchUnknownPlayer() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        pm.prefetch(uuid);
+        verify(db, never()).loadObject(any());
+        Mockito.clearInvocations(db);
+        assertFalse(pm.isKnown(uuid));
+        assertEquals(uuid.toString(), pm.getPlayer(uuid).getUniqueId());
+        verify(db, never()).objectExists(any());
+        assertEquals(1, pm.getPrefetchHits());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#prefetch(java.util.UUID)}.
+     */
+    @Test
+    public void testPrefetchCachedPlayer() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players cached = pm.getPlayer(uuid);
+        Players loaded = new Players(plugin, uuid);
+        when(db.objectExists(uuid.toString())).thenReturn(true);
+        when(db.loadObject(uuid.toString())).thenReturn(loaded);
+        pm.prefetch(uuid);
+        // The player in the cache is kept
+        pm.addPlayer(uuid);
+        assertEquals(cached, pm.getPlayer(uuid));
+        assertTrue(Whitebox.<Map<UUID, ?>>getInternalState(pm, "prefetched").isEmpty());
+        assertEquals(0, pm.getPrefetchHits());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#prefetch(java.util.UUID)}.
+     */
+    @Test
+    public void testPrefetchExpired() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        pm.prefetch(uuid);
+        // The player did not join in time
+        Object p = Whitebox.<Map<UUID, ?>>getInternalState(pm, "prefetched").get(uuid);
+        Whitebox.setInternalState(p, "time", System.nanoTime() - TimeUnit.MINUTES.toNanos(2));
+        pm.prefetch(UUID.randomUUID());
+        assertEquals(1, Whitebox.<Map<UUID, ?>>getInternalState(pm, "prefetched").size());
+        pm.addPlayer(uuid);
+        assertEquals(0, pm.getPrefetchHits());
+        assertEquals(1, pm.getPrefetchMisses());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#discardPrefetch(java.util.UUID)}.
+     */
+    @Test
+    public void testDiscardPrefetch() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        pm.prefetch(uuid);
+        pm.discardPrefetch(uuid);
+        pm.addPlayer(uuid);
+        verify(db, Mockito.times(2)).objectExists(uuid.toString());
+        assertEquals(0, pm.getPrefetchHits());
+        assertEquals(1, pm.getPrefetchMisses());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#addPlayer(java.util.UUID)}.
+     */
+    @Test
+    public void testAddPlayerCacheSize() {
+        when(plugin.getSettings().getPlayerCacheSize()).thenReturn(1);
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players p = pm.getPlayer(uuid);
+        pm.addPlayer(notUUID);
+        // The least recently used player is saved and dropped
+        assertEquals(1, pm.getPlayers().size());
+        verify(db).saveObject(p);
+        // Needed again before the save is written, the same player is put back without loading them
+        Mockito.clearInvocations(db);
+        assertSame(p, pm.getPlayer(uuid));
+        verify(db, never()).objectExists(any());
+        assertEquals(1, pm.getPlayers().size());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#addPlayer(java.util.UUID)}.
+     */
+    @Test
+    public void testAddPlayerCacheSizeSaveNotWritten() {
+        when(plugin.getSettings().getPlayerCacheSize()).thenReturn(1);
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players p = pm.getPlayer(uuid);
+        pm.addPlayer(notUUID);
+        // The save has not been written when more players are dropped, so the player is kept
+        pm.addPlayer(UUID.randomUUID());
+        Mockito.clearInvocations(db);
+        assertSame(p, pm.getPlayer(uuid));
+        verify(db, never()).objectExists(any());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#addPlayer(java.util.UUID)}.
+     */
+    @Test
+    public void testAddPlayerCacheSizeSaveWritten() {
+        when(plugin.getSettings().getPlayerCacheSize()).thenReturn(1);
+        when(plugin.isEnabled()).thenReturn(true);
+        BukkitScheduler sch = Bukkit.getScheduler();
+        when(sch.runTask(any(), any(Runnable.class))).thenAnswer(i -> {
+            when(Bukkit.isPrimaryThread()).thenReturn(true);
+            i.<Runnable>getArgument(1).run();
+            return null;
+        });
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        pm.getPlayer(uuid);
+        pm.addPlayer(notUUID);
+        // The save is written in another thread, and the player is forgotten in the main thread
+        ArgumentCaptor<Runnable> written = ArgumentCaptor.forClass(Runnable.class);
+        verify(db).whenWritten(eq(uuid.toString()), written.capture());
+        written.getValue().run();
+        verify(sch).runTask(eq(plugin), any(Runnable.class));
+        Mockito.clearInvocations(db);
+        pm.getPlayer(uuid);
+        verify(db).objectExists(uuid.toString());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#addPlayer(java.util.UUID)}.
+     */
+    @Test
+    public void testAddPlayerCacheSizeSavedAgain() {
+        when(plugin.getSettings().getPlayerCacheSize()).thenReturn(1);
+        when(Bukkit.isPrimaryThread()).thenReturn(true);
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players p = pm.getPlayer(uuid);
+        pm.addPlayer(notUUID);
+        ArgumentCaptor<Runnable> written = ArgumentCaptor.forClass(Runnable.class);
+        verify(db).whenWritten(eq(uuid.toString()), written.capture());
+        // A newer save is waiting when the first one has been written, so the player is kept
+        when(db.isWritePending(uuid.toString())).thenReturn(true);
+        written.getValue().run();
+        Mockito.clearInvocations(db);
+        assertSame(p, pm.getPlayer(uuid));
+        verify(db, never()).objectExists(any());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#getPlayers()}.
+     */
+    @Test
+    public void testGetPlayersWhileUsed() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        pm.getPlayer(uuid);
+        pm.getPlayer(notUUID);
+        // Using players that are in the cache does not change it
+        for (Players p : pm.getPlayers()) {
+            assertNotNull(pm.getPlayer(uuid));
+            assertEquals(p.getUniqueId(), pm.getPlayer(UUID.fromString(p.getUniqueId())).getUniqueId());
+        }
+        assertEquals(2, pm.getPlayers().size());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#addPlayer(java.util.UUID)}.
+     */
+    @Test
+    public void testAddPlayerCacheSizeOnlinePlayer() {
+        when(plugin.getSettings().getPlayerCacheSize()).thenReturn(1);
+        when(Bukkit.getPlayer(uuid)).thenReturn(mock(Player.class));
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players online = pm.getPlayer(uuid);
+        Players offline = pm.getPlayer(notUUID);
+        UUID third = UUID.randomUUID();
+        pm.addPlayer(third);
+        // Online players are never dropped
+        assertEquals(2, pm.getPlayers().size());
+        assertTrue(pm.getPlayers().contains(online));
+        assertFalse(pm.getPlayers().contains(offline));
+        verify(db).saveObject(offline);
+        verify(db, never()).saveObject(online);
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#asyncSaveAll()}.
+     */
+    @Test
+    public void testAsyncSaveAll() {
+        when(plugin.isEnabled()).thenReturn(true);
+        BukkitScheduler sch = Bukkit.getScheduler();
+        when(sch.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(mock(BukkitTask.class));
+        when(Bukkit.getPlayer(uuid)).thenReturn(mock(Player.class));
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players online = pm.getPlayer(uuid);
+        Players offline = pm.getPlayer(notUUID);
+        pm.asyncSaveAll();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(sch).runTaskTimer(eq(plugin), captor.capture(), eq(0L), eq(1L));
+        captor.getValue().run();
+        // Both are saved, and the offline player is dropped
+        verify(db).saveObject(online);
+        verify(db).saveObject(offline);
+        assertEquals(1, pm.getPlayers().size());
+        assertTrue(pm.getPlayers().contains(online));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#getNameAsync(java.util.UUID)}.
+     */
+    @Test
+    public void testGetNameAsync() {
+        BukkitScheduler sch = Bukkit.getScheduler();
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenAnswer(i -> {
+            i.<Runnable>getArgument(1).run();
+            return null;
+        });
+        when(sch.runTask(any(), any(Runnable.class))).thenAnswer(i -> {
+            i.<Runnable>getArgument(1).run();
+            return null;
+        });
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Players p = new Players(plugin, uuid);
+        p.setPlayerName("tastybento");
+        when(db.objectExists(uuid.toString())).thenReturn(true);
+        when(db.loadObject(uuid.toString())).thenReturn(p);
+        CompletableFuture<String> name = pm.getNameAsync(uuid);
+        assertTrue(name.isDone());
+        assertEquals("tastybento", name.join());
+        verify(sch).runTaskAsynchronously(eq(plugin), any(Runnable.class));
+        // Now in the cache
+        Mockito.clearInvocations(db, sch);
+        assertSame(p, pm.getPlayerAsync(uuid).join());
+        verify(sch, never()).runTaskAsynchronously(any(), any(Runnable.class));
+        verify(db, never()).loadObject(any());
+        assertEquals("", pm.getNameAsync(null).join());
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#setHomeLocation(User, org.bukkit.Location, int)}.
      */
@@ -300,6 +582,83 @@ public class PlayersManagerTest {
         assertEquals(uuid, uuidResult);
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#getUUID(java.lang.String)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetUUIDIndex() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Database<Names> names = mock(Database.class);
+        Whitebox.setInternalState(pm, "names", names);
+        pm.addPlayer(uuid);
+        // Any case, without using the database
+        assertEquals(uuid, pm.getUUID("TastyBento"));
+        verify(names, never()).objectExists(any());
+        // Renamed
+        when(user.getName()).thenReturn("BoxOfBento");
+        pm.setPlayerName(user);
+        assertEquals(uuid, pm.getUUID("boxofbento"));
+        assertNull(pm.getUUID("tastybento"));
+        verify(names).objectExists("tastybento");
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#getUUID(java.lang.String)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetUUIDNamesDatabase() {
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Database<Names> names = mock(Database.class);
+        Whitebox.setInternalState(pm, "names", names);
+        when(names.objectExists("offline")).thenReturn(true);
+        when(names.loadObject("offline")).thenReturn(new Names("offline", notUUID));
+        assertEquals(notUUID, pm.getUUID("offline"));
+        assertEquals(notUUID, pm.getUUID("Offline"));
+        verify(names).loadObject("offline");
+        // Unknown names are only looked up once
+        assertNull(pm.getUUID("nobody"));
+        assertNull(pm.getUUID("nobody"));
+        verify(names).objectExists("nobody");
+        // Until a player with that name joins
+        when(user.getName()).thenReturn("nobody");
+        pm.setPlayerName(user);
+        assertEquals(uuid, pm.getUUID("nobody"));
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#getUUIDAsync(java.lang.String)}.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testGetUUIDAsync() {
+        BukkitScheduler sch = Bukkit.getScheduler();
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenAnswer(i -> {
+            i.<Runnable>getArgument(1).run();
+            return null;
+        });
+        when(sch.runTask(any(), any(Runnable.class))).thenAnswer(i -> {
+            i.<Runnable>getArgument(1).run();
+            return null;
+        });
+        PlayersManager pm = new PlayersManager(plugin);
+        pm.setHandler(db);
+        Database<Names> names = mock(Database.class);
+        Whitebox.setInternalState(pm, "names", names);
+        when(names.objectExists("offline")).thenReturn(true);
+        when(names.loadObject("offline")).thenReturn(new Names("offline", notUUID));
+        assertEquals(notUUID, pm.getUUIDAsync("offline").join());
+        verify(sch).runTaskAsynchronously(eq(plugin), any(Runnable.class));
+        // Now in the index
+        Mockito.clearInvocations(sch);
+        assertEquals(notUUID, pm.getUUIDAsync("offline").join());
+        assertEquals(uuid, pm.getUUIDAsync(uuid.toString()).join());
+        verify(sch, never()).runTaskAsynchronously(any(), any(Runnable.class));
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.managers.PlayersManager#setPlayerName(world.bentobox.bentobox.api.user.User)}.
      */
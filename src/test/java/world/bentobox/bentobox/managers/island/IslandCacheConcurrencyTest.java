@@ -0,0 +1,150 @@
+package world.bentobox.bentobox.managers.island;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * Stress test that reads the {@link IslandCache} from several threads while another thread keeps changing it.
+ * Islands that are never removed must always be found by the readers.
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({BentoBox.class})
+public class IslandCacheConcurrencyTest {
+
+    private static final int DISTANCE = 100;
+    private static final int SIDE = 40;
+    private static final int READERS = 4;
+    private static final int WRITE_ROUNDS = 200;
+
+    @Mock
+    private BentoBox plugin;
+
+    private World world;
+    private IslandCache ic;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        // Do not record invocations, this mock is hammered from many threads
+        world = mock(World.class, withSettings().stubOnly());
+        when(world.getEnvironment()).thenReturn(Environment.NORMAL);
+        ic = new IslandCache();
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private Island makeIsland(int cellX, int cellZ) {
+        Island island = new Island();
+        island.setCenter(new Location(world, cellX * DISTANCE * 2D, 120, cellZ * DISTANCE * 2D));
+        island.setRange(DISTANCE);
+        island.setOwner(UUID.randomUUID());
+        return island;
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws InterruptedException {
+        // Stable islands are on even cells, churned islands are on odd cells
+        List<Island> stable = new ArrayList<>();
+        List<Island> churn = new ArrayList<>();
+        for (int x = 0; x < SIDE; x++) {
+            for (int z = 0; z < SIDE; z++) {
+                Island island = makeIsland(x, z);
+                if ((x + z) % 2 == 0) {
+                    stable.add(island);
+                    assertTrue(ic.addIsland(island));
+                } else {
+                    churn.add(island);
+                }
+            }
+        }
+        Queue<String> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + 1);
+        for (int r = 0; r < READERS; r++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    while (running.get()) {
+                        for (Island island : stable) {
+                            if (ic.getIslandAt(island.getCenter()) != island) {
+                                errors.add("getIslandAt missed " + island.getCenter());
+                            }
+                            if (ic.get(world, island.getOwner()) != island) {
+                                errors.add("get(World, UUID) missed " + island.getOwner());
+                            }
+                            if (ic.getIslandById(island.getUniqueId()) != island) {
+                                errors.add("getIslandById missed " + island.getUniqueId());
+                            }
+                        }
+                        // Churned islands may or may not be there, but lookups must not fail
+                        for (Island island : churn) {
+                            Island found = ic.getIslandAt(island.getCenter());
+                            if (found != null && found != island) {
+                                errors.add("getIslandAt returned the wrong island at " + island.getCenter());
+                            }
+                        }
+                        ic.getIslands(world).forEach(Island::getUniqueId);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    errors.add(e.toString());
+                }
+            });
+        }
+        executor.execute(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < WRITE_ROUNDS; i++) {
+                    churn.forEach(ic::addIsland);
+                    churn.forEach(ic::deleteIslandFromCache);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                errors.add(e.toString());
+            } finally {
+                running.set(false);
+            }
+        });
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        assertTrue(errors.isEmpty() ? "" : errors.size() + " errors, first: " + errors.peek(), errors.isEmpty());
+    }
+}
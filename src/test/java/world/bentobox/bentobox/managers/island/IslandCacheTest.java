@@ -97,6 +97,7 @@ public class IslandCacheTest {
         when(island.getMemberSet()).thenReturn(members.build());
         when(island.getMinX()).thenReturn(-200);
         when(island.getMinZ()).thenReturn(-200);
+        when(island.getUniqueId()).thenReturn("uniqueId");
 
         // New cache
         ic = new IslandCache();
@@ -323,4 +324,130 @@ public class IslandCacheTest {
         ic.resetAllFlags(world);
         verify(island).setFlagsDefaults();
     }
+
+    /**
+     * Test for {@link IslandCache#getIslands(World)}
+     */
+    @Test
+    public void testGetIslandsWorld() {
+        assertTrue(ic.getIslands(world).isEmpty());
+        ic.addIsland(island);
+        assertEquals(1, ic.getIslands(world).size());
+        assertTrue(ic.getIslands(world).contains(island));
+        ic.deleteIslandFromCache(island);
+        assertTrue(ic.getIslands(world).isEmpty());
+    }
+
+    /**
+     * Test for {@link IslandCache#nameExists(World, String)} and {@link IslandCache#setName(Island, String)}
+     */
+    @Test
+    public void testNameExists() {
+        when(island.getName()).thenReturn("name");
+        ic.addIsland(island);
+        assertTrue(ic.nameExists(world, "name"));
+        assertFalse(ic.nameExists(world, "other"));
+        // Rename
+        ic.setName(island, "other");
+        verify(island).setName("other");
+        when(island.getName()).thenReturn("other");
+        assertTrue(ic.nameExists(world, "other"));
+        assertFalse(ic.nameExists(world, "name"));
+        // Remove
+        ic.removeIsland(island);
+        assertFalse(ic.nameExists(world, "other"));
+    }
+
+    /**
+     * Test for {@link IslandCache#setName(Island, String)}
+     */
+    @Test
+    public void testSetNameNotCached() {
+        Island other = mock(Island.class);
+        when(other.getWorld()).thenReturn(world);
+        when(other.getUniqueId()).thenReturn("other");
+        ic.addIsland(island);
+        // An island that is not in the cache, such as a copy, is named but not indexed
+        ic.setName(other, "copy");
+        verify(other).setName("copy");
+        when(other.getName()).thenReturn("copy");
+        assertFalse(ic.nameExists(world, "copy"));
+    }
+
+    /**
+     * Test for {@link IslandCache#nameExists(World, String)}
+     */
+    @Test
+    public void testNameExistsEmptyName() {
+        when(island.getName()).thenReturn("");
+        ic.addIsland(island);
+        assertFalse(ic.nameExists(world, ""));
+        // Named later through the cache, the empty name was never indexed
+        ic.setName(island, "name");
+        when(island.getName()).thenReturn("name");
+        assertTrue(ic.nameExists(world, "name"));
+    }
+
+    /**
+     * Test for {@link IslandCache#get(World, UUID)}, {@link IslandCache#getIslands(World)} and
+     * {@link IslandCache#size(World)} when the world cannot be resolved
+     */
+    @Test
+    public void testNullWorld() {
+        ic.addIsland(island);
+        when(Util.getWorld(Mockito.any())).thenReturn(null);
+        assertNull(ic.get(null, owner));
+        assertNull(ic.get(world, owner));
+        assertTrue(ic.getIslands(null).isEmpty());
+        assertFalse(ic.hasIsland(world, owner));
+        assertEquals(0, ic.size(null));
+        assertNull(ic.removePlayer(world, owner));
+        assertFalse(ic.nameExists(world, "name"));
+        ic.resetFlag(world, flag);
+        ic.resetAllFlags(world);
+        verify(island, Mockito.never()).setFlag(any(), Mockito.anyInt());
+        verify(island, Mockito.never()).setFlagsDefaults();
+    }
+
+    /**
+     * Test for {@link IslandCache#getIslandAt(Location)} when the world cannot be resolved
+     */
+    @Test
+    public void testGetIslandAtNullWorld() {
+        when(island.inIslandSpace(Mockito.any(Integer.class), Mockito.any(Integer.class))).thenReturn(true);
+        ic.addIsland(island);
+        when(Util.getWorld(Mockito.any())).thenReturn(null);
+        when(location.getWorld()).thenReturn(null);
+        assertNull(ic.getIslandAt(location));
+    }
+
+    /**
+     * Test for {@link IslandCache#addIsland(Island)}, {@link IslandCache#setOwner(Island, UUID)},
+     * {@link IslandCache#removeIsland(Island)} and {@link IslandCache#deleteIslandFromCache(Island)}
+     * with an island that has no world
+     */
+    @Test
+    public void testIslandNullWorld() {
+        when(island.getWorld()).thenReturn(null);
+        when(Util.getWorld(Mockito.any())).thenReturn(null);
+        assertTrue(ic.addIsland(island));
+        assertEquals(0, ic.size());
+        ic.addPlayer(owner, island);
+        ic.setOwner(island, owner);
+        assertEquals(island, ic.getIslandById("uniqueId"));
+        ic.removeIsland(island);
+        assertNull(ic.getIslandById("uniqueId"));
+        assertFalse(ic.deleteIslandFromCache(island));
+    }
+
+    /**
+     * Test for {@link IslandCache#getIslandById(String)}
+     */
+    @Test
+    public void testGetIslandByIdNull() {
+        ic.addIsland(island);
+        assertEquals(island, ic.getIslandById("uniqueId"));
+        assertNull(ic.getIslandById(null));
+        assertNull(ic.get((Location)null));
+    }
 }
@@ -0,0 +1,212 @@
+package world.bentobox.bentobox.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+import world.bentobox.bentobox.managers.IslandsManager;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+public class IslandChunkCacheTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private IslandsManager im;
+    @Mock
+    private IslandWorldManager iwm;
+    @Mock
+    private IslandCache islandCache;
+    @Mock
+    private Island island;
+    @Mock
+    private World world;
+    @Mock
+    private Location location;
+
+    private IslandChunkCache cache;
+
+    @Before
+    public void setUp() {
+        when(plugin.getIWM()).thenReturn(iwm);
+        when(iwm.inWorld(any(World.class))).thenReturn(true);
+        when(iwm.getIslandDistance(any())).thenReturn(50);
+        when(im.getIslandCache()).thenReturn(islandCache);
+        // Island protecting x and z from -50 to 49
+        when(island.getMinProtectedX()).thenReturn(-50);
+        when(island.getMinProtectedZ()).thenReturn(-50);
+        when(island.getProtectionRange()).thenReturn(50);
+        when(islandCache.getIslandAt(any())).thenReturn(island);
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(true);
+
+        cache = new IslandChunkCache(plugin, im);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetNotInWorld() {
+        when(iwm.inWorld(any(World.class))).thenReturn(false);
+        ChunkIslands chunk = cache.get(world, 0, 0);
+        assertTrue(chunk.getIslands().isEmpty());
+        assertFalse(chunk.isFullyProtected());
+        assertEquals(Optional.empty(), chunk.getProtectedIslandAt(location));
+        verify(islandCache, never()).getIslandAt(any());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetFullyProtected() {
+        ChunkIslands chunk = cache.get(world, 0, 0);
+        assertTrue(chunk.isFullyProtected());
+        assertSame(island, chunk.getProtectingIsland());
+        assertEquals(Optional.of(island), chunk.getProtectedIslandAt(location));
+        // Only the corners are looked at
+        verify(islandCache, times(4)).getIslandAt(any());
+        // Fully protected chunks do not need the island to check
+        verify(island, never()).onIsland(any());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetEdgeOfProtection() {
+        // Blocks -64 to -49, so partly outside the protected area
+        ChunkIslands chunk = cache.get(world, -4, 0);
+        assertFalse(chunk.isFullyProtected());
+        assertNull(chunk.getProtectingIsland());
+        assertEquals(1, chunk.getIslands().size());
+        assertEquals(Optional.empty(), chunk.getProtectedIslandAt(location));
+        when(island.onIsland(location)).thenReturn(true);
+        assertEquals(Optional.of(island), chunk.getProtectedIslandAt(location));
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetSmallIslands() {
+        when(iwm.getIslandDistance(any())).thenReturn(4);
+        cache.get(world, 0, 0);
+        // Every column is looked at
+        verify(islandCache, times(256)).getIslandAt(any());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetCached() {
+        ChunkIslands chunk = cache.get(world, 0, 0);
+        // Lots of liquid flowing in the chunk
+        for (int i = 0; i < 10000; i++) {
+            assertSame(chunk, cache.get(world, 0, 0));
+        }
+        verify(islandCache, times(4)).getIslandAt(any());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetNotLoaded() {
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(false);
+        assertTrue(cache.get(world, 0, 0).isFullyProtected());
+        assertTrue(cache.get(world, 0, 0).isFullyProtected());
+        // Worked out each time and not remembered
+        verify(islandCache, times(8)).getIslandAt(any());
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetIslandAddedOrRemoved() {
+        ChunkIslands chunk = cache.get(world, 0, 0);
+        when(islandCache.getVersion()).thenReturn(1L);
+        when(islandCache.getIslandAt(any())).thenReturn(null);
+        ChunkIslands chunk2 = cache.get(world, 0, 0);
+        assertFalse(chunk == chunk2);
+        assertFalse(chunk2.isFullyProtected());
+        assertTrue(chunk2.getIslands().isEmpty());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#get(World, int, int)}.
+     */
+    @Test
+    public void testGetRangeChanged() {
+        assertTrue(cache.get(world, 0, 0).isFullyProtected());
+        // Protection range cut down to 5 blocks
+        when(island.getMinProtectedX()).thenReturn(-5);
+        when(island.getMinProtectedZ()).thenReturn(-5);
+        when(island.getProtectionRange()).thenReturn(5);
+        assertFalse(cache.get(world, 0, 0).isFullyProtected());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#onChunkUnload(ChunkUnloadEvent)}.
+     */
+    @Test
+    public void testOnChunkUnload() {
+        cache.get(world, 0, 0);
+        cache.get(world, 1, 0);
+        Chunk chunk = Mockito.mock(Chunk.class);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getX()).thenReturn(1);
+        cache.onChunkUnload(new ChunkUnloadEvent(chunk));
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * Test method for {@link IslandChunkCache#onWorldUnload(WorldUnloadEvent)}.
+     */
+    @Test
+    public void testOnWorldUnload() {
+        cache.get(world, 0, 0);
+        cache.get(world, 1, 0);
+        cache.onWorldUnload(new WorldUnloadEvent(world));
+        assertEquals(0, cache.size());
+    }
+}
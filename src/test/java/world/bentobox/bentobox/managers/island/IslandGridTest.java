@@ -0,0 +1,179 @@
+package world.bentobox.bentobox.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.TreeMap;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.database.objects.Island;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({BentoBox.class})
+public class IslandGridTest {
+
+    private static final int DISTANCE = 100;
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private World world;
+
+    private IslandGrid grid;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        grid = new IslandGrid();
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private Island makeIsland(int x, int z, int range) {
+        Island island = new Island();
+        island.setCenter(new Location(world, x, 120, z));
+        island.setRange(range);
+        return island;
+    }
+
+    /**
+     * Test method for {@link IslandGrid#IslandGrid(int, int, int)}.
+     */
+    @Test
+    public void testGridFromWorldSettings() {
+        grid = new IslandGrid(DISTANCE, 0, 0);
+        // A legacy island added first does not set the grid
+        Island legacy = makeIsland(DISTANCE * 10 + 7, 0, DISTANCE / 2);
+        Island island = makeIsland(0, 0, DISTANCE);
+        Island east = makeIsland(DISTANCE * 2, 0, DISTANCE);
+        assertTrue(grid.addToGrid(legacy));
+        assertTrue(grid.addToGrid(island));
+        assertTrue(grid.addToGrid(east));
+        assertSame(legacy, grid.getIslandAt(DISTANCE * 10 + 7, 0));
+        assertSame(island, grid.getIslandAt(0, 0));
+        assertSame(east, grid.getIslandAt(DISTANCE * 2, 0));
+        // Only the legacy island is in the fallback map
+        assertEquals(1, Whitebox.<TreeMap<?, ?>>getInternalState(grid, "grid").size());
+        assertEquals(3, grid.size());
+    }
+
+    /**
+     * Test method for {@link IslandGrid#getIslandAt(int, int)}.
+     */
+    @Test
+    public void testGetIslandAtOnGrid() {
+        Island island = makeIsland(0, 0, DISTANCE);
+        Island east = makeIsland(DISTANCE * 2, 0, DISTANCE);
+        assertTrue(grid.addToGrid(island));
+        assertTrue(grid.addToGrid(east));
+        assertSame(island, grid.getIslandAt(0, 0));
+        assertSame(island, grid.getIslandAt(-DISTANCE, -DISTANCE));
+        assertSame(island, grid.getIslandAt(DISTANCE - 1, DISTANCE - 1));
+        assertSame(east, grid.getIslandAt(DISTANCE, 0));
+        assertSame(east, grid.getIslandAt(DISTANCE * 3 - 1, 0));
+        assertNull(grid.getIslandAt(DISTANCE * 3, 0));
+        assertNull(grid.getIslandAt(0, DISTANCE));
+    }
+
+    /**
+     * Test method for {@link IslandGrid#getIslandAt(int, int)}.
+     */
+    @Test
+    public void testGetIslandAtOffGrid() {
+        Island island = makeIsland(0, 0, DISTANCE);
+        // Different range and not aligned to the grid
+        Island legacy = makeIsland(1000 + 7, 1000 + 3, 50);
+        assertTrue(grid.addToGrid(island));
+        assertTrue(grid.addToGrid(legacy));
+        assertSame(legacy, grid.getIslandAt(1007, 1003));
+        assertSame(legacy, grid.getIslandAt(957, 953));
+        assertNull(grid.getIslandAt(956, 953));
+        assertSame(island, grid.getIslandAt(5, 5));
+        assertEquals(2, grid.size());
+    }
+
+    /**
+     * Test method for {@link IslandGrid#addToGrid(Island)}.
+     */
+    @Test
+    public void testAddToGridDuplicate() {
+        Island island = makeIsland(0, 0, DISTANCE);
+        assertTrue(grid.addToGrid(island));
+        assertFalse(grid.addToGrid(makeIsland(0, 0, DISTANCE)));
+        assertSame(island, grid.getIslandAt(0, 0));
+        assertEquals(1, grid.size());
+    }
+
+    /**
+     * Test method for {@link IslandGrid#removeFromGrid(Island)}.
+     */
+    @Test
+    public void testRemoveFromGrid() {
+        Island island = makeIsland(0, 0, DISTANCE);
+        Island legacy = makeIsland(1007, 1003, 50);
+        assertFalse(grid.removeFromGrid(null));
+        assertFalse(grid.removeFromGrid(island));
+        grid.addToGrid(island);
+        grid.addToGrid(legacy);
+        assertTrue(grid.removeFromGrid(island));
+        assertNull(grid.getIslandAt(0, 0));
+        assertTrue(grid.removeFromGrid(legacy));
+        assertNull(grid.getIslandAt(1007, 1003));
+        assertEquals(0, grid.size());
+    }
+
+    /**
+     * Adds and removes enough islands to force the index to grow and shift entries back on removal.
+     */
+    @Test
+    public void testManyIslands() {
+        int side = 100;
+        Island[][] islands = new Island[side][side];
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                islands[i][j] = makeIsland((i - side / 2) * DISTANCE * 2, (j - side / 2) * DISTANCE * 2, DISTANCE);
+                assertTrue(grid.addToGrid(islands[i][j]));
+            }
+        }
+        assertEquals(side * side, grid.size());
+        // Remove every other island
+        for (int i = 0; i < side; i++) {
+            for (int j = (i % 2); j < side; j += 2) {
+                assertTrue(grid.removeFromGrid(islands[i][j]));
+            }
+        }
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                Island island = islands[i][j];
+                if ((i + j) % 2 == 0) {
+                    assertNull(grid.getIslandAt(island.getX(), island.getZ()));
+                } else {
+                    assertSame(island, grid.getIslandAt(island.getX(), island.getZ()));
+                    assertSame(island, grid.getIslandAt(island.getMinX(), island.getMaxZ() - 1));
+                }
+            }
+        }
+    }
+}
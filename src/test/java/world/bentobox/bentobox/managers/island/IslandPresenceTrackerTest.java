@@ -0,0 +1,224 @@
+package world.bentobox.bentobox.managers.island;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Vehicle;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandEnterEvent;
+import world.bentobox.bentobox.api.events.team.TeamEvent.TeamJoinedEvent;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+import world.bentobox.bentobox.managers.IslandsManager;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class})
+public class IslandPresenceTrackerTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private IslandsManager im;
+    @Mock
+    private IslandWorldManager iwm;
+    @Mock
+    private Island island;
+    @Mock
+    private World world;
+    @Mock
+    private Location onIsland;
+    @Mock
+    private Location onIslandNext;
+    @Mock
+    private Location offIsland;
+    @Mock
+    private Player player;
+
+    private UUID member = UUID.randomUUID();
+    private IslandPresenceTracker tracker;
+
+    @Before
+    public void setUp() {
+        when(plugin.getIslands()).thenReturn(im);
+        when(plugin.getIWM()).thenReturn(iwm);
+        when(iwm.getPermissionPrefix(any())).thenReturn("bskyblock.");
+        when(island.getWorld()).thenReturn(world);
+        when(island.getMemberSet(anyInt())).thenReturn(Collections.singleton(member));
+        when(im.getIslandAt(eq(onIsland))).thenReturn(Optional.of(island));
+        when(im.getIslandAt(eq(onIslandNext))).thenReturn(Optional.of(island));
+        when(im.getIslandAt(eq(offIsland))).thenReturn(Optional.empty());
+        when(island.inIslandSpace(onIsland)).thenReturn(true);
+        when(island.inIslandSpace(onIslandNext)).thenReturn(true);
+        when(island.onIsland(onIsland)).thenReturn(true);
+        when(island.onIsland(onIslandNext)).thenReturn(true);
+        when(onIsland.getBlockX()).thenReturn(10);
+        when(onIslandNext.getBlockX()).thenReturn(11);
+        when(offIsland.getBlockX()).thenReturn(1000);
+        when(onIsland.getWorld()).thenReturn(world);
+        when(onIslandNext.getWorld()).thenReturn(world);
+        when(offIsland.getWorld()).thenReturn(world);
+
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        when(player.getLocation()).thenReturn(offIsland);
+
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getOnlinePlayers()).then(invocation -> Collections.singleton(player));
+
+        tracker = new IslandPresenceTracker(plugin);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#hasMembersOnline(Island)}.
+     */
+    @Test
+    public void testHasMembersOnline() {
+        assertFalse(tracker.hasMembersOnline(island));
+        // The member comes online, but the answer is remembered
+        when(Bukkit.getPlayer(member)).thenReturn(mock(Player.class));
+        assertFalse(tracker.hasMembersOnline(island));
+        assertEquals(1, tracker.getMisses());
+        assertEquals(1, tracker.getHits());
+        // Joining forgets it, and the island the player is in is looked up
+        tracker.onPlayerJoin(new PlayerJoinEvent(player, "hi"));
+        assertTrue(tracker.hasMembersOnline(island));
+        assertEquals(3, tracker.getMisses());
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#onPlayerMove(PlayerMoveEvent)}.
+     */
+    @Test
+    public void testMoveMetrics() {
+        tracker.onPlayerMove(new PlayerMoveEvent(player, offIsland, onIsland));
+        assertEquals(1, tracker.getMisses());
+        // Moving in the same block column
+        tracker.onPlayerMove(new PlayerMoveEvent(player, onIsland, onIsland));
+        assertEquals(1, tracker.getHits());
+        // Moving around in the island space does not look the island up again
+        tracker.onPlayerMove(new PlayerMoveEvent(player, onIsland, onIslandNext));
+        assertEquals(2, tracker.getHits());
+        assertEquals(1, tracker.getMisses());
+        verify(im, times(1)).getIslandAt(any());
+        // Leaving it does
+        tracker.onPlayerMove(new PlayerMoveEvent(player, onIslandNext, offIsland));
+        assertEquals(2, tracker.getMisses());
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#onVehicleMove(VehicleMoveEvent)}.
+     */
+    @Test
+    public void testVehicleMove() {
+        when(player.isOp()).thenReturn(true);
+        Vehicle boat = mock(Vehicle.class);
+        when(boat.getPassengers()).thenReturn(Collections.singletonList(player));
+        tracker.onVehicleMove(new VehicleMoveEvent(boat, offIsland, onIsland));
+        assertTrue(tracker.hasModeratorsOn(island));
+        tracker.onVehicleMove(new VehicleMoveEvent(boat, onIsland, offIsland));
+        assertFalse(tracker.hasModeratorsOn(island));
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#onIslandEvent(world.bentobox.bentobox.api.events.IslandBaseEvent)}.
+     */
+    @Test
+    public void testOnIslandEvent() {
+        assertFalse(tracker.hasMembersOnline(island));
+        when(Bukkit.getPlayer(member)).thenReturn(mock(Player.class));
+        tracker.onIslandEvent(mock(IslandEnterEvent.class));
+        assertFalse(tracker.hasMembersOnline(island));
+        tracker.onIslandEvent(mock(TeamJoinedEvent.class));
+        assertTrue(tracker.hasMembersOnline(island));
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#hasModeratorsOn(Island)}.
+     */
+    @Test
+    public void testModeratorMoves() {
+        when(player.isOp()).thenReturn(true);
+        tracker.onPlayerJoin(new PlayerJoinEvent(player, "hi"));
+        assertFalse(tracker.hasModeratorsOn(island));
+        tracker.onPlayerMove(new PlayerMoveEvent(player, offIsland, onIsland));
+        assertTrue(tracker.hasModeratorsOn(island));
+        assertTrue(tracker.isAttended(island));
+        tracker.onPlayerMove(new PlayerMoveEvent(player, onIsland, offIsland));
+        assertFalse(tracker.hasModeratorsOn(island));
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#hasModeratorsOn(Island)}.
+     */
+    @Test
+    public void testModeratorPermission() {
+        when(player.getLocation()).thenReturn(onIsland);
+        tracker.refresh();
+        assertFalse(tracker.hasModeratorsOn(island));
+        when(player.hasPermission("bskyblock.mod.bypassprotect")).thenReturn(true);
+        tracker.refresh();
+        assertTrue(tracker.hasModeratorsOn(island));
+        tracker.onPlayerQuit(new PlayerQuitEvent(player, "bye"));
+        assertFalse(tracker.hasModeratorsOn(island));
+        assertFalse(tracker.isAttended(island));
+    }
+
+    /**
+     * Test method for {@link IslandPresenceTracker#hasModeratorsOn(Island)}.
+     */
+    @Test
+    public void testModeratorPermissionChanged() {
+        when(Bukkit.getPlayer(player.getUniqueId())).thenReturn(player);
+        tracker.onPlayerMove(new PlayerMoveEvent(player, offIsland, onIsland));
+        assertFalse(tracker.hasModeratorsOn(island));
+        // The permission is given while the player stays on the island
+        when(player.hasPermission("bskyblock.mod.bypassprotect")).thenReturn(true);
+        assertFalse(tracker.hasModeratorsOn(island));
+        // It is seen once the last check is old enough
+        Whitebox.setInternalState(tracker, "moderatorsExpiry", 0L);
+        assertTrue(tracker.hasModeratorsOn(island));
+        // And taken away
+        when(player.hasPermission("bskyblock.mod.bypassprotect")).thenReturn(false);
+        Whitebox.setInternalState(tracker, "moderatorsExpiry", 0L);
+        assertFalse(tracker.hasModeratorsOn(island));
+    }
+}
@@ -0,0 +1,245 @@
+package world.bentobox.bentobox.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Entity;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.generator.ChunkGenerator.BiomeGrid;
+import org.bukkit.generator.ChunkGenerator.ChunkData;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import io.papermc.lib.PaperLib;
+import io.papermc.lib.environments.CraftBukkitEnvironment;
+import world.bentobox.bentobox.BentoBox;
+import world.bentobox.bentobox.Settings;
+import world.bentobox.bentobox.api.addons.GameModeAddon;
+import world.bentobox.bentobox.api.events.island.IslandEvent.IslandDeletedEvent;
+import world.bentobox.bentobox.database.objects.IslandDeletion;
+import world.bentobox.bentobox.managers.IslandWorldManager;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class, BentoBox.class})
+public class DeleteIslandChunksTest {
+
+    @Mock
+    private BentoBox plugin;
+    @Mock
+    private Settings settings;
+    @Mock
+    private IslandWorldManager iwm;
+    @Mock
+    private GameModeAddon gm;
+    @Mock
+    private ChunkGenerator cg;
+    @Mock
+    private ChunkData cd;
+    @Mock
+    private World world;
+    @Mock
+    private Chunk chunk;
+    @Mock
+    private ChunkSnapshot snapshot;
+    @Mock
+    private Block block;
+    @Mock
+    private IslandDeletion di;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+    @Mock
+    private PluginManager pim;
+    @Mock
+    private BlockData air;
+    @Mock
+    private BlockData stone;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(BentoBox.class, "instance", plugin);
+        // Forget anything from the last test
+        Whitebox.<Map<?, ?>>getInternalState(DeleteIslandChunks.class, "voidTemplates").clear();
+        Whitebox.<List<?>>getInternalState(DeleteIslandChunks.class, "inProgress").clear();
+        Whitebox.<List<?>>getInternalState(TickScheduler.class, "jobs").clear();
+        Whitebox.setInternalState(TickScheduler.class, "task", (Object) null);
+        when(plugin.getSettings()).thenReturn(settings);
+        when(settings.getDeleteSpeed()).thenReturn(1);
+        when(settings.getDeleteTickBudget()).thenReturn(1000);
+        when(plugin.getIWM()).thenReturn(iwm);
+        when(iwm.getAddon(any())).thenReturn(Optional.of(gm));
+
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getVersion()).thenReturn("Paper version git-Paper-225 (MC: 1.14.4) (Implementing API version 1.14.4-R0.1-SNAPSHOT)");
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(Bukkit.getPluginManager()).thenReturn(pim);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+        PaperLib.setCustomEnvironment(new CraftBukkitEnvironment());
+
+        // Generator that only makes air
+        when(gm.getDefaultWorldGenerator(any(), any())).thenReturn(cg);
+        when(cg.generateChunkData(any(), any(), anyInt(), anyInt(), any(BiomeGrid.class))).thenReturn(cd);
+        when(air.getMaterial()).thenReturn(Material.AIR);
+        when(stone.getMaterial()).thenReturn(Material.STONE);
+        when(cd.getType(anyInt(), anyInt(), anyInt())).thenReturn(Material.AIR);
+        when(cd.getBlockData(anyInt(), anyInt(), anyInt())).thenReturn(air);
+
+        // World with one chunk that has stone in the bottom section
+        when(world.getName()).thenReturn("bskyblock_world");
+        when(world.getEnvironment()).thenReturn(Environment.NORMAL);
+        when(world.getMaxHeight()).thenReturn(256);
+        when(world.isChunkGenerated(anyInt(), anyInt())).thenReturn(true);
+        when(world.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        when(chunk.getWorld()).thenReturn(world);
+        when(chunk.getTileEntities()).thenReturn(new BlockState[0]);
+        when(chunk.getEntities()).thenReturn(new Entity[0]);
+        when(chunk.getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(snapshot);
+        when(chunk.getBlock(anyInt(), anyInt(), anyInt())).thenReturn(block);
+        when(snapshot.isSectionEmpty(anyInt())).thenReturn(true);
+        when(snapshot.isSectionEmpty(0)).thenReturn(false);
+        when(snapshot.getBlockData(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        when(snapshot.getBlockData(anyInt(), eq(0), anyInt())).thenReturn(stone);
+
+        // Island in one chunk
+        when(di.getWorld()).thenReturn(world);
+        when(di.inBounds(anyInt(), anyInt())).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private Runnable getTask() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runTaskTimer(eq(plugin), captor.capture(), eq(1L), eq(1L));
+        return captor.getValue();
+    }
+
+    /**
+     * Test method for {@link DeleteIslandChunks#DeleteIslandChunks(BentoBox, IslandDeletion)}.
+     */
+    @Test
+    public void testDeleteIslandChunks() {
+        DeleteIslandChunks dic = new DeleteIslandChunks(plugin, di);
+        assertEquals(1, dic.getChunkCount());
+        assertEquals(1, DeleteIslandChunks.getInProgress().size());
+        getTask().run();
+        // Only the stone at y = 0 is changed, the other sections are skipped
+        verify(block, times(256)).setBlockData(air, false);
+        verify(block, times(256)).setType(Material.AIR, false);
+        verify(snapshot, never()).getBlockData(anyInt(), eq(16), anyInt());
+        assertEquals(1, dic.getChunksDone());
+        assertEquals(100D, dic.getProgress(), 0.01D);
+        assertTrue(dic.getChunksPerSecond() > 0);
+        assertTrue(DeleteIslandChunks.getInProgress().isEmpty());
+        verify(pim).callEvent(any(IslandDeletedEvent.class));
+        verify(task).cancel();
+        // The chunk is kept loaded while it is regenerated
+        verify(chunk).addPluginChunkTicket(plugin);
+        verify(chunk).removePluginChunkTicket(plugin);
+        // The chunk was not loaded before, so it is unloaded
+        verify(chunk).unload(true);
+    }
+
+    /**
+     * Test method for {@link DeleteIslandChunks#DeleteIslandChunks(BentoBox, IslandDeletion)}.
+     */
+    @Test
+    public void testDeleteIslandChunksBlocksChanged() {
+        // Stone is placed in the second section after the first one has been done
+        ChunkSnapshot changed = mock(ChunkSnapshot.class);
+        when(changed.isSectionEmpty(anyInt())).thenReturn(true);
+        when(changed.isSectionEmpty(1)).thenReturn(false);
+        when(changed.getBlockData(anyInt(), anyInt(), anyInt())).thenReturn(air);
+        when(changed.getBlockData(anyInt(), eq(16), anyInt())).thenReturn(stone);
+        when(chunk.getChunkSnapshot(anyBoolean(), anyBoolean(), anyBoolean())).thenReturn(snapshot, changed);
+        new DeleteIslandChunks(plugin, di);
+        getTask().run();
+        // Both the stone at y = 0 and at y = 16 are changed
+        verify(block, times(512)).setBlockData(air, false);
+    }
+
+    /**
+     * Test method for {@link DeleteIslandChunks#DeleteIslandChunks(BentoBox, IslandDeletion)}.
+     */
+    @Test
+    public void testDeleteIslandChunksNoBudget() {
+        when(settings.getDeleteTickBudget()).thenReturn(0);
+        DeleteIslandChunks dic = new DeleteIslandChunks(plugin, di);
+        Runnable tick = getTask();
+        // One step per tick: start the chunk, then each of the 16 sections, then finish
+        tick.run();
+        assertEquals(0, dic.getChunksDone());
+        for (int i = 0; i < 17; i++) {
+            tick.run();
+        }
+        assertEquals(1, dic.getChunksDone());
+        assertTrue(DeleteIslandChunks.getInProgress().isEmpty());
+    }
+
+    /**
+     * Test method for {@link DeleteIslandChunks#DeleteIslandChunks(BentoBox, IslandDeletion)}.
+     */
+    @Test
+    public void testDeleteIslandChunksNotGenerated() {
+        when(world.isChunkGenerated(anyInt(), anyInt())).thenReturn(false);
+        DeleteIslandChunks dic = new DeleteIslandChunks(plugin, di);
+        getTask().run();
+        assertEquals(1, dic.getChunksDone());
+        verify(block, never()).setBlockData(any(), anyBoolean());
+        verify(pim).callEvent(any(IslandDeletedEvent.class));
+    }
+
+    /**
+     * Test method for {@link DeleteIslandChunks#DeleteIslandChunks(BentoBox, IslandDeletion)}.
+     */
+    @Test
+    public void testDeleteIslandChunksSpeedZero() {
+        when(settings.getDeleteSpeed()).thenReturn(0);
+        new DeleteIslandChunks(plugin, di);
+        // Blocks are left and the deletion is over
+        verify(scheduler, never()).runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong());
+        verify(pim).callEvent(any(IslandDeletedEvent.class));
+    }
+}
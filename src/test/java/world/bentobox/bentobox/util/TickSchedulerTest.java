@@ -0,0 +1,178 @@
+package world.bentobox.bentobox.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * @author tastybento
+ *
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Bukkit.class})
+public class TickSchedulerTest {
+
+    @Mock
+    private Plugin plugin;
+    @Mock
+    private BukkitScheduler scheduler;
+    @Mock
+    private BukkitTask task;
+
+    /**
+     * Job that takes a number of steps
+     */
+    private static class TestJob implements TickScheduler.Job {
+        private final int budget;
+        private final int size;
+        private boolean waiting;
+        private int steps;
+        private boolean finished;
+
+        TestJob(int budget, int size) {
+            this.budget = budget;
+            this.size = size;
+        }
+
+        @Override
+        public int getTickBudget() {
+            return budget;
+        }
+
+        @Override
+        public boolean step() {
+            if (waiting) {
+                return false;
+            }
+            steps++;
+            return true;
+        }
+
+        @Override
+        public boolean isDone() {
+            return steps >= size;
+        }
+
+        @Override
+        public void finish() {
+            finished = true;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Whitebox.<List<?>>getInternalState(TickScheduler.class, "jobs").clear();
+        Whitebox.setInternalState(TickScheduler.class, "task", (Object) null);
+        PowerMockito.mockStatic(Bukkit.class);
+        when(Bukkit.getScheduler()).thenReturn(scheduler);
+        when(scheduler.runTaskTimer(any(), any(Runnable.class), anyLong(), anyLong())).thenReturn(task);
+    }
+
+    @After
+    public void tearDown() {
+        Mockito.framework().clearInlineMocks();
+    }
+
+    private Runnable getTask() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).runTaskTimer(eq(plugin), captor.capture(), eq(1L), eq(1L));
+        return captor.getValue();
+    }
+
+    /**
+     * Test method for {@link TickScheduler#schedule(Plugin, TickScheduler.Job)}.
+     */
+    @Test
+    public void testSchedule() {
+        TestJob job = new TestJob(1000, 3);
+        TickScheduler.schedule(plugin, job);
+        TickScheduler.schedule(plugin, new TestJob(1000, 3));
+        // Both share one task
+        getTask().run();
+        assertEquals(3, job.steps);
+        assertTrue(job.finished);
+        verify(task).cancel();
+    }
+
+    /**
+     * Test method for {@link TickScheduler#schedule(Plugin, TickScheduler.Job)}.
+     */
+    @Test
+    public void testScheduleNoBudget() {
+        TestJob job1 = new TestJob(0, 2);
+        TestJob job2 = new TestJob(0, 2);
+        TickScheduler.schedule(plugin, job1);
+        TickScheduler.schedule(plugin, job2);
+        Runnable tick = getTask();
+        // One step per tick, taking turns
+        tick.run();
+        assertEquals(1, job1.steps);
+        assertEquals(0, job2.steps);
+        tick.run();
+        assertEquals(1, job2.steps);
+        tick.run();
+        tick.run();
+        assertTrue(job1.finished);
+        assertTrue(job2.finished);
+        verify(task).cancel();
+    }
+
+    /**
+     * Test method for {@link TickScheduler#schedule(Plugin, TickScheduler.Job)}.
+     */
+    @Test
+    public void testScheduleSharedBudget() {
+        TestJob small = new TestJob(0, 5);
+        TestJob large = new TestJob(1000, 5);
+        TickScheduler.schedule(plugin, small);
+        TickScheduler.schedule(plugin, large);
+        getTask().run();
+        // The job with no budget only gets the first step of the tick, the other one carries on
+        assertEquals(1, small.steps);
+        assertTrue(large.finished);
+        verify(task, never()).cancel();
+    }
+
+    /**
+     * Test method for {@link TickScheduler#schedule(Plugin, TickScheduler.Job)}.
+     */
+    @Test
+    public void testScheduleWaiting() {
+        TestJob job = new TestJob(1000, 5);
+        job.waiting = true;
+        TickScheduler.schedule(plugin, job);
+        Runnable tick = getTask();
+        // The tick ends when every job is waiting
+        tick.run();
+        assertEquals(0, job.steps);
+        assertFalse(job.finished);
+        job.waiting = false;
+        tick.run();
+        assertTrue(job.finished);
+        verify(task).cancel();
+    }
+}
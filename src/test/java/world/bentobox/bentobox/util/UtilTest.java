@@ -196,12 +196,46 @@ public class UtilTest {
         assertFalse(Util.sameWorld(world3, world4));
     }
 
+    /**
+     * Test method for {@link world.bentobox.bentobox.util.Util#sameWorld(org.bukkit.World, org.bukkit.World)}.
+     */
+    @Test
+    public void testSameWorldRegistered() {
+        World nether = mock(World.class);
+        World other = mock(World.class);
+        World otherNether = mock(World.class);
+        when(iwm.getOverWorld(world)).thenReturn(world);
+        when(iwm.getOverWorld(nether)).thenReturn(world);
+        when(iwm.getOverWorld(other)).thenReturn(other);
+        when(iwm.getOverWorld(otherNether)).thenReturn(other);
+        // Names are not used for worlds registered by game modes
+        assertTrue(Util.sameWorld(world, nether));
+        assertTrue(Util.sameWorld(nether, world));
+        assertFalse(Util.sameWorld(nether, otherNether));
+        assertFalse(Util.sameWorld(world, other));
+        Mockito.verify(nether, Mockito.never()).getName();
+    }
+
     /**
      * Test method for {@link world.bentobox.bentobox.util.Util#getWorld(org.bukkit.World)}.
      */
     @Test
     public void testGetWorld() {
-        //fail("Not yet implemented"); // TODO
+        when(world.getEnvironment()).thenReturn(World.Environment.NORMAL);
+        assertEquals(world, Util.getWorld(world));
+        assertNull(Util.getWorld(null));
+        // Registered by a game mode
+        World nether = mock(World.class);
+        when(nether.getEnvironment()).thenReturn(World.Environment.NETHER);
+        when(iwm.getOverWorld(nether)).thenReturn(world);
+        assertEquals(world, Util.getWorld(nether));
+        Mockito.verify(nether, Mockito.never()).getName();
+        // Not registered
+        World end = mock(World.class);
+        when(end.getEnvironment()).thenReturn(World.Environment.THE_END);
+        when(end.getName()).thenReturn("world_name_the_end");
+        when(Bukkit.getWorld("world_name")).thenReturn(world);
+        assertEquals(world, Util.getWorld(end));
     }
 
     /**
@@ -1,15 +1,22 @@
 package world.bentobox.bentobox.util.teleport;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Logger;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
+import org.bukkit.Material;
 import org.bukkit.Server;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -22,6 +29,7 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
@@ -29,6 +37,8 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
+import io.papermc.lib.PaperLib;
+import io.papermc.lib.environments.CraftBukkitEnvironment;
 import world.bentobox.bentobox.BentoBox;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.objects.Island;
@@ -56,6 +66,10 @@ public class SafeSpotTeleportTest {
     private Player player;
     @Mock
     private Location loc;
+    @Mock
+    private Chunk chunk;
+    @Mock
+    private ChunkSnapshot snapshot;
 
 
     @Before
@@ -114,6 +128,27 @@ public class SafeSpotTeleportTest {
         when(loc.getBlockZ()).thenReturn(0);
         Block block = mock(Block.class);
         when(loc.getBlock()).thenReturn(block);
+
+        // Forget the spots found by other tests
+        Whitebox.<Map<?, ?>>getInternalState(SafeSpotTeleport.class, "safeSpots").clear();
+        // Chunks load straight away and tasks run straight away
+        when(Bukkit.getVersion()).thenReturn("Paper version git-Paper-225 (MC: 1.14.4) (Implementing API version 1.14.4-R0.1-SNAPSHOT)");
+        PaperLib.setCustomEnvironment(new CraftBukkitEnvironment());
+        when(sch.runTask(any(), any(Runnable.class))).thenAnswer(i -> {
+            ((Runnable)i.getArgument(1)).run();
+            return null;
+        });
+        when(sch.runTaskAsynchronously(any(), any(Runnable.class))).thenAnswer(i -> {
+            ((Runnable)i.getArgument(1)).run();
+            return null;
+        });
+        // Chunk with stone at y = 5 and air above
+        when(world.getChunkAt(anyInt(), anyInt())).thenReturn(chunk);
+        when(chunk.getChunkSnapshot()).thenReturn(snapshot);
+        when(snapshot.getHighestBlockYAt(anyInt(), anyInt())).thenReturn(5);
+        when(snapshot.getBlockType(anyInt(), anyInt(), anyInt())).thenReturn(Material.AIR);
+        when(snapshot.getBlockType(anyInt(), eq(5), anyInt())).thenReturn(Material.STONE);
+        when(im.checkIfSafe(any(), eq(Material.STONE), eq(Material.AIR), eq(Material.AIR))).thenReturn(true);
     }
 
     @After
@@ -150,4 +185,63 @@ public class SafeSpotTeleportTest {
         Mockito.verify(player, Mockito.never()).teleport(loc);
         Mockito.verify(sch).runTaskTimer(Mockito.any(), Mockito.any(Runnable.class), Mockito.eq(0L), Mockito.eq(1L));
     }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.util.teleport.SafeSpotTeleport.Builder#build()}.
+     */
+    @Test
+    public void testSafeSpotTeleportScanAndCache() {
+        Location target = new Location(world, 0, 120, 0);
+        Location spot = new Location(world, 0.5D, 6D, 0.5D);
+        when(im.isSafeLocation(any())).thenReturn(false);
+        when(im.isSafeLocation(spot)).thenReturn(true);
+        new SafeSpotTeleport.Builder(plugin).entity(player).location(target).build();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(sch).runTaskTimer(eq(plugin), captor.capture(), eq(0L), eq(1L));
+        // Scan the chunk, the surface is safe
+        captor.getValue().run();
+        Mockito.verify(snapshot, Mockito.never()).getBlockType(anyInt(), eq(0), anyInt());
+        Mockito.verify(player).teleport(eq(spot), any());
+        // The next teleport goes straight there without scanning
+        new SafeSpotTeleport.Builder(plugin).entity(player).location(target).build();
+        Mockito.verify(sch, times(1)).runTaskTimer(any(), any(Runnable.class), Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(player, times(2)).teleport(eq(spot), any());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.util.teleport.SafeSpotTeleport.Builder#build()}.
+     */
+    @Test
+    public void testSafeSpotTeleportCachedSpotNotSafe() {
+        Location target = new Location(world, 0, 120, 0);
+        Location spot = new Location(world, 0.5D, 6D, 0.5D);
+        when(im.isSafeLocation(any())).thenReturn(false);
+        new SafeSpotTeleport.Builder(plugin).entity(player).location(target).build();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(sch).runTaskTimer(eq(plugin), captor.capture(), eq(0L), eq(1L));
+        captor.getValue().run();
+        Mockito.verify(player).teleport(eq(spot), any());
+        // The spot is no longer safe, so it is scanned for again
+        new SafeSpotTeleport.Builder(plugin).entity(player).location(target).build();
+        Mockito.verify(sch, times(2)).runTaskTimer(any(), any(Runnable.class), Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    /**
+     * Test method for {@link world.bentobox.bentobox.util.teleport.SafeSpotTeleport.Builder#build()}.
+     */
+    @Test
+    public void testSafeSpotTeleportPortalNotFoundNotCached() {
+        Location target = new Location(world, 0, 120, 0);
+        new SafeSpotTeleport.Builder(plugin).entity(player).location(target).portal().build();
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(sch).runTaskTimer(eq(plugin), captor.capture(), eq(0L), eq(1L));
+        // Scan the chunk, there is no portal
+        captor.getValue().run();
+        // Nothing left to scan, so go to the fallback
+        captor.getValue().run();
+        Mockito.verify(player).teleport(eq(target), any());
+        // The fallback is not remembered, so the next portal teleport looks for a portal again
+        new SafeSpotTeleport.Builder(plugin).entity(player).location(target).portal().build();
+        Mockito.verify(sch, times(2)).runTaskTimer(any(), any(Runnable.class), Mockito.anyLong(), Mockito.anyLong());
+    }
 }